@@ -22,6 +22,7 @@ import java.io.*;
 import java.net.URL;
 import java.nio.file.FileSystems;
 import java.util.*;
+import java.util.List;
 import java.util.Timer;
 import javax.imageio.ImageIO;
 import javax.swing.*;
@@ -80,6 +81,7 @@ public abstract class AbstractMainView extends JPanel
 	public static final String AUTO_INSERT_CLOSING_CURLYS		= "MainView.autoInsertClosingCurlys";
 	public static final String CURRENT_DOCUMENT_PROPERTY		= "MainView.currentDocument";
 	public static final String DEFAULT_ENCODING_PROPERTY		= "MainView.defaultEncoding";
+	public static final String FILE_SAVED_PROPERTY			= "MainView.fileSaved";
 	public static final String FILE_SIZE_CHECK_PROPERTY		= "MainView.fileSizeCheck";
 	public static final String FRACTIONAL_METRICS_PROPERTY		= "MainView.fractionalMetrics";
 	public static final String MARK_ALL_COLOR_PROPERTY		= "MainView.markAllColor";
@@ -810,7 +812,7 @@ public abstract class AbstractMainView extends JPanel
 
 		// Add any parsers.
 		if (spellingSupport.isSpellCheckingEnabled()) {
-			pane.addParser(spellingSupport.getSpellingParser());
+			spellingSupport.installSpellingParser(pane);
 		}
 
 		// Override the default Insert key action to one that toggles the text
@@ -1203,6 +1205,19 @@ public abstract class AbstractMainView extends JPanel
 	}
 
 
+	/**
+	 * Returns the files containing matches found by the last Find in Files
+	 * search.  Unlike {@link #getFindInFilesDialog()}, this doesn't create
+	 * the dialog if it hasn't been used.
+	 *
+	 * @return The files.  This is empty if no search has been done.
+	 */
+	public List<File> getFindInFilesResults() {
+		return findInFilesDialog==null ? Collections.emptyList() :
+				findInFilesDialog.getMatchedFiles();
+	}
+
+
 	/**
 	 * Returns the color to use for the background of fold icons.
 	 *
@@ -2810,7 +2825,8 @@ public abstract class AbstractMainView extends JPanel
 	 * If the file is named "Untitled.txt", this action is essentially a
 	 * "Save As" - the user is then prompted for a name to save with.<p>
 	 *
-	 * If an IO error occurs, the user is notified.
+	 * If an IO error occurs, the user is notified.  If the save succeeds, a
+	 * property change event of type {@link #FILE_SAVED_PROPERTY} is fired.
 	 *
 	 * @return <code>true</code> if the save is successful, <code>false</code>
 	 *         if the user cancels the save operation or an IO error occurs.
@@ -2828,6 +2844,7 @@ public abstract class AbstractMainView extends JPanel
 		// Try and write output to the current filename.
 		try {
 			currentTextArea.save();
+			firePropertyChange(FILE_SAVED_PROPERTY, null, currentTextArea);
 			return true;
 		} catch (Exception e) {
 			String temp = owner.getString("ErrorWritingFile",
@@ -2933,7 +2950,8 @@ public abstract class AbstractMainView extends JPanel
 	/**
 	 * Attempts to save the currently active file with a new name.  If the
 	 * save is successful, the current editor is renamed to the new name; if
-	 * the save fails, the name doesn't change.
+	 * the save fails, the name doesn't change.  If the save succeeds, a
+	 * property change event of type {@link #FILE_SAVED_PROPERTY} is fired.
 	 *
 	 * @param loc The location to save the file to.
 	 * @return <code>true</code> if the save is successful, <code>false</code>
@@ -2967,6 +2985,7 @@ public abstract class AbstractMainView extends JPanel
 		// needs its number removed.  So we'll renumber filenames.
 		renumberDisplayNames();
 
+		firePropertyChange(FILE_SAVED_PROPERTY, null, currentTextArea);
 		return true;
 
 	}
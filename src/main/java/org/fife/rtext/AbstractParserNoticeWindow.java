@@ -16,8 +16,12 @@ import java.awt.Dimension;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import javax.swing.BorderFactory;
 import javax.swing.Icon;
@@ -26,8 +30,8 @@ import javax.swing.JTable;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.border.Border;
+import javax.swing.table.AbstractTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
-import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 import javax.swing.table.TableCellRenderer;
 import javax.swing.table.TableColumnModel;
@@ -165,21 +169,91 @@ public abstract class AbstractParserNoticeWindow extends DockableWindow {
 
 
 	/**
-	 * Basic model for tables displaying parser notices.
+	 * Basic model for tables displaying parser notices.<p>
+	 *
+	 * Notices are grouped by the text area they came from, and notices for
+	 * files that aren't open (i.e. identified only by their path) are kept
+	 * in a group of their own.  When a text area's notices are updated, the
+	 * new notices are diffed against the old ones, so unchanged rows are
+	 * kept and at most one bulk insert or delete event is fired.  This keeps
+	 * the EDT from re-sorting the table once per notice as files are
+	 * re-parsed.
 	 */
-	protected abstract class ParserNoticeTableModel extends DefaultTableModel {
+	protected abstract class ParserNoticeTableModel extends AbstractTableModel {
+
+		private final String[] columnNames;
+
+		/**
+		 * All rows, with each text area's rows stored contiguously.
+		 */
+		private final List<Object[]> rows;
+
+		/**
+		 * The number of rows for each text area, in the order their rows
+		 * appear in {@code rows}.  The {@code null} key holds rows for files
+		 * that aren't open.
+		 */
+		private final Map<RTextEditorPane, Integer> rowCounts;
 
 		public ParserNoticeTableModel(String lastColHeader) {
-			String[] colHeaders = new String[] {
+			columnNames = new String[] {
 					"",
 					rtext.getString("ParserNoticeList.File"),
 					rtext.getString("ParserNoticeList.Line"),
 					lastColHeader, };
-			setColumnIdentifiers(colHeaders);
+			rows = new ArrayList<>();
+			rowCounts = new LinkedHashMap<>();
 		}
 
-		protected abstract void addNoticesImpl(RTextEditorPane textArea,
-												List<ParserNotice> notices);
+		/**
+		 * Adds rows for files that are not open in a text area after the
+		 * existing ones.  Unlike {@link #replaceFileRows(List)}, the
+		 * existing rows aren't compared against anything, so this is cheap
+		 * even when there are many of them.
+		 *
+		 * @param newRows The new rows.  The second element of each row
+		 *        should be the full path of a file.
+		 */
+		public void addFileRows(List<Object[]> newRows) {
+
+			if (newRows.isEmpty()) {
+				return;
+			}
+			wrapFiles(newRows);
+
+			Integer count = rowCounts.get(null);
+			int oldCount = count==null ? 0 : count;
+			int from = getStartRow(null) + oldCount;
+			rows.addAll(from, newRows);
+			rowCounts.put(null, oldCount + newRows.size());
+			fireTableRowsInserted(from, from + newRows.size() - 1);
+
+		}
+
+		/**
+		 * Removes all notices from this model.
+		 */
+		public void clear() {
+			int count = rows.size();
+			if (count>0) {
+				rows.clear();
+				rowCounts.clear();
+				fireTableRowsDeleted(0, count - 1);
+			}
+		}
+
+		/**
+		 * Returns the row to display for a notice.
+		 *
+		 * @param textArea The text area the notice is for.  This may be
+		 *        {@code null} if the notice is for a file that isn't open.
+		 * @param notice The notice.
+		 * @return The row data: the icon, the text area or full path of the
+		 *         file, the line number, and the message.  If the notice
+		 *         should not be displayed, {@code null} is returned.
+		 */
+		protected abstract Object[] createRow(RTextEditorPane textArea,
+												ParserNotice notice);
 
 		@Override
 		public Class<?> getColumnClass(int col) {
@@ -187,21 +261,46 @@ public abstract class AbstractParserNoticeWindow extends DockableWindow {
 				case 0 -> Icon.class;
 				case 1 -> TextAreaWrapper.class;
 				case 2 -> Integer.class;
-				default -> super.getColumnClass(col);
+				default -> Object.class;
 			};
 		}
 
 		@Override
-		public void addRow(Object[] data) {
-			// NOTE: It's valid for data[1] to be Strings, in which case
-			// it's taken to be the full path of a file.
-			if (data[1] instanceof RTextEditorPane pane) {
-				data[1] = new TextAreaWrapper(pane);
-			}
-			else if (data[1] instanceof String str) {
-				data[1] = new TextAreaWrapper(str);
+		public int getColumnCount() {
+			return columnNames.length;
+		}
+
+		@Override
+		public String getColumnName(int col) {
+			return columnNames[col];
+		}
+
+		@Override
+		public int getRowCount() {
+			return rows.size();
+		}
+
+		/**
+		 * Returns the index of the first row for a text area.
+		 *
+		 * @param textArea The text area.
+		 * @return The index of its first row.  If the text area has no rows,
+		 *         this is the index its rows would be appended at.
+		 */
+		private int getStartRow(RTextEditorPane textArea) {
+			int start = 0;
+			for (Map.Entry<RTextEditorPane, Integer> entry : rowCounts.entrySet()) {
+				if (entry.getKey()==textArea) {
+					break;
+				}
+				start += entry.getValue();
 			}
-			super.addRow(data);
+			return start;
+		}
+
+		@Override
+		public Object getValueAt(int row, int col) {
+			return rows.get(row)[col];
 		}
 
 		@Override
@@ -210,35 +309,138 @@ public abstract class AbstractParserNoticeWindow extends DockableWindow {
 		}
 
 		/**
-		 * Replaces notices in this window with new ones.
+		 * Replaces all notices for files that are not open in a text area,
+		 * i.e. rows whose file is identified by its full path, with new
+		 * ones.
+		 *
+		 * @param rows The new rows.  The second element of each row should
+		 *        be the full path of a file.
+		 */
+		public void replaceFileRows(List<Object[]> rows) {
+			setRows(null, rows);
+		}
+
+		/**
+		 * Returns whether two rows display the same thing.
+		 */
+		private static boolean rowsEqual(Object[] row1, Object[] row2) {
+			return row1[0]==row2[0] && Objects.equals(row1[2], row2[2]) &&
+					Objects.equals(row1[3], row2[3]) &&
+					Objects.equals(row1[1], row2[1]);
+		}
+
+		/**
+		 * Replaces the rows for a text area.  Rows common to the start and
+		 * end of the old and new lists are left alone, and only the rows in
+		 * between are updated, inserted or deleted.
+		 *
+		 * @param textArea The text area, or {@code null} for rows for files
+		 *        that aren't open.
+		 * @param newRows The new rows for the text area.
+		 */
+		private void setRows(RTextEditorPane textArea, List<Object[]> newRows) {
+
+			wrapFiles(newRows);
+
+			int start = getStartRow(textArea);
+			Integer count = rowCounts.get(textArea);
+			int oldCount = count==null ? 0 : count;
+			int newCount = newRows.size();
+			int min = Math.min(oldCount, newCount);
+
+			int prefix = 0;
+			while (prefix<min && rowsEqual(rows.get(start + prefix), newRows.get(prefix))) {
+				prefix++;
+			}
+			int suffix = 0;
+			while (suffix<min - prefix && rowsEqual(
+					rows.get(start + oldCount - 1 - suffix),
+					newRows.get(newCount - 1 - suffix))) {
+				suffix++;
+			}
+
+			if (newCount==0) {
+				rowCounts.remove(textArea);
+			}
+			else {
+				rowCounts.put(textArea, newCount);
+			}
+
+			int removeCount = oldCount - prefix - suffix;
+			int insertCount = newCount - prefix - suffix;
+			int replaceCount = Math.min(removeCount, insertCount);
+			int from = start + prefix;
+
+			for (int i=0; i<replaceCount; i++) {
+				rows.set(from + i, newRows.get(prefix + i));
+			}
+			if (replaceCount>0) {
+				fireTableRowsUpdated(from, from + replaceCount - 1);
+			}
+
+			from += replaceCount;
+			if (removeCount>replaceCount) {
+				int delta = removeCount - replaceCount;
+				rows.subList(from, from + delta).clear();
+				fireTableRowsDeleted(from, from + delta - 1);
+			}
+			else if (insertCount>replaceCount) {
+				int delta = insertCount - replaceCount;
+				rows.addAll(from, newRows.subList(prefix + replaceCount,
+						prefix + insertCount));
+				fireTableRowsInserted(from, from + delta - 1);
+			}
+
+		}
+
+		/**
+		 * Replaces notices in this window with new ones.  Only the rows
+		 * that actually change are updated, so the selection and scroll
+		 * position are kept when the same notices are reported again.
 		 *
 		 * @param textArea The text area whose notices should be replaced.
-		 *        If this is <code>null</code>, all notices are replaced.
+		 *        If this is <code>null</code>, the notices are for files
+		 *        that aren't open, and replace all such notices, as in
+		 *        {@link #replaceFileRows(List)}.
 		 * @param notices The notices to add.  This may be <code>null</code>.
+		 * @see #clear()
 		 */
 		public void update(RTextEditorPane textArea,
 				List<ParserNotice> notices) {
 
-			if (textArea == null) {
-				setRowCount(0);
-			}
-			else {
-				for (int i=0; i<getRowCount(); i++) {
-					TextAreaWrapper wrapper = (TextAreaWrapper)getValueAt(i, 1);
-					RTextEditorPane textArea2 = wrapper.textArea;
-					if (textArea2==textArea) {
-						removeRow(i);
-						i--;
+			List<Object[]> newRows = new ArrayList<>();
+			if (notices!=null) {
+				for (ParserNotice notice : notices) {
+					Object[] row = createRow(textArea, notice);
+					if (row!=null) {
+						newRows.add(row);
 					}
 				}
 			}
 
-			if (notices!=null) {
-				addNoticesImpl(textArea, notices);
-			}
+			setRows(textArea, newRows);
 
 		}
 
+		/**
+		 * Replaces the text areas and file paths in rows with the wrappers
+		 * displayed in the table.
+		 *
+		 * @param newRows The rows.
+		 */
+		private void wrapFiles(List<Object[]> newRows) {
+			for (Object[] row : newRows) {
+				// NOTE: It's valid for row[1] to be Strings, in which case
+				// it's taken to be the full path of a file.
+				if (row[1] instanceof RTextEditorPane pane) {
+					row[1] = new TextAreaWrapper(pane);
+				}
+				else if (row[1] instanceof String str) {
+					row[1] = new TextAreaWrapper(str);
+				}
+			}
+		}
+
 	}
 
 
@@ -285,6 +487,18 @@ public abstract class AbstractParserNoticeWindow extends DockableWindow {
 			return toString().compareTo(o.toString());
 		}
 
+		@Override
+		public boolean equals(Object o) {
+			return o instanceof TextAreaWrapper other &&
+					textArea==other.textArea &&
+					Objects.equals(fileFullPath, other.fileFullPath);
+		}
+
+		@Override
+		public int hashCode() {
+			return textArea!=null ? textArea.hashCode() : Objects.hashCode(fileFullPath);
+		}
+
 		@Override
 		public String toString() {
 			return textArea != null ? textArea.getFileName() : fileFullPath;
@@ -0,0 +1,347 @@
+/*
+ * 10/19/2026
+ *
+ * CompactSpellDictionary.java - A memory-efficient spelling dictionary.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.fife.com.swabunga.spell.engine.SpellDictionaryASpell;
+
+
+/**
+ * A read-mostly spelling dictionary that stores its words in a trie made
+ * of primitive arrays.<p>
+ *
+ * The standard <code>SpellDictionaryHashMap</code> keeps every word in a
+ * <code>List</code> hanging off a <code>HashMap</code> keyed by phonetic
+ * code, which costs several objects per word.  Here, each trie node is just
+ * an entry in a few parallel arrays, shared prefixes are stored only once,
+ * and words are referenced by the index of their last node.  The phonetic
+ * codes needed for suggestions are kept in a sorted array, each pointing to
+ * a range of word indices.<p>
+ *
+ * Words added after the dictionary is built (e.g. by the user choosing "Add
+ * to dictionary") are kept in a small hash-based overlay.  Instances are
+ * safe to share across threads and windows.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class CompactSpellDictionary extends SpellDictionaryASpell {
+
+	private final char[] labels;
+	private final int[] parents;
+	private final int[] firstChildren;
+	private final int[] nextSiblings;
+	private final boolean[] terminals;
+
+	private final String[] codes;
+	private final int[] codeStarts;
+	private final int[] codeWords;
+
+	private final Set<String> addedWords;
+	private final Map<String, List<String>> addedWordsByCode;
+
+	private static final int ROOT = 0;
+	private static final int NONE = -1;
+
+
+	/**
+	 * Creates a dictionary from word lists, one word per line.
+	 *
+	 * @param readers The word lists.  These are not closed.
+	 * @throws IOException If an IO error occurs.
+	 */
+	CompactSpellDictionary(BufferedReader... readers) throws IOException {
+
+		super((File)null); // Use the default phonetic transformation
+
+		List<String> words = new ArrayList<>();
+		for (BufferedReader r : readers) {
+			String line;
+			while ((line = r.readLine())!=null) {
+				line = line.trim();
+				if (!line.isEmpty()) {
+					words.add(line);
+				}
+			}
+		}
+		Collections.sort(words);
+
+		Builder builder = new Builder(words.size() * 3);
+		String prev = "";
+		int wordCount = 0;
+		int[] terminalNodes = new int[words.size()];
+		for (String word : words) {
+			if (!word.equals(prev)) {
+				terminalNodes[wordCount++] = builder.add(prev, word);
+				prev = word;
+			}
+		}
+
+		int nodeCount = builder.nodeCount;
+		labels = Arrays.copyOf(builder.labels, nodeCount);
+		parents = Arrays.copyOf(builder.parents, nodeCount);
+		firstChildren = Arrays.copyOf(builder.firstChildren, nodeCount);
+		nextSiblings = Arrays.copyOf(builder.nextSiblings, nodeCount);
+		terminals = Arrays.copyOf(builder.terminals, nodeCount);
+
+		// Index the words by phonetic code, for suggestions.
+		String[] wordCodes = new String[wordCount];
+		Integer[] order = new Integer[wordCount];
+		for (int i=0; i<wordCount; i++) {
+			wordCodes[i] = getCode(getWord(terminalNodes[i]));
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> wordCodes[a].compareTo(wordCodes[b]));
+
+		List<String> uniqueCodes = new ArrayList<>();
+		int[] starts = new int[wordCount + 1];
+		codeWords = new int[wordCount];
+		for (int i=0; i<wordCount; i++) {
+			String code = wordCodes[order[i]];
+			if (uniqueCodes.isEmpty() ||
+					!uniqueCodes.get(uniqueCodes.size() - 1).equals(code)) {
+				starts[uniqueCodes.size()] = i;
+				uniqueCodes.add(code);
+			}
+			codeWords[i] = terminalNodes[order[i]];
+		}
+		codes = uniqueCodes.toArray(new String[0]);
+		starts[codes.length] = wordCount;
+		codeStarts = Arrays.copyOf(starts, codes.length + 1);
+
+		addedWords = ConcurrentHashMap.newKeySet();
+		addedWordsByCode = new ConcurrentHashMap<>();
+
+	}
+
+
+	/**
+	 * Adds a word to this dictionary.  It is only kept in memory.
+	 *
+	 * @param word The word to add.
+	 * @return Whether the word was added (i.e. whether it wasn't already in
+	 *         this dictionary).
+	 */
+	@Override
+	public boolean addWord(String word) {
+		if (contains(word) || !addedWords.add(word)) {
+			return false;
+		}
+		addedWordsByCode.computeIfAbsent(getCode(word),
+				k -> Collections.synchronizedList(new ArrayList<>())).add(word);
+		return true;
+	}
+
+
+	/**
+	 * Returns whether a word is in this dictionary, exactly as specified
+	 * (case-sensitive).
+	 *
+	 * @param word The word.
+	 * @return Whether the word is in this dictionary.
+	 */
+	private boolean contains(String word) {
+		int node = findNode(word);
+		return (node!=NONE && terminals[node]) || addedWords.contains(word);
+	}
+
+
+	/**
+	 * Returns the node for the last character of a string.
+	 *
+	 * @param text The string.
+	 * @return The node, or {@link #NONE} if no word starts with the string.
+	 */
+	private int findNode(String text) {
+		int node = ROOT;
+		for (int i=0; i<text.length() && node!=NONE; i++) {
+			char ch = text.charAt(i);
+			int child = firstChildren[node];
+			while (child!=NONE && labels[child]<ch) {
+				child = nextSiblings[child];
+			}
+			node = child!=NONE && labels[child]==ch ? child : NONE;
+		}
+		return node;
+	}
+
+
+	/**
+	 * Returns the word ending at a node.
+	 *
+	 * @param node The node.
+	 * @return The word.
+	 */
+	private String getWord(int node) {
+		int length = 0;
+		for (int n=node; n!=ROOT; n=parents[n]) {
+			length++;
+		}
+		char[] chars = new char[length];
+		for (int n=node; n!=ROOT; n=parents[n]) {
+			chars[--length] = labels[n];
+		}
+		return new String(chars);
+	}
+
+
+	/**
+	 * Returns the words with a specific phonetic code.  This is used when
+	 * generating spelling suggestions.
+	 *
+	 * @param phoneticCode The phonetic code.
+	 * @return The words with that code.
+	 */
+	@Override
+	protected List<String> getWords(String phoneticCode) {
+
+		List<String> words = new ArrayList<>();
+
+		int index = Arrays.binarySearch(codes, phoneticCode);
+		if (index>=0) {
+			for (int i=codeStarts[index]; i<codeStarts[index + 1]; i++) {
+				words.add(getWord(codeWords[i]));
+			}
+		}
+
+		List<String> added = addedWordsByCode.get(phoneticCode);
+		if (added!=null) {
+			synchronized (added) {
+				words.addAll(added);
+			}
+		}
+
+		return words;
+
+	}
+
+
+	/**
+	 * Returns the number of words in this dictionary.
+	 *
+	 * @return The number of words.
+	 */
+	int getWordCount() {
+		return codeWords.length + addedWords.size();
+	}
+
+
+	/**
+	 * Returns whether a word is spelled correctly.  As with the other
+	 * dictionary implementations, a word is also considered correct if its
+	 * lower-case form is in the dictionary.
+	 *
+	 * @param word The word to check.
+	 * @return Whether the word is spelled correctly.
+	 */
+	@Override
+	public boolean isCorrect(String word) {
+		return contains(word) || contains(word.toLowerCase());
+	}
+
+
+	/**
+	 * Builds the trie arrays.  Words must be added in sorted order, which
+	 * means a new node is always the last child of its parent, and siblings
+	 * end up sorted by character.
+	 */
+	private static final class Builder {
+
+		private char[] labels;
+		private int[] parents;
+		private int[] firstChildren;
+		private int[] nextSiblings;
+		private boolean[] terminals;
+		private int nodeCount;
+		private int[] path;
+
+		private Builder(int initialCapacity) {
+			initialCapacity = Math.max(16, initialCapacity);
+			labels = new char[initialCapacity];
+			parents = new int[initialCapacity];
+			firstChildren = new int[initialCapacity];
+			nextSiblings = new int[initialCapacity];
+			terminals = new boolean[initialCapacity];
+			path = new int[64];
+			createNode('\0', NONE); // Root
+		}
+
+		/**
+		 * Adds a word.
+		 *
+		 * @param prev The previously added word.
+		 * @param word The word to add.  This must sort after {@code prev}.
+		 * @return The node for the last character of the word.
+		 */
+		private int add(String prev, String word) {
+
+			int common = 0;
+			int max = Math.min(prev.length(), word.length());
+			while (common<max && prev.charAt(common)==word.charAt(common)) {
+				common++;
+			}
+
+			if (word.length()>=path.length) {
+				path = Arrays.copyOf(path, word.length() * 2);
+			}
+
+			// The last child of the branching node, if any, is the next node
+			// along the previous word's path.
+			int lastChild = prev.length()>common ? path[common + 1] : NONE;
+			int node = path[common];
+			for (int i=common; i<word.length(); i++) {
+				int child = createNode(word.charAt(i), node);
+				if (lastChild==NONE) {
+					firstChildren[node] = child;
+				}
+				else {
+					nextSiblings[lastChild] = child;
+				}
+				path[i + 1] = child;
+				node = child;
+				lastChild = NONE;
+			}
+
+			terminals[node] = true;
+			return node;
+
+		}
+
+		private int createNode(char label, int parent) {
+			if (nodeCount==labels.length) {
+				int newCapacity = nodeCount * 2;
+				labels = Arrays.copyOf(labels, newCapacity);
+				parents = Arrays.copyOf(parents, newCapacity);
+				firstChildren = Arrays.copyOf(firstChildren, newCapacity);
+				nextSiblings = Arrays.copyOf(nextSiblings, newCapacity);
+				terminals = Arrays.copyOf(terminals, newCapacity);
+			}
+			int node = nodeCount++;
+			labels[node] = label;
+			parents[node] = parent;
+			firstChildren[node] = NONE;
+			nextSiblings[node] = NONE;
+			return node;
+		}
+
+	}
+
+
+}
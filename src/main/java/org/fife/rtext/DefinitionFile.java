@@ -0,0 +1,301 @@
+/*
+ * 10/19/2026
+ *
+ * DefinitionFile.java - A compact file of user-defined objects.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+
+/**
+ * A file of definitions of user-defined objects, such as tools and macros.<p>
+ *
+ * Definitions used to be saved with {@code XMLEncoder}, but
+ * {@code XMLDecoder} is slow to initialize and uses reflection to find
+ * each bean property, and it needs the thread's context class loader
+ * swapped to find plugin classes.  This class stores definitions as a
+ * properties file instead.  Callers map each field explicitly, so there is no
+ * introspection, and the files don't depend on class names.<p>
+ *
+ * Each definition is a numbered record.  A field's key is
+ * "<i>record</i>.<i>field</i>".  List fields are stored as one key per
+ * element, "<i>record</i>.<i>field</i>.<i>index</i>", and map fields as one
+ * key per entry, "<i>record</i>.<i>field</i>.<i>name</i>".  The file also
+ * records the type of object it holds and a format version, so it can be
+ * migrated if the fields change.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class DefinitionFile {
+
+	private final Properties props;
+
+	/**
+	 * The keys of each record's fields, built the first time a map field
+	 * is read.
+	 */
+	private Map<Integer, List<String>> recordKeys;
+
+	private static final String KEY_TYPE = "type";
+	private static final String KEY_VERSION = "version";
+	private static final String KEY_COUNT = "count";
+
+
+	/**
+	 * Creates an empty file, to add definitions to.
+	 *
+	 * @param type The type of object the file holds, e.g. "{@code tool}".
+	 * @param version The version of the format of the definitions.
+	 * @see #add()
+	 * @see #save(File)
+	 */
+	public DefinitionFile(String type, int version) {
+		props = new Properties();
+		props.setProperty(KEY_TYPE, type);
+		props.setProperty(KEY_VERSION, Integer.toString(version));
+		props.setProperty(KEY_COUNT, "0");
+	}
+
+
+	private DefinitionFile(Properties props) {
+		this.props = props;
+	}
+
+
+	/**
+	 * Adds a record for a definition.
+	 *
+	 * @return The index of the record.
+	 */
+	public int add() {
+		int record = getCount();
+		props.setProperty(KEY_COUNT, Integer.toString(record + 1));
+		return record;
+	}
+
+
+	/**
+	 * Returns the value of a boolean field.
+	 *
+	 * @param record The index of the record.
+	 * @param field The field.
+	 * @return The value, or {@code false} if the field isn't set.
+	 */
+	public boolean getBoolean(int record, String field) {
+		return Boolean.parseBoolean(getString(record, field));
+	}
+
+
+	/**
+	 * Returns the number of definitions in this file.
+	 *
+	 * @return The number of definitions.
+	 */
+	public int getCount() {
+		return getInt(KEY_COUNT);
+	}
+
+
+	private int getInt(String key) {
+		try {
+			return Integer.parseInt(props.getProperty(key, "0"));
+		} catch (NumberFormatException nfe) {
+			return 0;
+		}
+	}
+
+
+	/**
+	 * Returns the value of a list field.
+	 *
+	 * @param record The index of the record.
+	 * @param field The field.
+	 * @return The values, in order.  This is empty if the field isn't set.
+	 */
+	public List<String> getList(int record, String field) {
+		List<String> values = new ArrayList<>();
+		String prefix = record + "." + field + ".";
+		String value;
+		while ((value=props.getProperty(prefix + values.size()))!=null) {
+			values.add(value);
+		}
+		return values;
+	}
+
+
+	/**
+	 * Returns the value of a map field.
+	 *
+	 * @param record The index of the record.
+	 * @param field The field.
+	 * @return The entries.  This is empty if the field isn't set.
+	 */
+	public Map<String, String> getMap(int record, String field) {
+
+		if (recordKeys==null) {
+			recordKeys = new HashMap<>();
+			for (String key : props.stringPropertyNames()) {
+				int dot = key.indexOf('.');
+				if (dot>-1) {
+					try {
+						int index = Integer.parseInt(key.substring(0, dot));
+						recordKeys.computeIfAbsent(index, i -> new ArrayList<>()).
+								add(key);
+					} catch (NumberFormatException nfe) {
+						// Not a record's key
+					}
+				}
+			}
+		}
+
+		Map<String, String> map = new HashMap<>();
+		String prefix = record + "." + field + ".";
+		for (String key : recordKeys.getOrDefault(record, List.of())) {
+			if (key.startsWith(prefix)) {
+				map.put(key.substring(prefix.length()), props.getProperty(key));
+			}
+		}
+		return map;
+
+	}
+
+
+	/**
+	 * Returns the value of a field.
+	 *
+	 * @param record The index of the record.
+	 * @param field The field.
+	 * @return The value, or {@code null} if the field isn't set.
+	 */
+	public String getString(int record, String field) {
+		return props.getProperty(record + "." + field);
+	}
+
+
+	/**
+	 * Returns the version of the format of the definitions in this file.
+	 *
+	 * @return The version.
+	 */
+	public int getVersion() {
+		return getInt(KEY_VERSION);
+	}
+
+
+	/**
+	 * Loads a definition file.
+	 *
+	 * @param file The file.
+	 * @param type The type of object the file should hold.
+	 * @return The definitions.
+	 * @throws IOException If an IO error occurs, or the file doesn't hold
+	 *         objects of the specified type.
+	 */
+	public static DefinitionFile load(File file, String type) throws IOException {
+
+		Properties props = new Properties();
+		try (Reader r = Files.newBufferedReader(file.toPath(),
+				StandardCharsets.UTF_8)) {
+			props.load(r);
+		}
+
+		if (!type.equals(props.getProperty(KEY_TYPE))) {
+			throw new IOException("Not a " + type + " definition file: " +
+					file.getAbsolutePath());
+		}
+		return new DefinitionFile(props);
+
+	}
+
+
+	/**
+	 * Sets the value of a boolean field.
+	 *
+	 * @param record The index of the record.
+	 * @param field The field.
+	 * @param value The value.
+	 */
+	public void put(int record, String field, boolean value) {
+		put(record, field, Boolean.toString(value));
+	}
+
+
+	/**
+	 * Sets the value of a field.
+	 *
+	 * @param record The index of the record.
+	 * @param field The field.
+	 * @param value The value.  If this is {@code null}, the field isn't
+	 *        set.
+	 */
+	public void put(int record, String field, String value) {
+		if (value!=null) {
+			props.setProperty(record + "." + field, value);
+			recordKeys = null;
+		}
+	}
+
+
+	/**
+	 * Sets the value of a list field.
+	 *
+	 * @param record The index of the record.
+	 * @param field The field.
+	 * @param values The values.
+	 */
+	public void putList(int record, String field, List<String> values) {
+		for (int i=0; i<values.size(); i++) {
+			put(record, field + "." + i, values.get(i));
+		}
+	}
+
+
+	/**
+	 * Sets the value of a map field.
+	 *
+	 * @param record The index of the record.
+	 * @param field The field.
+	 * @param map The entries.
+	 */
+	public void putMap(int record, String field, Map<String, String> map) {
+		map.forEach((name, value) -> put(record, field + "." + name, value));
+	}
+
+
+	/**
+	 * Saves this file.  It's written to a temporary file first, which then
+	 * replaces the original, so definitions aren't lost if an error occurs
+	 * while writing.
+	 *
+	 * @param file The file to save to.
+	 * @throws IOException If an IO error occurs.
+	 */
+	public void save(File file) throws IOException {
+
+		FileUtil.writeAtomically(file, out -> {
+			Writer w = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+			props.store(w, "RText " + props.getProperty(KEY_TYPE) +
+					" definitions");
+		});
+
+	}
+
+
+}
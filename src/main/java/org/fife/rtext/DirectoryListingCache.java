@@ -0,0 +1,280 @@
+/*
+ * 10/19/2026
+ *
+ * DirectoryListingCache.java - Caches directory listings for file name
+ * completion.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+
+
+/**
+ * A small cache of directory listings, shared by the places in RText that
+ * complete file names as the user types, such as the system shell in the
+ * Console.<p>
+ *
+ * Directories are listed on a background thread, so completing a name in a
+ * huge directory or on a slow mount doesn't freeze the UI.  Listings are
+ * kept sorted so names starting with a prefix can be found by binary search.
+ * The cache holds a limited number of directories, dropping the least
+ * recently used ones, and listings are dropped as soon as the file system
+ * reports that a directory's contents have changed.  Listings also expire
+ * after a short while, since not all file systems report changes.<p>
+ *
+ * The methods of this class should be called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class DirectoryListingCache {
+
+	private final Map<Path, Listing> listings;
+	private final Map<Path, CompletableFuture<Listing>> pending;
+	private final FolderWatcher watcher;
+	private final ExecutorService lister;
+
+	private static final DirectoryListingCache INSTANCE = new DirectoryListingCache();
+
+	/**
+	 * The maximum number of directory listings to cache.
+	 */
+	private static final int MAX_SIZE = 64;
+
+	/**
+	 * How long a listing is used before it's considered stale.
+	 */
+	private static final long TTL_MILLIS = 10_000;
+
+	/**
+	 * The order of names in a listing.  Names starting with a given prefix,
+	 * ignoring case, are contiguous in this order.
+	 */
+	private static final Comparator<String> ORDER =
+			String.CASE_INSENSITIVE_ORDER.thenComparing(Comparator.naturalOrder());
+
+
+	private DirectoryListingCache() {
+
+		listings = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Path, Listing> eldest) {
+				if (size()>MAX_SIZE) {
+					watcher.unwatch(eldest.getKey());
+					return true;
+				}
+				return false;
+			}
+		};
+		pending = new HashMap<>();
+		watcher = new FolderWatcher(this::directoriesChanged);
+
+		lister = Executors.newSingleThreadExecutor(
+				ThreadUtil.createThreadFactory("RText Directory Lister"));
+
+	}
+
+
+	/**
+	 * Called on the EDT when the contents of directories change.
+	 *
+	 * @param dirs The directories.
+	 */
+	private void directoriesChanged(Set<Path> dirs) {
+		for (Path dir : dirs) {
+			invalidate(dir);
+		}
+	}
+
+
+	/**
+	 * Returns the shared instance of this class.
+	 *
+	 * @return The shared instance.
+	 */
+	public static DirectoryListingCache get() {
+		return INSTANCE;
+	}
+
+
+	/**
+	 * Returns the names of the files and directories in a directory that
+	 * start with a prefix.  If the directory's listing is cached, the
+	 * callback is called immediately; otherwise, it is called on the EDT
+	 * once the directory has been listed in the background.  Callers should
+	 * check whether the result is still relevant when it arrives.
+	 *
+	 * @param dir The directory.
+	 * @param prefix The prefix.  This may be empty.
+	 * @param caseSensitive Whether the prefix should be matched
+	 *        case-sensitively.
+	 * @param callback Receives the matching names, in sorted order.  This
+	 *        will be empty if nothing matches or the directory can't be read.
+	 */
+	public void getNamesStartingWith(File dir, String prefix,
+			boolean caseSensitive, Consumer<List<String>> callback) {
+
+		Path path = FolderWatcher.getPath(dir);
+
+		Listing listing = listings.get(path);
+		if (listing!=null && !listing.isExpired()) {
+			callback.accept(listing.getNamesStartingWith(prefix, caseSensitive));
+			return;
+		}
+
+		pending.computeIfAbsent(path, this::startListing).thenAccept(l ->
+				callback.accept(l.getNamesStartingWith(prefix, caseSensitive)));
+
+	}
+
+
+	/**
+	 * Drops the cached listing of a directory, if any.
+	 *
+	 * @param dir The directory.
+	 */
+	public void invalidate(File dir) {
+		invalidate(FolderWatcher.getPath(dir));
+	}
+
+
+	private void invalidate(Path dir) {
+		listings.remove(dir);
+		pending.remove(dir); // An in-progress listing may be out of date
+		watcher.unwatch(dir);
+	}
+
+
+	/**
+	 * Lists a directory in the background.  Listings of directories that
+	 * can't be read aren't cached, so they're tried again next time, e.g.
+	 * once a network share is reconnected.
+	 *
+	 * @param dir The directory.
+	 * @return A future that is completed on the EDT with the listing.
+	 */
+	private CompletableFuture<Listing> startListing(Path dir) {
+
+		// Watch before listing, so changes made while listing aren't missed
+		watcher.watch(dir);
+
+		CompletableFuture<Listing> future = new CompletableFuture<>();
+		lister.execute(() -> {
+			Listing listing = Listing.create(dir);
+			SwingUtilities.invokeLater(() -> {
+				if (pending.remove(dir, future)) { // Not invalidated meanwhile
+					if (listing!=null) {
+						listings.put(dir, listing);
+					}
+					else {
+						watcher.unwatch(dir);
+					}
+				}
+				future.complete(listing!=null ? listing : Listing.EMPTY);
+			});
+		});
+		return future;
+
+	}
+
+
+	/**
+	 * The sorted names of the files in a directory.
+	 */
+	private static final class Listing {
+
+		private final String[] names;
+		private final long time;
+
+		/**
+		 * Given to callers when a directory can't be read.
+		 */
+		static final Listing EMPTY = new Listing(new String[0]);
+
+		private Listing(String[] names) {
+			this.names = names;
+			time = System.currentTimeMillis();
+		}
+
+		/**
+		 * Lists a directory.  This is called off the EDT.
+		 *
+		 * @param dir The directory.
+		 * @return The listing, or {@code null} if the directory can't be
+		 *         read.
+		 */
+		static Listing create(Path dir) {
+			List<String> names = new ArrayList<>();
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+				for (Path path : stream) {
+					names.add(path.getFileName().toString());
+				}
+			} catch (IOException | DirectoryIteratorException e) {
+				// Not a directory, deleted, permission denied, etc.
+				return null;
+			}
+			String[] array = names.toArray(new String[0]);
+			Arrays.sort(array, ORDER);
+			return new Listing(array);
+		}
+
+		List<String> getNamesStartingWith(String prefix, boolean caseSensitive) {
+
+			// Find the first name not less than the prefix, ignoring case
+			int low = 0;
+			int high = names.length;
+			while (low<high) {
+				int mid = (low + high) >>> 1;
+				if (String.CASE_INSENSITIVE_ORDER.compare(names[mid], prefix)<0) {
+					low = mid + 1;
+				}
+				else {
+					high = mid;
+				}
+			}
+
+			List<String> matches = new ArrayList<>();
+			for (int i=low; i<names.length; i++) {
+				String name = names[i];
+				if (!name.regionMatches(true, 0, prefix, 0, prefix.length())) {
+					break;
+				}
+				if (!caseSensitive || name.startsWith(prefix)) {
+					matches.add(name);
+				}
+			}
+			return matches.isEmpty() ? Collections.emptyList() : matches;
+
+		}
+
+		boolean isExpired() {
+			return System.currentTimeMillis()-time>TTL_MILLIS;
+		}
+
+	}
+
+
+}
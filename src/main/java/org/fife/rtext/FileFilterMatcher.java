@@ -0,0 +1,387 @@
+/*
+ * 10/19/2026
+ *
+ * FileFilterMatcher.java - Matches file names against many file filters at once.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Matches file names against a set of wildcard file filters, such as
+ * <code>*.java</code> or <code>Makefile</code>, in a single pass.  Each
+ * filter has a value associated with it, and a lookup returns the value of
+ * the matching filter added last.<p>
+ *
+ * Filters are compiled by kind:
+ * <ul>
+ *    <li>Filters without wildcards are looked up in a hash map by name.
+ *    <li>Filters of the form <code>*.ext</code> are looked up in a hash map
+ *        by each suffix of the name that starts with a dot.
+ *    <li>All other filters are combined into a single automaton, which is
+ *        run over the name once no matter how many filters it contains.
+ * </ul>
+ * The cost of a lookup therefore depends on the length of the name, and
+ * hardly at all on the number of filters.<p>
+ *
+ * Filters may contain the wildcards <code>*</code>, matching any number of
+ * characters, and <code>?</code>, matching exactly one character.  All
+ * other characters match themselves.  Instances of this class are immutable
+ * and thread-safe.
+ *
+ * @param <V> The type of value associated with filters.
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class FileFilterMatcher<V> {
+
+	private final boolean caseSensitive;
+	private final Map<String, Integer> literals;
+	private final Map<String, Integer> suffixes;
+	private final List<V> values;
+
+	// The automaton, as parallel arrays indexed by node.  Each node's
+	// character transitions are a sorted slice of edgeChars/edgeTargets.
+	private final int nodeCount;
+	private final int[] edgeStarts;
+	private final char[] edgeChars;
+	private final int[] edgeTargets;
+	private final int[] anyTargets;
+	private final int[] starTargets;
+	private final boolean[] stars;
+	private final int[] accepts;
+
+	private static final int NONE = -1;
+
+
+	private FileFilterMatcher(Builder<V> builder) {
+
+		caseSensitive = builder.caseSensitive;
+		literals = builder.literals;
+		suffixes = builder.suffixes;
+		values = builder.values;
+
+		List<Builder.Node> nodes = builder.nodes;
+		nodeCount = nodes.size();
+		edgeStarts = new int[nodeCount + 1];
+		anyTargets = new int[nodeCount];
+		starTargets = new int[nodeCount];
+		stars = new boolean[nodeCount];
+		accepts = new int[nodeCount];
+
+		int edgeCount = 0;
+		for (Builder.Node node : nodes) {
+			edgeCount += node.edges.size();
+		}
+		edgeChars = new char[edgeCount];
+		edgeTargets = new int[edgeCount];
+
+		int edge = 0;
+		for (int i=0; i<nodeCount; i++) {
+			Builder.Node node = nodes.get(i);
+			edgeStarts[i] = edge;
+			Character[] chars = node.edges.keySet().toArray(new Character[0]);
+			Arrays.sort(chars);
+			for (Character ch : chars) {
+				edgeChars[edge] = ch;
+				edgeTargets[edge++] = node.edges.get(ch);
+			}
+			anyTargets[i] = node.any;
+			starTargets[i] = node.star;
+			stars[i] = node.isStar;
+			accepts[i] = node.accept;
+		}
+		edgeStarts[nodeCount] = edge;
+
+	}
+
+
+	/**
+	 * Adds an automaton node to a set of active nodes, along with any
+	 * nodes reachable from it without consuming a character.
+	 *
+	 * @param node The node to add.
+	 * @param active The set of active nodes.
+	 * @param count The number of nodes in <code>active</code>.
+	 * @param added Marks which nodes are in <code>active</code>.
+	 * @return The new number of nodes in <code>active</code>.
+	 */
+	private int addNode(int node, int[] active, int count, boolean[] added) {
+		while (node!=NONE && !added[node]) {
+			added[node] = true;
+			active[count++] = node;
+			node = starTargets[node]; // A '*' can match nothing
+		}
+		return count;
+	}
+
+
+	/**
+	 * Returns the value of the last-added filter matching a file name.
+	 *
+	 * @param name The file name, without any path.
+	 * @return The value, or {@code null} if no filter matches.
+	 * @see #matches(String)
+	 */
+	public V getMatch(String name) {
+		int match = getMatchIndex(name);
+		return match==NONE ? null : values.get(match);
+	}
+
+
+	/**
+	 * Returns the index of the last-added filter matching a file name.
+	 *
+	 * @param name The file name.
+	 * @return The index of the filter, or {@link #NONE} if no filter matches.
+	 */
+	private int getMatchIndex(String name) {
+
+		if (!caseSensitive) {
+			name = name.toLowerCase();
+		}
+
+		int best = NONE;
+
+		Integer literal = literals.get(name);
+		if (literal!=null) {
+			best = literal;
+		}
+
+		if (!suffixes.isEmpty()) {
+			int dot = name.indexOf('.');
+			while (dot>-1) {
+				Integer suffix = suffixes.get(name.substring(dot));
+				if (suffix!=null) {
+					best = Math.max(best, suffix);
+				}
+				dot = name.indexOf('.', dot + 1);
+			}
+		}
+
+		if (nodeCount>1) {
+			best = Math.max(best, runAutomaton(name));
+		}
+
+		return best;
+
+	}
+
+
+	/**
+	 * Returns whether any filter matches a file name.
+	 *
+	 * @param name The file name, without any path.
+	 * @return Whether any filter matches.
+	 * @see #getMatch(String)
+	 */
+	public boolean matches(String name) {
+		return getMatchIndex(name)!=NONE;
+	}
+
+
+	/**
+	 * Runs the automaton over a file name.
+	 *
+	 * @param name The file name.
+	 * @return The index of the last-added wildcard filter matching the name,
+	 *         or {@link #NONE} if none match.
+	 */
+	private int runAutomaton(String name) {
+
+		int[] active = new int[nodeCount];
+		int[] next = new int[nodeCount];
+		boolean[] added = new boolean[nodeCount];
+		int count = addNode(0, active, 0, added);
+
+		for (int i=0; i<name.length() && count>0; i++) {
+
+			char ch = name.charAt(i);
+			Arrays.fill(added, false);
+			int nextCount = 0;
+
+			for (int j=0; j<count; j++) {
+				int node = active[j];
+				if (stars[node]) {
+					nextCount = addNode(node, next, nextCount, added);
+				}
+				int edge = Arrays.binarySearch(edgeChars, edgeStarts[node],
+						edgeStarts[node + 1], ch);
+				if (edge>=0) {
+					nextCount = addNode(edgeTargets[edge], next, nextCount, added);
+				}
+				nextCount = addNode(anyTargets[node], next, nextCount, added);
+			}
+
+			int[] temp = active;
+			active = next;
+			next = temp;
+			count = nextCount;
+
+		}
+
+		int best = NONE;
+		for (int j=0; j<count; j++) {
+			best = Math.max(best, accepts[active[j]]);
+		}
+		return best;
+
+	}
+
+
+	/**
+	 * Creates {@link FileFilterMatcher}s.
+	 *
+	 * @param <V> The type of value associated with filters.
+	 */
+	public static final class Builder<V> {
+
+		private final boolean caseSensitive;
+		private final Map<String, Integer> literals;
+		private final Map<String, Integer> suffixes;
+		private final List<V> values;
+		private final List<Node> nodes;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param caseSensitive Whether matching is case-sensitive.
+		 */
+		public Builder(boolean caseSensitive) {
+			this.caseSensitive = caseSensitive;
+			literals = new HashMap<>();
+			suffixes = new HashMap<>();
+			values = new ArrayList<>();
+			nodes = new ArrayList<>();
+			nodes.add(new Node(false));
+		}
+
+		/**
+		 * Adds a filter.  Filters added later take precedence over filters
+		 * added earlier.
+		 *
+		 * @param filter The filter.
+		 * @param value The value to return for names matching the filter.
+		 * @return This builder.
+		 */
+		public Builder<V> add(String filter, V value) {
+
+			if (!caseSensitive) {
+				filter = filter.toLowerCase();
+			}
+			int index = values.size();
+			values.add(value);
+
+			int wildcard = indexOfWildcard(filter, 0);
+			if (wildcard==-1) {
+				literals.put(filter, index);
+			}
+			else if (wildcard==0 && filter.length()>1 && filter.charAt(0)=='*' &&
+					filter.charAt(1)=='.' && indexOfWildcard(filter, 1)==-1) {
+				suffixes.put(filter.substring(1), index);
+			}
+			else {
+				addToAutomaton(filter, index);
+			}
+
+			return this;
+
+		}
+
+		private void addToAutomaton(String filter, int index) {
+
+			int node = 0;
+
+			for (int i=0; i<filter.length(); i++) {
+				char ch = filter.charAt(i);
+				Node n = nodes.get(node);
+				switch (ch) {
+					case '*' -> {
+						if (n.isStar) {
+							continue; // "**" is the same as "*"
+						}
+						if (n.star==NONE) {
+							n.star = createNode(true);
+						}
+						node = n.star;
+					}
+					case '?' -> {
+						if (n.any==NONE) {
+							n.any = createNode(false);
+						}
+						node = n.any;
+					}
+					default -> {
+						Integer target = n.edges.get(ch);
+						if (target==null) {
+							target = createNode(false);
+							n.edges.put(ch, target);
+						}
+						node = target;
+					}
+				}
+			}
+
+			Node n = nodes.get(node);
+			n.accept = Math.max(n.accept, index);
+
+		}
+
+		/**
+		 * Returns the matcher.
+		 *
+		 * @return The matcher.
+		 */
+		public FileFilterMatcher<V> build() {
+			return new FileFilterMatcher<>(this);
+		}
+
+		private int createNode(boolean isStar) {
+			nodes.add(new Node(isStar));
+			return nodes.size() - 1;
+		}
+
+		private static int indexOfWildcard(String filter, int start) {
+			for (int i=start; i<filter.length(); i++) {
+				char ch = filter.charAt(i);
+				if (ch=='*' || ch=='?') {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * A node in the automaton being built.
+		 */
+		private static final class Node {
+
+			private final Map<Character, Integer> edges;
+			private final boolean isStar;
+			private int any;
+			private int star;
+			private int accept;
+
+			private Node(boolean isStar) {
+				this.isStar = isStar;
+				edges = new HashMap<>();
+				any = NONE;
+				star = NONE;
+				accept = NONE;
+			}
+
+		}
+
+	}
+
+
+}
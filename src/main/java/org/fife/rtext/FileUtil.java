@@ -0,0 +1,115 @@
+/*
+ * 10/19/2026
+ *
+ * FileUtil.java - Utility methods for working with files.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+
+/**
+ * Utility methods for working with files.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class FileUtil {
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private FileUtil() {
+		// Do nothing (comment for Sonar)
+	}
+
+
+	/**
+	 * Atomically replaces a file's contents.  The content is written to a
+	 * temporary file in the same directory, which is then moved over the
+	 * file.  Readers of the file will see either its old contents or the
+	 * complete new contents, never a partially-written file, and the old
+	 * contents aren't lost if an error occurs while writing.  If the file
+	 * already exists, its permissions are kept where the file system
+	 * supports it.<p>
+	 *
+	 * If {@code file} is a symbolic link, the link itself is replaced.
+	 * Callers that want to write to the link's target should resolve it
+	 * first.
+	 *
+	 * @param file The file to write to.  Its parent directory must exist.
+	 * @param content Writes the content.  The stream is buffered.
+	 * @throws IOException If an IO error occurs.
+	 */
+	public static void writeAtomically(File file, ContentWriter content)
+			throws IOException {
+
+		Path target = file.toPath().toAbsolutePath();
+		Path temp = Files.createTempFile(target.getParent(),
+				"." + file.getName(), ".tmp");
+
+		try {
+
+			try (OutputStream out = new BufferedOutputStream(
+					Files.newOutputStream(temp))) {
+				content.write(out);
+			}
+
+			// Temporary files are only readable by their owner
+			if (Files.exists(target)) {
+				try {
+					Files.setPosixFilePermissions(temp,
+							Files.getPosixFilePermissions(target));
+				} catch (UnsupportedOperationException uoe) {
+					// Not a POSIX file system, e.g. Windows
+				}
+			}
+
+			try {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException amnse) {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			}
+
+		} finally {
+			Files.deleteIfExists(temp); // Only exists if an error occurred
+		}
+
+	}
+
+
+	/**
+	 * Writes the content of a file.
+	 *
+	 * @see FileUtil#writeAtomically(File, ContentWriter)
+	 */
+	@FunctionalInterface
+	public interface ContentWriter {
+
+		/**
+		 * Writes the content.
+		 *
+		 * @param out The stream to write to.  This is closed once the
+		 *        content is written, but it's fine to close it, or
+		 *        streams wrapping it, here.
+		 * @throws IOException If an IO error occurs.
+		 */
+		void write(OutputStream out) throws IOException;
+
+	}
+
+
+}
@@ -0,0 +1,186 @@
+/*
+ * 10/19/2026
+ *
+ * FolderWatcher.java - Watches folders for files being added and removed.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+
+
+/**
+ * Watches folders for files and sub-folders being created, deleted or
+ * renamed, and reports which folders changed.<p>
+ *
+ * Events are coalesced: after the first change comes in, any others
+ * arriving within a short window are gathered up with it, and the callback
+ * is notified once, on the EDT, with the set of folders whose contents
+ * changed.  This way an operation touching thousands of files, such as a
+ * <code>git checkout</code>, results in a handful of callbacks rather than
+ * thousands.  Changes to file contents are not reported.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class FolderWatcher {
+
+	private final Consumer<Set<Path>> callback;
+	private final Map<Path, WatchKey> keys;
+	private WatchService watchService;
+	private boolean unavailable;
+
+	/**
+	 * How long to gather up events after the first one arrives.
+	 */
+	private static final long COALESCE_MILLIS = 300;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param callback Called on the EDT with the folders whose contents have
+	 *        changed.
+	 */
+	public FolderWatcher(Consumer<Set<Path>> callback) {
+		this.callback = callback;
+		keys = new ConcurrentHashMap<>();
+	}
+
+
+	/**
+	 * Returns the path used to identify a folder.
+	 *
+	 * @param dir The folder.
+	 * @return The path.
+	 */
+	public static Path getPath(File dir) {
+		return dir.toPath().toAbsolutePath().normalize();
+	}
+
+
+	/**
+	 * Waits for events and reports them.  This runs on a background thread
+	 * until the watch service is closed.
+	 *
+	 * @param service The watch service.
+	 */
+	private void processEvents(WatchService service) {
+
+		try {
+			while (true) {
+
+				WatchKey key = service.take();
+				Set<Path> changed = new LinkedHashSet<>();
+				long deadline = System.currentTimeMillis() + COALESCE_MILLIS;
+
+				while (key!=null) {
+					// We don't care which children were added or removed
+					// (or whether events overflowed); the folder's children
+					// get re-listed either way.
+					key.pollEvents();
+					Path dir = (Path)key.watchable();
+					if (key.reset()) {
+						changed.add(dir);
+					}
+					else { // Folder deleted or otherwise inaccessible
+						keys.remove(dir, key);
+					}
+					long remaining = deadline - System.currentTimeMillis();
+					key = remaining>0 ?
+							service.poll(remaining, TimeUnit.MILLISECONDS) : null;
+				}
+
+				if (!changed.isEmpty()) {
+					SwingUtilities.invokeLater(() -> callback.accept(changed));
+				}
+
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+		} catch (ClosedWatchServiceException cwse) {
+			// Stopped via unwatchAll()
+		}
+
+	}
+
+
+	/**
+	 * Stops watching a folder.
+	 *
+	 * @param dir The folder.
+	 */
+	public void unwatch(Path dir) {
+		WatchKey key = keys.remove(dir);
+		if (key!=null) {
+			key.cancel();
+		}
+	}
+
+
+	/**
+	 * Stops watching all folders, and stops the background thread.
+	 */
+	public void unwatchAll() {
+		keys.clear();
+		if (watchService!=null) {
+			try {
+				watchService.close();
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+			}
+			watchService = null;
+		}
+	}
+
+
+	/**
+	 * Starts watching a folder, if it isn't already being watched.  If the
+	 * platform doesn't support watching folders, this method does nothing.
+	 *
+	 * @param dir The folder.
+	 */
+	public void watch(Path dir) {
+
+		if (unavailable || keys.containsKey(dir)) {
+			return;
+		}
+
+		try {
+			if (watchService==null) {
+				WatchService service = FileSystems.getDefault().newWatchService();
+				ThreadUtil.createThreadFactory("RText Folder Watcher").
+						newThread(() -> processEvents(service)).start();
+				watchService = service;
+			}
+			keys.put(dir, dir.register(watchService,
+					StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_DELETE));
+		} catch (UnsupportedOperationException uoe) {
+			unavailable = true;
+		} catch (IOException ioe) {
+			// Folder deleted, or out of OS watch handles; the user can
+			// always refresh the folder manually.
+		}
+
+	}
+
+
+}
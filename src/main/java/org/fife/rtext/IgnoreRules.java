@@ -0,0 +1,551 @@
+/*
+ * 10/19/2026
+ *
+ * IgnoreRules.java - Rules from .gitignore and .ignore files.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.fife.ui.OS;
+
+
+/**
+ * The ignore rules that apply to the contents of a folder, as specified by
+ * <code>.gitignore</code> and <code>.ignore</code> files in it and its
+ * parent folders.<p>
+ *
+ * Rules follow <code>.gitignore</code> syntax.  <code>.gitignore</code>
+ * files (and <code>.git/info/exclude</code>) are only honored inside a Git
+ * repository, and rules from folders above a repository's root are never
+ * applied inside it.  <code>.ignore</code> files are honored anywhere, and
+ * take precedence over <code>.gitignore</code> files in the same folder.
+ * The <code>.git</code> folder itself is always ignored.<p>
+ *
+ * Each pattern is compiled once into the cheapest matcher that handles it:
+ * most patterns, such as <code>node_modules</code> or <code>*.class</code>,
+ * are simple string comparisons, and only the rest become regular
+ * expressions.  Rules are cached per folder and the ignore files are only
+ * re-checked every couple of seconds, so checking whether a file is ignored
+ * is cheap enough to do for every file in a directory walk.  Since ignored
+ * folders are ignored along with their contents, walkers should simply not
+ * descend into them.<p>
+ *
+ * This class is thread-safe.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class IgnoreRules {
+
+	private final File folder;
+	private final String folderPath;
+	private final IgnoreRules parent;
+	private final boolean inRepository;
+	private final boolean hasRules;
+	private final Rule[] rules;
+	private final long[] stamps;
+	private volatile long checkedTime;
+
+	/**
+	 * Cached rules for recently used folders, keyed by path.
+	 */
+	private static final Map<String, IgnoreRules> CACHE =
+			new LinkedHashMap<>(256, 0.75f, true) {
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, IgnoreRules> e) {
+					return size()>MAX_CACHE_SIZE;
+				}
+			};
+
+	private static final int MAX_CACHE_SIZE = 4096;
+
+	/**
+	 * How long cached rules are trusted before the ignore files are checked
+	 * for changes.
+	 */
+	private static final long RECHECK_MILLIS = 2000;
+
+	private static final String GIT_DIR = ".git";
+	private static final String GIT_IGNORE = ".gitignore";
+	private static final String IGNORE = ".ignore";
+	private static final String GIT_EXCLUDE = ".git/info/exclude";
+
+
+	private IgnoreRules(File folder, IgnoreRules parent, boolean inRepository,
+			Rule[] rules, long[] stamps, long checkedTime) {
+		this.folder = folder;
+		String path = folder.getPath();
+		this.folderPath = path.endsWith(File.separator) ? path :
+				(path + File.separatorChar);
+		this.parent = parent;
+		this.inRepository = inRepository;
+		this.rules = rules;
+		this.hasRules = rules.length>0 || (parent!=null && parent.hasRules);
+		this.stamps = stamps;
+		this.checkedTime = checkedTime;
+	}
+
+
+	/**
+	 * Compiles a glob pattern into a matcher.
+	 *
+	 * @param glob The pattern, without any leading <code>!</code> or
+	 *        trailing <code>/</code>.
+	 * @param anchored Whether the pattern is matched against paths relative
+	 *        to the folder it was defined in rather than just file names.
+	 * @return The matcher.
+	 */
+	private static Glob compile(String glob, boolean anchored) {
+
+		boolean caseSensitive = OS.get().isCaseSensitive();
+
+		if (!anchored && !hasWildcards(glob, 0)) {
+			return new LiteralGlob(glob, caseSensitive);
+		}
+		if (!anchored && glob.length()>1 && glob.charAt(0)=='*' &&
+				!hasWildcards(glob, 1)) {
+			return new SuffixGlob(glob.substring(1), caseSensitive);
+		}
+
+		int flags = caseSensitive ? 0 :
+				(Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+		return new RegexGlob(Pattern.compile(globToRegex(glob), flags));
+
+	}
+
+
+	/**
+	 * Creates the rules for a folder.
+	 *
+	 * @param folder The folder, as an absolute path.
+	 * @param stamps The folder's ignore file stamps.
+	 * @param now The current time.
+	 * @return The rules.
+	 */
+	private static IgnoreRules create(File folder, long[] stamps, long now) {
+
+		boolean repositoryRoot = stamps[0]!=0;
+		IgnoreRules parent = null;
+		if (!repositoryRoot) {
+			File parentFolder = folder.getParentFile();
+			if (parentFolder!=null) {
+				parent = forFolder(parentFolder);
+			}
+		}
+		boolean inRepository = repositoryRoot ||
+				(parent!=null && parent.inRepository);
+
+		// Rules in later files take precedence
+		List<Rule> rules = new ArrayList<>();
+		if (repositoryRoot) {
+			readRules(new File(folder, GIT_EXCLUDE), rules);
+		}
+		if (inRepository) {
+			readRules(new File(folder, GIT_IGNORE), rules);
+		}
+		readRules(new File(folder, IGNORE), rules);
+
+		return new IgnoreRules(folder, parent, inRepository,
+				rules.toArray(new Rule[0]), stamps, now);
+
+	}
+
+
+	/**
+	 * Returns the ignore rules for the contents of a folder.
+	 *
+	 * @param folder The folder.
+	 * @return The rules.
+	 * @see #isIgnored(File, boolean)
+	 */
+	public static IgnoreRules forFolder(File folder) {
+
+		folder = folder.getAbsoluteFile();
+		String key = folder.getPath();
+		long now = System.currentTimeMillis();
+
+		IgnoreRules rules;
+		synchronized (CACHE) {
+			rules = CACHE.get(key);
+		}
+
+		if (rules!=null) {
+			if (now-rules.checkedTime<RECHECK_MILLIS) {
+				return rules;
+			}
+			long[] stamps = getStamps(folder);
+			if (Arrays.equals(stamps, rules.stamps) && (rules.parent==null ||
+					forFolder(rules.parent.folder)==rules.parent)) {
+				rules.checkedTime = now;
+				return rules;
+			}
+			rules = create(folder, stamps, now);
+		}
+		else {
+			rules = create(folder, getStamps(folder), now);
+		}
+
+		synchronized (CACHE) {
+			CACHE.put(key, rules);
+		}
+		return rules;
+
+	}
+
+
+	/**
+	 * Returns the path of a file relative to this folder, with
+	 * <code>'/'</code> as the separator.
+	 *
+	 * @param path The full path of a file.
+	 * @return The relative path, or {@code null} if the file isn't in this
+	 *         folder.
+	 */
+	private String getRelativePath(String path) {
+		if (!path.startsWith(folderPath)) {
+			return null;
+		}
+		String relative = path.substring(folderPath.length());
+		return File.separatorChar=='/' ? relative :
+				relative.replace(File.separatorChar, '/');
+	}
+
+
+	/**
+	 * Returns values that change when a folder's ignore files change.
+	 *
+	 * @param folder The folder.
+	 * @return The stamps.  The first value is non-zero if the folder is the
+	 *         root of a Git repository.
+	 */
+	private static long[] getStamps(File folder) {
+		return new long[] {
+			new File(folder, GIT_DIR).exists() ? 1 : 0,
+			new File(folder, GIT_EXCLUDE).lastModified(),
+			new File(folder, GIT_IGNORE).lastModified(),
+			new File(folder, IGNORE).lastModified(),
+		};
+	}
+
+
+	/**
+	 * Converts a glob pattern into an equivalent regular expression.
+	 * <code>*</code> and <code>?</code> do not match <code>'/'</code>, while
+	 * <code>**</code> matches any number of folders.
+	 *
+	 * @param glob The glob pattern.
+	 * @return The regular expression.
+	 */
+	private static String globToRegex(String glob) {
+
+		StringBuilder sb = new StringBuilder();
+		int len = glob.length();
+
+		for (int i=0; i<len; i++) {
+
+			char ch = glob.charAt(i);
+
+			switch (ch) {
+
+				case '*' -> {
+					boolean doubleStar = i+1<len && glob.charAt(i+1)=='*';
+					boolean segmentStart = i==0 || glob.charAt(i-1)=='/';
+					if (doubleStar && segmentStart && i+2<len && glob.charAt(i+2)=='/') {
+						sb.append("(?:.*/)?"); // "**/"
+						i += 2;
+					}
+					else if (doubleStar && segmentStart && i+2==len) {
+						sb.append(".*"); // Trailing "/**"
+						i++;
+					}
+					else {
+						sb.append("[^/]*");
+						if (doubleStar) {
+							i++;
+						}
+					}
+				}
+
+				case '?' -> sb.append("[^/]");
+
+				case '[' -> {
+					int end = glob.indexOf(']', i + 2);
+					if (end==-1) {
+						sb.append("\\[");
+						break;
+					}
+					sb.append('[');
+					int j = i + 1;
+					if (glob.charAt(j)=='!' || glob.charAt(j)=='^') {
+						sb.append('^');
+						j++;
+					}
+					for (; j<end; j++) {
+						char c = glob.charAt(j);
+						if (c=='\\' || c=='[' || c=='&') {
+							sb.append('\\');
+						}
+						sb.append(c);
+					}
+					sb.append(']');
+					i = end;
+				}
+
+				case '\\' -> {
+					if (i+1<len) {
+						appendLiteral(sb, glob.charAt(++i));
+					}
+				}
+
+				default -> appendLiteral(sb, ch);
+
+			}
+
+		}
+
+		return sb.toString();
+
+	}
+
+
+	private static void appendLiteral(StringBuilder sb, char ch) {
+		if ("\\.[]{}()*+-?^$|".indexOf(ch)>-1) {
+			sb.append('\\');
+		}
+		sb.append(ch);
+	}
+
+
+	/**
+	 * Returns whether part of a glob pattern contains any wildcards or
+	 * escapes.
+	 *
+	 * @param glob The pattern.
+	 * @param start The offset to start checking at.
+	 * @return Whether there are any wildcards.
+	 */
+	private static boolean hasWildcards(String glob, int start) {
+		for (int i=start; i<glob.length(); i++) {
+			switch (glob.charAt(i)) {
+				case '*', '?', '[', '\\' -> {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * Returns whether a file or folder in this folder is ignored.
+	 *
+	 * @param file A file or folder directly inside this folder.
+	 * @param isDir Whether <code>file</code> is a folder (passed in for
+	 *        performance).
+	 * @return Whether the file is ignored.
+	 */
+	public boolean isIgnored(File file, boolean isDir) {
+
+		String name = file.getName();
+		if (isDir && GIT_DIR.equals(name)) {
+			return true;
+		}
+		if (!hasRules) {
+			return false;
+		}
+
+		String path = file.getAbsolutePath();
+
+		// Rules in deeper folders, and later rules in the same folder, take
+		// precedence.
+		for (IgnoreRules r=this; r!=null; r=r.parent) {
+			String relative = null;
+			for (int i=r.rules.length-1; i>=0; i--) {
+				Rule rule = r.rules[i];
+				if (rule.dirOnly() && !isDir) {
+					continue;
+				}
+				boolean matches;
+				if (rule.anchored()) {
+					if (relative==null) {
+						relative = r.getRelativePath(path);
+					}
+					matches = relative!=null && rule.glob().matches(relative);
+				}
+				else {
+					matches = rule.glob().matches(name);
+				}
+				if (matches) {
+					return !rule.negated();
+				}
+			}
+		}
+
+		return false;
+
+	}
+
+
+	/**
+	 * Parses a line from an ignore file.
+	 *
+	 * @param line The line.
+	 * @return The rule, or {@code null} if the line is blank or a comment.
+	 */
+	private static Rule parseRule(String line) {
+
+		if (line.isEmpty() || line.charAt(0)=='#') {
+			return null;
+		}
+
+		// Trailing spaces are ignored unless escaped
+		int end = line.length();
+		while (end>0 && line.charAt(end-1)==' ' &&
+				(end<2 || line.charAt(end-2)!='\\')) {
+			end--;
+		}
+		String glob = line.substring(0, end);
+
+		boolean negated = glob.startsWith("!");
+		if (negated) {
+			glob = glob.substring(1);
+		}
+
+		boolean dirOnly = glob.endsWith("/");
+		if (dirOnly) {
+			glob = glob.substring(0, glob.length() - 1);
+		}
+
+		// Patterns with a slash anywhere but the end are relative to the
+		// folder containing the ignore file.
+		boolean anchored = glob.indexOf('/')>-1;
+		if (glob.startsWith("/")) {
+			glob = glob.substring(1);
+		}
+		else if (glob.startsWith("**/") && glob.indexOf('/', 3)==-1) {
+			glob = glob.substring(3);
+			anchored = false;
+		}
+
+		if (glob.isEmpty()) {
+			return null;
+		}
+		return new Rule(compile(glob, anchored), negated, dirOnly, anchored);
+
+	}
+
+
+	/**
+	 * Reads the rules from an ignore file, if it exists.
+	 *
+	 * @param file The ignore file.
+	 * @param rules Receives the rules.
+	 */
+	private static void readRules(File file, List<Rule> rules) {
+
+		String content;
+		try {
+			content = new String(Files.readAllBytes(file.toPath()),
+					StandardCharsets.UTF_8);
+		} catch (IOException ioe) {
+			return; // Usually just doesn't exist
+		}
+
+		for (String line : content.split("\\R")) {
+			Rule rule = parseRule(line);
+			if (rule!=null) {
+				rules.add(rule);
+			}
+		}
+
+	}
+
+
+	/**
+	 * A compiled pattern from an ignore file.
+	 */
+	private interface Glob {
+
+		boolean matches(String text);
+
+	}
+
+
+	/**
+	 * Matches text exactly.
+	 *
+	 * @param literal The text to match.
+	 * @param caseSensitive Whether the match is case-sensitive.
+	 */
+	private record LiteralGlob(String literal, boolean caseSensitive) implements Glob {
+
+		@Override
+		public boolean matches(String text) {
+			return caseSensitive ? literal.equals(text) :
+					literal.equalsIgnoreCase(text);
+		}
+
+	}
+
+
+	/**
+	 * Matches text via a regular expression.
+	 *
+	 * @param pattern The pattern.
+	 */
+	private record RegexGlob(Pattern pattern) implements Glob {
+
+		@Override
+		public boolean matches(String text) {
+			return pattern.matcher(text).matches();
+		}
+
+	}
+
+
+	/**
+	 * A single rule from an ignore file.
+	 *
+	 * @param glob The compiled pattern.
+	 * @param negated Whether the rule re-includes matching files.
+	 * @param dirOnly Whether the rule only matches folders.
+	 * @param anchored Whether the pattern is matched against the path
+	 *        relative to the ignore file's folder, as opposed to the name.
+	 */
+	private record Rule(Glob glob, boolean negated, boolean dirOnly,
+			boolean anchored) {
+	}
+
+
+	/**
+	 * Matches text with a given suffix, such as for <code>*.class</code>.
+	 *
+	 * @param suffix The suffix.
+	 * @param caseSensitive Whether the match is case-sensitive.
+	 */
+	private record SuffixGlob(String suffix, boolean caseSensitive) implements Glob {
+
+		@Override
+		public boolean matches(String text) {
+			return text.regionMatches(!caseSensitive,
+					text.length() - suffix.length(), suffix, 0, suffix.length());
+		}
+
+	}
+
+
+}
@@ -0,0 +1,836 @@
+/*
+ * 10/19/2026
+ *
+ * IncrementalSpellingParser.java - Spell checks a text area incrementally.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Element;
+import javax.swing.text.Position;
+import javax.swing.text.Segment;
+
+import org.fife.com.swabunga.spell.event.StringWordTokenizer;
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
+import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
+import org.fife.ui.rsyntaxtextarea.Token;
+import org.fife.ui.rsyntaxtextarea.TokenMaker;
+import org.fife.ui.rsyntaxtextarea.TokenMakerFactory;
+import org.fife.ui.rsyntaxtextarea.parser.AbstractParser;
+import org.fife.ui.rsyntaxtextarea.parser.DefaultParseResult;
+import org.fife.ui.rsyntaxtextarea.parser.DefaultParserNotice;
+import org.fife.ui.rsyntaxtextarea.parser.ExtendedHyperlinkListener;
+import org.fife.ui.rsyntaxtextarea.parser.ParseResult;
+import org.fife.ui.rsyntaxtextarea.parser.ParserNotice;
+import org.fife.ui.rsyntaxtextarea.spell.SpellCheckableTokenIdentifier;
+import org.fife.ui.rsyntaxtextarea.spell.SpellingErrorAction;
+import org.fife.ui.rsyntaxtextarea.spell.SpellingParser;
+
+
+/**
+ * A parser that spell checks a single text area incrementally.<p>
+ *
+ * A plain {@link SpellingParser} checks every word in the document each
+ * time the user pauses typing.  This parser instead tracks the state of
+ * each line:
+ *
+ * <ul>
+ *    <li>Lines that have been edited, or whose syntax highlighting has
+ *        changed, since they were last checked are <em>dirty</em>.</li>
+ *    <li>Lines whose spell checkable words are all in the dictionary are
+ *        <em>clean</em>, and never need to be checked again.</li>
+ *    <li>Lines that may contain spelling errors, but haven't been given
+ *        to the spelling parser yet, are <em>suspect</em>.</li>
+ *    <li>Lines that have been given to the spelling parser are
+ *        <em>checked</em>.  Their notices are kept, and are moved along
+ *        with the text as the document is edited, until the line becomes
+ *        dirty again.</li>
+ * </ul>
+ *
+ * When the document is parsed, only the dirty lines in the visible region
+ * and the suspect lines are tokenized, and only the words in their spell
+ * checkable tokens are looked up in the dictionary.  The remaining dirty
+ * lines are then screened in chunks on a shared, low-priority background
+ * thread, starting just below the visible region.  Screening only looks at
+ * comment and string tokens (or every word in plain text files), and a
+ * re-parse is only requested if a screened chunk contains suspect lines.
+ * So each parse only checks the lines that changed or came into view.
+ * <p>
+ *
+ * Words missing from the dictionary are handed to the wrapped spelling
+ * parser as a small word list, so it still decides what's misspelled (e.g.
+ * taking into account the user dictionary and ignored words).  The notices
+ * generated belong to that spelling parser, so its tool tips and "add to
+ * dictionary" links work as usual.  The spelling parser's maximum error
+ * count is applied to the notices as a whole, with those in the visible
+ * region taking priority.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class IncrementalSpellingParser extends AbstractParser
+		implements DocumentListener {
+
+	private final RTextEditorPane textArea;
+	private final SpellingParser spellingParser;
+	private final CompactSpellDictionary dictionary;
+	private RSyntaxDocument doc;
+	private String style;
+
+	/**
+	 * The state of each line, one of {@link #DIRTY}, {@link #CLEAN},
+	 * {@link #SUSPECT} or {@link #CHECKED}.
+	 */
+	private byte[] lineStates;
+	private int lineCount;
+
+	/**
+	 * The notices for checked lines.
+	 */
+	private List<CachedNotice> notices;
+
+	/**
+	 * Syntax highlighting changes reported before the line structure
+	 * change they're part of, as the first and last changed offsets.
+	 */
+	private int pendingChangeStart;
+	private int pendingChangeEnd;
+
+	/**
+	 * Incremented on each document change, so results of background work
+	 * on an older version of the document can be discarded.
+	 */
+	private volatile int version;
+	private boolean screeningScheduled;
+
+	private static final byte DIRTY = 0;
+	private static final byte CLEAN = 1;
+	private static final byte SUSPECT = 2;
+	private static final byte CHECKED = 3;
+
+	/**
+	 * The maximum number of lines screened in the background at a time.
+	 * Screening holds the document's read lock, so this is kept small
+	 * enough not to delay edits.
+	 */
+	private static final int SCREEN_CHUNK_SIZE = 1000;
+
+	/**
+	 * Dirty lines screened in the background, for all text areas.
+	 */
+	private static final ExecutorService SCREENER = Executors.newSingleThreadExecutor(
+			ThreadUtil.createThreadFactory("RText Spell Checker"));
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param textArea The text area to spell check.
+	 * @param spellingParser The spelling parser that actually creates the
+	 *        notices.
+	 * @param dictionary The dictionary words are looked up in before being
+	 *        given to the spelling parser.  This should be the spelling
+	 *        parser's main dictionary.
+	 */
+	IncrementalSpellingParser(RTextEditorPane textArea,
+			SpellingParser spellingParser, CompactSpellDictionary dictionary) {
+		this.textArea = textArea;
+		this.spellingParser = spellingParser;
+		this.dictionary = dictionary;
+		lineStates = new byte[0];
+		notices = new ArrayList<>();
+		pendingChangeStart = -1;
+	}
+
+
+	/**
+	 * Has the spelling parser check words missing from the dictionary, and
+	 * caches notices for those that are misspelled.
+	 *
+	 * @param doc The document being parsed.
+	 * @param words The words missing from the dictionary.
+	 */
+	private void addNotices(RSyntaxDocument doc, WordList words) {
+
+		RSyntaxDocument wordDoc = new RSyntaxDocument(
+				SyntaxConstants.SYNTAX_STYLE_NONE);
+		try {
+			wordDoc.insertString(0, words.text.toString(), null);
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+			return;
+		}
+
+		// The maximum error count is applied to all of our notices later,
+		// so the words checked in this parse must all be reported.
+		int maxErrorCount = spellingParser.getMaxErrorCount();
+		spellingParser.setMaxErrorCount(Integer.MAX_VALUE);
+		ParseResult wordResult;
+		try {
+			wordResult = spellingParser.parse(wordDoc,
+					SyntaxConstants.SYNTAX_STYLE_NONE);
+		} finally {
+			spellingParser.setMaxErrorCount(maxErrorCount);
+		}
+
+		for (ParserNotice notice : wordResult.getNotices()) {
+			int offs = words.getDocumentOffset(notice.getOffset());
+			try {
+				notices.add(new CachedNotice(notice, doc.createPosition(offs)));
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+			}
+		}
+
+	}
+
+
+	/**
+	 * Marks lines dirty when their syntax highlighting changes, e.g. when a
+	 * multi-line comment is started above them, since that can change
+	 * which of their tokens are spell checked.
+	 *
+	 * @param e The document event.
+	 */
+	@Override
+	public void changedUpdate(DocumentEvent e) {
+
+		version++;
+		int start = e.getOffset();
+		int end = start + e.getLength();
+
+		if (lineCount!=doc.getDefaultRootElement().getElementCount()) {
+			// Fired before the insert or remove that caused it; handled
+			// once the line states have been shifted.
+			pendingChangeStart = pendingChangeStart==-1 ? start :
+					Math.min(pendingChangeStart, start);
+			pendingChangeEnd = Math.max(pendingChangeEnd, end);
+			return;
+		}
+
+		markDirty(start, end);
+
+	}
+
+
+	/**
+	 * Returns whether a line contains any words not in the dictionary.  This
+	 * is called on the EDT for lines being checked.
+	 *
+	 * @param doc The document.
+	 * @param line The line.
+	 * @param identifier Identifies the tokens to check.  If this is
+	 *        {@code null}, all words on the line are checked.
+	 * @param words Collects the words not in the dictionary.
+	 * @return Whether any words were not in the dictionary.
+	 */
+	private boolean checkLine(RSyntaxDocument doc, int line,
+			SpellCheckableTokenIdentifier identifier, WordList words) {
+
+		if (identifier==null) {
+			Element elem = doc.getDefaultRootElement().getElement(line);
+			int start = elem.getStartOffset();
+			try {
+				String text = doc.getText(start, elem.getEndOffset() - start);
+				return checkWords(text, start, words);
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+				return true;
+			}
+		}
+
+		boolean found = false;
+		for (Token t=doc.getTokenListForLine(line); t!=null && t.isPaintable();
+				t=t.getNextToken()) {
+			if (identifier.isSpellCheckable(t)) {
+				found |= checkWords(t.getLexeme(), t.getOffset(), words);
+			}
+		}
+		return found;
+
+	}
+
+
+	/**
+	 * Looks up the words in some text in the dictionary.  This may be
+	 * called on any thread.
+	 *
+	 * @param text The text.
+	 * @param offs The offset of the text in the document.
+	 * @param words Collects the words not in the dictionary.  If this is
+	 *        {@code null}, this method returns as soon as one is found.
+	 * @return Whether any words were not in the dictionary.
+	 */
+	private boolean checkWords(String text, int offs, WordList words) {
+		boolean found = false;
+		StringWordTokenizer tokenizer = new StringWordTokenizer(text);
+		while (tokenizer.hasMoreWords()) {
+			String word = tokenizer.nextWord();
+			if (!dictionary.isCorrect(word)) {
+				if (words==null) {
+					return true;
+				}
+				words.add(word, offs + tokenizer.getCurrentWordPosition());
+				found = true;
+			}
+		}
+		return found;
+	}
+
+
+	/**
+	 * Returns the hyperlink listener of the wrapped spelling parser, so
+	 * links in tool tips (e.g. "add to dictionary") work as usual.
+	 *
+	 * @return The hyperlink listener.
+	 */
+	@Override
+	public ExtendedHyperlinkListener getHyperlinkListener() {
+		return spellingParser.getHyperlinkListener();
+	}
+
+
+	@Override
+	public URL getImageBase() {
+		return spellingParser.getImageBase();
+	}
+
+
+	/**
+	 * Returns the spelling parser that creates this parser's notices.
+	 *
+	 * @return The spelling parser.
+	 */
+	SpellingParser getSpellingParser() {
+		return spellingParser;
+	}
+
+
+	/**
+	 * Returns the range of lines visible in the text area.
+	 *
+	 * @return The first and last visible lines.
+	 */
+	private int[] getVisibleLines() {
+		Rectangle visible = textArea.getVisibleRect();
+		Element root = doc.getDefaultRootElement();
+		int start = textArea.viewToModel2D(new Point(visible.x, visible.y));
+		int end = textArea.viewToModel2D(new Point(visible.x + visible.width,
+				visible.y + visible.height));
+		start = root.getElementIndex(Math.max(0, start));
+		end = root.getElementIndex(Math.max(0, end));
+		return new int[] { start, Math.max(start, end) };
+	}
+
+
+	/**
+	 * Adds the cached notices to a parse result.  Notices in the visible
+	 * region are added first, then those in the rest of the document, up to
+	 * the spelling parser's maximum error count.
+	 *
+	 * @param visible The first and last visible lines.
+	 * @param result The result to add the notices to.
+	 * @see #pruneNotices()
+	 */
+	private void addCachedNotices(int[] visible, DefaultParseResult result) {
+
+		Element root = doc.getDefaultRootElement();
+		List<ParserNotice> visibleNotices = new ArrayList<>();
+		List<ParserNotice> otherNotices = new ArrayList<>();
+
+		for (CachedNotice cached : notices) {
+			int offs = cached.pos().getOffset();
+			int line = root.getElementIndex(offs);
+			ParserNotice notice = new SpellingNotice(cached.notice(), offs, line);
+			if (line>=visible[0] && line<=visible[1]) {
+				visibleNotices.add(notice);
+			}
+			else {
+				otherNotices.add(notice);
+			}
+		}
+
+		int max = spellingParser.getMaxErrorCount();
+		int count = 0;
+		for (List<ParserNotice> list : List.of(visibleNotices, otherNotices)) {
+			for (ParserNotice notice : list) {
+				if (count++==max) {
+					return;
+				}
+				result.addNotice(notice);
+			}
+		}
+
+	}
+
+
+	@Override
+	public void insertUpdate(DocumentEvent e) {
+		updateLineStates(e);
+	}
+
+
+	/**
+	 * Forgets the results of all previous checks, so the whole document is
+	 * checked again.  This should be called when what's considered a
+	 * spelling error changes, e.g. a word is added to the dictionary or
+	 * ignored.
+	 */
+	void invalidate() {
+		Arrays.fill(lineStates, 0, lineCount, DIRTY);
+		notices.clear();
+		version++;
+	}
+
+
+	/**
+	 * Returns whether a token is a comment or string.  These are the only
+	 * tokens looked at when screening lines in source files.
+	 *
+	 * @param t The token.
+	 * @return Whether the token is a comment or string.
+	 */
+	private static boolean isCommentOrString(Token t) {
+		return switch (t.getType()) {
+			case Token.LITERAL_STRING_DOUBLE_QUOTE, Token.LITERAL_CHAR,
+				Token.LITERAL_BACKQUOTE -> true;
+			default -> t.isComment();
+		};
+	}
+
+
+	/**
+	 * Returns whether a style is plain text, in which case every word is
+	 * spell checked.
+	 *
+	 * @param style The syntax style.
+	 * @return Whether the style is plain text.
+	 */
+	private static boolean isPlainText(String style) {
+		return style==null || SyntaxConstants.SYNTAX_STYLE_NONE.equals(style);
+	}
+
+
+	/**
+	 * Returns whether a line contains any words not in the dictionary in
+	 * its comments or strings, and so might contain a spelling error.  This
+	 * is called on the background thread with the document's read lock
+	 * held.  It uses its own token maker since the document's isn't thread
+	 * safe.
+	 *
+	 * @param doc The document.
+	 * @param line The line.
+	 * @param tokenMaker The token maker to use, or {@code null} to check
+	 *        every word on the line.
+	 * @param s A segment to use.
+	 * @return Whether the line needs to be spell checked.
+	 */
+	private boolean isSuspect(RSyntaxDocument doc, int line,
+			TokenMaker tokenMaker, Segment s) {
+
+		Element elem = doc.getDefaultRootElement().getElement(line);
+		int start = elem.getStartOffset();
+		try {
+			// Exclude the trailing newline, as RSyntaxDocument does
+			doc.getText(start, elem.getEndOffset() - start - 1, s);
+		} catch (BadLocationException ble) { // Never happens
+			ble.printStackTrace();
+			return true;
+		}
+
+		if (tokenMaker==null) {
+			return checkWords(s.toString(), start, null);
+		}
+
+		int initialTokenType = line==0 ? Token.NULL :
+				doc.getLastTokenTypeOnLine(line - 1);
+		for (Token t=tokenMaker.getTokenList(s, initialTokenType, start);
+				t!=null && t.isPaintable(); t=t.getNextToken()) {
+			if (isCommentOrString(t) &&
+					checkWords(t.getLexeme(), t.getOffset(), null)) {
+				return true;
+			}
+		}
+		return false;
+
+	}
+
+
+	/**
+	 * Marks the lines in a range of the document dirty.
+	 *
+	 * @param start The start offset of the range.
+	 * @param end The end offset of the range.
+	 */
+	private void markDirty(int start, int end) {
+		Element root = doc.getDefaultRootElement();
+		int first = root.getElementIndex(start);
+		int last = Math.min(root.getElementIndex(end), lineCount - 1);
+		if (first<=last) {
+			Arrays.fill(lineStates, first, last + 1, DIRTY);
+		}
+	}
+
+
+	@Override
+	public ParseResult parse(RSyntaxDocument doc, String style) {
+
+		long start = System.currentTimeMillis();
+
+		if (doc!=this.doc || !Objects.equals(style, this.style) ||
+				lineCount!=doc.getDefaultRootElement().getElementCount()) {
+			// First parse, or document or syntax style was changed
+			if (this.doc!=null) {
+				this.doc.removeDocumentListener(this);
+			}
+			this.doc = doc;
+			this.style = style;
+			doc.addDocumentListener(this);
+			version++;
+			lineCount = doc.getDefaultRootElement().getElementCount();
+			lineStates = new byte[Math.max(16, lineCount)];
+			notices.clear();
+			pendingChangeStart = -1;
+		}
+
+		int[] visible = getVisibleLines();
+		SpellCheckableTokenIdentifier identifier = isPlainText(style) ? null :
+				spellingParser.getSpellCheckableTokenIdentifier();
+		WordList words = new WordList();
+
+		// Drop the notices of lines about to be re-checked first
+		pruneNotices();
+
+		// Whether a line is clean depends only on its words, not on whether
+		// they're actually misspelled, so lines with ignored words and the
+		// like stay checked, with no notices.
+		if (identifier!=null) {
+			identifier.begin();
+		}
+		try {
+			for (int line=0; line<lineCount; line++) {
+				byte state = lineStates[line];
+				if (state==SUSPECT ||
+						(state==DIRTY && line>=visible[0] && line<=visible[1])) {
+					lineStates[line] = checkLine(doc, line, identifier, words) ?
+							CHECKED : CLEAN;
+				}
+			}
+		} finally {
+			if (identifier!=null) {
+				identifier.end();
+			}
+		}
+
+		if (words.count>0) {
+			addNotices(doc, words);
+		}
+		DefaultParseResult result = new DefaultParseResult(spellingParser);
+		addCachedNotices(visible, result);
+		result.setParsedLines(0, lineCount - 1);
+		result.setParseTime(System.currentTimeMillis() - start);
+
+		scheduleScreening(visible[1] + 1);
+		return result;
+
+	}
+
+
+	/**
+	 * Drops the cached notices of lines that are no longer checked, i.e.
+	 * that have been edited since they were checked.
+	 */
+	private void pruneNotices() {
+		Element root = doc.getDefaultRootElement();
+		notices.removeIf(cached -> {
+			int line = root.getElementIndex(cached.pos().getOffset());
+			return line>=lineCount || lineStates[line]!=CHECKED;
+		});
+	}
+
+
+	@Override
+	public void removeUpdate(DocumentEvent e) {
+		updateLineStates(e);
+	}
+
+
+	/**
+	 * Stops tracking the document.  This should be called when this parser
+	 * is removed from its text area.
+	 */
+	void uninstall() {
+		if (doc!=null) {
+			doc.removeDocumentListener(this);
+			doc = null;
+		}
+		notices.clear();
+		version++;
+	}
+
+
+	/**
+	 * Screens a chunk of dirty lines in the background, if there are any
+	 * and a chunk isn't already being screened.
+	 *
+	 * @param firstLine The line to start looking for dirty lines at.  The
+	 *        search wraps around to the start of the document.
+	 */
+	private void scheduleScreening(int firstLine) {
+
+		if (screeningScheduled || doc==null) {
+			return;
+		}
+
+		int[] lines = new int[SCREEN_CHUNK_SIZE];
+		int count = 0;
+		for (int i=0; i<lineCount && count<lines.length; i++) {
+			int line = (firstLine + i) % lineCount;
+			if (lineStates[line]==DIRTY) {
+				lines[count++] = line;
+			}
+		}
+		if (count==0) {
+			return;
+		}
+
+		int[] chunk = Arrays.copyOf(lines, count);
+		RSyntaxDocument doc = this.doc;
+		String style = this.style;
+		int version = this.version;
+		screeningScheduled = true;
+
+		SCREENER.submit(() -> {
+			boolean[] suspect = screen(doc, style, version, chunk);
+			SwingUtilities.invokeLater(() -> screeningDone(doc, version, chunk, suspect));
+		});
+
+	}
+
+
+	/**
+	 * Checks whether lines contain any words not in the dictionary in
+	 * their comments or strings.  This is called on the background thread.
+	 *
+	 * @param doc The document.
+	 * @param style The document's syntax style.
+	 * @param version The document version when the lines were chosen.
+	 * @param lines The lines to screen.
+	 * @return Whether each line might contain a spelling error, or
+	 *         {@code null} if the document changed while screening.
+	 */
+	private boolean[] screen(RSyntaxDocument doc, String style, int version,
+			int[] lines) {
+
+		boolean[] suspect = new boolean[lines.length];
+		boolean[] stale = new boolean[1];
+		TokenMaker tokenMaker = isPlainText(style) ? null :
+				TokenMakerFactory.getDefaultInstance().getTokenMaker(style);
+		Segment s = new Segment();
+
+		doc.render(() -> {
+			int count = doc.getDefaultRootElement().getElementCount();
+			for (int i=0; i<lines.length; i++) {
+				if (version!=this.version || lines[i]>=count) {
+					stale[0] = true;
+					return;
+				}
+				suspect[i] = isSuspect(doc, lines[i], tokenMaker, s);
+			}
+		});
+
+		return stale[0] ? null : suspect;
+
+	}
+
+
+	/**
+	 * Called on the EDT when a chunk of lines has been screened.
+	 *
+	 * @param doc The document that was screened.
+	 * @param version The document version that was screened.
+	 * @param lines The lines screened.
+	 * @param suspect Whether each line might contain a spelling error, or
+	 *        {@code null} if the document changed while screening.
+	 */
+	private void screeningDone(RSyntaxDocument doc, int version, int[] lines,
+			boolean[] suspect) {
+
+		screeningScheduled = false;
+		if (doc!=this.doc) {
+			return; // Uninstalled, or document replaced
+		}
+
+		if (suspect==null || version!=this.version) {
+			// Line numbers may have shifted; just pick new dirty lines
+			scheduleScreening(lines.length>0 ? lines[0] : 0);
+			return;
+		}
+
+		boolean reparse = false;
+		for (int i=0; i<lines.length; i++) {
+			lineStates[lines[i]] = suspect[i] ? SUSPECT : CLEAN;
+			reparse |= suspect[i];
+		}
+
+		if (reparse) {
+			// Schedules the next chunk when it's done
+			textArea.forceReparsing(this);
+		}
+		else {
+			scheduleScreening(lines[lines.length - 1] + 1);
+		}
+
+	}
+
+
+	/**
+	 * Updates the states of lines when the document changes.  Lines that
+	 * were modified are marked dirty, and line states are shifted as lines
+	 * are added or removed.
+	 *
+	 * @param e The document event.
+	 */
+	private void updateLineStates(DocumentEvent e) {
+
+		version++;
+		Element root = doc.getDefaultRootElement();
+		DocumentEvent.ElementChange change = e.getChange(root);
+
+		if (change!=null) {
+			int index = change.getIndex();
+			int removed = change.getChildrenRemoved().length;
+			int added = change.getChildrenAdded().length;
+			int newCount = lineCount - removed + added;
+			if (newCount>lineStates.length) {
+				lineStates = Arrays.copyOf(lineStates,
+						Math.max(newCount, lineStates.length * 3 / 2));
+			}
+			System.arraycopy(lineStates, index + removed, lineStates,
+					index + added, lineCount - index - removed);
+			Arrays.fill(lineStates, index, index + added, DIRTY);
+			lineCount = newCount;
+		}
+		else {
+			int line = root.getElementIndex(e.getOffset());
+			if (line<lineCount) {
+				lineStates[line] = DIRTY;
+			}
+		}
+
+		if (pendingChangeStart!=-1) {
+			markDirty(pendingChangeStart, pendingChangeEnd);
+			pendingChangeStart = -1;
+			pendingChangeEnd = 0;
+		}
+
+	}
+
+
+	/**
+	 * A notice created by the spelling parser for a checked line.
+	 *
+	 * @param notice The spelling parser's notice for the word in the word
+	 *        list.
+	 * @param pos The location of the word in the document.  This moves as
+	 *        the document is edited.
+	 */
+	private record CachedNotice(ParserNotice notice, Position pos) {
+	}
+
+
+	/**
+	 * A notice for a word the spelling parser found to be misspelled.  It
+	 * wraps the spelling parser's notice for the word in the word list, at
+	 * the word's location in the real document.
+	 */
+	private static final class SpellingNotice extends DefaultParserNotice {
+
+		private final ParserNotice notice;
+
+		private SpellingNotice(ParserNotice notice, int offs, int line) {
+			super(notice.getParser(), notice.getMessage(), line, offs,
+					notice.getLength());
+			this.notice = notice;
+			setLevel(notice.getLevel());
+		}
+
+		@Override
+		public Color getColor() {
+			return notice.getColor();
+		}
+
+		@Override
+		public String getToolTipText() {
+			// The "replace" links contain the offset of the word to replace
+			String replace = SpellingErrorAction.REPLACE + "://";
+			return notice.getToolTipText().replace(
+					replace + notice.getOffset() + ",",
+					replace + getOffset() + ",");
+		}
+
+	}
+
+
+	/**
+	 * The words to give to the spelling parser, one per line, along with
+	 * their offsets in the real document.
+	 */
+	private static final class WordList {
+
+		private final StringBuilder text;
+		private int[] textOffsets;
+		private int[] documentOffsets;
+		private int count;
+
+		private WordList() {
+			text = new StringBuilder();
+			textOffsets = new int[16];
+			documentOffsets = new int[16];
+		}
+
+		private void add(String word, int offs) {
+			if (count==textOffsets.length) {
+				textOffsets = Arrays.copyOf(textOffsets, count * 2);
+				documentOffsets = Arrays.copyOf(documentOffsets, count * 2);
+			}
+			textOffsets[count] = text.length();
+			documentOffsets[count++] = offs;
+			text.append(word).append('\n');
+		}
+
+		/**
+		 * Returns the document offset of an offset in the word list.
+		 *
+		 * @param offs The offset in the word list.
+		 * @return The offset in the document.
+		 */
+		private int getDocumentOffset(int offs) {
+			int index = Arrays.binarySearch(textOffsets, 0, count, offs);
+			if (index<0) {
+				index = -index - 2; // Part of a word
+			}
+			return documentOffsets[index] + offs - textOffsets[index];
+		}
+
+	}
+
+
+}
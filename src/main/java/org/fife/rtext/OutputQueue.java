@@ -0,0 +1,255 @@
+/*
+ * 10/19/2026
+ *
+ * OutputQueue.java - Coalesces process output before it is displayed.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+
+/**
+ * Coalesces output from processes before it is displayed in a text
+ * component.<p>
+ *
+ * Text may be added from any thread.  Rather than updating the UI for every
+ * chunk of output, chunks are queued and handed to a {@link Sink} on the EDT
+ * at most once per frame, with adjacent chunks in the same style merged, so
+ * the sink can update its document with a few inserts.<p>
+ *
+ * The queue holds a bounded amount of text.  When it's full, threads adding
+ * text wait briefly for the EDT to catch up, which slows down processes
+ * writing output faster than it can be displayed.  If the EDT still can't
+ * keep up, the oldest queued text is dropped, and the sink is told how much
+ * was dropped so it can tell the user.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class OutputQueue {
+
+	private final Sink sink;
+	private final Deque<Chunk> chunks;
+	private final Timer timer;
+	private int size;
+	private long dropped;
+	private boolean flushScheduled;
+	private long lastFlushTime;
+
+	/**
+	 * The maximum number of characters queued.
+	 */
+	private static final int CAPACITY = 256 * 1024;
+
+	/**
+	 * The minimum time between flushes.
+	 */
+	private static final int FRAME_MILLIS = 16;
+
+	/**
+	 * How long a thread adding text waits for room in the queue before text
+	 * is dropped.
+	 */
+	private static final long MAX_WAIT_MILLIS = 100;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param sink Receives the queued output on the EDT.
+	 */
+	public OutputQueue(Sink sink) {
+		this.sink = sink;
+		chunks = new ArrayDeque<>();
+		timer = new Timer(FRAME_MILLIS, e -> flush());
+		timer.setRepeats(false);
+	}
+
+
+	/**
+	 * Adds text to the queue.  This method is thread-safe.  If called off
+	 * the EDT while the queue is full, this method waits briefly for it to
+	 * be flushed.
+	 *
+	 * @param text The text to add.
+	 * @param style The style of the text.
+	 */
+	public void add(String text, String style) {
+
+		if (text==null || text.isEmpty()) {
+			return;
+		}
+
+		boolean schedule;
+
+		synchronized (this) {
+
+			if (!SwingUtilities.isEventDispatchThread()) {
+				long deadline = System.currentTimeMillis() + MAX_WAIT_MILLIS;
+				long remaining = MAX_WAIT_MILLIS;
+				while (size + text.length()>CAPACITY && remaining>0) {
+					try {
+						wait(remaining);
+					} catch (InterruptedException ie) {
+						Thread.currentThread().interrupt();
+						break;
+					}
+					remaining = deadline - System.currentTimeMillis();
+				}
+			}
+
+			// Still full - drop the oldest text
+			if (text.length()>CAPACITY) {
+				dropped += text.length() - CAPACITY;
+				text = text.substring(text.length() - CAPACITY);
+			}
+			while (size + text.length()>CAPACITY) {
+				Chunk oldest = chunks.removeFirst();
+				size -= oldest.text().length();
+				dropped += oldest.text().length();
+			}
+
+			chunks.addLast(new Chunk(text, style));
+			size += text.length();
+			schedule = !flushScheduled;
+			flushScheduled = true;
+
+		}
+
+		if (schedule) {
+			SwingUtilities.invokeLater(this::scheduleFlush);
+		}
+
+	}
+
+
+	/**
+	 * Discards any queued text.  This should be called on the EDT, e.g.
+	 * when the text component is cleared.
+	 */
+	public void clear() {
+		synchronized (this) {
+			chunks.clear();
+			size = 0;
+			dropped = 0;
+			notifyAll();
+		}
+	}
+
+
+	/**
+	 * Hands any queued text to the sink now.  This should be called on the
+	 * EDT, and is useful before appending text to the component directly, to
+	 * keep output in order.
+	 */
+	public void flush() {
+
+		timer.stop();
+		lastFlushTime = System.currentTimeMillis();
+
+		List<Chunk> batch;
+		long droppedCount;
+		synchronized (this) {
+			flushScheduled = false;
+			if (chunks.isEmpty() && dropped==0) {
+				return;
+			}
+			batch = merge(chunks);
+			droppedCount = dropped;
+			chunks.clear();
+			size = 0;
+			dropped = 0;
+			notifyAll();
+		}
+
+		sink.write(batch, droppedCount);
+
+	}
+
+
+	/**
+	 * Merges adjacent chunks with the same style.
+	 *
+	 * @param chunks The chunks to merge.
+	 * @return The merged chunks.
+	 */
+	private static List<Chunk> merge(Deque<Chunk> chunks) {
+
+		List<Chunk> merged = new ArrayList<>();
+		StringBuilder sb = new StringBuilder();
+		String style = null;
+
+		for (Chunk chunk : chunks) {
+			if (!sb.isEmpty() && !chunk.style().equals(style)) {
+				merged.add(new Chunk(sb.toString(), style));
+				sb.setLength(0);
+			}
+			sb.append(chunk.text());
+			style = chunk.style();
+		}
+		if (!sb.isEmpty()) {
+			merged.add(new Chunk(sb.toString(), style));
+		}
+
+		return merged;
+
+	}
+
+
+	/**
+	 * Called on the EDT when text is added to an empty queue.  Flushes now
+	 * if the last flush was at least a frame ago, otherwise waits until it
+	 * was.
+	 */
+	private void scheduleFlush() {
+		long elapsed = System.currentTimeMillis() - lastFlushTime;
+		if (elapsed>=FRAME_MILLIS) {
+			flush();
+		}
+		else if (!timer.isRunning()) {
+			timer.setInitialDelay((int)(FRAME_MILLIS - elapsed));
+			timer.start();
+		}
+	}
+
+
+	/**
+	 * A run of text in a single style.
+	 *
+	 * @param text The text.
+	 * @param style The name of the style of the text.
+	 */
+	public record Chunk(String text, String style) {
+	}
+
+
+	/**
+	 * Receives output from an {@link OutputQueue}.
+	 */
+	public interface Sink {
+
+		/**
+		 * Called on the EDT to display queued output.
+		 *
+		 * @param chunks The output, in order.  Adjacent chunks have
+		 *        different styles.  This may be empty if all output was
+		 *        dropped.
+		 * @param dropped The number of characters of output dropped since
+		 *        the last call because they couldn't be displayed fast
+		 *        enough, before the text in {@code chunks}.
+		 */
+		void write(List<Chunk> chunks, long dropped);
+
+	}
+
+
+}
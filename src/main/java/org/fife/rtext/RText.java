@@ -306,6 +306,8 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 
 		menuBar = new RTextMenuBar(this);
 		mainView.addPropertyChangeListener(menuBar);
+		recentFileManager.addPropertyChangeListener(
+				RecentFileManager.PROPERTY_FILES, menuBar);
 
 		menuBar.setWindowMenuVisible(prefs.mainView==MDI_VIEW);
 
@@ -618,7 +620,7 @@ public class RText extends AbstractPluggableGUIApplication<RTextPrefs>
 	 * @return The list of files.  This may be empty but will never be
 	 *         <code>null</code>.
 	 */
-	java.util.List<FileLocation> getRecentFiles() {
+	public java.util.List<FileLocation> getRecentFiles() {
 		return recentFileManager.getRecentFiles();
 	}
 
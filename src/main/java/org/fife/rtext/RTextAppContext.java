@@ -162,6 +162,7 @@ public class RTextAppContext extends AppContext<RText, RTextPrefs> {
 		prefs.spellingDictionary		= spelling.getSpellingDictionary();
 		prefs.userDictionary			= spelling.getUserDictionary();
 		prefs.maxSpellingErrors			= spelling.getMaxSpellingErrors();
+		prefs.incrementalSpellChecking	= spelling.isIncrementalSpellChecking();
 		prefs.viewSpellingList			= rtext.isSpellingWindowVisible();
 		prefs.searchWindowOpacityEnabled= rtext.isSearchWindowOpacityEnabled();
 		prefs.searchWindowOpacity		= rtext.getSearchWindowOpacity();
@@ -189,6 +189,23 @@ public class RTextMenuBar extends MenuBar<RText>
 		menu.add(subMenu);
 	}
 
+	/**
+	 * Creates the "recent files" menu.
+	 *
+	 * @param text The menu's text.
+	 * @return The menu.
+	 */
+	private RecentFilesMenu createRecentFilesMenu(String text) {
+		RText rtext = getApplication();
+		return new RecentFilesMenu(text) {
+			@Override
+			protected Action createOpenAction(String fileFullPath) {
+				return new OpenFileAction(rtext, fileFullPath);
+			}
+		};
+	}
+
+
 	private JMenuItem createCopyAsStyledTextMenuItem(String title, String themeName)
 		throws IOException {
 		Theme theme = Theme.load(getClass().getResourceAsStream(
@@ -222,17 +239,9 @@ public class RTextMenuBar extends MenuBar<RText>
 
 	@Override
 	public void addNotify() {
-
 		super.addNotify();
-
 		// Populate file history here to avoid issue with Darcula
-		RText rtext = getApplication();
-		List<FileLocation> recentFiles = rtext.getRecentFiles();
-		List<FileLocation> recentFilesCopy = new ArrayList<>(recentFiles);
-		Collections.reverse(recentFilesCopy);
-		for (FileLocation file : recentFilesCopy) {
-			recentFilesMenu.addFileToFileHistory(file.getFileFullPath());
-		}
+		populateFileHistory();
 	}
 
 
@@ -401,12 +410,7 @@ public class RTextMenuBar extends MenuBar<RText>
 
 		fileMenu.addSeparator();
 
-		recentFilesMenu = new RecentFilesMenu(menuMsg.getString("RecentFiles")) {
-			@Override
-			protected Action createOpenAction(String fileFullPath) {
-				return new OpenFileAction(rtext, fileFullPath);
-			}
-		};
+		recentFilesMenu = createRecentFilesMenu(menuMsg.getString("RecentFiles"));
 		fileMenu.add(recentFilesMenu);
 
 		// 1.5.2004/pwy: On OS X the Exit menu item is in the standard
@@ -747,6 +751,10 @@ public class RTextMenuBar extends MenuBar<RText>
 			addFileToFileHistory(textArea.getFileFullPath());
 		}
 
+		else if (prop.equals(RecentFileManager.PROPERTY_FILES)) {
+			refreshFileHistory();
+		}
+
 	}
 
 
@@ -853,6 +861,38 @@ public class RTextMenuBar extends MenuBar<RText>
 	}
 
 
+	/**
+	 * Adds the application's file history to the "recent files" menu.
+	 */
+	private void populateFileHistory() {
+		RText rtext = getApplication();
+		List<FileLocation> recentFiles = rtext.getRecentFiles();
+		List<FileLocation> recentFilesCopy = new ArrayList<>(recentFiles);
+		Collections.reverse(recentFilesCopy);
+		for (FileLocation file : recentFilesCopy) {
+			recentFilesMenu.addFileToFileHistory(file.getFileFullPath());
+		}
+	}
+
+
+	/**
+	 * Rebuilds the "recent files" menu from the application's file history.
+	 * This is called when files are dropped from the history, so they
+	 * aren't offered, or saved with the history, anymore.
+	 */
+	private void refreshFileHistory() {
+		int index = fileMenu.getPopupMenu().getComponentIndex(recentFilesMenu);
+		if (index==-1) {
+			return;
+		}
+		fileMenu.remove(index);
+		recentFilesMenu = createRecentFilesMenu(recentFilesMenu.getText());
+		populateFileHistory();
+		fileMenu.insert(recentFilesMenu, index);
+		recentFilesMenu.applyComponentOrientation(getComponentOrientation());
+	}
+
+
 	/**
 	 * Sets whether the "Window" menu is visible.  This menu should
 	 * only be visible on the MDI view.
@@ -134,6 +134,7 @@ public class RTextPrefs extends AppPrefs implements RTextActionInfo {
 	public String spellingDictionary;
 	public File userDictionary;
 	public int maxSpellingErrors;
+	public boolean incrementalSpellChecking;
 	public boolean viewSpellingList;
 	public boolean searchWindowOpacityEnabled;
 	public float searchWindowOpacity;
@@ -271,6 +272,7 @@ public class RTextPrefs extends AppPrefs implements RTextActionInfo {
 		userDictionary       = new File(RTextUtilities.getPreferencesDirectory(),
 										"userDictionary.txt");
 		maxSpellingErrors    = DEFAULT_MAX_SPELLING_ERRORS;
+		incrementalSpellChecking = true;
 		viewSpellingList   = false;
 		searchWindowOpacityEnabled = false;
 		searchWindowOpacity		= 0.6f;
@@ -11,30 +11,72 @@ package org.fife.rtext;
 
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.swing.SwingUtilities;
 
 import org.fife.ui.rsyntaxtextarea.FileLocation;
 
 
 /**
  * Listens for files being opened in RText, so anyone interested can easily
- * get this list.
+ * get this list.<p>
+ *
+ * The file history saved from the previous session is loaded without
+ * touching the file system, since checking files on disconnected network
+ * shares can block for a long time.  Instead, local files are checked on
+ * background threads after startup, and any that no longer exist are then
+ * dropped from the history.  A {@link #PROPERTY_FILES} event is fired when
+ * that happens, so anything showing the history can refresh itself.
  *
  * @author Robert Futrell
  * @version 1.0
  */
 public class RecentFileManager implements PropertyChangeListener {
 
+	/**
+	 * Fired when files are dropped from the history because they no longer
+	 * exist.
+	 */
+	public static final String PROPERTY_FILES = "RecentFileManager.files";
+
 	private RText rtext;
-	private List<FileLocation> files;
+	private final PropertyChangeSupport support;
+
+	/**
+	 * The remembered files, keyed by full path, from least to most recently
+	 * opened.
+	 */
+	private final Map<String, FileLocation> files;
 
 	/**
 	 * The number of files we remember.
 	 */
 	private static final int MAX_FILE_COUNT = 75;
 
+	/**
+	 * The number of threads used to check whether files in the history
+	 * still exist.
+	 */
+	private static final int VALIDATOR_THREAD_COUNT = 4;
+
+	/**
+	 * The maximum time to spend checking whether files in the history still
+	 * exist.  Files that can't be checked in this time are kept.
+	 */
+	private static final long VALIDATION_TIMEOUT_MILLIS = 10_000;
+
 
 	/**
 	 * Constructor.
@@ -45,15 +87,17 @@ public class RecentFileManager implements PropertyChangeListener {
 	public RecentFileManager(RText rtext, List<String> recentFiles) {
 
 		this.rtext = rtext;
-		files = new ArrayList<>();
+		files = new LinkedHashMap<>();
+		support = new PropertyChangeSupport(this);
 
 		rtext.getMainView().addPropertyChangeListener(
 				AbstractMainView.TEXT_AREA_ADDED_PROPERTY, this);
 
 		if (recentFiles != null) {
 			for (String recentFile : recentFiles) {
-				addFile(recentFile);
+				addFile(recentFile, false);
 			}
+			validateInBackground();
 		}
 
 	}
@@ -83,7 +127,7 @@ public class RecentFileManager implements PropertyChangeListener {
 						"-".equals(fullPath)) {
 					return;
 				}
-				addFile(fullPath);
+				addFile(fullPath, true);
 			}
 		}
 
@@ -91,25 +135,22 @@ public class RecentFileManager implements PropertyChangeListener {
 
 
 	/**
-	 * Adds a file to the list of recent files.
+	 * Adds a file to the "top" of the list of recent files.  If the file is
+	 * already in the list, it is moved to the top.
 	 *
 	 * @param file The file to add.
+	 * @param checkExists Whether to skip the file if it is local and doesn't
+	 *        exist.  This is done for files opened in this session, but not
+	 *        for the saved history, which is checked in the background.
 	 */
-	private void addFile(String file) {
+	private void addFile(String file, boolean checkExists) {
 
 		if (file == null) {
 			return;
 		}
 
-		// If we already are remembering this file, move it to the "top."
-		int index = indexOf(file);
-		if (index > -1) {
-			FileLocation loc = files.remove(index);
-			files.addFirst(loc);
-			return;
-		}
-
-		// Add our new file to the "top" of remembered files.
+		// A new instance, even if we already remembered this file, so we
+		// can tell it apart from entries that are being validated.
 		FileLocation loc;
 		try {
 			loc = FileLocation.create(file);
@@ -118,46 +159,138 @@ public class RecentFileManager implements PropertyChangeListener {
 			return;
 		}
 
-		if (loc.isLocal() && !loc.isLocalAndExists()) {
-			// When adding from saved history, some files may no longer
-			// exist
+		if (checkExists && loc.isLocal() && !loc.isLocalAndExists()) {
 			return;
 		}
-		files.addFirst(loc);
+
+		// Re-inserting moves an existing entry to the "top."
+		files.remove(file);
+		files.put(file, loc);
 
 		// Too many files?  Oust the file in history added least recently.
 		if (files.size() > MAX_FILE_COUNT) {
-			files.removeLast();
+			String oldest = files.keySet().iterator().next();
+			files.remove(oldest);
 		}
 
 	}
 
 
 	/**
-	 * Returns the current index of the specified file in this history.
+	 * Adds a property change listener to this file manager.
 	 *
-	 * @param file The file to look for.
-	 * @return The index of the file, or <code>-1</code> if it is not
-	 *         currently in the list.
+	 * @param property The property to listen for.
+	 * @param l The listener.
+	 * @see #removePropertyChangeListener(String, PropertyChangeListener)
 	 */
-	private int indexOf(String file) {
-		for (int i=0; i<files.size(); i++) {
-			FileLocation loc = files.get(i);
-			if (file.equals(loc.getFileFullPath())) {
-				return i;
-			}
-		}
-		return -1;
+	public void addPropertyChangeListener(String property,
+			PropertyChangeListener l) {
+		support.addPropertyChangeListener(property, l);
 	}
 
 
 	/**
 	 * Returns the list of recent files.
 	 *
-	 * @return The list of recent files.
+	 * @return The list of recent files, most recently opened first.  This is
+	 *         a copy and may be modified.
 	 */
 	public List<FileLocation> getRecentFiles() {
-		return files;
+		List<FileLocation> list = new ArrayList<>(files.values());
+		Collections.reverse(list);
+		return list;
+	}
+
+
+	/**
+	 * Called on the EDT with files from the history that no longer exist.
+	 * They are removed from the history, unless they've been opened again
+	 * since they were checked.  A {@link #PROPERTY_FILES} event is fired if
+	 * any are removed.
+	 *
+	 * @param missing The files that don't exist.
+	 */
+	private void removeMissingFiles(List<FileLocation> missing) {
+		boolean removed = false;
+		for (FileLocation loc : missing) {
+			removed |= files.remove(loc.getFileFullPath(), loc);
+		}
+		if (removed) {
+			support.firePropertyChange(PROPERTY_FILES, null, null);
+		}
+	}
+
+
+	/**
+	 * Removes a property change listener from this file manager.
+	 *
+	 * @param property The property that was being listened to.
+	 * @param l The listener to remove.
+	 * @see #addPropertyChangeListener(String, PropertyChangeListener)
+	 */
+	public void removePropertyChangeListener(String property,
+			PropertyChangeListener l) {
+		support.removePropertyChangeListener(property, l);
+	}
+
+
+	/**
+	 * Checks whether the local files in the history still exist, on
+	 * background threads.  Files that don't exist are removed from the
+	 * history when the check completes.
+	 */
+	private void validateInBackground() {
+
+		List<FileLocation> toCheck = new ArrayList<>();
+		for (FileLocation loc : files.values()) {
+			if (loc.isLocal()) {
+				toCheck.add(loc);
+			}
+		}
+		if (toCheck.isEmpty()) {
+			return;
+		}
+
+		ExecutorService checkers = Executors.newFixedThreadPool(
+				VALIDATOR_THREAD_COUNT,
+				ThreadUtil.createThreadFactory("RText Recent File Validator"));
+
+		List<Future<Boolean>> results = new ArrayList<>();
+		for (FileLocation loc : toCheck) {
+			results.add(checkers.submit(loc::isLocalAndExists));
+		}
+
+		// Collect the results on a separate thread, since the checkers may
+		// block indefinitely on an unresponsive file system.
+		Thread waiter = new Thread(() -> {
+			List<FileLocation> missing = new ArrayList<>();
+			long deadline = System.currentTimeMillis() + VALIDATION_TIMEOUT_MILLIS;
+			try {
+				for (int i=0; i<toCheck.size(); i++) {
+					long remaining = Math.max(0,
+							deadline - System.currentTimeMillis());
+					try {
+						if (!results.get(i).get(remaining, TimeUnit.MILLISECONDS)) {
+							missing.add(toCheck.get(i));
+						}
+					} catch (TimeoutException | ExecutionException e) {
+						// Can't tell whether it exists, so keep it
+					}
+				}
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+			} finally {
+				// Threads stuck on unresponsive file systems are left to
+				// finish on their own; they're daemons.
+				checkers.shutdownNow();
+			}
+			if (!missing.isEmpty()) {
+				SwingUtilities.invokeLater(() -> removeMissingFiles(missing));
+			}
+		}, "RText Recent File Validator");
+		waiter.setDaemon(true);
+		waiter.start();
+
 	}
 
 
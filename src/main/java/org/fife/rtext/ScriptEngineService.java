@@ -0,0 +1,252 @@
+/*
+ * 10/19/2026
+ *
+ * ScriptEngineService.java - Creates and shares script engines.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.script.Bindings;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineManager;
+import javax.script.ScriptException;
+import javax.swing.Timer;
+
+
+/**
+ * Creates script engines on background threads, and shares them across
+ * plugins.<p>
+ *
+ * Engines such as Groovy, GraalJS and JRuby take seconds to boot, so
+ * creating one on the EDT the first time a macro or console command is run
+ * freezes the UI.  Instead, engines are created on a low-priority thread,
+ * and a trivial script is evaluated in each to load and initialize the
+ * engine's runtime.  Plugins can ask for engines they're likely to need to
+ * be warmed up this way once startup has finished and the UI is idle.<p>
+ *
+ * Warmed-up engines are kept in a pool until they're claimed, either as the
+ * engine shared by everyone using that language (see
+ * {@link #getEngine(String)}), or by a caller that needs an engine to
+ * itself, e.g. because it changes the engine's context (see
+ * {@link #takeEngine(String)}).  Both return futures, so callers on the EDT
+ * can tell the user an engine is still starting rather than blocking.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class ScriptEngineService {
+
+	/**
+	 * The engine shared by all callers, for each engine name.
+	 */
+	private static final Map<String, CompletableFuture<ScriptEngine>> SHARED =
+			new ConcurrentHashMap<>();
+
+	/**
+	 * Engines that have been created or are being created, but haven't been
+	 * claimed yet.
+	 */
+	private static final Map<String, CompletableFuture<ScriptEngine>> POOL =
+			new ConcurrentHashMap<>();
+
+	/**
+	 * Engines to warm up once the UI is idle.  Only accessed on the EDT.
+	 */
+	private static final Set<String> WARM_UP_QUEUE = new LinkedHashSet<>();
+
+	private static Timer idleTimer;
+
+	/**
+	 * How long to wait between checks for the UI being idle.
+	 */
+	private static final int IDLE_CHECK_MILLIS = 2000;
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private ScriptEngineService() {
+		// Do nothing
+	}
+
+
+	/**
+	 * Creates and initializes an engine.  This is called on a background
+	 * thread.
+	 *
+	 * @param name The name of the engine, e.g. "{@code Groovy}".
+	 * @return The engine, or {@code null} if there is no engine with that
+	 *         name.
+	 */
+	private static ScriptEngine createEngine(String name) {
+
+		ScriptEngineManager sem = new ScriptEngineManager(
+				ScriptEngineService.class.getClassLoader());
+		ScriptEngine engine = sem.getEngineByName(name);
+		if (engine==null) {
+			return null;
+		}
+
+		// Engine-specific bindings that must be set *before* any other
+		// calls that update the context
+		if (engine.getFactory().getEngineName().contains("Graal")) {
+			Bindings bindings = engine.getBindings(ScriptContext.ENGINE_SCOPE);
+			bindings.put("polyglot.js.allowAllAccess", true);
+			bindings.put("polyglot.engine.WarnInterpreterOnly", "false");
+		}
+
+		ScriptContext context = engine.getContext();
+		context.setWriter(new PrintWriter(new OutputStreamWriter(System.out)));
+		context.setErrorWriter(new PrintWriter(new OutputStreamWriter(System.err)));
+
+		// Loads and initializes the engine's runtime and compiler.  "1" is
+		// valid in every language we support
+		try {
+			engine.eval("1", engine.createBindings());
+		} catch (ScriptException se) {
+			se.printStackTrace(); // Never happens; the engine still works
+		}
+
+		return engine;
+
+	}
+
+
+	/**
+	 * Returns the engine shared by everyone using a language, creating it
+	 * on a background thread if it hasn't been created yet.  Callers should
+	 * only change the engine's state via bindings they create themselves.
+	 *
+	 * @param name The name of the engine, e.g. "{@code Groovy}".
+	 * @return A future for the engine.  It completes with {@code null} if
+	 *         there is no engine with that name, and exceptionally if the
+	 *         engine fails to start.
+	 * @see #takeEngine(String)
+	 * @see #isReady(String)
+	 */
+	public static CompletableFuture<ScriptEngine> getEngine(String name) {
+		CompletableFuture<ScriptEngine> future = SHARED.computeIfAbsent(name,
+				ScriptEngineService::takeEngine);
+		if (future.isCompletedExceptionally()) { // Failed before; try again
+			SHARED.remove(name, future);
+			future = SHARED.computeIfAbsent(name, ScriptEngineService::takeEngine);
+		}
+		return future;
+	}
+
+
+	/**
+	 * Returns whether an engine has been created and is ready to use
+	 * without blocking.
+	 *
+	 * @param name The name of the engine.
+	 * @return Whether the engine is ready.
+	 */
+	public static boolean isReady(String name) {
+		CompletableFuture<ScriptEngine> future = SHARED.get(name);
+		if (future==null) {
+			future = POOL.get(name);
+		}
+		return future!=null && future.isDone() && !future.isCompletedExceptionally();
+	}
+
+
+	/**
+	 * Starts creating an engine on a low-priority background thread.
+	 *
+	 * @param name The name of the engine.
+	 * @return A future for the engine.
+	 */
+	private static CompletableFuture<ScriptEngine> startEngine(String name) {
+
+		CompletableFuture<ScriptEngine> future = new CompletableFuture<>();
+		ThreadUtil.createThreadFactory("RText Script Engine Loader - " + name).
+				newThread(() -> {
+			try {
+				future.complete(createEngine(name));
+			} catch (Throwable t) { // e.g. LinkageErrors from the engine
+				future.completeExceptionally(t);
+			}
+		}).start();
+		return future;
+
+	}
+
+
+	/**
+	 * Returns an engine for the caller's exclusive use.  If an engine has
+	 * been warmed up and not claimed yet, it is returned; otherwise, a new
+	 * one is created on a background thread.
+	 *
+	 * @param name The name of the engine, e.g. "{@code jruby}".
+	 * @return A future for the engine.  It completes with {@code null} if
+	 *         there is no engine with that name, and exceptionally if the
+	 *         engine fails to start.
+	 * @see #getEngine(String)
+	 */
+	public static CompletableFuture<ScriptEngine> takeEngine(String name) {
+		CompletableFuture<ScriptEngine> future = POOL.remove(name);
+		return future!=null ? future : startEngine(name);
+	}
+
+
+	/**
+	 * Warms up engines once the UI is idle, so they're ready when they're
+	 * first needed.  Engines that have already been created, or are queued
+	 * to be, are ignored.  This method should be called on the EDT.
+	 *
+	 * @param names The names of the engines.
+	 */
+	public static void warmUp(String... names) {
+
+		for (String name : names) {
+			if (!SHARED.containsKey(name) && !POOL.containsKey(name)) {
+				WARM_UP_QUEUE.add(name);
+			}
+		}
+
+		if (!WARM_UP_QUEUE.isEmpty() && idleTimer==null) {
+			idleTimer = new Timer(IDLE_CHECK_MILLIS, e -> warmUpIfIdle());
+			idleTimer.start();
+		}
+
+	}
+
+
+	/**
+	 * Starts warming up the queued engines if no events are waiting to be
+	 * processed on the EDT.
+	 */
+	private static void warmUpIfIdle() {
+
+		EventQueue queue = Toolkit.getDefaultToolkit().getSystemEventQueue();
+		if (queue.peekEvent()!=null) {
+			return; // Still busy; check again later
+		}
+
+		idleTimer.stop();
+		idleTimer = null;
+		for (String name : WARM_UP_QUEUE) {
+			if (!SHARED.containsKey(name)) {
+				POOL.computeIfAbsent(name, ScriptEngineService::startEngine);
+			}
+		}
+		WARM_UP_QUEUE.clear();
+
+	}
+
+
+}
@@ -0,0 +1,148 @@
+/*
+ * 10/19/2026
+ *
+ * SpellDictionaryService.java - Shares spelling dictionaries across windows.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+
+/**
+ * Loads spelling dictionaries once per process, and shares them across all
+ * RText windows.<p>
+ *
+ * Loading a dictionary takes a noticeable amount of time and memory, so
+ * rather than each window's {@link SpellingSupport} loading its own copy,
+ * dictionaries are loaded lazily on a background thread the first time
+ * they are requested, and the same {@link CompactSpellDictionary} is
+ * returned to every caller afterward.  Words the user adds to their
+ * dictionary in one window are added to the shared dictionary too, so all
+ * windows see them immediately.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class SpellDictionaryService {
+
+	private static final Map<String, CompletableFuture<CompactSpellDictionary>>
+			DICTIONARIES = new ConcurrentHashMap<>();
+
+	/**
+	 * The word lists in the dictionary zip file common to both variants of
+	 * English.
+	 */
+	private static final String[] COMMON_WORD_LISTS = { "eng_com", "programming" };
+
+	private static final String[] AMERICAN_WORD_LISTS = {
+		"color", "labeled", "center", "ize", "yze",
+	};
+
+	private static final String[] BRITISH_WORD_LISTS = {
+		"colour", "labelled", "centre", "ise", "yse",
+	};
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private SpellDictionaryService() {
+		// Do nothing
+	}
+
+
+	/**
+	 * Returns a shared English dictionary, loading it in the background if
+	 * it isn't already loaded or loading.  This method doesn't block, so it
+	 * may be called on the EDT.
+	 *
+	 * @param zip The zip file containing the dictionary's word lists.
+	 * @param american Whether to use American (as opposed to British)
+	 *        English.
+	 * @return A future for the dictionary.  If loading the dictionary fails,
+	 *         a subsequent call tries again.
+	 */
+	static CompletableFuture<CompactSpellDictionary> getEnglishDictionary(
+			File zip, boolean american) {
+
+		return DICTIONARIES.computeIfAbsent(getKey(zip, american), key -> {
+			CompletableFuture<CompactSpellDictionary> future = new CompletableFuture<>();
+			// Registered before loading starts, so this runs on the loader
+			// thread, not in computeIfAbsent()
+			future.whenComplete((dictionary, error) -> {
+				if (error!=null) {
+					DICTIONARIES.remove(key, future);
+				}
+			});
+			ThreadUtil.createThreadFactory("RText Spelling Dictionary Loader").
+					newThread(() -> {
+				try {
+					future.complete(loadEnglishDictionary(zip, american));
+				} catch (IOException | RuntimeException e) {
+					future.completeExceptionally(e);
+				}
+			}).start();
+			return future;
+		});
+
+	}
+
+
+	private static String getKey(File zip, boolean american) {
+		return zip.getAbsolutePath() + (american ? "|us" : "|uk");
+	}
+
+
+	/**
+	 * Loads an English dictionary from the word lists in a zip file.
+	 *
+	 * @param zip The zip file.
+	 * @param american Whether to use American (as opposed to British)
+	 *        English.
+	 * @return The dictionary.
+	 * @throws IOException If an IO error occurs.
+	 */
+	private static CompactSpellDictionary loadEnglishDictionary(File zip,
+			boolean american) throws IOException {
+
+		List<String> names = new ArrayList<>(List.of(COMMON_WORD_LISTS));
+		names.addAll(List.of(american ? AMERICAN_WORD_LISTS : BRITISH_WORD_LISTS));
+
+		try (ZipFile zf = new ZipFile(zip)) {
+			List<BufferedReader> readers = new ArrayList<>();
+			try {
+				for (String name : names) {
+					ZipEntry entry = zf.getEntry(name + ".dic");
+					if (entry!=null) {
+						InputStream in = zf.getInputStream(entry);
+						readers.add(new BufferedReader(new InputStreamReader(in)));
+					}
+				}
+				return new CompactSpellDictionary(
+						readers.toArray(new BufferedReader[0]));
+			} finally {
+				for (BufferedReader r : readers) {
+					r.close();
+				}
+			}
+		}
+
+	}
+
+
+}
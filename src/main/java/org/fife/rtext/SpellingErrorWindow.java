@@ -99,6 +99,7 @@ class SpellingErrorWindow extends AbstractParserNoticeWindow
 			RTextEditorPane textArea = (RTextEditorPane)e.getNewValue();
 			textArea.removePropertyChangeListener(
 							RSyntaxTextArea.PARSER_NOTICES_PROPERTY, this);
+			model.update(textArea, null);
 		}
 
 		else if (RText.ICON_STYLE_PROPERTY.equals(prop)) {
@@ -115,18 +116,16 @@ class SpellingErrorWindow extends AbstractParserNoticeWindow
 		}
 
 		@Override
-		protected void addNoticesImpl(RTextEditorPane textArea,
-				List<ParserNotice> notices) {
+		protected Object[] createRow(RTextEditorPane textArea,
+				ParserNotice notice) {
 			AbstractMainView view = getRText().getMainView();
 			SpellingParser parser = view.getSpellingSupport().getSpellingParser();
-			for (ParserNotice notice : notices) {
-				if (notice.getParser()==parser) {
-					Object[] data = { getIcon(), textArea,
-						notice.getLine() + 1,
-						notice.getMessage() };
-					addRow(data);
-				}
+			if (notice.getParser()==parser) {
+				return new Object[] { getIcon(), textArea,
+					notice.getLine() + 1,
+					notice.getMessage() };
 			}
+			return null;
 		}
 
 	}
@@ -41,17 +41,26 @@ public class SpellingSupport implements SpellingParserListener {
 	};
 
 	private RText rtext;
+	private CompactSpellDictionary dictionary;
 	private SpellingParser spellingParser;
 	private boolean spellCheckingEnabled;
 	private Color spellCheckingColor;
 	private String spellingDictionary;
 	private File userDictionary;
 	private int maxSpellingErrors;
+	private boolean incrementalSpellChecking;
 	private ViewSpellingErrorWindowAction viewAction;
 
 	private static final String VIEW_SPELLING_ERROR_WINDOW
 									= "viewSpellingErrorWindowAction";
 
+	/**
+	 * Client property on text areas holding their incremental spelling
+	 * parser, if any.
+	 */
+	private static final String INCREMENTAL_PARSER_PROPERTY
+									= "RText.incrementalSpellingParser";
+
 
 	/**
 	 * Constructor.
@@ -90,9 +99,12 @@ public class SpellingSupport implements SpellingParserListener {
 	 */
 	void configure(RTextPrefs prefs) {
 
+		// Set the dictionary first so the right one is loaded if spell
+		// checking is enabled.
+		setSpellingDictionary(prefs.spellingDictionary);
+		setIncrementalSpellChecking(prefs.incrementalSpellChecking);
 		setSpellCheckingEnabled(prefs.spellCheckingEnabled);
 		setSpellCheckingColor(prefs.spellCheckingColor);
-		setSpellingDictionary(prefs.spellingDictionary);
 		setMaxSpellingErrors(prefs.maxSpellingErrors);
 		setUserDictionary(prefs.userDictionary);
 
@@ -104,41 +116,82 @@ public class SpellingSupport implements SpellingParserListener {
 
 	/**
 	 * Creates a spelling parser using the current spelling preferences set
-	 * in this view, and assigns {@link #spellingParser} to it.
+	 * in this view, and assigns {@link #spellingParser} to it.  This should
+	 * be called on the EDT.
 	 *
-	 * @throws IOException If an IO error occurs.
+	 * @param dictionary The dictionary to use.
+	 * @see #loadSpellingParser()
 	 */
-	private void createSpellingParser() throws IOException {
-		String fileName = "english_dic.zip";
-		File file = new File(rtext.getInstallLocation(), fileName);
+	private void createSpellingParser(CompactSpellDictionary dictionary) {
+		this.dictionary = dictionary;
+		spellingParser = new SpellingParser(dictionary);
+		spellingParser.setSquiggleUnderlineColor(getSpellCheckingColor());
+		spellingParser.setMaxErrorCount(getMaxSpellingErrors());
+		spellingParser.setAllowAdd(true);//userDictionary!=null);
+		spellingParser.setAllowIgnore(true);
+		spellingParser.addSpellingParserListener(this);
 		try {
-			boolean american = DICTIONARIES[1].equals(spellingDictionary);
-			spellingParser = SpellingParser.
-						createEnglishSpellingParser(file, american);
-			spellingParser.setSquiggleUnderlineColor(getSpellCheckingColor());
-			spellingParser.setMaxErrorCount(getMaxSpellingErrors());
-			spellingParser.setAllowAdd(true);//userDictionary!=null);
-			spellingParser.setAllowIgnore(true);
-			spellingParser.addSpellingParserListener(this);
-			try {
-				if (userDictionary!=null && !userDictionary.exists()) {
-					// First time running RText
-					userDictionary.getParentFile().mkdirs();
-					userDictionary.createNewFile();
-				}
-				spellingParser.setUserDictionary(userDictionary);
-			} catch (IOException ioe) {
-				String desc = rtext.getString("Error.LoadingUserDictionary.txt",
-					userDictionary==null ? "null" :userDictionary.getAbsolutePath(),
-					ioe.getMessage());
-				rtext.displayException(ioe, desc);
+			if (userDictionary!=null && !userDictionary.exists()) {
+				// First time running RText
+				userDictionary.getParentFile().mkdirs();
+				userDictionary.createNewFile();
 			}
+			spellingParser.setUserDictionary(userDictionary);
 		} catch (IOException ioe) {
-			// Unlocalized text is fine as this exception is caught and a
-			// better error is displayed to the user.
-			throw new IOException("Error opening zip file: " +
-					file.getAbsolutePath());
+			String desc = rtext.getString("Error.LoadingUserDictionary.txt",
+				userDictionary==null ? "null" :userDictionary.getAbsolutePath(),
+				ioe.getMessage());
+			rtext.displayException(ioe, desc);
+		}
+	}
+
+
+	/**
+	 * Called on the EDT when a dictionary has been loaded.  A new spelling
+	 * parser using it replaces the old one in all text areas.
+	 *
+	 * @param dict The name of the dictionary that was loaded.
+	 * @param dictionary The dictionary, or <code>null</code> if an error
+	 *        occurred.
+	 * @param error The error that occurred loading the dictionary, or
+	 *        <code>null</code> if none did.
+	 * @see #loadSpellingParser()
+	 */
+	private void dictionaryLoaded(String dict, CompactSpellDictionary dictionary,
+			Throwable error) {
+
+		if (!dict.equals(spellingDictionary)) {
+			return; // The user chose another dictionary while loading
+		}
+
+		if (error!=null) {
+			// Unlocalized text is fine as a better error is displayed to
+			// the user.
+			IOException ioe = new IOException("Error opening zip file: " +
+					getDictionaryFile().getAbsolutePath(), error);
+			rtext.displayException(ioe, rtext.getString(
+					"Error.LoadingSpellingParser.txt"));
+			return;
+		}
+
+		// Note that view is null if we're called before the AbstractMainView
+		// is attached; text areas install the parser as they're added.
+		AbstractMainView view = rtext.getMainView();
+		boolean install = view!=null && isSpellCheckingEnabled();
+		if (install && spellingParser!=null) {
+			for (int i=0; i<view.getNumDocuments(); i++) {
+				uninstallSpellingParser(view.getRTextEditorPaneAt(i));
+			}
+		}
+
+		createSpellingParser(dictionary);
+
+		if (install) {
+			for (int i=0; i<view.getNumDocuments(); i++) {
+				installSpellingParser(view.getRTextEditorPaneAt(i));
+			}
 		}
+
 	}
 
 
@@ -148,7 +201,24 @@ public class SpellingSupport implements SpellingParserListener {
 	 * @param textArea The text area.
 	 */
 	public void forceSpellCheck(RTextEditorPane textArea) {
-		textArea.forceReparsing(spellingParser);
+		Object parser = textArea.getClientProperty(INCREMENTAL_PARSER_PROPERTY);
+		if (parser instanceof IncrementalSpellingParser incremental) {
+			incremental.invalidate();
+			textArea.forceReparsing(incremental);
+		}
+		else {
+			textArea.forceReparsing(spellingParser);
+		}
+	}
+
+
+	/**
+	 * Returns the zip file containing the dictionaries' word lists.
+	 *
+	 * @return The zip file.
+	 */
+	private File getDictionaryFile() {
+		return new File(rtext.getInstallLocation(), "english_dic.zip");
 	}
 
 
@@ -208,6 +278,43 @@ public class SpellingSupport implements SpellingParserListener {
 	}
 
 
+	/**
+	 * Installs the spelling parser on a text area.  If incremental spell
+	 * checking is enabled, the text area gets its own
+	 * {@link IncrementalSpellingParser} that delegates to the shared
+	 * spelling parser.
+	 *
+	 * @param textArea The text area.
+	 * @see #uninstallSpellingParser(RTextEditorPane)
+	 */
+	void installSpellingParser(RTextEditorPane textArea) {
+		if (spellingParser==null) {
+			return; // Still loading; installed when it's done
+		}
+		if (incrementalSpellChecking && dictionary!=null) {
+			IncrementalSpellingParser parser = new IncrementalSpellingParser(
+					textArea, spellingParser, dictionary);
+			textArea.putClientProperty(INCREMENTAL_PARSER_PROPERTY, parser);
+			textArea.addParser(parser);
+		}
+		else {
+			textArea.addParser(spellingParser);
+		}
+	}
+
+
+	/**
+	 * Returns whether only the visible part of a document is spell checked
+	 * right away, with the rest checked in the background.
+	 *
+	 * @return Whether incremental spell checking is enabled.
+	 * @see #setIncrementalSpellChecking(boolean)
+	 */
+	public boolean isIncrementalSpellChecking() {
+		return incrementalSpellChecking;
+	}
+
+
 	/**
 	 * Returns whether spell checking is enabled.
 	 *
@@ -219,6 +326,21 @@ public class SpellingSupport implements SpellingParserListener {
 	}
 
 
+	/**
+	 * Starts loading the current dictionary on a background thread.  When
+	 * it's loaded, a spelling parser using it is created and installed on
+	 * all text areas.  The dictionary is shared by all RText windows, so it
+	 * is only loaded the first time it is needed.
+	 */
+	private void loadSpellingParser() {
+		String dict = spellingDictionary;
+		boolean american = DICTIONARIES[1].equals(dict);
+		SpellDictionaryService.getEnglishDictionary(getDictionaryFile(), american).
+				whenComplete((dictionary, error) -> SwingUtilities.invokeLater(
+					() -> dictionaryLoaded(dict, dictionary, error)));
+	}
+
+
 	/**
 	 * Forces all opened documents to be re-spell checked.
 	 */
@@ -226,7 +348,35 @@ public class SpellingSupport implements SpellingParserListener {
 		AbstractMainView view = rtext.getMainView();
 		for (int i=0; i<view.getNumDocuments(); i++) {
 			RTextEditorPane textArea = view.getRTextEditorPaneAt(i);
-			textArea.forceReparsing(spellingParser);
+			forceSpellCheck(textArea);
+		}
+	}
+
+
+	/**
+	 * Toggles whether only the visible part of a document is spell checked
+	 * right away, with the rest checked in the background.  This is useful
+	 * for large documents.
+	 *
+	 * @param incremental Whether to spell check incrementally.
+	 * @see #isIncrementalSpellChecking()
+	 */
+	public void setIncrementalSpellChecking(boolean incremental) {
+		if (incremental!=incrementalSpellChecking) {
+			AbstractMainView view = rtext.getMainView();
+			boolean installed = view!=null && spellingParser!=null &&
+					isSpellCheckingEnabled();
+			if (installed) {
+				for (int i=0; i<view.getNumDocuments(); i++) {
+					uninstallSpellingParser(view.getRTextEditorPaneAt(i));
+				}
+			}
+			incrementalSpellChecking = incremental;
+			if (installed) {
+				for (int i=0; i<view.getNumDocuments(); i++) {
+					installSpellingParser(view.getRTextEditorPaneAt(i));
+				}
+			}
 		}
 	}
 
@@ -279,9 +429,9 @@ public class SpellingSupport implements SpellingParserListener {
 
 			// Lazily create the spelling parser.
 			if (enabled && spellingParser==null) {
-				new Thread(new CreateParserRunnable()).start();
+				loadSpellingParser();
 			}
-			else {
+			else if (spellingParser!=null) {
 				toggleSpellingParserInstalled(); // Already created
 			}
 
@@ -314,40 +464,11 @@ public class SpellingSupport implements SpellingParserListener {
 			}
 			spellingDictionary = dict;
 
-			AbstractMainView view = rtext.getMainView();
-
-			// Remove the old spelling parser, if necessary.
-			// Note that view is null the first time we're called (in RText's
-			// constructor, before the AbstractMainView is attached).
-			if (view!=null &&spellingParser!=null && isSpellCheckingEnabled()) {
-				for (int i=0; i<view.getNumDocuments(); i++) {
-					RTextEditorPane textArea = view.getRTextEditorPaneAt(i);
-					textArea.removeParser(spellingParser);
-				}
-			}
-
-			// Create the new spelling parser, if necessary (if it doesn't
-			// exist yet, spell checking hasn't been enabled yet, thus no need
-			// to create it).
-			if (spellingParser!=null) { // spell checking may be disabled
-				try {
-					createSpellingParser();
-				} catch (IOException ioe) {
-					String desc = rtext.getString(
-							"Error.LoadingSpellingParser.txt");
-					rtext.displayException(ioe, desc);
-					return;
-				}
-			}
-
-			// Add the new spelling parser to all text areas, if necessary.
-			// Note that view is null the first time we're called (in RText's
-			// constructor, before the AbstractMainView is attached).
-			if (view!=null && isSpellCheckingEnabled()) {
-				for (int i=0; i<view.getNumDocuments(); i++) {
-					RTextEditorPane textArea = view.getRTextEditorPaneAt(i);
-					textArea.addParser(spellingParser);
-				}
+			// Load the new dictionary, if necessary (if the spelling parser
+			// doesn't exist yet, spell checking hasn't been enabled yet, thus
+			// no need to load it).  The old parser is used until it's loaded.
+			if (spellingParser!=null) {
+				loadSpellingParser();
 			}
 
 		}
@@ -392,12 +513,20 @@ public class SpellingSupport implements SpellingParserListener {
 		if (SpellingParserEvent.WORD_ADDED==type ||
 				SpellingParserEvent.WORD_IGNORED==type) {
 
+			// Share added words with other RText windows right away; they
+			// only re-read the user dictionary file when it's changed.
+			if (SpellingParserEvent.WORD_ADDED==type && dictionary!=null) {
+				dictionary.addWord(e.getWord());
+			}
+
 			// Re-spell check opened files.
 			AbstractMainView view = rtext.getMainView();
 			for (int i=0; i<view.getNumDocuments(); i++) {
 				RTextEditorPane textArea = view.getRTextEditorPaneAt(i);
-				// currentTextArea already done by the SpellingParser itself
-				if (textArea!=view.getCurrentTextArea()) {
+				// currentTextArea already done by the SpellingParser itself,
+				// unless it's wrapped by an incremental parser
+				if (textArea!=view.getCurrentTextArea() ||
+						incrementalSpellChecking) {
 					forceSpellCheck(textArea);
 				}
 			}
@@ -421,10 +550,10 @@ public class SpellingSupport implements SpellingParserListener {
 			for (int i=0; i<view.getNumDocuments(); i++) {
 				RTextEditorPane textArea = view.getRTextEditorPaneAt(i);
 				if (spellCheckingEnabled) {
-					textArea.addParser(spellingParser);
+					installSpellingParser(textArea);
 				}
 				else {
-					textArea.removeParser(spellingParser);
+					uninstallSpellingParser(textArea);
 				}
 			}
 		}
@@ -436,25 +565,19 @@ public class SpellingSupport implements SpellingParserListener {
 
 
 	/**
-	 * Creates the spelling parser off the EDT, then safely starts it on the
-	 * EDT.
+	 * Removes the spelling parser from a text area.
+	 *
+	 * @param textArea The text area.
+	 * @see #installSpellingParser(RTextEditorPane)
 	 */
-	private final class CreateParserRunnable implements Runnable {
-
-		@Override
-		public void run() {
-			try {
-				createSpellingParser();
-				SwingUtilities.invokeLater(SpellingSupport.this::toggleSpellingParserInstalled);
-			} catch (final IOException ioe) {
-				SwingUtilities.invokeLater(() -> {
-					String desc= rtext.getString(
-						"Error.LoadingSpellingParser.txt");
-					rtext.displayException(ioe, desc);
-				});
-			}
+	void uninstallSpellingParser(RTextEditorPane textArea) {
+		Object parser = textArea.getClientProperty(INCREMENTAL_PARSER_PROPERTY);
+		if (parser instanceof IncrementalSpellingParser incremental) {
+			incremental.uninstall();
+			textArea.removeParser(incremental);
+			textArea.putClientProperty(INCREMENTAL_PARSER_PROPERTY, null);
 		}
-
+		textArea.removeParser(spellingParser);
 	}
 
 
@@ -13,6 +13,7 @@ package org.fife.rtext;
 import java.io.File;
 import java.util.*;
 
+import org.fife.ui.OS;
 import org.fife.ui.rsyntaxtextarea.FileTypeUtil;
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 
@@ -37,6 +38,12 @@ public class SyntaxFilters implements SyntaxConstants {
 	 */
 	private Map<String, List<String>> addedFilters;
 
+	/**
+	 * All filters compiled for fast lookups.  This is lazily created, and
+	 * discarded whenever the filters change.
+	 */
+	private volatile FileFilterMatcher<String> matcher;
+
 	/**
 	 * Creates a new <code>SyntaxFilters</code> with default values for
 	 * all filters.
@@ -115,6 +122,39 @@ public class SyntaxFilters implements SyntaxConstants {
 	 */
 	public void addFileFilter(String style, String filter) {
 		getFiltersForStyle(style).add(filter);
+		matcher = null;
+	}
+
+
+	/**
+	 * Returns a matcher for all filters, compiling it if necessary.
+	 *
+	 * @return The matcher.
+	 */
+	private FileFilterMatcher<String> getMatcher() {
+
+		FileFilterMatcher<String> matcher = this.matcher;
+
+		if (matcher==null) {
+			// Iterate in the same order FileTypeUtil does, so the same
+			// style wins when more than one filter matches.
+			Map<String, List<String>> allFilters = new HashMap<>(filters);
+			if (addedFilters != null) {
+				allFilters.putAll(addedFilters);
+			}
+			FileFilterMatcher.Builder<String> builder =
+					new FileFilterMatcher.Builder<>(OS.get().isCaseSensitive());
+			for (Map.Entry<String, List<String>> entry : allFilters.entrySet()) {
+				for (String filter : entry.getValue()) {
+					builder.add(filter, entry.getKey());
+				}
+			}
+			matcher = builder.build();
+			this.matcher = matcher;
+		}
+
+		return matcher;
+
 	}
 
 
@@ -181,12 +221,13 @@ public class SyntaxFilters implements SyntaxConstants {
 			return SyntaxConstants.SYNTAX_STYLE_NONE;
 		}
 
-		Map<String, List<String>> allFilters = new HashMap<>(filters);
-		if (addedFilters != null) {
-			allFilters.putAll(addedFilters);
+		// Same name normalization as FileTypeUtil.guessContentType()
+		String name = new File(fileName).getName().toLowerCase();
+		if (ignoreBackupExtensions) {
+			name = FileTypeUtil.stripBackupExtensions(name);
 		}
-		return FileTypeUtil.get().guessContentType(new File(fileName),
-			allFilters, ignoreBackupExtensions);
+		String style = getMatcher().getMatch(name);
+		return style!=null ? style : SyntaxConstants.SYNTAX_STYLE_NONE;
 	}
 
 
@@ -223,6 +264,7 @@ public class SyntaxFilters implements SyntaxConstants {
 	 */
 	public void restoreDefaultFileFilters() {
 		filters = FileTypeUtil.get().getDefaultContentTypeToFilterMap();
+		matcher = null;
 		// Keep any filters added by the user
 	}
 
@@ -253,6 +295,7 @@ public class SyntaxFilters implements SyntaxConstants {
 		if (oldSpacePos<filterString.length()-1) {
 			filters.add(filterString.substring(oldSpacePos));
 		}
+		matcher = null;
 
 	}
 
@@ -264,6 +307,7 @@ public class SyntaxFilters implements SyntaxConstants {
 	 */
 	public void setPreservingPluginAdded(SyntaxFilters filters) {
 		this.filters = new HashMap<>(filters.filters);
+		matcher = null;
 	}
 
 
@@ -0,0 +1,121 @@
+/*
+ * 10/19/2026
+ *
+ * ThreadUtil.java - Utility methods for background threads.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Consumer;
+
+
+/**
+ * Utility methods for the background threads used by RText and its
+ * plugins.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class ThreadUtil {
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private ThreadUtil() {
+		// Do nothing (comment for Sonar)
+	}
+
+
+	/**
+	 * Creates a factory for low-priority daemon threads, so background work
+	 * doesn't slow down the UI or keep the application from exiting.
+	 *
+	 * @param name The name for the threads.
+	 * @return The thread factory.
+	 */
+	public static ThreadFactory createThreadFactory(String name) {
+		return r -> {
+			Thread t = new Thread(r, name);
+			t.setDaemon(true);
+			t.setPriority(Thread.MIN_PRIORITY);
+			return t;
+		};
+	}
+
+
+	/**
+	 * Splits items into batches and processes the batches in parallel on
+	 * low-priority daemon threads, one fewer than the number of processors.
+	 * This blocks until all batches have been processed.  If the calling
+	 * thread is interrupted, processing stops.  The task should check its
+	 * thread's interrupted status regularly if processing a batch may take
+	 * a while.
+	 *
+	 * @param items The items to process.
+	 * @param batchSize The maximum number of items in a batch.
+	 * @param threadName The name for the worker threads.
+	 * @param task Processes a batch.  This is called on a worker thread.
+	 * @param <T> The type of item.
+	 * @return Whether all batches were processed, i.e. the calling thread
+	 *         wasn't interrupted.  If it was, its interrupted status is set.
+	 */
+	public static <T> boolean runInBatches(Collection<T> items, int batchSize,
+			String threadName, Consumer<List<T>> task) {
+
+		if (items.isEmpty()) {
+			return true;
+		}
+
+		List<List<T>> batches = new ArrayList<>();
+		List<T> batch = new ArrayList<>();
+		for (T item : items) {
+			batch.add(item);
+			if (batch.size()==batchSize) {
+				batches.add(batch);
+				batch = new ArrayList<>();
+			}
+		}
+		if (!batch.isEmpty()) {
+			batches.add(batch);
+		}
+
+		int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+		ExecutorService pool = Executors.newFixedThreadPool(
+				Math.min(threads, batches.size()), createThreadFactory(threadName));
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (List<T> b : batches) {
+				futures.add(pool.submit(() -> task.accept(b)));
+			}
+			for (Future<?> f : futures) {
+				try {
+					f.get();
+				} catch (ExecutionException ee) {
+					ee.printStackTrace(); // Other batches may still succeed
+				}
+			}
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			return false;
+		} finally {
+			pool.shutdownNow();
+		}
+
+		return true;
+
+	}
+
+
+}
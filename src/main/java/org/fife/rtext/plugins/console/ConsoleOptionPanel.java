@@ -13,11 +13,14 @@ import java.awt.BorderLayout;
 import java.awt.ComponentOrientation;
 import java.awt.Container;
 import java.awt.Frame;
+import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 
 import javax.swing.Box;
+import javax.swing.JCheckBox;
 
 import org.fife.rtext.AbstractConsoleTextAreaOptionPanel;
+import org.fife.ui.OS;
 import org.fife.ui.UIUtil;
 
 
@@ -35,6 +38,8 @@ class ConsoleOptionPanel extends AbstractConsoleTextAreaOptionPanel<Plugin>
 	 */
 	private static final String OPTION_PANEL_ID = "ConsoleOptionPanel";
 
+	private JCheckBox persistentShellCB;
+
 
 	/**
 	 * Constructor.
@@ -60,6 +65,9 @@ class ConsoleOptionPanel extends AbstractConsoleTextAreaOptionPanel<Plugin>
 		topPanel.add(generalPanel);
 		topPanel.add(Box.createVerticalStrut(5));
 
+		topPanel.add(createSystemShellPanel(plugin));
+		topPanel.add(Box.createVerticalStrut(5));
+
 		addRestoreDefaultsButton(topPanel);
 
 		// Put it all together!
@@ -70,6 +78,41 @@ class ConsoleOptionPanel extends AbstractConsoleTextAreaOptionPanel<Plugin>
 	}
 
 
+	@Override
+	public void actionPerformed(ActionEvent e) {
+		if (e.getSource()==persistentShellCB) {
+			setDirty(true);
+		}
+		else {
+			super.actionPerformed(e);
+		}
+	}
+
+
+	/**
+	 * Creates the section of options for the system shell.
+	 *
+	 * @param plugin The plugin.
+	 * @return The panel.
+	 */
+	private Container createSystemShellPanel(Plugin plugin) {
+
+		Box panel = Box.createVerticalBox();
+		panel.setBorder(new OptionPanelBorder(
+				plugin.getString("Options.SystemShell")));
+
+		persistentShellCB = new JCheckBox(
+				plugin.getString("Options.PersistentShellSession"));
+		persistentShellCB.addActionListener(this);
+		// Only POSIX shells are supported
+		persistentShellCB.setEnabled(plugin.getApplication().getOS()!=OS.WINDOWS);
+		addLeftAligned(panel, persistentShellCB);
+
+		return panel;
+
+	}
+
+
 	@Override
 	protected void doApplyImpl(Frame owner) {
 
@@ -77,6 +120,7 @@ class ConsoleOptionPanel extends AbstractConsoleTextAreaOptionPanel<Plugin>
 		ConsoleWindow window = plugin.getDockableWindow();
 		window.setActive(visibleCB.isSelected());
 		window.setPosition(locationCombo.getSelectedIndex());
+		plugin.setPersistentShellSession(persistentShellCB.isSelected());
 
 	}
 
@@ -93,6 +137,19 @@ class ConsoleOptionPanel extends AbstractConsoleTextAreaOptionPanel<Plugin>
 	}
 
 
+	@Override
+	protected boolean notDefaults() {
+		return super.notDefaults() || !persistentShellCB.isSelected();
+	}
+
+
+	@Override
+	protected void restoreDefaults() {
+		super.restoreDefaults();
+		persistentShellCB.setSelected(true);
+	}
+
+
 	@Override
 	protected void setValuesImpl(Frame owner) {
 
@@ -100,6 +157,7 @@ class ConsoleOptionPanel extends AbstractConsoleTextAreaOptionPanel<Plugin>
 		ConsoleWindow window = plugin.getDockableWindow();
 		visibleCB.setSelected(window.isActive());
 		locationCombo.setSelectedIndex(window.getPosition());
+		persistentShellCB.setSelected(plugin.isPersistentShellSession());
 	}
 
 
@@ -42,6 +42,12 @@ public class ConsolePrefs extends Prefs {
 	 */
 	public KeyStroke windowVisibilityAccelerator;
 
+	/**
+	 * Whether system shell commands are run in a single, long-lived shell
+	 * process rather than a new process each.  This is ignored on Windows.
+	 */
+	public boolean persistentShellSession;
+
 
 	/**
 	 * Overridden to validate the dockable window position value.
@@ -61,6 +67,7 @@ public class ConsolePrefs extends Prefs {
 		windowVisible = false;
 		windowPosition = DockableWindowConstants.BOTTOM;
 		windowVisibilityAccelerator = null;
+		persistentShellSession = true;
 	}
 
 
@@ -17,6 +17,7 @@ import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.LinkedList;
+import java.util.List;
 
 import javax.swing.AbstractAction;
 import javax.swing.Action;
@@ -39,6 +40,7 @@ import javax.swing.text.StyledDocument;
 import javax.swing.text.TextAction;
 import javax.swing.text.Utilities;
 
+import org.fife.rtext.OutputQueue;
 import org.fife.ui.OptionsDialog;
 import org.fife.ui.app.console.AbstractConsoleTextArea;
 import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
@@ -67,6 +69,12 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 	private final LinkedList<String> cmdHistory;
 	private int cmdHistoryIndex;
 
+	/**
+	 * Output appended off the EDT, e.g. by running processes, waiting to be
+	 * displayed.
+	 */
+	private final OutputQueue output;
+
 	/**
 	 * Used to syntax highlight the current text being entered by the user.
 	 */
@@ -88,6 +96,7 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 	 */
 	ConsoleTextArea(Plugin plugin) {
 		this.plugin = plugin;
+		output = new OutputQueue(this::outputFlushed);
 		installDefaultStyles(false);
 		fixKeyboardShortcuts();
 		Listener listener = new Listener();
@@ -128,6 +137,9 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 
 	/**
 	 * Handles updating of the text component.  This method is thread-safe.
+	 * Text appended off the EDT is queued, and displayed along with any other
+	 * queued text at most once per frame, so processes writing lots of
+	 * output don't flood the EDT.
 	 *
 	 * @param text The text to append.
 	 * @param style The style to apply to the appended text.
@@ -141,39 +153,17 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 		// Ensure the meat of this method is done on the EDT, to prevent
 		// concurrency errors.
 		if (SwingUtilities.isEventDispatchThread()) {
+			output.flush(); // Keep queued output before this text
+			insert(List.of(new OutputQueue.Chunk(text, style)),
+					treatAsUserInput);
+		}
 
-			Document doc = getDocument();
-			int end = doc.getLength();
-			try {
-				doc.insertString(end, text, getStyle(style));
-			} catch (BadLocationException ble) { // Never happens
-				ble.printStackTrace();
-			}
-			setCaretPosition(doc.getLength());
-			if (!treatAsUserInput) {
-				inputMinOffs = getCaretPosition();
-			}
-
-			// Don't let the console's text get too long
-			Element root = doc.getDefaultRootElement();
-			int lineCount = root.getElementCount();
-			if (lineCount>MAX_LINE_COUNT) {
-				int toDelete = lineCount - MAX_LINE_COUNT;
-				int endOffs = root.getElement(toDelete-1).getEndOffset();
-				try {
-					doc.remove(0, endOffs);
-					if (!treatAsUserInput) {
-						inputMinOffs -= endOffs;
-					}
-				} catch (BadLocationException ble) { // Never happens
-					ble.printStackTrace();
-				}
-			}
-
+		else if (treatAsUserInput) {
+			SwingUtilities.invokeLater(() -> appendImpl(text, style, true));
 		}
 
 		else {
-			SwingUtilities.invokeLater(() -> appendImpl(text, style, treatAsUserInput));
+			output.add(text, style);
 		}
 
 	}
@@ -190,6 +180,7 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 	 * Clears this console.  This should only be called on the EDT.
 	 */
 	public void clear() {
+		output.clear();
 		Document doc = getDocument();
 		setSelectionStart(0);
 		setSelectionEnd(doc.getLength());
@@ -337,6 +328,67 @@ abstract class ConsoleTextArea extends AbstractConsoleTextArea {
 	}
 
 
+	/**
+	 * Appends text to the end of the document, then trims lines from the
+	 * start of the document if there are too many.  This should only be
+	 * called on the EDT.
+	 *
+	 * @param chunks The text to append.
+	 * @param treatAsUserInput Whether to treat the text as user input.
+	 */
+	private void insert(List<OutputQueue.Chunk> chunks,
+						boolean treatAsUserInput) {
+
+		Document doc = getDocument();
+		for (OutputQueue.Chunk chunk : chunks) {
+			try {
+				doc.insertString(doc.getLength(), chunk.text(),
+						getStyle(chunk.style()));
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+			}
+		}
+		setCaretPosition(doc.getLength());
+		if (!treatAsUserInput) {
+			inputMinOffs = getCaretPosition();
+		}
+
+		// Don't let the console's text get too long
+		Element root = doc.getDefaultRootElement();
+		int lineCount = root.getElementCount();
+		if (lineCount>MAX_LINE_COUNT) {
+			int toDelete = lineCount - MAX_LINE_COUNT;
+			int endOffs = root.getElement(toDelete-1).getEndOffset();
+			try {
+				doc.remove(0, endOffs);
+				if (!treatAsUserInput) {
+					inputMinOffs -= endOffs;
+				}
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+			}
+		}
+
+	}
+
+
+	/**
+	 * Called on the EDT to display output that was appended off the EDT.
+	 *
+	 * @param chunks The output.
+	 * @param dropped The number of characters of output dropped because
+	 *        they couldn't be displayed quickly enough.
+	 */
+	private void outputFlushed(List<OutputQueue.Chunk> chunks, long dropped) {
+		if (dropped>0) {
+			String notice = plugin.getString("OutputDropped",
+					Long.toString(dropped)) + "\n";
+			insert(List.of(new OutputQueue.Chunk(notice, STYLE_STDERR)), false);
+		}
+		insert(chunks, false);
+	}
+
+
 	/**
 	 * Replaces the command entered thus far with another one.  This is used
 	 * when the user cycles through the command history.  This method should
@@ -270,6 +270,7 @@ class ConsoleWindow extends DockableWindow implements PropertyChangeListener {
 				else {
 					setPrimaryComponent(rubyTextArea);
 					cards.show(mainPanel, "Ruby");
+					rubyTextArea.startEngine();
 				}
 			}
 
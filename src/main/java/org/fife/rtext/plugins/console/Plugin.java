@@ -46,6 +46,7 @@ public class Plugin extends GUIPlugin<RText> {
 	private ConsoleWindow window;
 	private Map<String, Icon> icons;
 	private ConsoleOptionPanel optionPanel;
+	private boolean persistentShellSession;
 
 	private static final String MSG_BUNDLE = "org.fife.rtext.plugins.console.Plugin";
 	static final ResourceBundle MSG = ResourceBundle.getBundle(MSG_BUNDLE);
@@ -64,6 +65,7 @@ public class Plugin extends GUIPlugin<RText> {
 		loadIcons();
 
 		ConsolePrefs prefs = loadPrefs();
+		persistentShellSession = prefs.persistentShellSession;
 
 		AppAction<RText> a = new ViewConsoleAction(app, MSG, this);
 		a.setAccelerator(prefs.windowVisibilityAccelerator);
@@ -180,6 +182,18 @@ public class Plugin extends GUIPlugin<RText> {
 	}
 
 
+	/**
+	 * Returns whether system shell commands are run in a single, long-lived
+	 * shell process.  This is ignored on Windows.
+	 *
+	 * @return Whether to use a persistent shell session.
+	 * @see #setPersistentShellSession(boolean)
+	 */
+	boolean isPersistentShellSession() {
+		return persistentShellSession;
+	}
+
+
 	/**
 	 * Creates a map from application theme ID to icon.
 	 */
@@ -251,6 +265,7 @@ public class Plugin extends GUIPlugin<RText> {
 		AppAction<?> a = (AppAction<?>)getApplication().getAction(VIEW_CONSOLE_ACTION);
 		prefs.windowVisibilityAccelerator = a.getAccelerator();
 		prefs.windowVisible = window.isActive();
+		prefs.persistentShellSession = persistentShellSession;
 
 		File prefsFile = getPrefsFile();
 		try {
@@ -279,6 +294,18 @@ public class Plugin extends GUIPlugin<RText> {
 	}
 
 
+	/**
+	 * Sets whether system shell commands are run in a single, long-lived
+	 * shell process.  This is ignored on Windows.
+	 *
+	 * @param persistent Whether to use a persistent shell session.
+	 * @see #isPersistentShellSession()
+	 */
+	void setPersistentShellSession(boolean persistent) {
+		persistentShellSession = persistent;
+	}
+
+
 	/**
 	 * Stops the currently running process, if any.
 	 */
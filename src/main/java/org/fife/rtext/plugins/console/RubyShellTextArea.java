@@ -10,12 +10,15 @@
  */
 package org.fife.rtext.plugins.console;
 
+import org.fife.rtext.ScriptEngineService;
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 
 import javax.script.*;
+import javax.swing.SwingUtilities;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.util.concurrent.CompletableFuture;
 
 
 /**
@@ -36,6 +39,12 @@ class RubyShellTextArea extends ConsoleTextArea {
 	 */
 	private ScriptEngine rubyEngine;
 
+	/**
+	 * The Ruby engine being started in the background, or {@code null} if
+	 * it hasn't been requested yet.
+	 */
+	private CompletableFuture<ScriptEngine> rubyEngineFuture;
+
 	/**
 	 * Used for {@code "_"} variable support.
 	 */
@@ -91,11 +100,25 @@ class RubyShellTextArea extends ConsoleTextArea {
 
 
 	/**
-	 * Submits the entered JavaScript code.
+	 * Submits the entered JavaScript code.  If JRuby is still starting, the
+	 * code is run once it's ready.
 	 */
 	@Override
 	protected void handleSubmit(String text) {
-		handleSubmitImpl(text, true);
+
+		CompletableFuture<ScriptEngine> future = startEngine();
+		if (future.isDone()) {
+			handleSubmitImpl(text, true);
+			return;
+		}
+
+		append(plugin.getString("Message.StartingRuby"), STYLE_STDOUT);
+		setEditable(false);
+		future.whenComplete((engine, e) -> SwingUtilities.invokeLater(() -> {
+			setEditable(true);
+			handleSubmitImpl(text, true);
+		}));
+
 	}
 
 
@@ -200,8 +223,8 @@ class RubyShellTextArea extends ConsoleTextArea {
 		}
 		initialized = true;
 
-		ScriptEngineManager sem = new ScriptEngineManager();
-		rubyEngine = sem.getEngineByName("jruby");
+		// This engine is ours alone, since we change its context
+		rubyEngine = startEngine().join();
 		bindings = rubyEngine.createBindings();
 		rubyEngine.setBindings(bindings, ScriptContext.ENGINE_SCOPE);
 
@@ -216,6 +239,21 @@ class RubyShellTextArea extends ConsoleTextArea {
 	}
 
 
+	/**
+	 * Starts JRuby on a background thread, if it hasn't been started yet.
+	 * This is called when the user switches to this shell, so JRuby is
+	 * usually ready by the time they've typed something.
+	 *
+	 * @return A future for the Ruby engine.
+	 */
+	CompletableFuture<ScriptEngine> startEngine() {
+		if (rubyEngineFuture==null) {
+			rubyEngineFuture = ScriptEngineService.takeEngine("jruby");
+		}
+		return rubyEngineFuture;
+	}
+
+
 	/**
 	 * Listens for output from the script and prints it to this console.
 	 */
@@ -0,0 +1,346 @@
+/*
+ * 10/19/2026
+ *
+ * ShellSession.java - A long-lived shell process that runs console commands.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.console;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.UUID;
+
+
+/**
+ * A long-lived POSIX shell process that runs the commands entered in the
+ * system shell console.<p>
+ *
+ * Starting a new shell for every command is slow, and loses any environment
+ * variables, functions, etc. the user sets up.  Instead, commands are written
+ * to the stdin of a single shell, each followed by commands that print a
+ * unique marker line, the command's exit code and the shell's working
+ * directory to stdout, and another marker line to stderr.  The command is
+ * considered complete once both markers have been read.  Output is read on
+ * background threads and passed to a {@link Listener} line by line.<p>
+ *
+ * Commands are run via {@code command eval}, so syntax errors don't
+ * terminate the shell, and with stdin redirected from {@code /dev/null}, so
+ * they can't consume the commands that follow.  If a command exits the
+ * shell, a new one is started for the next command.<p>
+ *
+ * Only one command can run at a time.  This class is only supported on
+ * platforms with {@code /bin/sh}.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class ShellSession {
+
+	private Process process;
+	private Writer stdin;
+
+	/**
+	 * The shell process the current command was run in.
+	 */
+	private Process commandProcess;
+
+	private Listener listener;
+	private boolean stdoutDone;
+	private boolean stderrDone;
+	private int exitCode;
+	private File dir;
+
+	/**
+	 * Prefixes the marker lines the shell prints when a command completes.
+	 * It's unique per session, so command output can't mimic it.
+	 */
+	private final String marker;
+
+
+	/**
+	 * Constructor.  The shell process isn't started until the first command
+	 * is run.
+	 */
+	ShellSession() {
+		marker = "\u0001RTEXT-" + UUID.randomUUID();
+	}
+
+
+	/**
+	 * Stops the shell process, if it's running.
+	 */
+	synchronized void close() {
+		if (process!=null) {
+			process.descendants().forEach(ProcessHandle::destroy);
+			process.destroy();
+			process = null;
+			stdin = null;
+		}
+	}
+
+
+	/**
+	 * Called when a command completes, or the shell exits.
+	 */
+	private void commandCompleted() {
+		Listener l;
+		int rc;
+		File newDir;
+		synchronized (this) {
+			l = listener;
+			listener = null;
+			rc = exitCode;
+			newDir = dir;
+		}
+		if (l!=null) {
+			l.commandCompleted(rc, newDir);
+		}
+	}
+
+
+	/**
+	 * Stops the command that's currently running, if any.  Processes
+	 * launched by the command are terminated; if there are none, e.g. the
+	 * command is a loop running in the shell itself, the shell is
+	 * terminated, and a new one is started for the next command.
+	 */
+	synchronized void interruptCommand() {
+		if (process!=null && listener!=null) {
+			List<ProcessHandle> children = process.descendants().toList();
+			if (children.isEmpty()) {
+				process.destroy();
+			}
+			else {
+				children.forEach(ProcessHandle::destroy);
+			}
+		}
+	}
+
+
+	/**
+	 * Returns whether a command is currently running.
+	 *
+	 * @return Whether a command is running.
+	 */
+	synchronized boolean isCommandRunning() {
+		return listener!=null;
+	}
+
+
+	/**
+	 * Reads output from the shell until it exits.  This is called on a
+	 * background thread.
+	 *
+	 * @param p The shell process.
+	 * @param stdout Whether to read stdout (vs. stderr).
+	 */
+	private void readOutput(Process p, boolean stdout) {
+
+		try (BufferedReader r = new BufferedReader(new InputStreamReader(
+				stdout ? p.getInputStream() : p.getErrorStream()))) {
+			String line;
+			while ((line = r.readLine())!=null) {
+				int index = line.indexOf(marker);
+				if (index==-1) {
+					writeOutput(line, stdout);
+					continue;
+				}
+				if (index>0) { // Output that didn't end with a newline
+					writeOutput(line.substring(0, index), stdout);
+				}
+				markerRead(line.substring(index + marker.length()), stdout);
+			}
+		} catch (IOException ioe) {
+			// The shell was terminated
+		}
+
+		// The shell exited, e.g. the user ran "exit" or stopped a command.
+		int rc;
+		try {
+			rc = p.waitFor();
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			rc = -1;
+		}
+
+		boolean complete;
+		synchronized (this) {
+			if (process==p) {
+				process = null;
+				stdin = null;
+			}
+			if (p!=commandProcess || listener==null) {
+				return; // No command was running in this shell
+			}
+			if (stdout) {
+				stdoutDone = true;
+			}
+			else {
+				stderrDone = true;
+			}
+			complete = stdoutDone && stderrDone;
+			if (complete) {
+				exitCode = rc;
+			}
+		}
+		if (complete) {
+			commandCompleted();
+		}
+
+	}
+
+
+	/**
+	 * Called when the marker printed after a command is read.
+	 *
+	 * @param rest The text following the marker.  For stdout, this is the
+	 *        command's exit code and the shell's working directory.
+	 * @param stdout Whether the marker was read from stdout.
+	 */
+	private void markerRead(String rest, boolean stdout) {
+
+		boolean complete;
+		synchronized (this) {
+			if (stdout) {
+				String[] parts = rest.trim().split(" ", 2);
+				try {
+					exitCode = Integer.parseInt(parts[0]);
+				} catch (NumberFormatException nfe) {
+					exitCode = -1; // Never happens
+				}
+				if (parts.length==2) {
+					dir = new File(parts[1]);
+				}
+				stdoutDone = true;
+			}
+			else {
+				stderrDone = true;
+			}
+			complete = stdoutDone && stderrDone;
+		}
+
+		if (complete) {
+			commandCompleted();
+		}
+
+	}
+
+
+	/**
+	 * Single-quotes a string for the shell.
+	 */
+	private static String quote(String str) {
+		return "'" + str.replace("'", "'\\''") + "'";
+	}
+
+
+	/**
+	 * Runs a command.  This method returns immediately; output and completion
+	 * are reported to the listener on background threads.
+	 *
+	 * @param command The command to run.
+	 * @param dir The directory to run the command in.
+	 * @param listener Receives the command's output and completion.
+	 * @throws IOException If the shell can't be started or written to.
+	 * @throws IllegalStateException If a command is already running.
+	 */
+	synchronized void run(String command, File dir, Listener listener)
+			throws IOException {
+
+		if (this.listener!=null) {
+			throw new IllegalStateException("A command is already running");
+		}
+
+		if (process==null || !process.isAlive()) {
+			start();
+		}
+
+		this.listener = listener;
+		this.dir = dir;
+		commandProcess = process;
+		stdoutDone = stderrDone = false;
+
+		String quotedMarker = quote(marker);
+		String script = "cd -- " + quote(dir.getAbsolutePath()) +
+				" && command eval " + quote(command) + " </dev/null\n" +
+				"printf '%s %d %s\\n' " + quotedMarker + " \"$?\" \"$PWD\"\n" +
+				"printf '%s\\n' " + quotedMarker + " >&2\n";
+		try {
+			stdin.write(script);
+			stdin.flush();
+		} catch (IOException ioe) {
+			this.listener = null;
+			close();
+			throw ioe;
+		}
+
+	}
+
+
+	private void start() throws IOException {
+
+		ProcessBuilder pb = new ProcessBuilder("/bin/sh");
+		process = pb.start();
+		stdin = new OutputStreamWriter(process.getOutputStream());
+
+		Process p = process;
+		startReader(() -> readOutput(p, true));
+		startReader(() -> readOutput(p, false));
+
+	}
+
+
+	private static void startReader(Runnable r) {
+		Thread t = new Thread(r, "RText Shell Session Reader");
+		t.setDaemon(true);
+		t.start();
+	}
+
+
+	private void writeOutput(String line, boolean stdout) {
+		Listener l;
+		synchronized (this) {
+			l = listener;
+		}
+		if (l!=null) {
+			l.outputWritten(line, stdout);
+		}
+	}
+
+
+	/**
+	 * Receives the output of commands run in a shell session.  Methods are
+	 * called on background threads.
+	 */
+	interface Listener {
+
+		/**
+		 * Called when the command writes a line of output.
+		 *
+		 * @param line The line, without a trailing newline.
+		 * @param stdout Whether the line was written to stdout (vs. stderr).
+		 */
+		void outputWritten(String line, boolean stdout);
+
+		/**
+		 * Called when the command completes.
+		 *
+		 * @param rc The command's exit code.
+		 * @param dir The shell's working directory after the command ran,
+		 *        which may differ from the directory it started in if the
+		 *        command changed directories.
+		 */
+		void commandCompleted(int rc, File dir);
+
+	}
+
+
+}
@@ -30,6 +30,7 @@ import javax.swing.text.TextAction;
 
 import org.fife.io.ProcessRunner;
 import org.fife.io.ProcessRunnerOutputListener;
+import org.fife.rtext.DirectoryListingCache;
 import org.fife.ui.OS;
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 
@@ -47,6 +48,17 @@ class SystemShellTextArea extends ConsoleTextArea {
 	private final boolean isWindows;
 	private transient Thread activeProcessThread;
 
+	/**
+	 * Runs commands when the user has enabled persistent shell sessions.
+	 * This is created lazily.
+	 */
+	private ShellSession session;
+
+	/**
+	 * Whether the user stopped the command running in {@link #session}.
+	 */
+	private boolean sessionCommandStopped;
+
 	private static final String CD						= "cd";
 	private static final String CLS						= "cls";
 	private static final String CLEAR					= "clear";
@@ -347,6 +359,15 @@ class SystemShellTextArea extends ConsoleTextArea {
 				return;
 			}
 
+			if (!isWindows && plugin.isPersistentShellSession()) {
+				runInSession(text);
+				return;
+			}
+			else if (session!=null) { // The user turned sessions off
+				session.close();
+				session = null;
+			}
+
 			List<String> cmdList = new ArrayList<>();
 			if (File.separatorChar=='/') {
 				cmdList.add("/bin/sh");
@@ -383,6 +404,58 @@ class SystemShellTextArea extends ConsoleTextArea {
 	}
 
 
+	/**
+	 * Called on the EDT when an external process or a command run in the
+	 * shell session completes.
+	 *
+	 * @param e The error that occurred, or {@code null} if none.  This is
+	 *        an {@code InterruptedException} if the user stopped the
+	 *        process.
+	 */
+	private void processCompleted(Throwable e) {
+		if (e!=null) {
+			String text;
+			if (e instanceof InterruptedException) {
+				text = plugin.getString("ProcessForciblyTerminated");
+			}
+			else {
+				StringWriter sw = new StringWriter();
+				e.printStackTrace(new PrintWriter(sw));
+				text = sw.toString();
+			}
+			append(text, STYLE_STDERR);
+		}
+		// Not really necessary, should allow GC of Process resources
+		activeProcessThread = null;
+		appendPrompt();
+		setEditable(true);
+		firePropertyChange(PROPERTY_PROCESS_RUNNING, true, false);
+	}
+
+
+	/**
+	 * Runs a command in the persistent shell session.
+	 *
+	 * @param text The command.
+	 */
+	private void runInSession(String text) {
+
+		if (session==null) {
+			session = new ShellSession();
+		}
+		sessionCommandStopped = false;
+
+		setEditable(false);
+		firePropertyChange(PROPERTY_PROCESS_RUNNING, false, true);
+		try {
+			session.run(text, pwd, new SessionListener());
+		} catch (IOException ioe) {
+			processCompleted(ioe);
+		}
+
+	}
+
+
 	/**
 	 * Stops the currently running process, if any.
 	 */
@@ -391,6 +464,10 @@ class SystemShellTextArea extends ConsoleTextArea {
 			activeProcessThread.interrupt();
 			activeProcessThread = null;
 		}
+		else if (session!=null && session.isCommandRunning()) {
+			sessionCommandStopped = true;
+			session.interruptCommand();
+		}
 	}
 
 
@@ -427,37 +504,36 @@ class SystemShellTextArea extends ConsoleTextArea {
 				}
 			}
 
-			File[] siblings = parent.listFiles((dir, name) -> {
-				if (!CASE_SENSITIVE) {
-					name = name.toLowerCase();
+			// The directory is listed in the background if it isn't cached,
+			// so the user may have kept typing by the time we get the names.
+			int dot = getCaretPosition();
+			String input = getCurrentInput();
+			DirectoryListingCache.get().getNamesStartingWith(parent,
+					fileNamePart, CASE_SENSITIVE, siblings -> {
+				if (getCaretPosition()==dot && input.equals(getCurrentInput())) {
+					complete(siblings, fileNamePart, dot, input);
 				}
-				return name.startsWith(fileNamePart);
 			});
 
-			if (siblings.length==0) {
-				return;
-			}
-			if (siblings.length==1) {
-				int dot = getCaretPosition();
+		}
+
+		private void complete(List<String> siblings, String fileNamePart,
+				int dot, String input) {
+			if (siblings.size()==1) {
 				setSelectionStart(dot-fileNamePart.length());
 				setSelectionEnd(dot);
-				replaceSelection(siblings[0].getName());
+				replaceSelection(siblings.get(0));
 			}
-			else {
-				showChoices(siblings, getCurrentInput());
+			else if (!siblings.isEmpty()) {
+				showChoices(siblings, input);
 			}
-
 		}
 
 		private String getFileNamePart(String fileName) {
 			int lastSlash = fileName.lastIndexOf('/');
 			int lastBackslash = fileName.lastIndexOf('\\');
 			int lastSlashIndex = Math.max(lastSlash, lastBackslash);
-			String temp = fileName.substring(lastSlashIndex+1).toLowerCase();
-			if (!CASE_SENSITIVE) {
-				temp = temp.toLowerCase();
-			}
-			return temp;
+			return fileName.substring(lastSlashIndex+1);
 		}
 
 		private String getPossibleFileName() {
@@ -496,11 +572,11 @@ class SystemShellTextArea extends ConsoleTextArea {
 					ch=='/' || ch=='.' || (isWindows && (ch=='\\' || ch==':'));
 		}
 
-		private void showChoices(File[] choices, String input) {
+		private void showChoices(List<String> choices, String input) {
 			StringBuilder sb = new StringBuilder("\n");
-			for (int i=0; i<choices.length; i++) {
-				sb.append(choices[i].getName());
-				if (i<choices.length-1) {
+			for (int i=0; i<choices.size(); i++) {
+				sb.append(choices.get(i));
+				if (i<choices.size()-1) {
 					sb.append(", ");
 				}
 			}
@@ -527,27 +603,36 @@ class SystemShellTextArea extends ConsoleTextArea {
 		@Override
 		public void processCompleted(Process p, int rc, final Throwable e) {
 			// Required because of other Swing calls we make inside
+			SwingUtilities.invokeLater(() -> SystemShellTextArea.this.processCompleted(e));
+		}
+
+	}
+
+
+	/**
+	 * Listens for output from the command running in the shell session and
+	 * appends it to the console.
+	 */
+	private final class SessionListener implements ShellSession.Listener {
+
+		@Override
+		public void commandCompleted(int rc, File dir) {
 			SwingUtilities.invokeLater(() -> {
-				if (e!=null) {
-					String text;
-					if (e instanceof InterruptedException) {
-						text = plugin.getString("ProcessForciblyTerminated");
-					}
-					else {
-						StringWriter sw = new StringWriter();
-						e.printStackTrace(new PrintWriter(sw));
-						text = sw.toString();
-					}
-					append(text, STYLE_STDERR);
+				// Follow any "cd" done by the command itself
+				if (dir!=null && !dir.equals(pwd) && dir.isDirectory()) {
+					prevDir = pwd;
+					pwd = dir;
 				}
-				// Not really necessary, should allow GC of Process resources
-				activeProcessThread = null;
-				appendPrompt();
-				setEditable(true);
-				firePropertyChange(PROPERTY_PROCESS_RUNNING, true, false);
+				processCompleted(sessionCommandStopped ?
+						new InterruptedException() : null);
 			});
 		}
 
+		@Override
+		public void outputWritten(String line, boolean stdout) {
+			append(line, stdout ? STYLE_STDOUT : STYLE_STDERR);
+		}
+
 	}
 
 
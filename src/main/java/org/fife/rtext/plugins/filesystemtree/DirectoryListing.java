@@ -0,0 +1,70 @@
+/*
+ * 10/19/2026
+ *
+ * DirectoryListing.java - The children of a directory, waiting to be added to a tree.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.filesystemtree;
+
+import org.fife.ui.rtextfilechooser.FileSystemTreeNode;
+
+
+/**
+ * The child nodes of a directory, listed off the EDT, that haven't been
+ * added to the file system tree yet.  The tree adds them a page at a time,
+ * as they're scrolled into view, so even directories with hundreds of
+ * thousands of entries can be expanded cheaply.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class DirectoryListing {
+
+	private final FileSystemTreeNode[] children;
+	private int next;
+
+
+	/**
+	 * Constructor.  The children are removed from the node they were listed
+	 * into, so they can be added to the real tree node.
+	 *
+	 * @param listed A node, not in any tree, whose children are the
+	 *        directory's contents.
+	 */
+	DirectoryListing(FileSystemTreeNode listed) {
+		children = new FileSystemTreeNode[listed.getChildCount()];
+		for (int i=0; i<children.length; i++) {
+			children[i] = (FileSystemTreeNode)listed.getChildAt(i);
+		}
+		listed.removeAllChildren();
+	}
+
+
+	/**
+	 * Returns the number of entries that haven't been returned by
+	 * {@link #nextNode()} yet.
+	 *
+	 * @return The number of remaining entries.
+	 */
+	int getRemaining() {
+		return children.length - next;
+	}
+
+
+	/**
+	 * Returns the next entry in the listing.
+	 *
+	 * @return The node for the entry.
+	 * @see #getRemaining()
+	 */
+	FileSystemTreeNode nextNode() {
+		FileSystemTreeNode node = children[next];
+		children[next++] = null;
+		return node;
+	}
+
+
+}
@@ -9,21 +9,40 @@
  */
 package org.fife.rtext.plugins.filesystemtree;
 
+import java.awt.Component;
 import java.awt.Cursor;
+import java.awt.Rectangle;
 import java.awt.event.*;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.io.File;
+import java.text.MessageFormat;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.swing.*;
+import javax.swing.event.ChangeListener;
+import javax.swing.tree.DefaultTreeCellRenderer;
+import javax.swing.tree.DefaultTreeModel;
+import javax.swing.tree.TreeCellRenderer;
+import javax.swing.tree.TreePath;
 
 import org.fife.rtext.*;
 import org.fife.ui.app.AppAction;
 import org.fife.ui.rtextfilechooser.FileSystemTree;
+import org.fife.ui.rtextfilechooser.FileSystemTreeNode;
 
 
 /**
- * The extended file system tree used by this plugin.
+ * The extended file system tree used by this plugin.<p>
+ *
+ * Folders are listed, filtered and sorted on a background thread, by the
+ * standard file system tree, and only a page of their children is added to
+ * the tree at a time.  Further pages are added
+ * as the user scrolls to the end of the children added so far.  This keeps
+ * expanding folders with hundreds of thousands of entries about as fast as
+ * expanding small ones.
  *
  * @author Robert Futrell
  * @version 1.0
@@ -34,10 +53,19 @@ class Tree extends FileSystemTree {
 	private OpenAction openAction;
 	private OpenAction openInNewWindowAction;
 	private GoIntoAction goIntoAction;
+	private final ExecutorService lister;
+	private final ChangeListener viewportListener;
+	private JViewport viewport;
+	private PlaceholderAwareRenderer renderer;
 
 	private static final String MSG =
 			"org.fife.rtext.plugins.filesystemtree.PopupMenu";
 
+	/**
+	 * The number of children of a folder to add to the tree at a time.
+	 */
+	private static final int PAGE_SIZE = 500;
+
 
 	/**
 	 * Constructor.
@@ -47,6 +75,9 @@ class Tree extends FileSystemTree {
 	Tree(FileSystemTreePlugin plugin) {
 
 		this.plugin = plugin;
+		lister = Executors.newSingleThreadExecutor(
+				ThreadUtil.createThreadFactory("RText File System Tree Lister"));
+		viewportListener = e -> addVisiblePages();
 		Listener listener = new Listener();
 		addMouseListener(listener);
 		addPropertyChangeListener(listener);
@@ -59,6 +90,81 @@ class Tree extends FileSystemTree {
 	}
 
 
+	/**
+	 * Adds the next page of a folder's children to the tree, in place of a
+	 * placeholder node.
+	 *
+	 * @param placeholder The placeholder node at the end of the folder's
+	 *        children added so far.
+	 */
+	private void addNextPage(PlaceholderNode placeholder) {
+		FileSystemTreeNode parent = (FileSystemTreeNode)placeholder.getParent();
+		if (parent!=null && placeholder.listing!=null) {
+			DefaultTreeModel model = (DefaultTreeModel)getModel();
+			model.removeNodeFromParent(placeholder);
+			addPage(parent, placeholder.listing);
+		}
+	}
+
+
+	@Override
+	public void addNotify() {
+		super.addNotify();
+		viewport = (JViewport)SwingUtilities.getAncestorOfClass(
+				JViewport.class, this);
+		if (viewport!=null) {
+			viewport.addChangeListener(viewportListener);
+		}
+	}
+
+
+	/**
+	 * Adds the next page of a folder listing as children of a node.
+	 *
+	 * @param node The node.
+	 * @param listing The listing of the node's folder.
+	 */
+	private void addPage(FileSystemTreeNode node, DirectoryListing listing) {
+
+		int start = node.getChildCount();
+		int count = Math.min(PAGE_SIZE, listing.getRemaining());
+
+		for (int i=0; i<count; i++) {
+			node.add(listing.nextNode());
+		}
+		if (listing.getRemaining()>0) {
+			node.add(new PlaceholderNode(listing));
+		}
+
+		int[] indices = new int[node.getChildCount() - start];
+		for (int i=0; i<indices.length; i++) {
+			indices[i] = start + i;
+		}
+		((DefaultTreeModel)getModel()).nodesWereInserted(node, indices);
+		SwingUtilities.invokeLater(this::addVisiblePages);
+
+	}
+
+
+	/**
+	 * Adds the next page of children for any folders whose "more" placeholder
+	 * is visible.
+	 */
+	private void addVisiblePages() {
+		Rectangle visible = getVisibleRect();
+		int first = getClosestRowForLocation(visible.x, visible.y);
+		int last = getClosestRowForLocation(visible.x, visible.y + visible.height);
+		for (int row=first; row>-1 && row<=last; row++) {
+			TreePath path = getPathForRow(row);
+			if (path!=null && path.getLastPathComponent() instanceof
+					PlaceholderNode placeholder && placeholder.listing!=null) {
+				addNextPage(placeholder);
+				return; // Rows have changed; this is called again when done
+			}
+		}
+	}
+
+
 	@Override
 	protected void configurePopupMenuActions() {
 
@@ -116,6 +222,12 @@ class Tree extends FileSystemTree {
 	 * If a file is selected in the file system tree, it is opened in RText.
 	 */
 	private void doOpenFile() {
+		TreePath path = getSelectionPath();
+		if (path!=null && path.getLastPathComponent() instanceof
+				PlaceholderNode placeholder) {
+			addNextPage(placeholder);
+			return;
+		}
 		File file = getSelectedFile();
 		if (file!=null) {
 			// We'll make sure the file exists and is a regular file
@@ -130,6 +242,32 @@ class Tree extends FileSystemTree {
 	}
 
 
+	/**
+	 * Overridden to render our placeholder nodes.
+	 */
+	@Override
+	public TreeCellRenderer getCellRenderer() {
+		TreeCellRenderer delegate = super.getCellRenderer();
+		if (delegate==null) {
+			return null; // Still being constructed
+		}
+		if (renderer==null || renderer.delegate!=delegate) {
+			renderer = new PlaceholderAwareRenderer(delegate);
+		}
+		return renderer;
+	}
+
+
+	@Override
+	public String getToolTipText(MouseEvent e) {
+		TreePath path = getPathForLocation(e.getX(), e.getY());
+		if (path!=null && path.getLastPathComponent() instanceof PlaceholderNode) {
+			return null;
+		}
+		return super.getToolTipText(e);
+	}
+
+
 	/**
 	 * Overridden to install our extra actions.
 	 */
@@ -149,6 +287,78 @@ class Tree extends FileSystemTree {
 	}
 
 
+	/**
+	 * Called on the EDT when a folder has been listed.
+	 *
+	 * @param node The node for the folder.
+	 * @param placeholder The "Loading..." placeholder added to the node.
+	 * @param listing The folder listing, or {@code null} if an error
+	 *        occurred.
+	 */
+	private void listingLoaded(FileSystemTreeNode node,
+			PlaceholderNode placeholder, DirectoryListing listing) {
+		if (placeholder.getParent()!=node) {
+			return; // The node has been refreshed since
+		}
+		// Add the children before removing the placeholder so the node
+		// doesn't collapse
+		if (listing!=null) {
+			addPage(node, listing);
+		}
+		((DefaultTreeModel)getModel()).removeNodeFromParent(placeholder);
+	}
+
+
+	/**
+	 * Overridden to list folders in the background, and to only add a page
+	 * of their children to the tree at a time.  A "Loading..." placeholder
+	 * is shown until the folder has been listed.
+	 *
+	 * @param node The node to refresh.
+	 */
+	@Override
+	protected void refreshChildren(FileSystemTreeNode node) {
+
+		// lister is null if called from the super constructor
+		File dir = node==null ? null : node.getFile();
+		if (lister==null || dir==null || !dir.isDirectory()) {
+			super.refreshChildren(node);
+			return;
+		}
+
+		node.removeAllChildren();
+		PlaceholderNode placeholder = new PlaceholderNode(null);
+		node.add(placeholder);
+		((DefaultTreeModel)getModel()).nodeStructureChanged(node);
+
+		// The standard listing, so the tree's file system view, filter and
+		// hidden file setting are honored.  It's done into a node that
+		// isn't in the tree, so it's safe off the EDT.
+		CompletableFuture.supplyAsync(() -> {
+			FileSystemTreeNode listed = new FileSystemTreeNode(dir);
+			Tree.super.refreshChildren(listed);
+			return new DirectoryListing(listed);
+		}, lister).whenComplete((listing, error) -> {
+			if (error!=null) {
+				error.printStackTrace(); // Show the folder as empty
+			}
+			SwingUtilities.invokeLater(() ->
+					listingLoaded(node, placeholder, listing));
+		});
+
+	}
+
+
+	@Override
+	public void removeNotify() {
+		if (viewport!=null) {
+			viewport.removeChangeListener(viewportListener);
+			viewport = null;
+		}
+		super.removeNotify();
+	}
+
+
 	/**
 	 * Makes this tree drill down into the selected folder.
 	 */
@@ -240,6 +450,70 @@ class Tree extends FileSystemTree {
 	}
 
 
+	/**
+	 * Renders our placeholder nodes, and delegates to the file system tree's
+	 * renderer for everything else.
+	 */
+	private static final class PlaceholderAwareRenderer implements TreeCellRenderer {
+
+		private final TreeCellRenderer delegate;
+		private final DefaultTreeCellRenderer placeholderRenderer;
+
+		private PlaceholderAwareRenderer(TreeCellRenderer delegate) {
+			this.delegate = delegate;
+			placeholderRenderer = new DefaultTreeCellRenderer();
+		}
+
+		@Override
+		public Component getTreeCellRendererComponent(JTree tree, Object value,
+				boolean selected, boolean expanded, boolean leaf, int row,
+				boolean hasFocus) {
+			if (value instanceof PlaceholderNode) {
+				placeholderRenderer.getTreeCellRendererComponent(tree, value,
+						selected, expanded, true, row, hasFocus);
+				placeholderRenderer.setIcon(null);
+				return placeholderRenderer;
+			}
+			return delegate.getTreeCellRendererComponent(tree, value, selected,
+					expanded, leaf, row, hasFocus);
+		}
+
+	}
+
+
+	/**
+	 * A child node standing in for children of a folder that haven't been
+	 * added to the tree yet.  This is either a "Loading..." node shown while
+	 * the folder is being listed, or a node shown after the last page of
+	 * children added so far.
+	 */
+	private static final class PlaceholderNode extends FileSystemTreeNode {
+
+		private final DirectoryListing listing;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param listing The listing whose remaining entries this node stands
+		 *        in for, or {@code null} for a "Loading..." node.
+		 */
+		private PlaceholderNode(DirectoryListing listing) {
+			this.listing = listing;
+		}
+
+		@Override
+		public String toString() {
+			ResourceBundle msg = ResourceBundle.getBundle(MSG);
+			if (listing==null) {
+				return msg.getString("Loading");
+			}
+			return MessageFormat.format(msg.getString("MoreEntries"),
+					listing.getRemaining());
+		}
+
+	}
+
+
 	/**
 	 * Adds an old text file to an RText instance.
 	 *
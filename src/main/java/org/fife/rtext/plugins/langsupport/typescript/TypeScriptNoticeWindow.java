@@ -84,7 +84,8 @@ class TypeScriptNoticeWindow extends AbstractParserNoticeWindow {
 
 		this.focusInDockableWindowGroup(true);
 		getRText().getMainView().getCurrentTextArea().requestFocusInWindow();
-		model.update(null, null); // Clear prior results
+		// Prior results are replaced when the build completes, so errors
+		// that are still there don't flicker or lose their selection
 		new BuildThread(plugin, this).start();
 
 	}
@@ -176,16 +177,13 @@ class TypeScriptNoticeWindow extends AbstractParserNoticeWindow {
 		}
 
 		@Override
-		protected void addNoticesImpl(RTextEditorPane textArea,
-				List<ParserNotice> notices) {
-			for (ParserNotice notice : notices) {
-				TypeScriptParserNotice tsNotice =
-						(TypeScriptParserNotice)notice;
-				Object[] data = {	getIcon(), tsNotice.getFileFullPath(),
-					notice.getLine(),
-						notice.getMessage() };
-				addRow(data);
-			}
+		protected Object[] createRow(RTextEditorPane textArea,
+				ParserNotice notice) {
+			TypeScriptParserNotice tsNotice =
+					(TypeScriptParserNotice)notice;
+			return new Object[] {	getIcon(), tsNotice.getFileFullPath(),
+				notice.getLine(),
+					notice.getMessage() };
 		}
 
 	}
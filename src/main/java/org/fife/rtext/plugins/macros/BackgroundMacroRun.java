@@ -0,0 +1,247 @@
+/*
+ * 10/19/2026
+ *
+ * BackgroundMacroRun.java - A macro running on a background thread.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.macros;
+
+import java.util.concurrent.Callable;
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import org.fife.rtext.RText;
+import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
+
+
+/**
+ * A single run of a macro on a background thread.<p>
+ *
+ * The macro edits a {@link MacroTextBuffer} holding a copy of the current
+ * editor's text, so it never touches Swing components off the EDT, and a
+ * large edit doesn't fire one document event per change.  When the macro
+ * completes, the changed region is replaced in the editor in a single atomic
+ * edit.  If the editor's text changed while the macro was running, the
+ * macro's changes are discarded rather than merged.<p>
+ *
+ * If the macro runs for more than a moment, a {@link MacroProgressDialog}
+ * is displayed, letting the user stop it.  Stopping is cooperative: the
+ * buffer throws an exception the next time the macro uses it, and the
+ * macro's thread is interrupted.<p>
+ *
+ * Except where noted, the methods of this class should only be called on
+ * the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class BackgroundMacroRun implements MacroRun {
+
+	private final MacroPlugin plugin;
+	private final Macro macro;
+	private final RSyntaxTextArea textArea;
+
+	/**
+	 * The text area's text when the macro started.
+	 */
+	private final String snapshot;
+
+	private final MacroTextBuffer buffer;
+	private Thread thread;
+	private MacroProgressDialog dialog;
+	private Timer dialogTimer;
+
+	/**
+	 * How long a macro runs before the progress dialog is displayed.
+	 */
+	private static final int DIALOG_DELAY_MILLIS = 400;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param plugin The macro plugin.
+	 * @param macro The macro being run.
+	 * @param textArea The text area the macro edits.
+	 */
+	BackgroundMacroRun(MacroPlugin plugin, Macro macro, RSyntaxTextArea textArea) {
+		this.plugin = plugin;
+		this.macro = macro;
+		this.textArea = textArea;
+		snapshot = textArea.getText();
+		buffer = new MacroTextBuffer(snapshot, textArea.getSelectionStart(),
+				textArea.getSelectionEnd());
+	}
+
+
+	/**
+	 * Replaces the text in the text area with the macro's result.  Only the
+	 * region that differs is replaced, in a single atomic edit, so undo
+	 * restores the original text in one step and the document isn't rebuilt
+	 * if only a small part of it changed.
+	 *
+	 * @param result The macro's result.
+	 */
+	private void applyResult(String result) {
+
+		int prefix = 0;
+		int max = Math.min(snapshot.length(), result.length());
+		while (prefix<max && snapshot.charAt(prefix)==result.charAt(prefix)) {
+			prefix++;
+		}
+
+		int suffix = 0;
+		max -= prefix;
+		while (suffix<max && snapshot.charAt(snapshot.length() - suffix - 1)==
+				result.charAt(result.length() - suffix - 1)) {
+			suffix++;
+		}
+
+		if (prefix==result.length() && prefix==snapshot.length()) {
+			return; // The macro changed the text back
+		}
+
+		textArea.beginAtomicEdit();
+		try {
+			textArea.replaceRange(result.substring(prefix, result.length() - suffix),
+					prefix, snapshot.length() - suffix);
+		} finally {
+			textArea.endAtomicEdit();
+		}
+
+		int length = textArea.getDocument().getLength();
+		textArea.select(Math.min(buffer.getSelectionStart(), length),
+				Math.min(buffer.getSelectionEnd(), length));
+
+	}
+
+
+	@Override
+	public void cancel() {
+		buffer.cancel();
+		thread.interrupt();
+	}
+
+
+	/**
+	 * Called on the EDT when the macro's thread has ended.
+	 *
+	 * @param timing A message describing how long the macro took to run, or
+	 *        {@code null} if it didn't complete.
+	 * @param error The error thrown by the macro, if any.
+	 */
+	private void finished(String timing, Throwable error) {
+
+		dialogTimer.stop();
+		if (dialog!=null) {
+			dialog.dispose();
+		}
+		plugin.backgroundMacroFinished(this);
+
+		RText app = plugin.getApplication();
+		if (buffer.isCanceled()) {
+			app.setMessages(null, plugin.getString("Message.MacroStopped",
+					macro.getName()));
+			return;
+		}
+		if (error!=null) {
+			app.displayException(error);
+			return;
+		}
+
+		if (buffer.isModified()) {
+			if (!textArea.getText().equals(snapshot)) {
+				String text = plugin.getString("Error.TextChangedWhileRunning",
+						macro.getName());
+				String title = app.getString("ErrorDialogTitle");
+				JOptionPane.showMessageDialog(app, text, title,
+						JOptionPane.ERROR_MESSAGE);
+				return;
+			}
+			applyResult(buffer.getText());
+		}
+		app.setMessages(null, timing);
+
+	}
+
+
+	/**
+	 * Returns the buffer edited by the macro.
+	 *
+	 * @return The buffer.
+	 */
+	MacroTextBuffer getBuffer() {
+		return buffer;
+	}
+
+
+	@Override
+	public Macro getMacro() {
+		return macro;
+	}
+
+
+	@Override
+	public int getProgress() {
+		return buffer.getProgress();
+	}
+
+
+	@Override
+	public String getProgressText() {
+		return null;
+	}
+
+
+	@Override
+	public boolean isCanceled() {
+		return buffer.isCanceled();
+	}
+
+
+	/**
+	 * Shows the progress dialog, if the macro is still running.
+	 */
+	private void showDialog() {
+		if (thread.isAlive()) {
+			dialog = new MacroProgressDialog(plugin, this);
+			dialog.setVisible(true);
+		}
+	}
+
+
+	/**
+	 * Runs the macro on a new thread.
+	 *
+	 * @param task Runs the macro's script and returns a message describing
+	 *        how long it took.  This is called on the new thread.
+	 */
+	void start(Callable<String> task) {
+
+		thread = new Thread(() -> {
+			String timing = null;
+			Throwable error = null;
+			try {
+				timing = task.call();
+			} catch (Throwable t) { // Includes errors thrown by the script
+				error = t;
+			}
+			String timing2 = timing;
+			Throwable error2 = error;
+			SwingUtilities.invokeLater(() -> finished(timing2, error2));
+		}, "RText Macro - " + macro.getName());
+		thread.setDaemon(true);
+		thread.start();
+
+		dialogTimer = new Timer(DIALOG_DELAY_MILLIS, e -> showDialog());
+		dialogTimer.setRepeats(false);
+		dialogTimer.start();
+
+	}
+
+
+}
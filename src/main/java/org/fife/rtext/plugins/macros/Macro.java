@@ -40,6 +40,12 @@ public class Macro implements Comparable<Macro>, Cloneable {
 	 */
 	private String accelerator;
 
+	/**
+	 * Whether the macro runs on a background thread, editing a copy of the
+	 * current text, rather than on the EDT.
+	 */
+	private boolean runInBackground;
+
 
 	/**
 	 * Constructor used to support serialization.
@@ -128,6 +134,20 @@ public class Macro implements Comparable<Macro>, Cloneable {
 	}
 
 
+	/**
+	 * Returns whether this macro runs on a background thread.  Such macros
+	 * edit a {@link MacroTextBuffer} containing a copy of the current text,
+	 * rather than the text area itself, and their changes are applied as a
+	 * single edit when they complete.
+	 *
+	 * @return Whether this macro runs on a background thread.
+	 * @see #setRunInBackground(boolean)
+	 */
+	public boolean isRunInBackground() {
+		return runInBackground;
+	}
+
+
 	public void setAccelerator(String accelerator) {
 		this.accelerator = accelerator;
 	}
@@ -154,6 +174,17 @@ public class Macro implements Comparable<Macro>, Cloneable {
 	}
 
 
+	/**
+	 * Sets whether this macro runs on a background thread.
+	 *
+	 * @param runInBackground Whether this macro runs on a background thread.
+	 * @see #isRunInBackground()
+	 */
+	public void setRunInBackground(boolean runInBackground) {
+		this.runInBackground = runInBackground;
+	}
+
+
 	/**
 	 * Overridden to return the name of this macro.  Used by the Macro options
 	 * panel.
@@ -0,0 +1,416 @@
+/*
+ * 10/19/2026
+ *
+ * MacroFileRun.java - A macro running against many files.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.macros;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+import javax.swing.SwingUtilities;
+
+import org.fife.io.UnicodeReader;
+import org.fife.io.UnicodeWriter;
+import org.fife.rtext.FileUtil;
+import org.fife.rtext.RText;
+import org.fife.rtext.ScriptEngineService;
+
+
+/**
+ * Runs a macro against many files, without opening them in editors.<p>
+ *
+ * Like macros run in the background in the current editor, the macro edits
+ * a {@link MacroTextBuffer}, bound as "{@code buffer}", holding a file's
+ * text; the file itself is bound as "{@code file}".  Files are processed in
+ * parallel by a few worker threads, each with its own script engine and
+ * its own compiled copy of the script, since engines can't safely be used
+ * by multiple threads at once.  Changed files are written to a temporary
+ * file that then replaces the original, so a file is never left half
+ * written.  Files open in an editor with unsaved changes are skipped.<p>
+ *
+ * Once all files are processed, or the user stops the macro, a
+ * {@link MacroFileRunReport} lists what happened to each file.<p>
+ *
+ * Except where noted, the methods of this class should only be called on
+ * the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class MacroFileRun implements MacroRun {
+
+	private final MacroPlugin plugin;
+	private final Macro macro;
+	private final String engineName;
+
+	/**
+	 * Returns the files to run the macro against.  Called off the EDT, since
+	 * it may walk a large directory tree.
+	 */
+	private final Callable<List<File>> fileLister;
+
+	/**
+	 * The full paths of files open in editors with unsaved changes.
+	 */
+	private final Set<String> skippedPaths;
+
+	/**
+	 * The buffers being edited by the workers, so they can be canceled.
+	 */
+	private final Set<MacroTextBuffer> buffers;
+
+	private final List<MacroFileRunReport.Entry> entries;
+	private final AtomicInteger processed;
+	private volatile int fileCount;
+	private volatile boolean canceled;
+
+	/**
+	 * Set if a worker can't run the macro at all, so the others stop too.
+	 */
+	private volatile boolean failed;
+
+	private Thread thread;
+	private MacroProgressDialog dialog;
+
+	/**
+	 * The maximum number of files processed at once.  Each worker needs its
+	 * own script engine, which isn't cheap to create.
+	 */
+	private static final int MAX_WORKERS = 4;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param plugin The macro plugin.
+	 * @param macro The macro to run.
+	 * @param engineName The name of the engine that runs the macro.
+	 * @param fileLister Returns the files to run the macro against.  This is
+	 *        called off the EDT.
+	 * @param skippedPaths The full paths of files that shouldn't be changed,
+	 *        because they're open in editors with unsaved changes.
+	 */
+	MacroFileRun(MacroPlugin plugin, Macro macro, String engineName,
+			Callable<List<File>> fileLister, Set<String> skippedPaths) {
+		this.plugin = plugin;
+		this.macro = macro;
+		this.engineName = engineName;
+		this.fileLister = fileLister;
+		this.skippedPaths = skippedPaths;
+		buffers = ConcurrentHashMap.newKeySet();
+		entries = Collections.synchronizedList(new ArrayList<>());
+		processed = new AtomicInteger();
+	}
+
+
+	@Override
+	public void cancel() {
+		canceled = true;
+		buffers.forEach(MacroTextBuffer::cancel);
+		thread.interrupt();
+	}
+
+
+	/**
+	 * Called on the EDT when all files have been processed, or the macro was
+	 * stopped.
+	 *
+	 * @param error An error that stopped the macro from running at all, or
+	 *        {@code null} if none occurred.
+	 * @param millis How long the macro ran.
+	 */
+	private void finished(Throwable error, long millis) {
+
+		dialog.dispose();
+		plugin.backgroundMacroFinished(this);
+
+		RText app = plugin.getApplication();
+		if (error!=null && !canceled) {
+			app.displayException(error);
+			return;
+		}
+
+		// Let the user reload any open files that were changed
+		app.getMainView().checkFilesForOutsideModification();
+
+		List<MacroFileRunReport.Entry> entries;
+		synchronized (this.entries) {
+			entries = new ArrayList<>(this.entries);
+		}
+		new MacroFileRunReport(plugin, macro, entries, fileCount, canceled,
+				millis).display();
+
+	}
+
+
+	@Override
+	public Macro getMacro() {
+		return macro;
+	}
+
+
+	@Override
+	public int getProgress() {
+		int count = fileCount;
+		return count==0 ? -1 : processed.get() * 100 / count;
+	}
+
+
+	@Override
+	public String getProgressText() {
+		int count = fileCount;
+		return count==0 ? null : (processed.get() + " / " + count);
+	}
+
+
+	@Override
+	public boolean isCanceled() {
+		return canceled;
+	}
+
+
+	/**
+	 * Runs the macro against a single file.  This is called on a worker
+	 * thread.
+	 *
+	 * @param engine The worker's engine.
+	 * @param compiled The script compiled by the worker's engine, or
+	 *        {@code null} if it doesn't support compilation.
+	 * @param script The script.
+	 * @param file The file.
+	 * @return What happened to the file.
+	 */
+	private MacroFileRunReport.Entry process(ScriptEngine engine,
+			CompiledScript compiled, String script, File file) {
+
+		if (skippedPaths.contains(file.getAbsolutePath())) {
+			return new MacroFileRunReport.Entry(file,
+					MacroFileRunReport.Result.SKIPPED,
+					plugin.getString("FileRun.UnsavedChanges"));
+		}
+
+		MacroTextBuffer buffer = null;
+		try {
+
+			// Use a UnicodeReader to auto-detect whether this is a Unicode
+			// file, as Replace in Files does
+			UnicodeReader ur = new UnicodeReader(file);
+			String encoding = ur.getEncoding();
+			StringBuilder sb = new StringBuilder();
+			try (Reader r = new BufferedReader(ur)) {
+				char[] buf = new char[8192];
+				int count;
+				while ((count=r.read(buf))!=-1) {
+					sb.append(buf, 0, count);
+				}
+			}
+			String text = sb.toString();
+
+			buffer = new MacroTextBuffer(text, 0, 0);
+			buffers.add(buffer);
+			if (canceled) { // Stopped before the buffer was added
+				buffer.cancel();
+			}
+
+			Bindings bindings = engine.createBindings();
+			bindings.put("rtext", plugin.getApplication());
+			bindings.put("buffer", buffer);
+			bindings.put("file", file);
+			if (compiled!=null) {
+				compiled.eval(bindings);
+			}
+			else {
+				engine.eval(script, bindings);
+			}
+
+			if (!buffer.isModified() || buffer.getText().equals(text)) {
+				return new MacroFileRunReport.Entry(file,
+						MacroFileRunReport.Result.UNCHANGED, null);
+			}
+			write(file, buffer.getText(), encoding);
+			return new MacroFileRunReport.Entry(file,
+					MacroFileRunReport.Result.CHANGED, null);
+
+		} catch (Exception e) { // Includes errors thrown by the script
+			if (canceled) {
+				return new MacroFileRunReport.Entry(file,
+						MacroFileRunReport.Result.SKIPPED,
+						plugin.getString("FileRun.Stopped"));
+			}
+			String message = e.getMessage();
+			return new MacroFileRunReport.Entry(file,
+					MacroFileRunReport.Result.FAILED,
+					message!=null ? message : e.toString());
+		} finally {
+			if (buffer!=null) {
+				buffers.remove(buffer);
+			}
+		}
+
+	}
+
+
+	/**
+	 * Lists the files, starts the workers and waits for them to complete.
+	 * This is called on a background thread.
+	 */
+	private void run() {
+
+		long start = System.currentTimeMillis();
+		Throwable error = null;
+
+		try {
+
+			List<File> files = fileLister.call();
+			fileCount = files.size();
+
+			// Macros are read with the default encoding when run from the
+			// menu, so we do the same here
+			String script = Files.readString(new File(macro.getFile()).toPath(),
+					Charset.defaultCharset());
+
+			Queue<File> queue = new ConcurrentLinkedQueue<>(files);
+			int workerCount = Math.min(files.size(), Math.min(MAX_WORKERS,
+					Runtime.getRuntime().availableProcessors()));
+			List<Thread> workers = new ArrayList<>();
+			Throwable[] workerErrors = new Throwable[workerCount];
+			for (int i=0; i<workerCount; i++) {
+				int index = i;
+				Thread worker = new Thread(() -> {
+					try {
+						work(queue, script);
+					} catch (Throwable t) {
+						workerErrors[index] = t;
+						failed = true; // Other workers fail the same way
+					}
+				}, "RText Macro Worker " + (i+1) + " - " + macro.getName());
+				worker.setDaemon(true);
+				workers.add(worker);
+				worker.start();
+			}
+
+			try {
+				for (Thread worker : workers) {
+					worker.join();
+				}
+			} catch (InterruptedException ie) { // User stopped the macro
+				workers.forEach(Thread::interrupt);
+			}
+
+			for (Throwable t : workerErrors) {
+				if (t!=null) {
+					error = t;
+					break;
+				}
+			}
+
+		} catch (Exception e) {
+			error = e;
+		}
+
+		Throwable error2 = error;
+		long millis = System.currentTimeMillis() - start;
+		SwingUtilities.invokeLater(() -> finished(error2, millis));
+
+	}
+
+
+	/**
+	 * Starts running the macro on a background thread, and displays its
+	 * progress.
+	 */
+	void start() {
+
+		thread = new Thread(this::run, "RText Macro - " + macro.getName());
+		thread.setDaemon(true);
+		thread.start();
+
+		dialog = new MacroProgressDialog(plugin, this);
+		dialog.setVisible(true);
+
+	}
+
+
+	/**
+	 * Processes files until there are none left, or the macro is stopped.
+	 * This is called on a worker thread.
+	 *
+	 * @param queue The files left to process.
+	 * @param script The script.
+	 * @throws ScriptException If the engine can't be started, or the script
+	 *         can't be compiled.
+	 */
+	private void work(Queue<File> queue, String script) throws ScriptException {
+
+		// Each worker has its own engine, so they don't share state
+		ScriptEngine engine = ScriptEngineService.takeEngine(engineName).join();
+		if (engine==null) {
+			throw new ScriptException(plugin.getString("Error.LoadingEngine",
+					engineName));
+		}
+		CompiledScript compiled = null;
+		if (engine instanceof Compilable compilable) {
+			compiled = compilable.compile(script);
+		}
+
+		File file;
+		while (!canceled && !failed && (file=queue.poll())!=null) {
+			entries.add(process(engine, compiled, script, file));
+			processed.incrementAndGet();
+		}
+
+	}
+
+
+	/**
+	 * Replaces a file's content.  The text is written to a temporary file in
+	 * the same directory, which then replaces the original, so other
+	 * programs never see a partially written file.  If the file is a
+	 * symbolic link, its target is written.  This is called on a worker
+	 * thread.
+	 *
+	 * @param file The file.
+	 * @param text The new content.
+	 * @param encoding The encoding to write the file in.
+	 * @throws IOException If an IO error occurs.
+	 */
+	private static void write(File file, String text, String encoding)
+			throws IOException {
+
+		// Write through symbolic links instead of replacing them
+		File target = file.toPath().toRealPath().toFile();
+
+		FileUtil.writeAtomically(target, out -> {
+			Writer w = new BufferedWriter(new UnicodeWriter(out, encoding));
+			w.write(text);
+			w.flush();
+		});
+
+	}
+
+
+}
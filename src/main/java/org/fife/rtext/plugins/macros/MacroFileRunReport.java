@@ -0,0 +1,156 @@
+/*
+ * 10/19/2026
+ *
+ * MacroFileRunReport.java - Summarizes running a macro against many files.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.macros;
+
+import java.awt.BorderLayout;
+import java.io.File;
+import java.text.MessageFormat;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JTextArea;
+
+import org.fife.rtext.RText;
+import org.fife.ui.RScrollPane;
+
+
+/**
+ * Summarizes running a macro against many files: how many files were
+ * changed, and which files couldn't be processed and why.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class MacroFileRunReport {
+
+	private final MacroPlugin plugin;
+	private final Macro macro;
+	private final List<Entry> entries;
+	private final int fileCount;
+	private final boolean canceled;
+	private final long millis;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param plugin The macro plugin.
+	 * @param macro The macro that was run.
+	 * @param entries What happened to each file that was processed.
+	 * @param fileCount The number of files the macro was to run against.
+	 * @param canceled Whether the user stopped the macro before all files
+	 *        were processed.
+	 * @param millis How long the macro ran.
+	 */
+	MacroFileRunReport(MacroPlugin plugin, Macro macro, List<Entry> entries,
+			int fileCount, boolean canceled, long millis) {
+		this.plugin = plugin;
+		this.macro = macro;
+		this.entries = entries;
+		this.fileCount = fileCount;
+		this.canceled = canceled;
+		this.millis = millis;
+	}
+
+
+	/**
+	 * Displays this report in a dialog.
+	 */
+	void display() {
+
+		Map<Result, Integer> counts = new EnumMap<>(Result.class);
+		StringBuilder details = new StringBuilder();
+		for (Entry entry : entries) {
+			counts.merge(entry.result(), 1, Integer::sum);
+			if (entry.result()!=Result.UNCHANGED) {
+				details.append(plugin.getString("FileRun.Result." +
+						entry.result().name())).append('\t').
+						append(entry.file().getAbsolutePath());
+				if (entry.message()!=null) {
+					details.append(" - ").append(entry.message());
+				}
+				details.append('\n');
+			}
+		}
+
+		String key = canceled ? "FileRun.SummaryStopped" : "FileRun.Summary";
+		String summary = MessageFormat.format(plugin.getString(key),
+				macro.getName(), entries.size(), fileCount, millis,
+				counts.getOrDefault(Result.CHANGED, 0),
+				counts.getOrDefault(Result.UNCHANGED, 0),
+				counts.getOrDefault(Result.SKIPPED, 0),
+				counts.getOrDefault(Result.FAILED, 0));
+
+		Object message = summary;
+		if (!details.isEmpty()) {
+			JTextArea textArea = new JTextArea(details.toString(), 12, 70);
+			textArea.setEditable(false);
+			textArea.setCaretPosition(0);
+			JPanel panel = new JPanel(new BorderLayout(0, 5));
+			panel.add(new JLabel(summary), BorderLayout.NORTH);
+			panel.add(new RScrollPane(textArea));
+			message = panel;
+		}
+
+		RText app = plugin.getApplication();
+		int type = counts.containsKey(Result.FAILED) ?
+				JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE;
+		JOptionPane.showMessageDialog(app, message,
+				plugin.getString("FileRun.Report.Title"), type);
+
+	}
+
+
+	/**
+	 * What happened to a single file.
+	 *
+	 * @param file The file.
+	 * @param result The result of running the macro against the file.
+	 * @param message Why the file was skipped or failed, or {@code null} if
+	 *        it was processed successfully.
+	 */
+	record Entry(File file, Result result, String message) {
+	}
+
+
+	/**
+	 * The results of running a macro against a file.
+	 */
+	enum Result {
+
+		/**
+		 * The macro changed the file, and it was saved.
+		 */
+		CHANGED,
+
+		/**
+		 * The macro didn't change the file.
+		 */
+		UNCHANGED,
+
+		/**
+		 * The file wasn't processed, e.g. because it has unsaved changes in
+		 * an editor, or the macro was stopped.
+		 */
+		SKIPPED,
+
+		/**
+		 * An error occurred reading or writing the file, or the macro threw
+		 * an exception.
+		 */
+		FAILED
+
+	}
+
+
+}
@@ -12,23 +12,33 @@ package org.fife.rtext.plugins.macros;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.beans.XMLDecoder;
-import java.beans.XMLEncoder;
 import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.swing.SwingUtilities;
+
+import org.fife.rtext.DefinitionFile;
+import org.fife.rtext.ThreadUtil;
 
 
 /**
- * Manages all of the macros in an RText session.
+ * Manages all of the macros in an RText session.<p>
+ *
+ * Macro definitions are saved in a single {@link DefinitionFile}.  They're
+ * loaded lazily, the first time they're needed, so they don't slow down
+ * startup, and normally on a background thread; see
+ * {@link #loadMacrosInBackground(File)}.  Definitions saved as XML by older
+ * versions of RText are migrated to the new format when they're loaded.
  *
  * @author Robert Futrell
  * @version 1.0
@@ -43,6 +53,27 @@ public final class MacroManager {
 	private final SortedSet<Macro> macros;
 	private final PropertyChangeSupport support;
 
+	/**
+	 * The directory to load macros from, or <code>null</code> if it hasn't
+	 * been set.
+	 */
+	private File dir;
+
+	private boolean loaded;
+
+	/**
+	 * Whether the last attempt to load the macros failed.  If it did, the
+	 * macros aren't saved, so a macro definition file this version of
+	 * RText can't read isn't overwritten with an incomplete list.
+	 */
+	private boolean loadFailed;
+
+	/**
+	 * The macros being read on a background thread, or {@code null} if they
+	 * aren't being read.
+	 */
+	private CompletableFuture<List<Macro>> pendingLoad;
+
 	/**
 	 * The extension all macro files in older versions of RText ended with.
 	 */
@@ -56,7 +87,19 @@ public final class MacroManager {
 	/**
 	 * The name of the file that lists our macro definitions.
 	 */
-	private static final String MACRO_DEFINITION_FILE_NAME = "macroDefinitions.xml";
+	private static final String MACRO_DEFINITION_FILE_NAME = "macroDefinitions.properties";
+
+	/**
+	 * The file macro definitions were saved to as XML by older versions of
+	 * RText.
+	 */
+	private static final String XML_MACRO_DEFINITION_FILE_NAME = "macroDefinitions.xml";
+
+	/**
+	 * The type and version of the macro definition file's format.
+	 */
+	private static final String DEFINITION_TYPE = "macro";
+	private static final int DEFINITION_VERSION = 1;
 
 
 	/**
@@ -68,6 +111,24 @@ public final class MacroManager {
 	}
 
 
+	/**
+	 * Adds the macros read from the macro directory, unless the macros have
+	 * already been loaded.  This fires a property change event of type
+	 * {@link #PROPERTY_MACROS}.
+	 *
+	 * @param loadedMacros The macros read.
+	 */
+	private void addLoadedMacros(List<Macro> loadedMacros) {
+		pendingLoad = null;
+		if (!loaded) {
+			macros.addAll(loadedMacros);
+			loaded = true;
+			loadFailed = false;
+			support.firePropertyChange(PROPERTY_MACROS, null, null);
+		}
+	}
+
+
 	/**
 	 * Adds a macro.  This methods fires a property change event of type
 	 * {@link #PROPERTY_MACROS}.
@@ -80,6 +141,7 @@ public final class MacroManager {
 		// user is allowed to "overwrite" an existing macro, we must remove any
 		// previous macro with that name before adding the new one, since Sets
 		// don't add an element if it "already exists."
+		ensureLoaded();
 		macros.remove(macro);
 		macros.add(macro);
 		support.firePropertyChange(PROPERTY_MACROS, null, null);
@@ -107,6 +169,7 @@ public final class MacroManager {
 	 *         empty, but will never be <code>null</code>.
 	 */
 	public SortedSet<Macro> clearMacros() {
+		ensureLoaded();
 		SortedSet<Macro> copy = new TreeSet<>(macros);
 		macros.clear();
 		support.firePropertyChange(PROPERTY_MACROS, null, null);
@@ -121,6 +184,7 @@ public final class MacroManager {
 	 * @return Whether a macro is already defined with that name.
 	 */
 	public boolean containsMacroNamed(String name) {
+		ensureLoaded();
 		boolean found = false;
 		for (Macro macro : macros) {
 			if (macro.getName().equalsIgnoreCase(name)) {
@@ -132,6 +196,36 @@ public final class MacroManager {
 	}
 
 
+	/**
+	 * Loads the macros if they haven't been loaded yet.  If they're being
+	 * loaded in the background, this waits for them.  Errors are only
+	 * printed, since callers of the methods that need the macros can't
+	 * handle them; the plugin loads the macros itself, so it can report
+	 * errors.  If loading failed before, it isn't retried here.
+	 */
+	private void ensureLoaded() {
+		if (loaded) {
+			return;
+		}
+		if (pendingLoad!=null) {
+			try {
+				addLoadedMacros(pendingLoad.join());
+			} catch (CompletionException ce) {
+				ce.getCause().printStackTrace();
+				pendingLoad = null;
+				loadFailed = true;
+			}
+		}
+		else if (!loadFailed && dir!=null) {
+			try {
+				loadMacros(dir);
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+			}
+		}
+	}
+
+
 	/**
 	 * Returns the singleton instance of the macro manager.
 	 *
@@ -148,6 +242,7 @@ public final class MacroManager {
 	 * @return The number of macros.
 	 */
 	public int getMacroCount() {
+		ensureLoaded();
 		return macros.size();
 	}
 
@@ -158,18 +253,102 @@ public final class MacroManager {
 	 * @return An iterator over the macros.
 	 */
 	public Iterator<Macro> getMacroIterator() {
+		ensureLoaded();
 		return macros.iterator();
 	}
 
 
 	/**
-	 * Loads all macros from a directory.
+	 * Returns whether the macros have been loaded.
+	 *
+	 * @return Whether the macros have been loaded.
+	 * @see #loadMacros(File)
+	 * @see #loadMacrosInBackground(File)
+	 */
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+
+	/**
+	 * Loads all macros from a directory.  If the macros were saved as XML by
+	 * an older version of RText, they're saved in the new format, and the
+	 * XML file is removed.
 	 *
 	 * @param dir The directory to load macros from.
-	 * @throws IOException If an IO error occurs reading the macros.
+	 * @throws IOException If an IO error occurs reading the macros, or they
+	 *         were saved by a newer version of RText.
+	 * @see #loadMacrosInBackground(File)
+	 * @see #setMacroDirectory(File)
 	 * @see #saveMacros(File)
 	 */
 	public void loadMacros(File dir) throws IOException {
+		this.dir = dir;
+		loadFailed = true; // Until the macros are successfully read
+		addLoadedMacros(readMacros(dir));
+	}
+
+
+	/**
+	 * Loads all macros from a directory on a low-priority background
+	 * thread, so reading them, and migrating macros saved as XML by older
+	 * versions of RText, doesn't block the EDT.  The macros are added on the
+	 * EDT.  If the macros are already loaded, or being loaded, nothing new
+	 * is started.  This should be called on the EDT.
+	 *
+	 * @param dir The directory to load macros from.
+	 * @return A future that completes on the EDT once the macros have been
+	 *         added.  It completes exceptionally with an
+	 *         {@code IOException} if they couldn't be read.
+	 * @see #loadMacros(File)
+	 */
+	public CompletableFuture<Void> loadMacrosInBackground(File dir) {
+
+		this.dir = dir;
+		if (loaded) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		if (pendingLoad==null) {
+			CompletableFuture<List<Macro>> future = new CompletableFuture<>();
+			ThreadUtil.createThreadFactory("RText Macro Loader").newThread(() -> {
+				try {
+					future.complete(readMacros(dir));
+				} catch (Throwable t) {
+					future.completeExceptionally(t);
+				}
+			}).start();
+			pendingLoad = future;
+		}
+
+		CompletableFuture<List<Macro>> load = pendingLoad;
+		CompletableFuture<Void> result = new CompletableFuture<>();
+		load.whenComplete((loadedMacros, error) -> SwingUtilities.invokeLater(() -> {
+			if (error==null) {
+				addLoadedMacros(loadedMacros);
+				result.complete(null);
+				return;
+			}
+			if (pendingLoad==load) {
+				pendingLoad = null;
+				loadFailed = true;
+			}
+			result.completeExceptionally(error);
+		}));
+		return result;
+
+	}
+
+
+	/**
+	 * Loads macros saved as XML by older versions of RText.
+	 *
+	 * @param file The macro definition file.
+	 * @param loadedMacros The list to add the macros to.
+	 * @throws IOException If an IO error occurs reading the macros.
+	 */
+	private static void loadXmlMacros(File file, List<Macro> loadedMacros)
+			throws IOException {
 
 		// Since class Macro was loaded by PluginClassLoader, XMLEncoder will
 		// throw an Exception when trying to save it as the class was not loaded
@@ -178,20 +357,80 @@ public final class MacroManager {
 		ClassLoader threadCL = Thread.currentThread().getContextClassLoader();
 		Thread.currentThread().setContextClassLoader(Macro.class.getClassLoader());
 
-		File file = new File(dir, MACRO_DEFINITION_FILE_NAME);
-		if (file.isFile()) {
-			XMLDecoder d = new XMLDecoder(new BufferedInputStream(
-					new FileInputStream(file)));
+		try (XMLDecoder d = new XMLDecoder(new BufferedInputStream(
+				new FileInputStream(file)))) {
 			@SuppressWarnings("unchecked")
 			List<Macro> macroList = (List<Macro>)d.readObject();
-			for (Macro macro : macroList) {
-				addMacro(macro);
-			}
+			loadedMacros.addAll(macroList);
+		} finally {
+			Thread.currentThread().setContextClassLoader(threadCL);
 		}
 
-		Thread.currentThread().setContextClassLoader(threadCL);
+	}
 
-		support.firePropertyChange(PROPERTY_MACROS, null, null);
+
+	/**
+	 * Creates a macro from its definition.
+	 *
+	 * @param definitions The macro definitions.
+	 * @param record The index of the macro's definition.
+	 * @return The macro.
+	 * @throws IOException If the definition is invalid.
+	 */
+	private static Macro readMacro(DefinitionFile definitions, int record)
+			throws IOException {
+
+		String name = definitions.getString(record, "name");
+		String file = definitions.getString(record, "file");
+		if (name==null || file==null) {
+			throw new IOException("Invalid macro definition: " + record);
+		}
+
+		Macro macro = new Macro();
+		macro.setName(name);
+		macro.setDesc(definitions.getString(record, "description"));
+		macro.setFile(file);
+		macro.setAccelerator(definitions.getString(record, "accelerator"));
+		macro.setRunInBackground(definitions.getBoolean(record, "runInBackground"));
+		return macro;
+
+	}
+
+
+	/**
+	 * Reads all macros from a directory.  If the macros were saved as XML by
+	 * an older version of RText, they're saved in the new format, and the
+	 * XML file is removed.  This may be called off the EDT.
+	 *
+	 * @param dir The directory to read macros from.
+	 * @return The macros.
+	 * @throws IOException If an IO error occurs reading the macros, or they
+	 *         were saved by a newer version of RText.
+	 */
+	private static List<Macro> readMacros(File dir) throws IOException {
+
+		List<Macro> loadedMacros = new ArrayList<>();
+
+		File file = new File(dir, MACRO_DEFINITION_FILE_NAME);
+		if (file.isFile()) {
+			DefinitionFile definitions = DefinitionFile.load(file, DEFINITION_TYPE);
+			if (definitions.getVersion()>DEFINITION_VERSION) {
+				throw new IOException("Unsupported macro definition file version: " +
+						definitions.getVersion());
+			}
+			for (int i=0; i<definitions.getCount(); i++) {
+				loadedMacros.add(readMacro(definitions, i));
+			}
+		}
+		else {
+			File xmlFile = new File(dir, XML_MACRO_DEFINITION_FILE_NAME);
+			if (xmlFile.isFile()) {
+				loadXmlMacros(xmlFile, loadedMacros);
+				writeMacros(dir, loadedMacros);
+			}
+		}
+
+		return loadedMacros;
 
 	}
 
@@ -217,6 +456,7 @@ public final class MacroManager {
 	 * @see #addMacro(Macro)
 	 */
 	public void removeMacro(Macro macro) {
+		ensureLoaded();
 		if (macros.remove(macro)) {
 			support.firePropertyChange(PROPERTY_MACROS, null, null);
 		}
@@ -224,48 +464,83 @@ public final class MacroManager {
 
 
 	/**
-	 * Saves all macros known to this macro manager.
+	 * Saves all macros known to this macro manager.  If the macros were
+	 * never loaded, they can't have changed, so nothing is saved.  Nothing
+	 * is saved if loading them failed either, so macros that couldn't be
+	 * read aren't lost.
 	 *
-	 * @param dir The directory to save the macro definitions to.  The old
-	 *        contents of this directory are deleted.
+	 * @param dir The directory to save the macro definitions to.  Macro
+	 *        definitions saved by older versions of RText are deleted.
 	 * @throws IOException If an IO error occurs writing the files.
 	 * @see #loadMacros(File)
 	 */
 	public void saveMacros(File dir) throws IOException {
 
-		// First, clear out old macros
-		if (dir.isDirectory()) { // Should always already exist.
-			File[] oldFiles = dir.listFiles(new OldMacroFilenameFilter());
-			for (File oldFile : oldFiles) {
-				oldFile.delete();
-			}
+		if (loaded) {
+			writeMacros(dir, macros);
 		}
-		else {
+	}
+
+
+	/**
+	 * Sets the directory to load macros from the first time they're needed.
+	 *
+	 * @param dir The directory.
+	 * @see #loadMacros(File)
+	 */
+	public void setMacroDirectory(File dir) {
+		this.dir = dir;
+	}
+
+
+	/**
+	 * Saves macros.  This may be called off the EDT.
+	 *
+	 * @param dir The directory to save the macro definitions to.  Macro
+	 *        definitions saved by older versions of RText are deleted.
+	 * @param macros The macros to save.
+	 * @throws IOException If an IO error occurs writing the files.
+	 */
+	private static void writeMacros(File dir, Collection<Macro> macros)
+			throws IOException {
+
+		if (!dir.isDirectory()) { // Should always already exist.
 			dir.mkdir();
 		}
 
-		// Since class Macro was loaded by PluginClassLoader, XMLEncoder will
-		// throw an Exception when trying to save it as the class was not loaded
-		// by the same ClassLoader as XMLEncoder.  In Java 7 XMLEncoder can take
-		// a ClassLoader parameter, but until then, this is a workaround.
-		ClassLoader threadCL = Thread.currentThread().getContextClassLoader();
-		Thread.currentThread().setContextClassLoader(Macro.class.getClassLoader());
-		try {
-
-			// Put our macros into a list.
-			List<Macro> macroList = new ArrayList<>(macros);
+		DefinitionFile definitions = new DefinitionFile(DEFINITION_TYPE,
+				DEFINITION_VERSION);
+		for (Macro macro : macros) {
+			writeMacro(definitions, macro);
+		}
+		definitions.save(new File(dir, MACRO_DEFINITION_FILE_NAME));
 
-			// Save our list of macros as XML.
-			File file = new File(dir, MACRO_DEFINITION_FILE_NAME);
-			try (XMLEncoder e = new XMLEncoder(new BufferedOutputStream(
-				new FileOutputStream(file)))) {
-				e.writeObject(macroList);
+		// Clear out macros saved by older versions, only once the new file
+		// has been saved
+		File[] oldFiles = dir.listFiles(new OldMacroFilenameFilter());
+		if (oldFiles!=null) {
+			for (File oldFile : oldFiles) {
+				oldFile.delete();
 			}
-
-		} finally {
-			Thread.currentThread().setContextClassLoader(threadCL);
 		}
+		new File(dir, XML_MACRO_DEFINITION_FILE_NAME).delete();
+
+	}
 
+
+	/**
+	 * Adds a macro's definition to a definition file.
+	 *
+	 * @param definitions The definition file.
+	 * @param macro The macro.
+	 */
+	private static void writeMacro(DefinitionFile definitions, Macro macro) {
+		int record = definitions.add();
+		definitions.put(record, "name", macro.getName());
+		definitions.put(record, "description", macro.getDesc());
+		definitions.put(record, "file", macro.getFile());
+		definitions.put(record, "accelerator", macro.getAccelerator());
+		definitions.put(record, "runInBackground", macro.isRunInBackground());
 	}
 
 
@@ -17,12 +17,19 @@ import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import javax.swing.*;
+import javax.swing.Timer;
+import javax.swing.event.MenuEvent;
+import javax.swing.event.MenuListener;
 
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextUtilities;
+import org.fife.rtext.ScriptEngineService;
 import org.fife.ui.ImageTranscodingUtil;
 import org.fife.ui.StandardMenuItem;
 import org.fife.ui.app.AbstractPlugin;
@@ -48,13 +55,30 @@ public class MacroPlugin extends AbstractPlugin<RText>
 	private JMenu macrosMenu;
 	private final NewMacroAction newMacroAction;
 	private final EditMacrosAction editMacrosAction;
+	private final RunMacroOnFilesAction runMacroOnFilesAction;
 	private Map<String, Icon> icons;
+	private final MacroScriptCache scriptCache;
+	private CompletableFuture<Void> macrosLoad;
+
+	/**
+	 * The macro running in the background, if any.  Other macros can't run
+	 * until it completes, since script engines can't safely be used by
+	 * multiple threads at once.
+	 */
+	private MacroRun backgroundRun;
 
 	private static final String MSG_BUNDLE = "org.fife.rtext.plugins.macros.MacrosPlugin";
 	static final ResourceBundle MSG = ResourceBundle.getBundle(MSG_BUNDLE);
 
 	private static final String EDIT_MACROS_ACTION		= "editMacrosAction";
 	private static final String NEW_MACRO_ACTION		= "newMacroAction";
+	private static final String RUN_MACRO_ON_FILES_ACTION	= "runMacroOnFilesAction";
+
+	/**
+	 * How long after startup to load the macros, if the user hasn't opened
+	 * the Macros menu yet.
+	 */
+	private static final int LOAD_MACROS_DELAY_MILLIS	= 3000;
 
 
 	/**
@@ -67,6 +91,7 @@ public class MacroPlugin extends AbstractPlugin<RText>
 		super(rtext);
 		loadIcons();
 		MacroPrefs prefs = loadPrefs();
+		scriptCache = new MacroScriptCache();
 
 		newMacroAction = new NewMacroAction(this, rtext, MSG);
 		newMacroAction.setAccelerator(prefs.newMacroAccelerator);
@@ -76,10 +101,39 @@ public class MacroPlugin extends AbstractPlugin<RText>
 		editMacrosAction.setAccelerator(prefs.editMacrosAccelerator);
 		rtext.addAction(EDIT_MACROS_ACTION, editMacrosAction);
 
+		runMacroOnFilesAction = new RunMacroOnFilesAction(this, rtext, MSG);
+		runMacroOnFilesAction.setAccelerator(prefs.runMacroOnFilesAccelerator);
+		rtext.addAction(RUN_MACRO_ON_FILES_ACTION, runMacroOnFilesAction);
+
 		updateActionIcons(rtext.getIconGroup());
 	}
 
 
+	/**
+	 * Called when a macro running in the background completes.
+	 *
+	 * @param run The macro run.
+	 * @see #backgroundMacroStarted(MacroRun)
+	 */
+	void backgroundMacroFinished(MacroRun run) {
+		if (backgroundRun==run) {
+			backgroundRun = null;
+		}
+	}
+
+
+	/**
+	 * Called when a macro starts running in the background.
+	 *
+	 * @param run The macro run.
+	 * @see #backgroundMacroFinished(MacroRun)
+	 * @see #getBackgroundMacroRun()
+	 */
+	void backgroundMacroStarted(MacroRun run) {
+		backgroundRun = run;
+	}
+
+
 	/**
 	 * Creates a menu item from an action, with no tool tip.
 	 *
@@ -117,6 +171,17 @@ public class MacroPlugin extends AbstractPlugin<RText>
 	}
 
 
+	/**
+	 * Returns the macro running in the background, if any.
+	 *
+	 * @return The macro run, or {@code null} if no macro is running in the
+	 *         background.
+	 */
+	MacroRun getBackgroundMacroRun() {
+		return backgroundRun;
+	}
+
+
 	Icon getIcon(String iconName) {
 		return icons.get(iconName);
 	}
@@ -176,6 +241,16 @@ public class MacroPlugin extends AbstractPlugin<RText>
 	}
 
 
+	/**
+	 * Returns the compiled macro scripts, shared by all macros.
+	 *
+	 * @return The compiled scripts.
+	 */
+	MacroScriptCache getScriptCache() {
+		return scriptCache;
+	}
+
+
 	/**
 	 * Returns localized text for the given key.
 	 *
@@ -223,12 +298,50 @@ public class MacroPlugin extends AbstractPlugin<RText>
 		macrosMenu.add(createMenuItem(a));
 		a = rtext.getAction(MacroPlugin.EDIT_MACROS_ACTION);
 		macrosMenu.add(createMenuItem(a));
+		a = rtext.getAction(MacroPlugin.RUN_MACRO_ON_FILES_ACTION);
+		macrosMenu.add(createMenuItem(a));
 		macrosMenu.addSeparator();
 		mb.addExtraMenu(macrosMenu);
 		mb.revalidate();
 
-		loadMacros(); // Do after menu has been added
+		// Macros are loaded the first time they're needed, but if the user
+		// doesn't open the menu, load them shortly after startup so their
+		// shortcuts work
+		MacroManager.get().setMacroDirectory(getMacroDir());
+		macrosMenu.addMenuListener(new MenuListener() {
+			@Override
+			public void menuSelected(MenuEvent e) {
+				ensureMacrosLoaded();
+			}
+			@Override
+			public void menuDeselected(MenuEvent e) {
+			}
+			@Override
+			public void menuCanceled(MenuEvent e) {
+			}
+		});
+		Timer timer = new Timer(LOAD_MACROS_DELAY_MILLIS, e -> {
+			ensureMacrosLoaded();
+			if (macrosLoad!=null) { // Completes on the EDT
+				macrosLoad.thenRun(this::warmUpEngines);
+			}
+			else {
+				warmUpEngines();
+			}
+		});
+		timer.setRepeats(false);
+		timer.start();
+
+	}
+
 
+	/**
+	 * Loads the previously saved macros, if they haven't been loaded yet.
+	 */
+	private void ensureMacrosLoaded() {
+		if (!MacroManager.get().isLoaded() && macrosLoad==null) {
+			loadMacros();
+		}
 	}
 
 
@@ -260,7 +373,8 @@ public class MacroPlugin extends AbstractPlugin<RText>
 
 
 	/**
-	 * Loads the previously saved macros.
+	 * Loads the previously saved macros on a background thread.  The Macros
+	 * menu is refreshed when they've been loaded.
 	 *
 	 * @see #saveMacros()
 	 */
@@ -272,17 +386,19 @@ public class MacroPlugin extends AbstractPlugin<RText>
 			macroDir.mkdirs();
 		}
 
-		try {
-			MacroManager.get().loadMacros(macroDir);
-		} catch (IOException ioe) {
-			String text = ioe.getMessage();
-			if (text==null) {
-				text = ioe.toString();
+		macrosLoad = MacroManager.get().loadMacrosInBackground(macroDir);
+		macrosLoad.whenComplete((result, error) -> { // Called on the EDT
+			macrosLoad = null;
+			if (error!=null) {
+				String text = error.getMessage();
+				if (text==null) {
+					text = error.toString();
+				}
+				String desc = getString("Error.LoadingMacros");
+				desc = MessageFormat.format(desc, text);
+				getApplication().displayException(error, desc);
 			}
-			String desc = getString("Error.LoadingMacros");
-			desc = MessageFormat.format(desc, text);
-			getApplication().displayException(ioe, desc);
-		}
+		});
 
 	}
 
@@ -325,8 +441,8 @@ public class MacroPlugin extends AbstractPlugin<RText>
 	 */
 	private void refreshMacrosMenu() {
 
-		while (macrosMenu.getMenuComponentCount()>3) {
-			macrosMenu.remove(3);
+		while (macrosMenu.getMenuComponentCount()>4) {
+			macrosMenu.remove(4);
 		}
 
 		if (MacroManager.get().getMacroCount()>0) {
@@ -344,6 +460,11 @@ public class MacroPlugin extends AbstractPlugin<RText>
 			macrosMenu.add(item);
 		}
 
+		// Macros are loaded in the background, possibly with the menu open
+		if (macrosMenu.isPopupMenuVisible()) {
+			macrosMenu.getPopupMenu().pack();
+		}
+
 	}
 
 
@@ -379,6 +500,8 @@ public class MacroPlugin extends AbstractPlugin<RText>
 		prefs.newMacroAccelerator = a.getAccelerator();
 		a = (AppAction<?>)app.getAction(EDIT_MACROS_ACTION);
 		prefs.editMacrosAccelerator = a.getAccelerator();
+		a = (AppAction<?>)app.getAction(RUN_MACRO_ON_FILES_ACTION);
+		prefs.runMacroOnFilesAccelerator = a.getAccelerator();
 
 		File prefsFile = getPrefsFile();
 		try {
@@ -416,4 +539,23 @@ public class MacroPlugin extends AbstractPlugin<RText>
 			editMacrosAction.restoreDefaultIcon();
 		}
 	}
+
+
+	/**
+	 * Starts the script engines used by the user's macros in the
+	 * background, once startup has finished, so the first macro run doesn't
+	 * have to wait for them.
+	 */
+	private void warmUpEngines() {
+		Set<String> engineNames = new LinkedHashSet<>();
+		for (Iterator<Macro> i=MacroManager.get().getMacroIterator(); i.hasNext();) {
+			String engineName = RunMacroAction.getEngineName(i.next().getFile());
+			if (engineName!=null) {
+				engineNames.add(engineName);
+			}
+		}
+		ScriptEngineService.warmUp(engineNames.toArray(new String[0]));
+	}
+
+
 }
@@ -32,11 +32,17 @@ public class MacroPrefs extends Prefs {
 	 */
 	public KeyStroke editMacrosAccelerator;
 
+	/**
+	 * Accelerator for the "Run Macro on Files..." action.
+	 */
+	public KeyStroke runMacroOnFilesAccelerator;
+
 
 	@Override
 	public void setDefaults() {
 		newMacroAccelerator = null;
 		editMacrosAccelerator = null;
+		runMacroOnFilesAccelerator = null;
 	}
 
 
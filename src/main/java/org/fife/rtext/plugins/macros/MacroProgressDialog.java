@@ -0,0 +1,157 @@
+/*
+ * 10/19/2026
+ *
+ * MacroProgressDialog.java - Shows the progress of a macro running in the background.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.macros;
+
+import java.awt.BorderLayout;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import javax.swing.Box;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.Timer;
+
+import org.fife.rtext.RText;
+import org.fife.ui.EscapableDialog;
+import org.fife.ui.ResizableFrameContentPane;
+import org.fife.ui.UIUtil;
+
+
+/**
+ * A modeless dialog showing the progress of a macro running in the
+ * background, with a button to stop it.  Closing the dialog also stops the
+ * macro.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class MacroProgressDialog extends EscapableDialog {
+
+	private final MacroRun run;
+	private final MacroPlugin plugin;
+	private final JLabel label;
+	private final JProgressBar progressBar;
+	private final JButton stopButton;
+	private final Timer timer;
+
+	/**
+	 * How often the progress reported by the macro is checked.
+	 */
+	private static final int UPDATE_MILLIS = 100;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param plugin The macro plugin.
+	 * @param run The macro run whose progress to display.
+	 */
+	MacroProgressDialog(MacroPlugin plugin, MacroRun run) {
+
+		super(plugin.getApplication());
+		this.plugin = plugin;
+		this.run = run;
+		RText app = plugin.getApplication();
+
+		JPanel cp = new ResizableFrameContentPane(new BorderLayout());
+		cp.setBorder(UIUtil.getEmpty5Border());
+
+		Box topPanel = Box.createVerticalBox();
+		label = new JLabel(plugin.getString("Progress.Running",
+				run.getMacro().getName()));
+		label.setAlignmentX(LEFT_ALIGNMENT);
+		topPanel.add(label);
+		topPanel.add(Box.createVerticalStrut(5));
+		progressBar = new JProgressBar(0, 100);
+		progressBar.setIndeterminate(true);
+		progressBar.setAlignmentX(LEFT_ALIGNMENT);
+		topPanel.add(progressBar);
+		topPanel.add(Box.createVerticalStrut(10));
+		cp.add(topPanel, BorderLayout.NORTH);
+
+		stopButton = UIUtil.newButton(MacroPlugin.MSG, "Progress.Stop",
+				"Progress.Stop.Mnemonic");
+		stopButton.addActionListener(e -> escapePressed());
+		Container buttonPanel = UIUtil.createButtonFooter(stopButton);
+		cp.add(buttonPanel, BorderLayout.SOUTH);
+
+		setContentPane(cp);
+		setTitle(plugin.getString("Progress.Title"));
+		setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+		addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosing(WindowEvent e) {
+				escapePressed();
+			}
+		});
+		setModal(false);
+		pack();
+		setSize(new Dimension(Math.max(getWidth(), 350), getHeight()));
+		setLocationRelativeTo(app);
+
+		timer = new Timer(UPDATE_MILLIS, e -> updateProgress());
+
+	}
+
+
+	@Override
+	public void dispose() {
+		timer.stop();
+		super.dispose();
+	}
+
+
+	/**
+	 * Overridden to stop the macro.  The dialog stays open until the macro's
+	 * thread has ended.
+	 */
+	@Override
+	public void escapePressed() {
+		run.cancel();
+		label.setText(plugin.getString("Progress.Stopping"));
+		progressBar.setIndeterminate(true);
+		stopButton.setEnabled(false);
+	}
+
+
+	@Override
+	public void setVisible(boolean visible) {
+		if (visible) {
+			timer.start();
+		}
+		else {
+			timer.stop();
+		}
+		super.setVisible(visible);
+	}
+
+
+	/**
+	 * Updates the progress bar with the progress last reported by the macro.
+	 */
+	private void updateProgress() {
+		if (run.isCanceled()) {
+			return;
+		}
+		int progress = run.getProgress();
+		if (progress>=0) {
+			progressBar.setIndeterminate(false);
+			progressBar.setValue(progress);
+		}
+		String text = run.getProgressText();
+		progressBar.setStringPainted(text!=null);
+		progressBar.setString(text);
+	}
+
+
+}
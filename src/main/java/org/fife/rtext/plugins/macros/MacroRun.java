@@ -0,0 +1,58 @@
+/*
+ * 10/19/2026
+ *
+ * MacroRun.java - A macro running in the background.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.macros;
+
+
+/**
+ * A macro running in the background, whose progress is displayed in a
+ * {@link MacroProgressDialog}.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+interface MacroRun {
+
+	/**
+	 * Stops the macro.  This does nothing if it has already completed.
+	 */
+	void cancel();
+
+	/**
+	 * Returns the macro being run.
+	 *
+	 * @return The macro.
+	 */
+	Macro getMacro();
+
+	/**
+	 * Returns the progress of the macro.  This method is thread-safe.
+	 *
+	 * @return The progress, from {@code 0} to {@code 100}, or {@code -1}
+	 *         if it isn't known.
+	 */
+	int getProgress();
+
+	/**
+	 * Returns text describing the progress of the macro, to display in the
+	 * progress bar.  This method is thread-safe.
+	 *
+	 * @return The text, or {@code null} for none.
+	 */
+	String getProgressText();
+
+	/**
+	 * Returns whether the macro has been stopped.  This method is
+	 * thread-safe.
+	 *
+	 * @return Whether the macro has been stopped.
+	 */
+	boolean isCanceled();
+
+}
@@ -0,0 +1,123 @@
+/*
+ * 10/19/2026
+ *
+ * MacroScriptCache.java - Compiled macro scripts, reused until they change.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.macros;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptException;
+
+
+/**
+ * Compiled macro scripts, so a macro that's run over and over, e.g. from a
+ * keyboard shortcut, is only compiled once.  Groovy otherwise generates and
+ * loads a new class, and JavaScript is re-parsed, every time a macro runs.<p>
+ *
+ * Scripts are keyed by the full path of their file, and are recompiled when
+ * the file's modification time or size changes, or when a different engine
+ * is used.  Only the most recently used scripts are kept.  This class is
+ * thread-safe.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class MacroScriptCache {
+
+	/**
+	 * The compiled scripts, least recently used first.
+	 */
+	private final Map<String, Entry> entries;
+
+	/**
+	 * The maximum number of compiled scripts to keep.
+	 */
+	private static final int MAX_SIZE = 64;
+
+
+	/**
+	 * Constructor.
+	 */
+	MacroScriptCache() {
+		entries = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size()>MAX_SIZE;
+			}
+		};
+	}
+
+
+	/**
+	 * Returns a macro script, compiling it if it hasn't been compiled yet
+	 * or has changed since it was.
+	 *
+	 * @param file The script file.
+	 * @param engine The engine to compile the script with.
+	 * @return The compiled script.
+	 * @throws IOException If the file can't be read.
+	 * @throws ScriptException If the script doesn't compile.
+	 */
+	Compiled getScript(File file, Compilable engine)
+			throws IOException, ScriptException {
+
+		String key = file.getAbsolutePath();
+		long lastModified = file.lastModified();
+		long length = file.length();
+
+		synchronized (this) {
+			Entry entry = entries.get(key);
+			if (entry!=null && entry.engine()==engine &&
+					entry.lastModified()==lastModified && entry.length()==length) {
+				return new Compiled(entry.script(), 0, true);
+			}
+		}
+
+		// Compile outside the lock, as this can take a while
+		long start = System.nanoTime();
+		CompiledScript script;
+		try (BufferedReader r = new BufferedReader(new FileReader(file))) {
+			script = engine.compile(r);
+		}
+		long compileNanos = System.nanoTime() - start;
+
+		synchronized (this) {
+			entries.put(key, new Entry(engine, lastModified, length, script));
+		}
+		return new Compiled(script, compileNanos, false);
+
+	}
+
+
+	/**
+	 * A script returned from the cache.
+	 *
+	 * @param script The compiled script.
+	 * @param compileNanos How long it took to compile the script.  This is
+	 *        {@code 0} if it was already compiled.
+	 * @param cached Whether the script was already compiled.
+	 */
+	record Compiled(CompiledScript script, long compileNanos, boolean cached) {
+	}
+
+
+	/**
+	 * A compiled script, and the state of its file when it was compiled.
+	 */
+	private record Entry(Compilable engine, long lastModified, long length,
+						CompiledScript script) {
+	}
+
+
+}
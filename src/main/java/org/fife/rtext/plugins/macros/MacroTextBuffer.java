@@ -0,0 +1,277 @@
+/*
+ * 10/19/2026
+ *
+ * MacroTextBuffer.java - The text edited by a macro running in the background.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.macros;
+
+import java.util.concurrent.CancellationException;
+
+
+/**
+ * A copy of the text in the current editor, edited by a macro that runs on
+ * a background thread.  Such macros can't touch the text area, since Swing
+ * components may only be used on the EDT; instead, they're given an instance
+ * of this class as the variable "{@code buffer}".  When the macro completes,
+ * its changes are applied to the text area as a single edit, which can be
+ * undone with a single Undo action.<p>
+ *
+ * Long-running macros can call {@link #setProgress(int)} to update the
+ * progress shown to the user, and {@link #isCanceled()} to check whether the
+ * user has stopped the macro.  All methods that read or change the text
+ * throw a {@code CancellationException} once the macro is stopped, so most
+ * macros stop promptly without checking for themselves.<p>
+ *
+ * Other than {@link #cancel()}, {@link #getProgress()} and
+ * {@link #isCanceled()}, this class should only be used by the macro's
+ * thread.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public final class MacroTextBuffer {
+
+	private final StringBuilder text;
+	private int selectionStart;
+	private int selectionEnd;
+	private boolean modified;
+	private volatile boolean canceled;
+	private volatile int progress;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param text The text to edit.
+	 * @param selectionStart The start of the selection.
+	 * @param selectionEnd The end of the selection.
+	 */
+	MacroTextBuffer(String text, int selectionStart, int selectionEnd) {
+		this.text = new StringBuilder(text);
+		this.selectionStart = selectionStart;
+		this.selectionEnd = selectionEnd;
+		progress = -1;
+	}
+
+
+	/**
+	 * Returns where an offset moves to after a range of text is replaced.
+	 */
+	private static int adjustOffset(int offs, int start, int end, int delta) {
+		if (offs>=end) {
+			return offs + delta;
+		}
+		return Math.min(offs, start);
+	}
+
+
+	/**
+	 * Appends text.
+	 *
+	 * @param str The text to append.
+	 */
+	public void append(String str) {
+		replaceRange(str, text.length(), text.length());
+	}
+
+
+	/**
+	 * Stops the macro editing this buffer.  This method is thread-safe.
+	 */
+	void cancel() {
+		canceled = true;
+	}
+
+
+	private void checkCanceled() {
+		if (canceled) {
+			throw new CancellationException("Macro stopped by user");
+		}
+	}
+
+
+	/**
+	 * Returns the length of the text.
+	 *
+	 * @return The length of the text.
+	 */
+	public int getLength() {
+		checkCanceled();
+		return text.length();
+	}
+
+
+	/**
+	 * Returns the progress last reported by the macro.  This method is
+	 * thread-safe.
+	 *
+	 * @return The progress, from {@code 0} to {@code 100}, or {@code -1}
+	 *         if the macro hasn't reported any.
+	 * @see #setProgress(int)
+	 */
+	int getProgress() {
+		return progress;
+	}
+
+
+	/**
+	 * Returns the selected text.
+	 *
+	 * @return The selected text.  This is empty if nothing is selected.
+	 */
+	public String getSelectedText() {
+		checkCanceled();
+		return text.substring(selectionStart, selectionEnd);
+	}
+
+
+	/**
+	 * Returns the end of the selection.  This is the end of the text area's
+	 * selection when the macro started, adjusted for the changes made since.
+	 *
+	 * @return The end of the selection.
+	 */
+	public int getSelectionEnd() {
+		checkCanceled();
+		return selectionEnd;
+	}
+
+
+	/**
+	 * Returns the start of the selection.  This is the start of the text
+	 * area's selection when the macro started, adjusted for the changes made
+	 * since.
+	 *
+	 * @return The start of the selection.
+	 */
+	public int getSelectionStart() {
+		checkCanceled();
+		return selectionStart;
+	}
+
+
+	/**
+	 * Returns the text.
+	 *
+	 * @return The text.
+	 */
+	public String getText() {
+		checkCanceled();
+		return text.toString();
+	}
+
+
+	/**
+	 * Returns a portion of the text.
+	 *
+	 * @param offs The offset of the text.
+	 * @param len The length of the text.
+	 * @return The text.
+	 */
+	public String getText(int offs, int len) {
+		checkCanceled();
+		return text.substring(offs, offs + len);
+	}
+
+
+	/**
+	 * Inserts text.
+	 *
+	 * @param str The text to insert.
+	 * @param offs The offset to insert at.
+	 */
+	public void insert(String str, int offs) {
+		replaceRange(str, offs, offs);
+	}
+
+
+	/**
+	 * Returns whether the user has stopped the macro.  This method is
+	 * thread-safe.
+	 *
+	 * @return Whether the macro has been stopped.
+	 */
+	public boolean isCanceled() {
+		return canceled;
+	}
+
+
+	/**
+	 * Returns whether the text has been changed.
+	 *
+	 * @return Whether the text has been changed.
+	 */
+	boolean isModified() {
+		return modified;
+	}
+
+
+	/**
+	 * Replaces a range of text.  The selection is adjusted to account for
+	 * the change.
+	 *
+	 * @param str The replacement text.  This may be {@code null} to simply
+	 *        remove the range.
+	 * @param start The start of the range.
+	 * @param end The end of the range.
+	 */
+	public void replaceRange(String str, int start, int end) {
+
+		checkCanceled();
+		if (start<0 || end>text.length() || start>end) {
+			throw new IndexOutOfBoundsException("Invalid range: " + start +
+					"-" + end + ", length " + text.length());
+		}
+
+		if (str==null) {
+			str = "";
+		}
+		text.replace(start, end, str);
+		modified = true;
+
+		int delta = str.length() - (end - start);
+		selectionStart = adjustOffset(selectionStart, start, end, delta);
+		selectionEnd = adjustOffset(selectionEnd, start, end, delta);
+
+	}
+
+
+	/**
+	 * Replaces the selected text.
+	 *
+	 * @param str The replacement text.
+	 */
+	public void replaceSelection(String str) {
+		int start = selectionStart;
+		replaceRange(str, start, selectionEnd);
+		selectionStart = selectionEnd = start + (str==null ? 0 : str.length());
+	}
+
+
+	/**
+	 * Sets the progress shown to the user while the macro runs.
+	 *
+	 * @param progress The progress, from {@code 0} to {@code 100}.
+	 * @see #getProgress()
+	 */
+	public void setProgress(int progress) {
+		checkCanceled();
+		this.progress = Math.max(0, Math.min(progress, 100));
+	}
+
+
+	/**
+	 * Replaces all text.
+	 *
+	 * @param str The new text.
+	 */
+	public void setText(String str) {
+		replaceRange(str, 0, text.length());
+	}
+
+
+}
@@ -41,6 +41,7 @@ class NewMacroDialog extends EscapableDialog {
 	private JTextField descField;
 	private KeyStrokeField shortcutField;
 	private JComboBox<String> typeCombo;
+	private JCheckBox backgroundCB;
 	private JButton okButton;
 	private JButton editButton;
 	private JButton cancelButton;
@@ -124,6 +125,13 @@ class NewMacroDialog extends EscapableDialog {
 		UIUtil.makeSpringCompactGrid(formPanel, 4, 2,
 										5, 5, 5, 5);
 		topPanel.add(formPanel);
+		backgroundCB = new JCheckBox(MSG.getString("Label.RunInBackground"));
+		backgroundCB.setMnemonic(MSG.getString("Label.RunInBackground.Mnemonic").charAt(0));
+		backgroundCB.setToolTipText(MSG.getString("Label.RunInBackground.ToolTip"));
+		JPanel temp = new JPanel(new BorderLayout());
+		temp.setBorder(BorderFactory.createEmptyBorder(0, 5, 0, 5));
+		temp.add(backgroundCB, BorderLayout.LINE_START);
+		topPanel.add(temp);
 		topPanel.add(Box.createVerticalStrut(10));
 		topPanel.add(Box.createVerticalGlue());
 
@@ -258,6 +266,7 @@ class NewMacroDialog extends EscapableDialog {
 				if (ks != null) {
 					macro.setAccelerator(ks.toString());
 				}
+				macro.setRunInBackground(backgroundCB.isSelected());
 				escapePressed();
 			}
 			case JOptionPane.NO_OPTION -> {
@@ -316,6 +325,7 @@ class NewMacroDialog extends EscapableDialog {
 		if (accelerator!=null && accelerator.length()>0) {
 			shortcutField.setKeyStroke(KeyStroke.getKeyStroke(accelerator));
 		}
+		backgroundCB.setSelected(macro.isRunInBackground());
 
 		int index = 0;
 		int dot = macro.getFile().lastIndexOf('.');
@@ -11,11 +11,16 @@ package org.fife.rtext.plugins.macros;
 
 import java.awt.event.ActionEvent;
 import java.io.*;
+import java.text.MessageFormat;
+import java.util.concurrent.CompletableFuture;
 import javax.script.*;
 import javax.swing.JOptionPane;
 import javax.swing.KeyStroke;
+import javax.swing.SwingUtilities;
 
 import org.fife.rtext.RText;
+import org.fife.rtext.RTextEditorPane;
+import org.fife.rtext.ScriptEngineService;
 import org.fife.ui.app.AppAction;
 
 
@@ -37,18 +42,6 @@ class RunMacroAction extends AppAction<RText> {
 	 */
 	private final Macro macro;
 
-	/**
-	 * The script engine for JavaScript, shared across all instances of this
-	 * action.
-	 */
-	private static ScriptEngine jsEngine;
-
-	/**
-	 * The script engine for Groovy, shared across all instances of this
-	 * action.
-	 */
-	private static ScriptEngine groovyEngine;
-
 
 	/**
 	 * Constructor.
@@ -102,108 +95,147 @@ class RunMacroAction extends AppAction<RText> {
 			return;
 		}
 
-		try {
-			try (BufferedReader r = new BufferedReader(new FileReader(file))) {
-				handleSubmit(file.getName(), r);
-			}
-		} catch (IOException | ScriptException e) {
-			getApplication().displayException(e);
+		RText app = getApplication();
+		MacroRun run = plugin.getBackgroundMacroRun();
+		if (run!=null) {
+			String text = plugin.getString("Error.MacroRunning",
+					run.getMacro().getName());
+			String title = app.getString("ErrorDialogTitle");
+			JOptionPane.showMessageDialog(app, text, title,
+					JOptionPane.ERROR_MESSAGE);
+			return;
 		}
 
-	}
+		String engineName = getEngineName(file.getName());
+		if (engineName==null) {
+			app.displayException(new Exception("Bad macro type: " + file.getName()));
+			return;
+		}
 
+		// Engines are started in the background, so the UI doesn't freeze
+		// the first time a macro is run
+		if (!ScriptEngineService.isReady(engineName)) {
+			app.setMessages(null, plugin.getString("Message.StartingEngine", engineName));
+		}
+		CompletableFuture<ScriptEngine> future = ScriptEngineService.getEngine(engineName);
+		future.whenComplete((engine, e) -> SwingUtilities.invokeLater(() ->
+				engineStarted(file, engineName, engine, e)));
 
-	private void handleSubmit(String sourceName, BufferedReader r)
-			throws ScriptException {
+	}
 
-		RText app = getApplication();
 
-		ScriptEngine engine;
-		if (sourceName.endsWith(".js")) {
-			engine = initJavaScriptEngine();
-		}
-		else if (sourceName.endsWith(".groovy")) {
-			engine = initGroovyEngine();
-		}
-		else {
-			app.displayException(new Exception("Bad macro type: " + sourceName));
+	/**
+	 * Called on the EDT when the engine for a macro has started.
+	 *
+	 * @param file The macro's script file.
+	 * @param engineName The name of the engine.
+	 * @param engine The engine, or {@code null} if it couldn't be found.
+	 * @param e The error that occurred starting the engine, if any.
+	 */
+	private void engineStarted(File file, String engineName, ScriptEngine engine,
+			Throwable e) {
+
+		if (e!=null) {
+			getApplication().displayException(e);
 			return;
 		}
-
-		if (engine==null) { // An error message was already displayed
+		if (engine==null) {
+			showLoadingEngineError(engineName);
 			return;
 		}
 
-		// Create our bindings and cache them for later.
-		Bindings bindings = engine.createBindings();//getBindings(ScriptContext.ENGINE_SCOPE);
-
-		// We always reset the value of "rtext" and "textArea", but
-		// all other variables they've modified are persistent.
-		bindings.put("rtext", app);
-		bindings.put("textArea", app.getMainView().getCurrentTextArea());
-
-		engine.eval(r, bindings);
+		try {
+			handleSubmit(file, engine);
+		} catch (IOException | ScriptException e2) {
+			getApplication().displayException(e2);
+		}
 
 	}
 
 
 	/**
-	 * Returns the Groovy engine, lazily creating it if necessary.
+	 * Returns the name of the script engine that runs a macro.
 	 *
-	 * @return The script engine, or <code>null</code> if it cannot be created.
+	 * @param fileName The name of the macro's script file.
+	 * @return The name of the engine, or {@code null} if the file isn't a
+	 *         supported type of script.
 	 */
-	private ScriptEngine initGroovyEngine() {
-		if (groovyEngine==null) {
-			groovyEngine = initScriptEngineImpl("Groovy");
+	static String getEngineName(String fileName) {
+		if (fileName.endsWith(".js")) {
+			return "JavaScript";
+		}
+		else if (fileName.endsWith(".groovy")) {
+			return "Groovy";
 		}
-		return groovyEngine;
+		return null;
 	}
 
 
 	/**
-	 * Returns the JS engine, lazily creating it if necessary.
+	 * Runs a macro's script and returns a message describing how long it
+	 * took.  For background macros, this is called off the EDT.
 	 *
-	 * @return The script engine, or <code>null</code> if it cannot be created.
+	 * @param file The script.
+	 * @param engine The engine to run the script.
+	 * @param bindings The variables available to the script.
+	 * @return The message.
+	 * @throws IOException If an error occurs reading the script.
+	 * @throws ScriptException If an error occurs compiling or running the
+	 *         script.
 	 */
-	private ScriptEngine initJavaScriptEngine() {
-		if (jsEngine==null) {
-			jsEngine = initScriptEngineImpl("JavaScript");
+	private String evaluate(File file, ScriptEngine engine, Bindings bindings)
+			throws IOException, ScriptException {
+
+		// Scripts are compiled once, and recompiled only when they change
+		if (engine instanceof Compilable compilable) {
+			MacroScriptCache.Compiled compiled = plugin.getScriptCache().
+					getScript(file, compilable);
+			long start = System.nanoTime();
+			compiled.script().eval(bindings);
+			long runMillis = (System.nanoTime() - start) / 1_000_000;
+			return compiled.cached() ?
+				MessageFormat.format(plugin.getString("Message.MacroRunCached"),
+					macro.getName(), runMillis) :
+				MessageFormat.format(plugin.getString("Message.MacroRunCompiled"),
+					macro.getName(), compiled.compileNanos() / 1_000_000, runMillis);
 		}
-		return jsEngine;
-	}
 
+		long start = System.nanoTime();
+		try (BufferedReader r = new BufferedReader(new FileReader(file))) {
+			engine.eval(r, bindings);
+		}
+		long runMillis = (System.nanoTime() - start) / 1_000_000;
+		return MessageFormat.format(plugin.getString("Message.MacroRun"),
+				macro.getName(), runMillis);
 
-	private ScriptEngine initScriptEngineImpl(String shortName) {
+	}
 
-		ScriptEngine engine = null;
 
-		try {
+	private void handleSubmit(File file, ScriptEngine engine)
+			throws IOException, ScriptException {
 
-			ScriptEngineManager sem = new ScriptEngineManager(
-					this.getClass().getClassLoader());
-			engine = sem.getEngineByName(shortName);
-			if (engine==null) {
-				showLoadingEngineError(shortName);
-				return null;
-			}
+		RText app = getApplication();
+		RTextEditorPane textArea = app.getMainView().getCurrentTextArea();
 
-			// Engine-specific bindings that must be set *before* any other
-			// calls that update the context
-			Bindings bindings = engine.getBindings(ScriptContext.ENGINE_SCOPE);
-			bindings.put("polyglot.js.allowAllAccess", true); // Graal-specific
-			bindings.put("polyglot.engine.WarnInterpreterOnly", "false"); // Graal-specific
+		// Create our bindings and cache them for later.
+		Bindings bindings = engine.createBindings();//getBindings(ScriptContext.ENGINE_SCOPE);
 
-			ScriptContext context = engine.getContext();
-			PrintWriter w = new PrintWriter(new OutputStreamWriter(System.out));
-			context.setWriter(w);
-			w = new PrintWriter(new OutputStreamWriter(System.err));
-			context.setErrorWriter(w);
+		// We always reset the value of "rtext" and "textArea", but
+		// all other variables they've modified are persistent.
+		bindings.put("rtext", app);
 
-		} catch (Exception e) {
-			e.printStackTrace();
+		// Background macros edit a copy of the text rather than the text
+		// area, since Swing components may only be touched on the EDT
+		if (macro.isRunInBackground()) {
+			BackgroundMacroRun run = new BackgroundMacroRun(plugin, macro, textArea);
+			bindings.put("buffer", run.getBuffer());
+			plugin.backgroundMacroStarted(run);
+			run.start(() -> evaluate(file, engine, bindings));
+			return;
 		}
 
-		return engine;
+		bindings.put("textArea", textArea);
+		app.setMessages(null, evaluate(file, engine, bindings));
 
 	}
 
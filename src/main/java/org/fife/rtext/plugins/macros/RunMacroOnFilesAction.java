@@ -0,0 +1,103 @@
+/*
+ * 10/19/2026
+ *
+ * RunMacroOnFilesAction.java - Action that runs a macro against many files.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.macros;
+
+import java.awt.event.ActionEvent;
+import java.io.File;
+import java.util.HashSet;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import javax.swing.JOptionPane;
+
+import org.fife.rtext.AbstractMainView;
+import org.fife.rtext.RText;
+import org.fife.rtext.RTextEditorPane;
+import org.fife.ui.app.AppAction;
+
+
+/**
+ * Action that runs a macro against many files, without opening them.
+ * It's the scriptable counterpart to Replace in Files.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see MacroFileRun
+ */
+class RunMacroOnFilesAction extends AppAction<RText> {
+
+	/**
+	 * The parent plugin.
+	 */
+	private final MacroPlugin plugin;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param plugin The parent plugin.
+	 * @param owner The parent RText instance.
+	 * @param msg The resource bundle to use for localization.
+	 */
+	RunMacroOnFilesAction(MacroPlugin plugin, RText owner, ResourceBundle msg) {
+		super(owner, msg, "RunMacroOnFilesAction");
+		this.plugin = plugin;
+	}
+
+
+	@Override
+	public void actionPerformed(ActionEvent e) {
+
+		RText app = getApplication();
+		MacroRun run = plugin.getBackgroundMacroRun();
+		if (run!=null) {
+			String text = plugin.getString("Error.MacroRunning",
+					run.getMacro().getName());
+			String title = app.getString("ErrorDialogTitle");
+			JOptionPane.showMessageDialog(app, text, title,
+					JOptionPane.ERROR_MESSAGE);
+			return;
+		}
+
+		RunMacroOnFilesDialog dialog = new RunMacroOnFilesDialog(plugin);
+		dialog.setVisible(true);
+		Macro macro = dialog.getMacro();
+		Callable<List<File>> fileLister = dialog.getFileLister();
+		if (macro==null) {
+			return;
+		}
+
+		File file = new File(macro.getFile());
+		String engineName = RunMacroAction.getEngineName(file.getName());
+		if (!file.isFile() || engineName==null) {
+			app.displayException(new Exception("Bad macro: " + file.getAbsolutePath()));
+			return;
+		}
+
+		// Don't overwrite changes the user hasn't saved
+		Set<String> unsaved = new HashSet<>();
+		AbstractMainView mainView = app.getMainView();
+		for (int i=0; i<mainView.getNumDocuments(); i++) {
+			RTextEditorPane textArea = mainView.getRTextEditorPaneAt(i);
+			if (textArea.isDirty() && textArea.isLocal()) {
+				unsaved.add(new File(textArea.getFileFullPath()).getAbsolutePath());
+			}
+		}
+
+		MacroFileRun fileRun = new MacroFileRun(plugin, macro, engineName,
+				fileLister, unsaved);
+		plugin.backgroundMacroStarted(fileRun);
+		fileRun.start();
+
+	}
+
+
+}
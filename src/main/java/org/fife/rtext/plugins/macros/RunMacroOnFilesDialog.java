@@ -0,0 +1,340 @@
+/*
+ * 10/19/2026
+ *
+ * RunMacroOnFilesDialog.java - Dialog for running a macro against many files.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.macros;
+
+import java.awt.*;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.regex.PatternSyntaxException;
+import javax.swing.*;
+
+import org.fife.rtext.RText;
+import org.fife.rtext.RTextEditorPane;
+import org.fife.ui.*;
+import org.fife.ui.rtextfilechooser.RDirectoryChooser;
+
+
+/**
+ * A dialog allowing the user to pick a macro and a set of files to run it
+ * against: either the files found by the last Find in Files search, or the
+ * files in a folder whose names match a glob pattern.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class RunMacroOnFilesDialog extends EscapableDialog {
+
+	private final MacroPlugin plugin;
+	private final List<File> searchResults;
+	private JComboBox<Macro> macroCombo;
+	private JRadioButton searchResultsRB;
+	private JRadioButton folderRB;
+	private JTextField folderField;
+	private JButton browseButton;
+	private JTextField patternField;
+	private JCheckBox subfoldersCB;
+	private JButton okButton;
+	private JButton cancelButton;
+	private Callable<List<File>> fileLister;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param plugin The macro plugin.
+	 */
+	RunMacroOnFilesDialog(MacroPlugin plugin) {
+		super(plugin.getApplication());
+		this.plugin = plugin;
+		searchResults = plugin.getApplication().getMainView().
+				getFindInFilesResults();
+		createGUI();
+	}
+
+
+	private void createGUI() {
+
+		RText rtext = plugin.getApplication();
+		Listener l = new Listener();
+		JPanel cp = new ResizableFrameContentPane(new BorderLayout());
+		cp.setBorder(UIUtil.getEmpty5Border());
+
+		Box topPanel = Box.createVerticalBox();
+		cp.add(topPanel, BorderLayout.NORTH);
+		SelectableLabel desc = new SelectableLabel(
+				plugin.getString("FileRun.Header"));
+		topPanel.add(desc);
+		topPanel.add(Box.createVerticalStrut(5));
+
+		macroCombo = new JComboBox<>();
+		Iterator<Macro> i = MacroManager.get().getMacroIterator();
+		while (i.hasNext()) {
+			macroCombo.addItem(i.next());
+		}
+		JLabel macroLabel = UIUtil.newLabel(MacroPlugin.MSG,
+				"FileRun.Label.Macro", macroCombo);
+
+		searchResultsRB = new JRadioButton(plugin.getString(
+				"FileRun.SearchResults", Integer.toString(searchResults.size())));
+		searchResultsRB.setEnabled(!searchResults.isEmpty());
+		searchResultsRB.addActionListener(l);
+		folderRB = new JRadioButton(plugin.getString("FileRun.Folder"));
+		folderRB.addActionListener(l);
+		ButtonGroup bg = new ButtonGroup();
+		bg.add(searchResultsRB);
+		bg.add(folderRB);
+
+		folderField = new JTextField(40);
+		RTextEditorPane textArea = rtext.getMainView().getCurrentTextArea();
+		if (textArea!=null && textArea.isLocal()) {
+			folderField.setText(new File(textArea.getFileFullPath()).getParent());
+		}
+		browseButton = new JButton("...");
+		browseButton.addActionListener(l);
+		JPanel folderPanel = new JPanel(new BorderLayout(5, 0));
+		folderPanel.add(folderField);
+		folderPanel.add(browseButton, BorderLayout.LINE_END);
+		patternField = new JTextField("*", 40);
+		JLabel patternLabel = UIUtil.newLabel(MacroPlugin.MSG,
+				"FileRun.Label.Pattern", patternField);
+		subfoldersCB = new JCheckBox(plugin.getString("FileRun.Subfolders"), true);
+
+		SpringLayout sl = new SpringLayout();
+		JPanel formPanel = new JPanel(sl);
+		if (rtext.getComponentOrientation().isLeftToRight()) {
+			formPanel.add(macroLabel);   formPanel.add(macroCombo);
+			formPanel.add(folderRB);     formPanel.add(folderPanel);
+			formPanel.add(patternLabel); formPanel.add(patternField);
+			formPanel.add(new JLabel()); formPanel.add(subfoldersCB);
+		}
+		else {
+			formPanel.add(macroCombo);   formPanel.add(macroLabel);
+			formPanel.add(folderPanel);  formPanel.add(folderRB);
+			formPanel.add(patternField); formPanel.add(patternLabel);
+			formPanel.add(subfoldersCB); formPanel.add(new JLabel());
+		}
+		UIUtil.makeSpringCompactGrid(formPanel, 4, 2, 5, 5, 5, 5);
+		topPanel.add(formPanel);
+
+		JPanel temp = new JPanel(new BorderLayout());
+		temp.setBorder(BorderFactory.createEmptyBorder(0, 5, 0, 5));
+		temp.add(searchResultsRB, BorderLayout.LINE_START);
+		topPanel.add(temp);
+		topPanel.add(Box.createVerticalStrut(10));
+
+		okButton = UIUtil.newButton(MacroPlugin.MSG, "FileRun.Run",
+				"FileRun.Run.Mnemonic");
+		okButton.addActionListener(l);
+		okButton.setEnabled(macroCombo.getItemCount()>0);
+		cancelButton = UIUtil.newButton(rtext.getResourceBundle(), "Cancel",
+				"CancelMnemonic");
+		cancelButton.addActionListener(l);
+		cp.add(UIUtil.createButtonFooter(okButton, cancelButton),
+				BorderLayout.SOUTH);
+
+		if (searchResults.isEmpty()) {
+			folderRB.setSelected(true);
+		}
+		else {
+			searchResultsRB.setSelected(true);
+		}
+		setFolderFieldsEnabled(folderRB.isSelected());
+
+		setContentPane(cp);
+		setTitle(plugin.getString("FileRun.Title"));
+		getRootPane().setDefaultButton(okButton);
+		setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+		setModal(true);
+		pack();
+		setLocationRelativeTo(rtext);
+
+	}
+
+
+	/**
+	 * Returns a function that lists the files the user chose, or
+	 * {@code null} if this dialog was canceled.
+	 *
+	 * @return The function.  It should be called off the EDT, since it may
+	 *         walk a large directory tree.
+	 */
+	Callable<List<File>> getFileLister() {
+		return fileLister;
+	}
+
+
+	/**
+	 * Returns the macro the user chose.
+	 *
+	 * @return The macro, or {@code null} if this dialog was canceled.
+	 */
+	Macro getMacro() {
+		return fileLister==null ? null : (Macro)macroCombo.getSelectedItem();
+	}
+
+
+	/**
+	 * Returns the files in a directory whose names match glob patterns.
+	 * Hidden directories, such as <code>.git</code>, are skipped.
+	 *
+	 * @param dir The directory.
+	 * @param matchers The patterns the file names must match one of.
+	 * @param subfolders Whether to include files in subdirectories.
+	 * @return The files.
+	 * @throws IOException If an IO error occurs.
+	 */
+	private static List<File> listFiles(Path dir, List<PathMatcher> matchers,
+			boolean subfolders) throws IOException {
+
+		List<File> files = new ArrayList<>();
+		Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+
+			@Override
+			public FileVisitResult preVisitDirectory(Path d,
+					BasicFileAttributes attrs) {
+				if (d.equals(dir)) {
+					return FileVisitResult.CONTINUE;
+				}
+				return subfolders && !d.getFileName().toString().startsWith(".") ?
+						FileVisitResult.CONTINUE : FileVisitResult.SKIP_SUBTREE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+				Path name = file.getFileName();
+				if (attrs.isRegularFile() &&
+						matchers.stream().anyMatch(m -> m.matches(name))) {
+					files.add(file.toFile());
+				}
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFileFailed(Path file, IOException e) {
+				return FileVisitResult.CONTINUE; // e.g. no permission
+			}
+
+		});
+		return files;
+
+	}
+
+
+	/**
+	 * Called when the user clicks the Run button.
+	 */
+	private void okPressed() {
+
+		if (searchResultsRB.isSelected()) {
+			List<File> files = new ArrayList<>(searchResults);
+			fileLister = () -> files;
+			escapePressed();
+			return;
+		}
+
+		File dir = new File(folderField.getText().trim());
+		if (!dir.isDirectory()) {
+			showError(plugin.getString("FileRun.Error.BadFolder", dir.getPath()));
+			return;
+		}
+
+		List<PathMatcher> matchers = new ArrayList<>();
+		try {
+			for (String pattern : patternField.getText().trim().split("[,;\\s]+")) {
+				if (!pattern.isEmpty()) {
+					matchers.add(FileSystems.getDefault().getPathMatcher(
+							"glob:" + pattern));
+				}
+			}
+		} catch (PatternSyntaxException pse) {
+			showError(plugin.getString("FileRun.Error.BadPattern",
+					pse.getPattern()));
+			return;
+		}
+		if (matchers.isEmpty()) {
+			showError(plugin.getString("FileRun.Error.BadPattern", ""));
+			return;
+		}
+
+		Path path = dir.toPath();
+		boolean subfolders = subfoldersCB.isSelected();
+		fileLister = () -> listFiles(path, matchers, subfolders);
+		escapePressed();
+
+	}
+
+
+	private void setFolderFieldsEnabled(boolean enabled) {
+		folderField.setEnabled(enabled);
+		browseButton.setEnabled(enabled);
+		patternField.setEnabled(enabled);
+		subfoldersCB.setEnabled(enabled);
+	}
+
+
+	private void showError(String message) {
+		String title = plugin.getApplication().getString("ErrorDialogTitle");
+		JOptionPane.showMessageDialog(this, message, title,
+				JOptionPane.ERROR_MESSAGE);
+	}
+
+
+	/**
+	 * Listens for events in this dialog.
+	 */
+	private final class Listener implements ActionListener {
+
+		@Override
+		public void actionPerformed(ActionEvent e) {
+
+			Object source = e.getSource();
+
+			if (source==okButton) {
+				okPressed();
+			}
+			else if (source==cancelButton) {
+				escapePressed();
+			}
+			else if (source==browseButton) {
+				RDirectoryChooser chooser = new RDirectoryChooser(
+						RunMacroOnFilesDialog.this);
+				String dirName = folderField.getText().trim();
+				if (!dirName.isEmpty()) {
+					chooser.setChosenDirectory(new File(dirName));
+				}
+				chooser.setVisible(true);
+				String directory = chooser.getChosenDirectory();
+				if (directory!=null) {
+					folderField.setText(directory);
+				}
+			}
+			else if (source==searchResultsRB || source==folderRB) {
+				setFolderFieldsEnabled(folderRB.isSelected());
+			}
+
+		}
+
+	}
+
+
+}
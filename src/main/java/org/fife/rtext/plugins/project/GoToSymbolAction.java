@@ -0,0 +1,59 @@
+/*
+ * 10/19/2026
+ *
+ * GoToSymbolAction.java - Jumps to a symbol defined anywhere in the workspace.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project;
+
+import java.awt.event.ActionEvent;
+
+import org.fife.rtext.RText;
+import org.fife.rtext.plugins.project.index.GoToSymbolDialog;
+import org.fife.ui.app.AppAction;
+
+
+/**
+ * Displays a dialog letting the user jump to any symbol (class, function,
+ * etc.) defined in a file in the current workspace.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class GoToSymbolAction extends AppAction<RText> {
+
+	/**
+	 * The parent plugin.
+	 */
+	private final ProjectPlugin plugin;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent RText instance.
+	 * @param plugin The parent plugin.
+	 */
+	GoToSymbolAction(RText owner, ProjectPlugin plugin) {
+		super(owner, Messages.getBundle(), "Action.GoToSymbol");
+		this.plugin = plugin;
+	}
+
+
+	/**
+	 * Called when this action is performed.
+	 *
+	 * @param e The event.
+	 */
+	@Override
+	public void actionPerformed(ActionEvent e) {
+		GoToSymbolDialog dialog = new GoToSymbolDialog(getApplication(),
+				plugin.getSymbolIndexer());
+		dialog.setVisible(true);
+	}
+
+
+}
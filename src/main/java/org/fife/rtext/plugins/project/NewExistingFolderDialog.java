@@ -24,6 +24,7 @@ import java.io.File;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.JButton;
+import javax.swing.JCheckBox;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JTextField;
@@ -63,6 +64,7 @@ public class NewExistingFolderDialog extends EscapableDialog {
 	private JTextField inFilterField;
 	private JTextField outFilterField;
 	private JTextField outFolderField;
+	private JCheckBox skipIgnoredCheckBox;
 
 	private String chosenDirectory;
 
@@ -170,6 +172,7 @@ public class NewExistingFolderDialog extends EscapableDialog {
 		info.setAllowedFileFilters(getAllowedFileFilters());
 		info.setHiddenFolderFilters(getDisallowedDirectories());
 		info.setHiddenFileFilters(getDisallowedFileFilters());
+		info.setSkipIgnoredFiles(skipIgnoredCheckBox.isSelected());
 		return info;
 	}
 
@@ -223,6 +226,10 @@ public class NewExistingFolderDialog extends EscapableDialog {
 		outFolderField = new JTextField("CVS, .svn, .hg, .git", 20);
 		filterPanel.add(outFolderField);
 		outFolderLabel.setLabelFor(outFolderField);
+		filterPanel.add(Box.createVerticalStrut(20));
+		skipIgnoredCheckBox = new JCheckBox(Messages.getString("FolderDialog.SkipIgnored"), true);
+		skipIgnoredCheckBox.setMnemonic(Messages.getMnemonic("FolderDialog.SkipIgnored.Mnemonic"));
+		addLeftAligned(filterPanel, skipIgnoredCheckBox);
 		filterPanel.add(Box.createVerticalGlue());
 		JPanel temp = new JPanel(new BorderLayout());
 		temp.add(filterPanel, BorderLayout.NORTH);
@@ -331,6 +338,7 @@ public class NewExistingFolderDialog extends EscapableDialog {
 		setAllowedFileFilters(info.getAllowedFileFilters());
 		setDisallowedDirectories(info.getHiddenFolderFilters());
 		setDisallowedFileFilters(info.getHiddenFileFilters());
+		skipIgnoredCheckBox.setSelected(info.isSkipIgnoredFiles());
 
 		setTitle(Messages.getString("FolderDialog.Title.Edit"));
 
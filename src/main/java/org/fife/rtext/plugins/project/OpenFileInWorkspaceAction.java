@@ -0,0 +1,59 @@
+/*
+ * 10/19/2026
+ *
+ * OpenFileInWorkspaceAction.java - Opens any file in the workspace.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project;
+
+import java.awt.event.ActionEvent;
+
+import org.fife.rtext.RText;
+import org.fife.rtext.plugins.project.index.OpenFileInWorkspaceDialog;
+import org.fife.ui.app.AppAction;
+
+
+/**
+ * Displays a dialog letting the user open any file in the current workspace
+ * by typing part of its name.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class OpenFileInWorkspaceAction extends AppAction<RText> {
+
+	/**
+	 * The parent plugin.
+	 */
+	private final ProjectPlugin plugin;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param owner The parent RText instance.
+	 * @param plugin The parent plugin.
+	 */
+	OpenFileInWorkspaceAction(RText owner, ProjectPlugin plugin) {
+		super(owner, Messages.getBundle(), "Action.OpenFileInWorkspace");
+		this.plugin = plugin;
+	}
+
+
+	/**
+	 * Called when this action is performed.
+	 *
+	 * @param e The event.
+	 */
+	@Override
+	public void actionPerformed(ActionEvent e) {
+		OpenFileInWorkspaceDialog dialog = new OpenFileInWorkspaceDialog(getApplication(),
+				plugin.getFileCataloger());
+		dialog.setVisible(true);
+	}
+
+
+}
@@ -21,6 +21,8 @@ import javax.swing.Icon;
 import javax.swing.ImageIcon;
 import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JMenu;
+import javax.swing.JMenuItem;
+import javax.swing.JSeparator;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.tree.DefaultTreeModel;
@@ -28,9 +30,14 @@ import javax.swing.tree.MutableTreeNode;
 import javax.swing.tree.TreeNode;
 import javax.swing.tree.TreePath;
 
+import org.fife.rtext.AbstractMainView;
 import org.fife.rtext.RText;
+import org.fife.rtext.RTextEditorPane;
 import org.fife.rtext.RTextMenuBar;
 import org.fife.rtext.RTextUtilities;
+import org.fife.rtext.ThreadUtil;
+import org.fife.rtext.plugins.project.index.FileCataloger;
+import org.fife.rtext.plugins.project.index.SymbolIndexer;
 import org.fife.rtext.plugins.project.model.Workspace;
 import org.fife.rtext.plugins.project.tree.AbstractWorkspaceTreeNode;
 import org.fife.rtext.plugins.project.tree.WorkspaceTree;
@@ -59,9 +66,15 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 
 	private Map<String, Icon> icons;
 	private Workspace workspace;
+	private Workspace loadingWorkspace;
 	private ProjectPluginOptionPanel optionPanel;
+	private final SymbolIndexer symbolIndexer;
+	private final FileCataloger fileCataloger;
+	private final WorkspaceSaver workspaceSaver;
 
 	private static final String VIEW_CONSOLE_ACTION	= "viewProjectWindowAction";
+	private static final String GO_TO_SYMBOL_ACTION = "goToSymbolAction";
+	private static final String OPEN_FILE_IN_WORKSPACE_ACTION = "openFileInWorkspaceAction";
 	private static final String DOCKABLE_WINDOW_PROJECTS = "projectsDockableWindow";
 	private static final String VERSION_STRING = "6.1.0";
 
@@ -76,6 +89,18 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 		a.setAccelerator(prefs.windowVisibilityAccelerator);
 		app.addAction(VIEW_CONSOLE_ACTION, a);
 
+		a = new GoToSymbolAction(app, this);
+		a.setAccelerator(prefs.goToSymbolAccelerator);
+		app.addAction(GO_TO_SYMBOL_ACTION, a);
+
+		a = new OpenFileInWorkspaceAction(app, this);
+		a.setAccelerator(prefs.openFileInWorkspaceAccelerator);
+		app.addAction(OPEN_FILE_IN_WORKSPACE_ACTION, a);
+
+		symbolIndexer = new SymbolIndexer(this);
+		fileCataloger = new FileCataloger(this);
+		workspaceSaver = new WorkspaceSaver(this);
+
 		String workspaceOverride = System.getProperty(PROPERTY_INITIAL_WORKSPACE);
 		if (workspaceOverride!=null) {
 			File wsOverrideFile = new File(workspaceOverride);
@@ -94,6 +119,21 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 
 		getTree().setExpandsSelectedPaths(true);
 
+		if (loadingWorkspace!=null) {
+			loadWorkspaceInBackground(loadingWorkspace);
+		}
+
+	}
+
+
+	/**
+	 * Returns a new, empty workspace in the default location.
+	 *
+	 * @return The workspace.
+	 */
+	private Workspace createDefaultWorkspace() {
+		File defaultWorkspace = new File(getWorkspacesDir(), "Workspace.xml");
+		return new Workspace(this, defaultWorkspace);
 	}
 
 
@@ -107,6 +147,17 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 	}
 
 
+	/**
+	 * Returns the object that keeps the catalog of files in the active
+	 * workspace up to date.
+	 *
+	 * @return The file cataloger.
+	 */
+	public FileCataloger getFileCataloger() {
+		return fileCataloger;
+	}
+
+
 	@Override
 	public PluginOptionsDialogPanel<ProjectPlugin> getOptionsDialogPanel() {
 		if (optionPanel==null) {
@@ -151,6 +202,30 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 	}
 
 
+	/**
+	 * Returns the indexer keeping track of the symbols defined in the
+	 * active workspace.
+	 *
+	 * @return The symbol indexer.
+	 */
+	public SymbolIndexer getSymbolIndexer() {
+		return symbolIndexer;
+	}
+
+
+	/**
+	 * Saves the active workspace, and waits for the save to complete.  If
+	 * the workspace is still being loaded, this does nothing.
+	 *
+	 * @throws IOException If an IO error occurs.
+	 */
+	void flushWorkspace() throws IOException {
+		if (workspace!=null && !isWorkspaceLoading()) {
+			workspaceSaver.flush(workspace);
+		}
+	}
+
+
 	/**
 	 * Returns the tree view of the active workspace.
 	 *
@@ -242,6 +317,41 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 		item.applyComponentOrientation(app.getComponentOrientation());
 		menu.add(item);
 
+		// Add "Open File" and "Go to Symbol" to the end of the "Go to..."
+		// menu section.
+		JMenu searchMenu = mb.getMenuByName(RTextMenuBar.MENU_SEARCH);
+		for (int i=searchMenu.getMenuComponentCount()-1; i>=0; i--) {
+			Component c = searchMenu.getMenuComponent(i);
+			if (c instanceof JSeparator) {
+				JMenuItem fileItem = new JMenuItem(app.getAction(OPEN_FILE_IN_WORKSPACE_ACTION));
+				fileItem.setToolTipText(null);
+				searchMenu.insert(fileItem, i);
+				JMenuItem symbolItem = new JMenuItem(app.getAction(GO_TO_SYMBOL_ACTION));
+				symbolItem.setToolTipText(null);
+				searchMenu.insert(symbolItem, i + 1);
+				break;
+			}
+		}
+
+		// Keep the symbol index and file catalog up to date as files are
+		// saved, whether or not they're the current text area (e.g. "Save
+		// All").
+		app.getMainView().addPropertyChangeListener(
+				AbstractMainView.FILE_SAVED_PROPERTY, e -> {
+			RTextEditorPane textArea = (RTextEditorPane)e.getNewValue();
+			if (textArea.isLocal()) {
+				File file = new File(textArea.getFileFullPath());
+				symbolIndexer.fileSaved(file);
+				fileCataloger.fileSaved(file);
+			}
+		});
+
+		// If the workspace is still loading, these are set when it's done.
+		if (!isWorkspaceLoading()) {
+			symbolIndexer.setWorkspace(workspace);
+			fileCataloger.setWorkspace(workspace);
+		}
+
 	}
 
 
@@ -256,6 +366,19 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 	}
 
 
+	/**
+	 * Returns whether the active workspace is an empty placeholder for a
+	 * workspace that is still being loaded.  The placeholder is replaced
+	 * when loading completes, so the user shouldn't be able to modify the
+	 * workspace until then.
+	 *
+	 * @return Whether the workspace is being loaded.
+	 */
+	public boolean isWorkspaceLoading() {
+		return loadingWorkspace!=null && workspace==loadingWorkspace;
+	}
+
+
 	private void loadIcons() {
 
 		icons = new HashMap<>();
@@ -280,28 +403,69 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 
 	/**
 	 * Loads the initial workspace as previously saved in the preferences.
+	 * An empty workspace with the same name is used until the workspace has
+	 * been loaded in the background.
 	 *
 	 * @param workspaceName The name of the workspace to load.
+	 * @see #loadWorkspaceInBackground(Workspace)
 	 */
 	private void loadInitialWorkspace(String workspaceName) {
 		if (workspaceName!=null) {
 			File workspaceFile = new File(workspaceName);
 			if (workspaceFile.isFile()) {
 				// Always true unless user manually removed it
-				try {
-					workspace = Workspace.load(this, workspaceFile);
-				} catch (IOException ioe) {
-					getApplication().displayException(ioe);
-				}
+				workspace = loadingWorkspace = new Workspace(this, workspaceFile);
 			}
 		}
 		if (workspace==null) {
-			File defaultWorkspace = new File(getWorkspacesDir(), "Workspace.xml");
-			workspace = new Workspace(this, defaultWorkspace);
+			workspace = createDefaultWorkspace();
 		}
 	}
 
 
+	/**
+	 * Loads a workspace in the background, and makes it the active workspace
+	 * when it's loaded.  If the user opens another workspace in the meantime,
+	 * the loaded workspace is discarded.
+	 *
+	 * @param placeholder The empty placeholder for the workspace.
+	 */
+	private void loadWorkspaceInBackground(Workspace placeholder) {
+
+		File file = new File(placeholder.getFileFullPath());
+
+		ThreadUtil.createThreadFactory("RText Workspace Loader").newThread(() -> {
+
+			Workspace loaded;
+			IOException error = null;
+			try {
+				loaded = Workspace.load(this, file);
+			} catch (IOException ioe) {
+				loaded = null;
+				error = ioe;
+			}
+
+			Workspace result = loaded;
+			IOException loadError = error;
+			SwingUtilities.invokeLater(() -> {
+				if (workspace!=placeholder) {
+					return; // Another workspace has since been opened
+				}
+				loadingWorkspace = null;
+				if (loadError!=null) {
+					getApplication().displayException(loadError);
+					setWorkspace(createDefaultWorkspace());
+				}
+				else {
+					setWorkspace(result);
+				}
+			});
+
+		}).start();
+
+	}
+
+
 	/**
 	 * Loads saved preferences for this plugin.  If this is the first
 	 * time through, default values will be returned.
@@ -337,6 +501,7 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 			model.removeNodeFromParent(node);
 			insertTreeNodeInto(node, parent, index+1);
 			node.moveProjectEntityDown(false);
+			workspaceModified();
 		}
 		else {
 			UIManager.getLookAndFeel().provideErrorFeedback(getApplication());
@@ -359,6 +524,7 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 			model.removeNodeFromParent(node);
 			insertTreeNodeInto(node, parent, parent.getChildCount());
 			node.moveProjectEntityDown(true);
+			workspaceModified();
 		}
 		else {
 			UIManager.getLookAndFeel().provideErrorFeedback(getApplication());
@@ -381,6 +547,7 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 			model.removeNodeFromParent(node);
 			insertTreeNodeInto(node, parent, 0);
 			node.moveProjectEntityUp(true);
+			workspaceModified();
 		}
 		else {
 			UIManager.getLookAndFeel().provideErrorFeedback(getApplication());
@@ -402,6 +569,7 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 			model.removeNodeFromParent(node);
 			insertTreeNodeInto(node, parent, index-1);
 			node.moveProjectEntityUp(false);
+			workspaceModified();
 		}
 		else {
 			UIManager.getLookAndFeel().provideErrorFeedback(getApplication());
@@ -437,6 +605,10 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 		prefs.windowPosition = window.getPosition();
 		AppAction<?> a = (AppAction<?>)rtext.getAction(VIEW_CONSOLE_ACTION);
 		prefs.windowVisibilityAccelerator = a.getAccelerator();
+		a = (AppAction<?>)rtext.getAction(GO_TO_SYMBOL_ACTION);
+		prefs.goToSymbolAccelerator = a.getAccelerator();
+		a = (AppAction<?>)rtext.getAction(OPEN_FILE_IN_WORKSPACE_ACTION);
+		prefs.openFileInWorkspaceAccelerator = a.getAccelerator();
 		prefs.windowVisible = window.isActive();
 		prefs.openWorkspaceName = workspace==null ? null :
 			workspace.getFileFullPath();
@@ -449,14 +621,15 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 			rtext.displayException(ioe);
 		}
 
-		if (workspace!=null) {
-			try {
-				workspace.save();
-			} catch (IOException ioe) {
-				rtext.displayException(ioe);
-			}
+		try {
+			flushWorkspace();
+		} catch (IOException ioe) {
+			rtext.displayException(ioe);
 		}
 
+		symbolIndexer.flush();
+		fileCataloger.flush();
+
 	}
 
 
@@ -482,6 +655,8 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 		this.workspace = workspace;
 		getTree().setWorkspace(workspace);
 		refreshWorkspaceName();
+		symbolIndexer.setWorkspace(workspace);
+		fileCataloger.setWorkspace(workspace);
 	}
 
 
@@ -503,4 +678,36 @@ public class ProjectPlugin extends GUIPlugin<RText> {
 	}
 
 
+	/**
+	 * Called when the user modifies the workspace, e.g. by adding, removing,
+	 * renaming or moving entries, or changing a folder's filters.  Schedules
+	 * a save of the workspace, and has the file catalog and symbol index
+	 * pick up the changes.<p>
+	 *
+	 * Changes to the workspace tree that don't change the workspace itself,
+	 * such as folders being populated or refreshed, shouldn't call this
+	 * method.
+	 */
+	public void workspaceModified() {
+		if (workspace!=null && !isWorkspaceLoading()) {
+			workspaceSaver.save(workspace);
+			fileCataloger.workspaceModified();
+			symbolIndexer.workspaceModified();
+		}
+	}
+
+
+	/**
+	 * Called when the user renames the workspace.  The workspace is saved
+	 * to its new file in the background, and its old file is then deleted.
+	 *
+	 * @param oldFile The workspace's file before it was renamed.
+	 */
+	public void workspaceRenamed(File oldFile) {
+		if (workspace!=null && !isWorkspaceLoading()) {
+			workspaceSaver.rename(workspace, oldFile);
+		}
+	}
+
+
 }
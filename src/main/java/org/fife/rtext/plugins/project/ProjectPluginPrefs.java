@@ -9,6 +9,9 @@
  */
 package org.fife.rtext.plugins.project;
 
+import java.awt.Toolkit;
+import java.awt.event.InputEvent;
+import java.awt.event.KeyEvent;
 import java.io.IOException;
 import java.io.InputStream;
 import javax.swing.KeyStroke;
@@ -41,6 +44,16 @@ public class ProjectPluginPrefs extends Prefs {
 	 */
 	public KeyStroke windowVisibilityAccelerator;
 
+	/**
+	 * Key stroke that opens the "Go to Symbol in Workspace" dialog.
+	 */
+	public KeyStroke goToSymbolAccelerator;
+
+	/**
+	 * Key stroke that opens the "Open File in Workspace" dialog.
+	 */
+	public KeyStroke openFileInWorkspaceAccelerator;
+
 	/**
 	 * The name of the most recently opened workspace.
 	 */
@@ -70,6 +83,10 @@ public class ProjectPluginPrefs extends Prefs {
 		windowVisible = true;
 		windowPosition = DockableWindowConstants.LEFT;
 		windowVisibilityAccelerator = null;
+		int defaultMod = Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx();
+		int defShift = defaultMod | InputEvent.SHIFT_DOWN_MASK;
+		goToSymbolAccelerator = KeyStroke.getKeyStroke(KeyEvent.VK_T, defShift);
+		openFileInWorkspaceAccelerator = KeyStroke.getKeyStroke(KeyEvent.VK_N, defShift);
 		openWorkspaceName = null;
 		treeRootVisible = false;
 	}
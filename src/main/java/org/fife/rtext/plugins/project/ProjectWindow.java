@@ -180,13 +180,13 @@ class ProjectWindow extends DockableWindow {
 			super(key);
 		}
 
-		boolean saveWorkspace(Workspace workspace) {
+		boolean saveWorkspace() {
 
 			RText rtext = plugin.getApplication();
 			boolean success = true;
 
 			try {
-				workspace.save();
+				plugin.flushWorkspace();
 			} catch (IOException ioe) {
 				rtext.displayException(ioe);
 				String msg = Messages.getString(
@@ -237,8 +237,7 @@ class ProjectWindow extends DockableWindow {
 
 			// Save the currently active workspace.
 			RText rtext = plugin.getApplication();
-			Workspace workspace = plugin.getWorkspace();
-			if (!saveWorkspace(workspace)) {
+			if (!saveWorkspace()) {
 				return;
 			}
 
@@ -290,8 +289,7 @@ class ProjectWindow extends DockableWindow {
 
 			// Save the currently active workspace.
 			RText rtext = plugin.getApplication();
-			Workspace workspace = plugin.getWorkspace();
-			if (!saveWorkspace(workspace)) {
+			if (!saveWorkspace()) {
 				return;
 			}
 
@@ -0,0 +1,213 @@
+/*
+ * 10/19/2026
+ *
+ * WorkspaceSaver.java - Saves workspaces in the background.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import org.fife.rtext.RText;
+import org.fife.rtext.ThreadUtil;
+import org.fife.rtext.plugins.project.model.Workspace;
+
+
+/**
+ * Saves workspaces in the background.<p>
+ *
+ * Saves are only requested when the user modifies the workspace, and are
+ * debounced, so a burst of edits to the workspace results in a single
+ * save.  When a save happens, the workspace is serialized to XML on the
+ * EDT, which is fast and gives a consistent snapshot of it, and the XML is
+ * then written to disk atomically on a background thread.  Nothing is
+ * written if the XML is the same as what was last written.<p>
+ *
+ * The methods of this class should be called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class WorkspaceSaver {
+
+	private final ProjectPlugin plugin;
+	private final ExecutorService writer;
+	private final Timer timer;
+	private Workspace pending;
+	private File lastFile;
+	private byte[] lastXml;
+
+	/**
+	 * The delay after the last save request before actually saving.
+	 */
+	private static final int DELAY_MILLIS = 1000;
+
+	/**
+	 * The maximum time to wait for a save to complete in {@link #flush}.
+	 */
+	private static final long FLUSH_TIMEOUT_MILLIS = 5000;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param plugin The parent plugin.
+	 */
+	WorkspaceSaver(ProjectPlugin plugin) {
+		this.plugin = plugin;
+		writer = Executors.newSingleThreadExecutor(
+				ThreadUtil.createThreadFactory("RText Workspace Saver"));
+		timer = new Timer(DELAY_MILLIS, e -> savePending());
+		timer.setRepeats(false);
+	}
+
+
+	/**
+	 * Saves a workspace now, and waits for the save to complete.  Any
+	 * pending save is canceled.
+	 *
+	 * @param workspace The workspace to save.
+	 * @throws IOException If an IO error occurs, or the save doesn't complete
+	 *         in a reasonable amount of time.
+	 */
+	void flush(Workspace workspace) throws IOException {
+
+		timer.stop();
+		pending = null;
+
+		Future<?> future = submitIfChanged(workspace);
+		if (future!=null) {
+			try {
+				future.get(FLUSH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (ExecutionException ee) {
+				Throwable cause = ee.getCause();
+				throw cause instanceof IOException ioe ? ioe :
+						new IOException(cause);
+			} catch (InterruptedException | TimeoutException e) {
+				throw new IOException(e);
+			}
+		}
+
+	}
+
+
+	/**
+	 * Requests that a workspace be saved.  The save happens once no more
+	 * requests have been made for a short while.  This should only be
+	 * called when the user modifies the workspace.
+	 *
+	 * @param workspace The workspace to save.
+	 */
+	void save(Workspace workspace) {
+		pending = workspace;
+		timer.restart();
+	}
+
+
+	/**
+	 * Saves a renamed workspace to its new file, and deletes its old file
+	 * once the save succeeds.  Any pending save is canceled, since this one
+	 * supersedes it.
+	 *
+	 * @param workspace The workspace to save.
+	 * @param oldFile The workspace's file before it was renamed.
+	 */
+	void rename(Workspace workspace, File oldFile) {
+
+		timer.stop();
+		pending = null;
+
+		Future<?> write;
+		try {
+			write = submitIfChanged(workspace);
+		} catch (IOException ioe) {
+			plugin.getApplication().displayException(ioe);
+			return;
+		}
+
+		// Runs after the write, since there's only one writer thread
+		writer.submit(() -> {
+			try {
+				if (write!=null) {
+					write.get();
+				}
+				oldFile.delete(); // Don't leave outdated workspace files laying around
+			} catch (ExecutionException | InterruptedException e) {
+				SwingUtilities.invokeLater(() -> {
+					RText rtext = plugin.getApplication();
+					String msg = Messages.getString("ProjectPlugin.ErrorRenamingWorkspace");
+					String title = rtext.getString("ErrorDialogTitle");
+					JOptionPane.showMessageDialog(rtext, msg, title,
+							JOptionPane.ERROR_MESSAGE);
+				});
+			}
+		});
+
+	}
+
+
+	private void savePending() {
+		Workspace workspace = pending;
+		pending = null;
+		if (workspace!=null) {
+			try {
+				submitIfChanged(workspace);
+			} catch (IOException ioe) {
+				plugin.getApplication().displayException(ioe);
+			}
+		}
+	}
+
+
+	/**
+	 * Takes a snapshot of a workspace and queues it to be written, if it has
+	 * changed since it was last written.
+	 *
+	 * @param workspace The workspace.
+	 * @return The queued write, or {@code null} if the workspace is
+	 *         unchanged.
+	 * @throws IOException If an error occurs serializing the workspace.
+	 */
+	private Future<?> submitIfChanged(Workspace workspace) throws IOException {
+
+		byte[] xml = workspace.toXml();
+		File file = new File(workspace.getFileFullPath());
+		if (file.equals(lastFile) && Arrays.equals(xml, lastXml)) {
+			return null;
+		}
+		lastFile = file;
+		lastXml = xml;
+
+		return writer.submit(() -> {
+			try {
+				Workspace.write(file, xml);
+			} catch (IOException ioe) {
+				SwingUtilities.invokeLater(() -> {
+					// Make sure the next save tries again
+					if (lastXml==xml) {
+						lastXml = null;
+					}
+				});
+				throw ioe;
+			}
+			return null;
+		});
+
+	}
+
+
+}
@@ -0,0 +1,630 @@
+/*
+ * 10/19/2026
+ *
+ * FileCatalog.java - A snapshot of all files and folders in a workspace.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project.index;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.fife.rtext.FileUtil;
+
+
+/**
+ * An immutable snapshot of the files and folders in a workspace, along with
+ * their sizes, modification times and syntax styles.<p>
+ *
+ * Entries are stored in parallel arrays sorted by path, so a catalog of a
+ * very large workspace stays small in memory and can be searched with a
+ * binary search.  Catalogs are saved to disk in a compact binary format
+ * (paths are front-coded, i.e. each one only stores what differs from the
+ * previous one), so they can be loaded quickly at startup, before the
+ * workspace has been walked.<p>
+ *
+ * Catalogs are kept up to date by a {@link FileCataloger}.  Since they are
+ * immutable, they are safe to use from any thread.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see FileCataloger
+ */
+public final class FileCatalog {
+
+	private final String[] rootFolders;
+	private final String[] rootFiltersKeys;
+	private final String filtersKey;
+	private final String[] paths;
+	private final long[] sizes;
+	private final long[] lastModifieds;
+	private final short[] styleIndices;
+	private final String[] styles;
+
+	/**
+	 * An empty catalog.
+	 */
+	static final FileCatalog EMPTY = new Builder(Collections.emptyList(),
+			Collections.emptyList(), "").build();
+
+	private static final int MAGIC = 0x52544643;
+	private static final int VERSION = 2;
+
+	/**
+	 * The size recorded for folders.
+	 */
+	private static final long FOLDER = -1;
+
+
+	private FileCatalog(String[] rootFolders, String[] rootFiltersKeys,
+			String filtersKey, String[] paths, long[] sizes,
+			long[] lastModifieds, short[] styleIndices, String[] styles) {
+		this.rootFolders = rootFolders;
+		this.rootFiltersKeys = rootFiltersKeys;
+		this.filtersKey = filtersKey;
+		this.paths = paths;
+		this.sizes = sizes;
+		this.lastModifieds = lastModifieds;
+		this.styleIndices = styleIndices;
+		this.styles = styles;
+	}
+
+
+	/**
+	 * Returns the indices of the entries directly inside a folder, in sorted
+	 * order.
+	 *
+	 * @param dir The folder.
+	 * @return The indices of the folder's children, or {@code null} if the
+	 *         folder is not part of this catalog.
+	 */
+	public int[] getChildren(File dir) {
+
+		String dirPath = dir.getAbsolutePath();
+		int dirIndex = indexOf(dirPath);
+		if ((dirIndex==-1 || !isFolder(dirIndex)) &&
+				!Arrays.asList(rootFolders).contains(dirPath)) {
+			return null;
+		}
+
+		String prefix = dirPath.endsWith(File.separator) ? dirPath :
+				(dirPath + File.separatorChar);
+		int[] children = new int[16];
+		int count = 0;
+
+		int i = lowerBound(prefix);
+		while (i<paths.length && paths[i].startsWith(prefix)) {
+			int sep = paths[i].indexOf(File.separatorChar, prefix.length());
+			if (sep>-1) {
+				// A descendant of a sub-folder; skip all of that sub-folder's
+				// contents (the sub-folder itself has its own entry).
+				i = lowerBound(paths[i].substring(0, sep) +
+						(char)(File.separatorChar + 1));
+				continue;
+			}
+			if (count==children.length) {
+				children = Arrays.copyOf(children, count * 2);
+			}
+			children[count++] = i++;
+		}
+
+		return Arrays.copyOf(children, count);
+
+	}
+
+
+	/**
+	 * Returns the number of files and folders in this catalog.
+	 *
+	 * @return The number of entries.
+	 */
+	public int getEntryCount() {
+		return paths.length;
+	}
+
+
+	/**
+	 * Returns a string identifying the syntax filters used to compute the
+	 * syntax styles in this catalog.
+	 *
+	 * @return The key.
+	 */
+	String getFiltersKey() {
+		return filtersKey;
+	}
+
+
+	/**
+	 * Returns the modification time of an entry.
+	 *
+	 * @param index The index of the entry.
+	 * @return The modification time.
+	 */
+	public long getLastModified(int index) {
+		return lastModifieds[index];
+	}
+
+
+	/**
+	 * Returns the full path of an entry.
+	 *
+	 * @param index The index of the entry.
+	 * @return The path.
+	 */
+	public String getPath(int index) {
+		return paths[index];
+	}
+
+
+	/**
+	 * Returns the full paths of the folders at the top of the workspace.
+	 * The returned array should not be modified.
+	 *
+	 * @return The root folders.
+	 */
+	String[] getRootFolders() {
+		return rootFolders;
+	}
+
+
+	/**
+	 * Returns the size of a file.
+	 *
+	 * @param index The index of the entry.
+	 * @return The size of the file, or {@code -1} if the entry is a folder.
+	 */
+	public long getSize(int index) {
+		return sizes[index];
+	}
+
+
+	/**
+	 * Returns the syntax style of a file, based on its name.
+	 *
+	 * @param index The index of the entry.
+	 * @return The syntax style, or {@code null} if the entry is a folder.
+	 */
+	public String getSyntaxStyle(int index) {
+		int style = styleIndices[index];
+		return style==-1 ? null : styles[style];
+	}
+
+
+	/**
+	 * Returns whether this catalog has the same contents as another one.
+	 *
+	 * @param other The other catalog.
+	 * @return Whether the two catalogs' contents are the same.
+	 */
+	boolean hasSameContents(FileCatalog other) {
+		if (!Arrays.equals(rootFolders, other.rootFolders) ||
+				!Arrays.equals(rootFiltersKeys, other.rootFiltersKeys) ||
+				!filtersKey.equals(other.filtersKey) ||
+				!Arrays.equals(paths, other.paths) ||
+				!Arrays.equals(sizes, other.sizes) ||
+				!Arrays.equals(lastModifieds, other.lastModifieds)) {
+			return false;
+		}
+		for (int i=0; i<paths.length; i++) {
+			if (!Objects.equals(getSyntaxStyle(i), other.getSyntaxStyle(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	/**
+	 * Returns the index of an entry.
+	 *
+	 * @param path The full path of the file or folder.
+	 * @return The index of the entry, or {@code -1} if it is not in this
+	 *         catalog.
+	 */
+	public int indexOf(String path) {
+		int index = Arrays.binarySearch(paths, path);
+		return index<0 ? -1 : index;
+	}
+
+
+	/**
+	 * Returns whether an entry is a folder.
+	 *
+	 * @param index The index of the entry.
+	 * @return Whether the entry is a folder.
+	 */
+	public boolean isFolder(int index) {
+		return sizes[index]==FOLDER;
+	}
+
+
+	/**
+	 * Returns whether a folder was catalogued with a given set of folder
+	 * filters.  Since only the files and folders a project's filters allow
+	 * are catalogued, a listing of a folder made with other filters may be
+	 * missing entries.
+	 *
+	 * @param dirPath The full path of the folder.
+	 * @param filtersKey The filters, as returned by
+	 *        {@link org.fife.rtext.plugins.project.model.FolderFilterInfo#getFiltersKey()}.
+	 * @return Whether a root folder containing the folder was catalogued
+	 *         with those filters.
+	 */
+	public boolean isListedWithFilters(String dirPath, String filtersKey) {
+		for (int i=0; i<rootFolders.length; i++) {
+			String root = rootFolders[i];
+			String prefix = root.endsWith(File.separator) ? root :
+					(root + File.separatorChar);
+			if (filtersKey.equals(rootFiltersKeys[i]) &&
+					(dirPath.equals(root) || dirPath.startsWith(prefix))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * Loads a catalog previously saved via {@link #save(File)}.
+	 *
+	 * @param file The file to load from.
+	 * @return The catalog.
+	 * @throws IOException If an IO error occurs, or the file is not a valid
+	 *         file catalog.
+	 */
+	public static FileCatalog load(File file) throws IOException {
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new GZIPInputStream(new FileInputStream(file))))) {
+
+			if (in.readInt()!=MAGIC || in.readInt()!=VERSION) {
+				throw new IOException("Not a valid file catalog: " +
+						file.getAbsolutePath());
+			}
+
+			String filtersKey = in.readUTF();
+			String[] rootFolders = new String[in.readInt()];
+			String[] rootFiltersKeys = new String[rootFolders.length];
+			for (int i=0; i<rootFolders.length; i++) {
+				rootFolders[i] = in.readUTF();
+				rootFiltersKeys[i] = in.readUTF();
+			}
+			String[] styles = new String[in.readInt()];
+			for (int i=0; i<styles.length; i++) {
+				styles[i] = in.readUTF();
+			}
+
+			int count = in.readInt();
+			String[] paths = new String[count];
+			long[] sizes = new long[count];
+			long[] lastModifieds = new long[count];
+			short[] styleIndices = new short[count];
+			String prev = "";
+			for (int i=0; i<count; i++) {
+				int common = in.readUnsignedShort();
+				if (common>prev.length()) {
+					throw new IOException("Corrupt file catalog: " +
+							file.getAbsolutePath());
+				}
+				paths[i] = prev.substring(0, common) + in.readUTF();
+				sizes[i] = in.readLong();
+				lastModifieds[i] = in.readLong();
+				styleIndices[i] = in.readShort();
+				if (styleIndices[i]>=styles.length) {
+					throw new IOException("Corrupt file catalog: " +
+							file.getAbsolutePath());
+				}
+				prev = paths[i];
+			}
+
+			return new FileCatalog(rootFolders, rootFiltersKeys, filtersKey,
+					paths, sizes, lastModifieds, styleIndices, styles);
+
+		}
+
+	}
+
+
+	/**
+	 * Returns the index of the first path that is not less than a string.
+	 *
+	 * @param text The string.
+	 * @return The index.
+	 */
+	private int lowerBound(String text) {
+		int low = 0;
+		int high = paths.length;
+		while (low<high) {
+			int mid = (low + high) >>> 1;
+			if (paths[mid].compareTo(text)<0) {
+				low = mid + 1;
+			}
+			else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+
+	/**
+	 * Saves this catalog to disk.  The file is written to a temporary
+	 * location first and then moved into place, so a crash never leaves a
+	 * corrupt catalog behind.
+	 *
+	 * @param file The file to save to.
+	 * @throws IOException If an IO error occurs.
+	 * @see #load(File)
+	 */
+	public void save(File file) throws IOException {
+
+		FileUtil.writeAtomically(file, os -> {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+					new GZIPOutputStream(os)));
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeUTF(filtersKey);
+			out.writeInt(rootFolders.length);
+			for (int i=0; i<rootFolders.length; i++) {
+				out.writeUTF(rootFolders[i]);
+				out.writeUTF(rootFiltersKeys[i]);
+			}
+			out.writeInt(styles.length);
+			for (String style : styles) {
+				out.writeUTF(style);
+			}
+			out.writeInt(paths.length);
+			String prev = "";
+			for (int i=0; i<paths.length; i++) {
+				String path = paths[i];
+				int max = Math.min(Math.min(prev.length(), path.length()), 0xffff);
+				int common = 0;
+				while (common<max && prev.charAt(common)==path.charAt(common)) {
+					common++;
+				}
+				out.writeShort(common);
+				out.writeUTF(path.substring(common));
+				out.writeLong(sizes[i]);
+				out.writeLong(lastModifieds[i]);
+				out.writeShort(styleIndices[i]);
+				prev = path;
+			}
+			out.close(); // Finishes the GZIP stream
+		});
+
+	}
+
+
+	/**
+	 * Returns a copy of this catalog with a range of entries replaced by at
+	 * most one new entry.  The arrays are copied in bulk, so this is much
+	 * cheaper than rebuilding the catalog.
+	 *
+	 * @param start The index of the first entry to remove.
+	 * @param end The index after the last entry to remove.  This may equal
+	 *        {@code start} to only insert an entry.
+	 * @param path The full path of the entry to insert at {@code start}, or
+	 *        {@code null} to only remove entries.
+	 * @param size The size of the new entry.
+	 * @param lastModified The modification time of the new entry.
+	 * @param styleIndex The index of the new entry's syntax style in
+	 *        {@code styles}, or {@code -1} for none.
+	 * @param styles The syntax styles of the new catalog.
+	 * @return The new catalog.
+	 */
+	private FileCatalog splice(int start, int end, String path, long size,
+			long lastModified, short styleIndex, String[] styles) {
+
+		int inserted = path==null ? 0 : 1;
+		int count = paths.length - (end - start) + inserted;
+		int tail = paths.length - end;
+
+		String[] newPaths = new String[count];
+		long[] newSizes = new long[count];
+		long[] newLastModifieds = new long[count];
+		short[] newStyleIndices = new short[count];
+
+		System.arraycopy(paths, 0, newPaths, 0, start);
+		System.arraycopy(sizes, 0, newSizes, 0, start);
+		System.arraycopy(lastModifieds, 0, newLastModifieds, 0, start);
+		System.arraycopy(styleIndices, 0, newStyleIndices, 0, start);
+		if (path!=null) {
+			newPaths[start] = path;
+			newSizes[start] = size;
+			newLastModifieds[start] = lastModified;
+			newStyleIndices[start] = styleIndex;
+		}
+		int newEnd = start + inserted;
+		System.arraycopy(paths, end, newPaths, newEnd, tail);
+		System.arraycopy(sizes, end, newSizes, newEnd, tail);
+		System.arraycopy(lastModifieds, end, newLastModifieds, newEnd, tail);
+		System.arraycopy(styleIndices, end, newStyleIndices, newEnd, tail);
+
+		return new FileCatalog(rootFolders, rootFiltersKeys, filtersKey,
+				newPaths, newSizes, newLastModifieds, newStyleIndices, styles);
+
+	}
+
+
+	/**
+	 * Returns a copy of this catalog with a file added or updated.
+	 *
+	 * @param path The full path of the file.
+	 * @param size The size of the file.
+	 * @param lastModified The modification time of the file.
+	 * @param style The syntax style of the file.
+	 * @return The new catalog.
+	 */
+	FileCatalog withFile(String path, long size, long lastModified,
+			String style) {
+
+		String[] newStyles = styles;
+		short styleIndex = -1;
+		if (style!=null) {
+			int index = Arrays.asList(styles).indexOf(style);
+			if (index==-1) {
+				index = styles.length;
+				newStyles = Arrays.copyOf(styles, index + 1);
+				newStyles[index] = style;
+			}
+			styleIndex = (short)index;
+		}
+
+		int index = Arrays.binarySearch(paths, path);
+		int start = index<0 ? -(index + 1) : index;
+		int end = index<0 ? start : (index + 1);
+		return splice(start, end, path, size, lastModified, styleIndex,
+				newStyles);
+
+	}
+
+
+	/**
+	 * Returns a copy of this catalog without a file, or without a folder
+	 * and everything in it.
+	 *
+	 * @param path The full path of the file or folder.
+	 * @return The new catalog, or this catalog if it doesn't contain the
+	 *         file or folder.
+	 */
+	FileCatalog withoutFiles(String path) {
+
+		// A folder's contents are contiguous, but may not directly follow
+		// the folder itself (e.g. "foo", "foo.txt", "foo/bar.txt")
+		int index = indexOf(path);
+		int start = lowerBound(path + File.separatorChar);
+		int end = lowerBound(path + (char)(File.separatorChar + 1));
+
+		FileCatalog result = this;
+		if (start<end) {
+			result = result.splice(start, end, null, 0, 0, (short)-1, styles);
+		}
+		if (index>-1) { // Always before start, so still valid
+			result = result.splice(index, index + 1, null, 0, 0, (short)-1,
+					styles);
+		}
+		return result;
+
+	}
+
+
+	/**
+	 * Gathers up entries and creates a catalog from them.
+	 */
+	static final class Builder {
+
+		private final List<String> rootFolders;
+		private final List<String> rootFiltersKeys;
+		private final String filtersKey;
+		private final List<Entry> entries;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param rootFolders The full paths of the folders at the top of the
+		 *        workspace.
+		 * @param rootFiltersKeys Identifies the folder filters each root
+		 *        folder was walked with.
+		 * @param filtersKey Identifies the syntax filters used to compute
+		 *        syntax styles.
+		 */
+		Builder(List<String> rootFolders, List<String> rootFiltersKeys,
+				String filtersKey) {
+			this.rootFolders = rootFolders;
+			this.rootFiltersKeys = rootFiltersKeys;
+			this.filtersKey = filtersKey;
+			entries = new ArrayList<>();
+		}
+
+		private void add(String path, long size, long lastModified,
+				String style) {
+			entries.add(new Entry(path, size, lastModified, style));
+		}
+
+		void addFile(String path, long size, long lastModified, String style) {
+			add(path, size, lastModified, style);
+		}
+
+		void addFolder(String path, long lastModified) {
+			add(path, FOLDER, lastModified, null);
+		}
+
+		FileCatalog build() {
+
+			// The same folder may be in more than one project
+			entries.sort(Comparator.comparing(Entry::path));
+			for (int i=entries.size()-1; i>0; i--) {
+				if (entries.get(i).path().equals(entries.get(i - 1).path())) {
+					entries.remove(i);
+				}
+			}
+
+			int count = entries.size();
+			String[] paths = new String[count];
+			long[] sizes = new long[count];
+			long[] lastModifieds = new long[count];
+			short[] styleIndices = new short[count];
+			Map<String, Integer> styleMap = new HashMap<>();
+			List<String> styles = new ArrayList<>();
+
+			for (int i=0; i<count; i++) {
+				Entry entry = entries.get(i);
+				paths[i] = entry.path();
+				sizes[i] = entry.size();
+				lastModifieds[i] = entry.lastModified();
+				String style = entry.style();
+				if (style==null) {
+					styleIndices[i] = -1;
+				}
+				else {
+					Integer index = styleMap.get(style);
+					if (index==null) {
+						index = styles.size();
+						styleMap.put(style, index);
+						styles.add(style);
+					}
+					styleIndices[i] = index.shortValue();
+				}
+			}
+
+			return new FileCatalog(rootFolders.toArray(new String[0]),
+					rootFiltersKeys.toArray(new String[0]), filtersKey, paths, sizes, lastModifieds, styleIndices,
+					styles.toArray(new String[0]));
+
+		}
+
+	}
+
+
+	/**
+	 * A file or folder being added to a catalog.
+	 *
+	 * @param path The full path.
+	 * @param size The size, or {@link #FOLDER} for a folder.
+	 * @param lastModified The modification time.
+	 * @param style The syntax style, or {@code null} for a folder.
+	 */
+	private record Entry(String path, long size, long lastModified,
+			String style) {
+	}
+
+
+}
@@ -0,0 +1,403 @@
+/*
+ * 10/19/2026
+ *
+ * FileCataloger.java - Keeps a workspace's file catalog up to date.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.fife.rtext.AbstractMainView;
+import org.fife.rtext.SyntaxFilters;
+import org.fife.rtext.ThreadUtil;
+import org.fife.rtext.plugins.project.ProjectPlugin;
+import org.fife.rtext.plugins.project.model.Workspace;
+import org.fife.rtext.plugins.project.model.WorkspaceFileWalker;
+
+
+/**
+ * Keeps the {@link FileCatalog} for the active workspace up to date.<p>
+ *
+ * When a workspace is opened, its catalog is loaded from a file next to the
+ * workspace's XML file, so it is available almost immediately.  The
+ * workspace is then walked in the background and the catalog revalidated
+ * against what's on disk.  Syntax styles are only computed for files that
+ * are new to the catalog (or for all files if the syntax filters have
+ * changed), and the catalog is only re-saved if something changed.  Files
+ * are also added to the catalog individually as they are saved.<p>
+ *
+ * All work is done on a background thread; the public methods of this class
+ * should be called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see FileCatalog
+ */
+public class FileCataloger {
+
+	private final ProjectPlugin plugin;
+	private final ExecutorService coordinator;
+	private volatile FileCatalog catalog;
+	private volatile boolean current;
+	private QuickOpenIndex quickOpenIndex;
+	private File catalogFile;
+	private Workspace workspace;
+	private WorkspaceFileWalker walker;
+	private Future<?> currentPass;
+	private long lastPassTime;
+	private boolean dirty;
+
+	/**
+	 * Minimum time between full passes triggered by {@link #refresh()}.
+	 */
+	private static final long MIN_REFRESH_MILLIS = 60_000;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param plugin The parent plugin.
+	 */
+	public FileCataloger(ProjectPlugin plugin) {
+		this.plugin = plugin;
+		catalog = FileCatalog.EMPTY;
+		coordinator = Executors.newSingleThreadExecutor(
+				ThreadUtil.createThreadFactory("RText File Cataloger"));
+	}
+
+
+	/**
+	 * Called on the EDT when a file or folder is renamed.  The old file, or
+	 * all files in the old folder, are dropped from the catalog.  A renamed
+	 * file is added under its new name; the contents of a renamed folder are
+	 * found by re-walking the workspace.
+	 *
+	 * @param oldFile The old file or folder.
+	 * @param newFile The new file or folder.
+	 * @see #filesRemoved(File)
+	 */
+	public void fileRenamed(File oldFile, File newFile) {
+		filesRemoved(oldFile);
+		if (newFile.isDirectory()) {
+			if (walker!=null) {
+				startPass();
+			}
+		}
+		else {
+			fileSaved(newFile);
+		}
+	}
+
+
+	/**
+	 * Called on the EDT when a file is saved.  If the file is part of the
+	 * workspace, its catalog entry is added or updated.
+	 *
+	 * @param file The file that was saved.
+	 */
+	public void fileSaved(File file) {
+
+		if (walker==null || !walker.isIncluded(file)) {
+			return;
+		}
+
+		String path = file.getAbsolutePath();
+		String style = getSyntaxFilters().getSyntaxStyleForFile(file.getName(),
+				getIgnoreBackupExtensions());
+		coordinator.submit(() -> {
+			catalog = catalog.withFile(path, file.length(), file.lastModified(),
+					style);
+			dirty = true;
+		});
+
+	}
+
+
+	/**
+	 * Called on the EDT when a file or folder is deleted.  The file, or all
+	 * files in the folder, are dropped from the catalog.
+	 *
+	 * @param file The file or folder.
+	 * @see #fileRenamed(File, File)
+	 */
+	public void filesRemoved(File file) {
+		String path = file.getAbsolutePath();
+		coordinator.submit(() -> {
+			FileCatalog updated = catalog.withoutFiles(path);
+			if (updated!=catalog) {
+				catalog = updated;
+				dirty = true;
+			}
+		});
+	}
+
+
+	/**
+	 * Saves the catalog if it has changed since it was last saved.  This
+	 * blocks for a short while to let the save complete, so it is suitable
+	 * for calling on shutdown.
+	 */
+	public void flush() {
+		Future<?> f = coordinator.submit(this::saveIfDirty);
+		try {
+			f.get(2, TimeUnit.SECONDS);
+		} catch (Exception e) {
+			// Timed out or interrupted; the catalog will be revalidated next
+			// time anyway.
+		}
+	}
+
+
+	/**
+	 * Returns the catalog for the current workspace.  This may have been
+	 * loaded from disk and not yet revalidated, so callers that need an
+	 * accurate view of the file system should use
+	 * {@link #getCurrentCatalog()} instead.
+	 *
+	 * @return The catalog.  This will be empty, not {@code null}, if no
+	 *         catalog has been loaded yet.
+	 */
+	public FileCatalog getCatalog() {
+		return catalog;
+	}
+
+
+	/**
+	 * Returns the file a workspace's catalog is saved to.
+	 *
+	 * @param workspace The workspace.
+	 * @return The file.
+	 */
+	private static File getCatalogFile(Workspace workspace) {
+		String path = workspace.getFileFullPath();
+		int dot = path.lastIndexOf('.');
+		if (dot>path.lastIndexOf(File.separatorChar)) {
+			path = path.substring(0, dot);
+		}
+		return new File(path + ".catalog");
+	}
+
+
+	/**
+	 * Returns the catalog for the current workspace, if it has been
+	 * revalidated against the file system since the workspace was opened.
+	 * Files may still have been created outside of RText since then, so
+	 * callers should check that the parts of the catalog they use are
+	 * current, e.g. by comparing folders' modification times.
+	 *
+	 * @return The catalog, or {@code null} if it may be out of date.
+	 * @see #getCatalog()
+	 */
+	public FileCatalog getCurrentCatalog() {
+		return current ? catalog : null;
+	}
+
+
+	private boolean getIgnoreBackupExtensions() {
+		return plugin.getApplication().getMainView().getIgnoreBackupExtensions();
+	}
+
+
+	/**
+	 * Returns an index of the files in the current catalog for fuzzy
+	 * searching.  The index is built the first time this method is called
+	 * for a given catalog, which may take a while for large workspaces, so
+	 * this method should be called off the EDT.
+	 *
+	 * @return The index.
+	 */
+	synchronized QuickOpenIndex getQuickOpenIndex() {
+		FileCatalog catalog = this.catalog;
+		if (quickOpenIndex==null || quickOpenIndex.getCatalog()!=catalog) {
+			quickOpenIndex = new QuickOpenIndex(catalog);
+		}
+		return quickOpenIndex;
+	}
+
+
+	private SyntaxFilters getSyntaxFilters() {
+		AbstractMainView mainView = plugin.getApplication().getMainView();
+		return mainView.getSyntaxFilters();
+	}
+
+
+	/**
+	 * Re-walks the workspace and updates the catalog, if this has not been
+	 * done recently.
+	 */
+	public void refresh() {
+		if (walker!=null && (currentPass==null || currentPass.isDone()) &&
+				System.currentTimeMillis()-lastPassTime>MIN_REFRESH_MILLIS) {
+			startPass();
+		}
+	}
+
+
+	/**
+	 * Walks the workspace and replaces the catalog if anything has changed.
+	 * This is called on the coordinator thread.
+	 *
+	 * @param walker Walks the files in the workspace.
+	 * @param filters The syntax filters to use for new files.
+	 * @param ignoreBackupExtensions Whether to ignore backup extensions when
+	 *        determining syntax styles.
+	 */
+	private void runPass(WorkspaceFileWalker walker, SyntaxFilters filters,
+			boolean ignoreBackupExtensions) {
+
+		FileCatalog old = catalog;
+		String filtersKey = filters.toString() + ignoreBackupExtensions;
+		boolean sameFilters = filtersKey.equals(old.getFiltersKey());
+
+		List<String> roots = new ArrayList<>();
+		List<String> rootFiltersKeys = new ArrayList<>();
+		for (File root : walker.getRootFolders()) {
+			roots.add(root.getAbsolutePath());
+			rootFiltersKeys.add(walker.getFiltersKey(root));
+		}
+		FileCatalog.Builder builder = new FileCatalog.Builder(roots,
+				rootFiltersKeys, filtersKey);
+
+		boolean complete = walker.walk(new WorkspaceFileWalker.FileHandler() {
+
+			@Override
+			public boolean handleFile(Path file, BasicFileAttributes attrs) {
+				String path = file.toString();
+				// Syntax styles only depend on file names
+				int index = sameFilters ? old.indexOf(path) : -1;
+				String style = index>-1 && !old.isFolder(index) ?
+						old.getSyntaxStyle(index) :
+						filters.getSyntaxStyleForFile(file.getFileName().toString(),
+								ignoreBackupExtensions);
+				builder.addFile(path, attrs.size(),
+						attrs.lastModifiedTime().toMillis(), style);
+				return true;
+			}
+
+			@Override
+			public void handleFolder(Path dir, BasicFileAttributes attrs) {
+				builder.addFolder(dir.toString(),
+						attrs.lastModifiedTime().toMillis());
+			}
+
+		});
+		if (!complete) {
+			return; // Interrupted; the workspace was loaded or modified
+		}
+
+		FileCatalog updated = builder.build();
+		if (!updated.hasSameContents(old)) {
+			catalog = updated;
+			dirty = true;
+		}
+		current = true;
+		saveIfDirty();
+
+	}
+
+
+	/**
+	 * Saves the catalog if it has changed.  This is called on the coordinator
+	 * thread.
+	 */
+	private void saveIfDirty() {
+		if (dirty && catalogFile!=null) {
+			try {
+				catalog.save(catalogFile);
+				dirty = false;
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+			}
+		}
+	}
+
+
+	/**
+	 * Sets the workspace to catalog.  Any cataloging of the previous
+	 * workspace is stopped, the new workspace's catalog is loaded from disk,
+	 * and then it is revalidated.
+	 *
+	 * @param workspace The workspace.
+	 */
+	public void setWorkspace(Workspace workspace) {
+
+		if (currentPass!=null) {
+			currentPass.cancel(true);
+		}
+		coordinator.submit(this::saveIfDirty);
+
+		this.workspace = workspace;
+		walker = new WorkspaceFileWalker(workspace);
+		File file = getCatalogFile(workspace);
+		coordinator.submit(() -> {
+			FileCatalog loaded;
+			try {
+				loaded = file.isFile() ? FileCatalog.load(file) : FileCatalog.EMPTY;
+			} catch (IOException ioe) {
+				// Corrupt or old format; just rebuild it.
+				loaded = FileCatalog.EMPTY;
+			}
+			catalog = loaded;
+			current = false;
+			catalogFile = file;
+			dirty = false;
+		});
+
+		startPass();
+
+	}
+
+
+	/**
+	 * Stops all cataloging.  This should be called when the application is
+	 * shutting down.
+	 */
+	public void shutdown() {
+		coordinator.shutdownNow();
+	}
+
+
+	/**
+	 * Called on the EDT when the workspace's projects, entries or folder
+	 * filters change.  Any pass in progress is stopped, since it is using
+	 * the old entries and filters, and the workspace is re-walked.
+	 */
+	public void workspaceModified() {
+		if (workspace==null) {
+			return;
+		}
+		if (currentPass!=null) {
+			currentPass.cancel(true);
+		}
+		walker = new WorkspaceFileWalker(workspace);
+		startPass();
+	}
+
+
+	/**
+	 * Queues a full pass over the workspace.
+	 */
+	private void startPass() {
+		WorkspaceFileWalker walker = this.walker;
+		SyntaxFilters filters = getSyntaxFilters();
+		boolean ignoreBackupExtensions = getIgnoreBackupExtensions();
+		lastPassTime = System.currentTimeMillis();
+		currentPass = coordinator.submit(() ->
+				runPass(walker, filters, ignoreBackupExtensions));
+	}
+
+
+}
@@ -0,0 +1,410 @@
+/*
+ * 10/19/2026
+ *
+ * GoToSymbolDialog.java - Lets the user jump to any symbol in the workspace.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project.index;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.util.List;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.UIManager;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.BadLocationException;
+
+import org.fife.rtext.RText;
+import org.fife.rtext.RTextEditorPane;
+import org.fife.rtext.plugins.project.Messages;
+import org.fife.ui.EscapableDialog;
+import org.fife.ui.RListSelectionModel;
+import org.fife.ui.RScrollPane;
+import org.fife.ui.ResizableFrameContentPane;
+import org.fife.ui.UIUtil;
+
+
+/**
+ * A dialog allowing the user to quickly jump to a symbol defined anywhere
+ * in the current workspace.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class GoToSymbolDialog extends EscapableDialog {
+
+	private final RText rtext;
+	private final SymbolIndexer indexer;
+
+	private JList<Symbol> list;
+	private DefaultListModel<Symbol> model;
+	private JTextField filterField;
+	private JLabel statusLabel;
+	private JButton okButton;
+	private Timer statusTimer;
+	private int lastSymbolCount;
+
+	/**
+	 * The maximum number of symbols to display.
+	 */
+	private static final int MAX_RESULTS = 200;
+
+	/**
+	 * The maximum width of this dialog.
+	 */
+	private static final int MAX_WIDTH = 800;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param parent The parent application.
+	 * @param indexer The workspace's symbol indexer.
+	 */
+	public GoToSymbolDialog(RText parent, SymbolIndexer indexer) {
+
+		super(parent, Messages.getString("GoToSymbolDialog.Title"), true);
+		this.rtext = parent;
+		this.indexer = indexer;
+
+		createUI();
+
+		pack();
+		setLocationRelativeTo(rtext);
+		setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+
+	}
+
+
+	/**
+	 * Creates the content of this dialog.
+	 */
+	private void createUI() {
+
+		Listener listener = new Listener();
+
+		JPanel cp = new ResizableFrameContentPane(new BorderLayout());
+		cp.setBorder(UIUtil.getEmpty5Border());
+		setContentPane(cp);
+
+		filterField = new JTextField(40);
+		filterField.getDocument().addDocumentListener(listener);
+		filterField.addKeyListener(listener);
+		cp.add(filterField, BorderLayout.NORTH);
+
+		okButton = new JButton(rtext.getString("OKButtonLabel"));
+		okButton.setActionCommand("OK");
+		okButton.addActionListener(listener);
+		JButton cancelButton = new JButton(rtext.getString("Cancel"));
+		cancelButton.setActionCommand("Cancel");
+		cancelButton.addActionListener(listener);
+
+		JPanel south = new JPanel(new BorderLayout());
+		statusLabel = new JLabel(" ");
+		statusLabel.setBorder(UIUtil.getEmpty5Border());
+		south.add(statusLabel, BorderLayout.NORTH);
+		Container buttons = UIUtil.createButtonFooter(okButton, cancelButton);
+		south.add(buttons, BorderLayout.SOUTH);
+		cp.add(south, BorderLayout.SOUTH);
+
+		model = new DefaultListModel<>();
+		list = new JList<>(model);
+		list.setVisibleRowCount(12);
+		list.addMouseListener(listener);
+		list.setCellRenderer(new SymbolCellRenderer());
+		list.setSelectionModel(new RListSelectionModel());
+		RScrollPane sp = new RScrollPane(list);
+		cp.add(sp);
+
+		setFilter(null); // Do initial population.
+		getRootPane().setDefaultButton(okButton);
+
+		// Refresh results while the index is being built.
+		statusTimer = new Timer(500, e -> refreshStatus());
+
+	}
+
+
+	/**
+	 * Overridden to limit this dialog's width.
+	 */
+	@Override
+	public Dimension getPreferredSize() {
+		Dimension size = super.getPreferredSize();
+		if (size != null) {
+			size.width = Math.min(MAX_WIDTH, size.width);
+		}
+		return size;
+	}
+
+
+	/**
+	 * Opens the file containing the selected symbol and moves the caret to
+	 * it.
+	 */
+	private void openSelectedSymbol() {
+
+		Symbol symbol = list.getSelectedValue();
+		if (symbol==null) {
+			UIManager.getLookAndFeel().provideErrorFeedback(list);
+			return;
+		}
+
+		File file = new File(symbol.file());
+		if (!file.isFile()) {
+			UIManager.getLookAndFeel().provideErrorFeedback(list);
+			return;
+		}
+
+		escapePressed();
+		rtext.openFile(file);
+		SwingUtilities.invokeLater(() -> {
+			RTextEditorPane textArea = rtext.getMainView().getCurrentTextArea();
+			int line = Math.min(symbol.line(), textArea.getLineCount()) - 1;
+			try {
+				textArea.setCaretPosition(textArea.getLineStartOffset(Math.max(0, line)));
+			} catch (BadLocationException ble) { // Never happens
+				ble.printStackTrace();
+			}
+			textArea.requestFocusInWindow();
+		});
+
+	}
+
+
+	/**
+	 * Updates the status label, and refreshes the displayed symbols if the
+	 * index has changed.
+	 */
+	private void refreshStatus() {
+
+		SymbolIndex index = indexer.getIndex();
+		int symbolCount = index.getSymbolCount();
+		if (symbolCount!=lastSymbolCount) {
+			lastSymbolCount = symbolCount;
+			setFilter(filterField.getText());
+		}
+
+		String status;
+		if (!indexer.isAvailable()) {
+			status = Messages.getString("GoToSymbolDialog.NoCTags");
+		}
+		else if (indexer.isIndexing()) {
+			status = Messages.getString("GoToSymbolDialog.Indexing",
+					Integer.toString(symbolCount));
+		}
+		else {
+			status = Messages.getString("GoToSymbolDialog.Indexed",
+					Integer.toString(symbolCount),
+					Integer.toString(index.getFileCount()));
+		}
+		statusLabel.setText(status);
+
+	}
+
+
+	/**
+	 * Selects the next row in the symbol list.
+	 *
+	 * @see #selectPreviousVisibleRow()
+	 */
+	private void selectNextVisibleRow() {
+		if (model.size() > 0) {
+			int index = list.getSelectedIndex();
+			index = (index + 1) % model.size();
+			list.setSelectedIndex(index);
+			list.ensureIndexIsVisible(index);
+		}
+	}
+
+
+	/**
+	 * Selects the previous row in the symbol list.
+	 *
+	 * @see #selectNextVisibleRow()
+	 */
+	private void selectPreviousVisibleRow() {
+		if (model.size() > 0) {
+			int index = list.getSelectedIndex();
+			index--;
+			if (index < 0) {
+				index = model.size() - 1;
+			}
+			list.setSelectedIndex(index);
+			list.ensureIndexIsVisible(index);
+		}
+	}
+
+
+	/**
+	 * Sets the filter for the symbol list.
+	 *
+	 * @param filter The new filter.
+	 */
+	private void setFilter(String filter) {
+
+		model.clear();
+
+		if (filter!=null && !filter.isEmpty()) {
+			List<Symbol> symbols = indexer.getIndex().find(filter, MAX_RESULTS);
+			model.addAll(symbols);
+		}
+
+		boolean modelNotEmpty = model.size() > 0;
+		if (modelNotEmpty) {
+			list.setSelectedIndex(0);
+			list.ensureIndexIsVisible(0);
+		}
+		okButton.setEnabled(modelNotEmpty);
+
+	}
+
+
+	/**
+	 * Toggles whether this dialog is visible.
+	 *
+	 * @param visible Whether this dialog should be visible.
+	 */
+	@Override
+	public void setVisible(boolean visible) {
+		if (visible) {
+			indexer.refresh();
+			lastSymbolCount = indexer.getIndex().getSymbolCount();
+			refreshStatus();
+			statusTimer.start();
+			super.setVisible(true);
+			filterField.requestFocusInWindow();
+		}
+		else {
+			statusTimer.stop();
+			super.setVisible(false);
+		}
+	}
+
+
+	/**
+	 * Listens for events in this dialog.
+	 */
+	private final class Listener extends MouseAdapter implements ActionListener,
+			DocumentListener, KeyListener {
+
+		@Override
+		public void actionPerformed(ActionEvent e) {
+
+			String command = e.getActionCommand();
+
+			if ("OK".equals(command)) {
+				openSelectedSymbol();
+			}
+
+			else if ("Cancel".equals(command)) {
+				escapePressed();
+			}
+
+		}
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+			handleDocumentEvent();
+		}
+
+		private void handleDocumentEvent() {
+			setFilter(filterField.getText());
+		}
+
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			handleDocumentEvent();
+		}
+
+		@Override
+		public void keyPressed(KeyEvent e) {
+			switch (e.getKeyCode()) {
+				case KeyEvent.VK_DOWN -> selectNextVisibleRow();
+				case KeyEvent.VK_UP -> selectPreviousVisibleRow();
+			}
+		}
+
+		@Override
+		public void keyReleased(KeyEvent e) {
+		}
+
+		@Override
+		public void keyTyped(KeyEvent e) {
+		}
+
+		@Override
+		public void mouseClicked(MouseEvent e) {
+			if (e.getClickCount()==2) {
+				openSelectedSymbol();
+			}
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			handleDocumentEvent();
+		}
+
+	}
+
+
+	/**
+	 * Renders a symbol, along with the file and line it is defined on.
+	 */
+	private static final class SymbolCellRenderer extends DefaultListCellRenderer {
+
+		@Override
+		public Component getListCellRendererComponent(JList<?> list,
+				Object value, int index, boolean selected, boolean hasFocus) {
+
+			super.getListCellRendererComponent(list, value, index, selected,
+					hasFocus);
+
+			Symbol symbol = (Symbol)value;
+			String text = "<html>" + escape(symbol.name()) + " <i>(" +
+					symbol.kind() + ")</i><br>";
+			if (!selected) {
+				Color fg = getForeground();
+				String color = UIUtil.isLightForeground(fg) ? "#c0c0c0" : "#808080";
+				text += "<font color=\"" + color + "\">";
+			}
+			text += escape(symbol.file()) + ":" + symbol.line();
+			if (!selected) {
+				text += "</font>";
+			}
+			setText(text);
+
+			return this;
+
+		}
+
+		private static String escape(String text) {
+			return text.replace("&", "&amp;").replace("<", "&lt;");
+		}
+
+	}
+
+
+}
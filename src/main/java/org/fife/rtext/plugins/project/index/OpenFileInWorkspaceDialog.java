@@ -0,0 +1,526 @@
+/*
+ * 10/19/2026
+ *
+ * OpenFileInWorkspaceDialog.java - Lets the user open any file in the workspace.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project.index;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.Dimension;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
+import javax.swing.JButton;
+import javax.swing.JLabel;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.UIManager;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+import org.fife.rtext.RText;
+import org.fife.rtext.ThreadUtil;
+import org.fife.rtext.plugins.project.Messages;
+import org.fife.ui.EscapableDialog;
+import org.fife.ui.RListSelectionModel;
+import org.fife.ui.RScrollPane;
+import org.fife.ui.ResizableFrameContentPane;
+import org.fife.ui.UIUtil;
+import org.fife.ui.rsyntaxtextarea.FileLocation;
+
+
+/**
+ * A dialog allowing the user to quickly open any file in the current
+ * workspace by typing part of its name or path.<p>
+ *
+ * Files are matched fuzzily against a {@link QuickOpenIndex} built from the
+ * workspace's {@link FileCatalog}.  Searches run on a background thread in
+ * chunks, so the UI stays responsive while typing even in huge workspaces;
+ * a search is abandoned as soon as the filter changes again, and the best
+ * matches found so far are displayed if a search takes a while.  When the
+ * user types more characters onto the end of the filter, only the files
+ * that matched the previous filter are searched.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class OpenFileInWorkspaceDialog extends EscapableDialog {
+
+	private final RText rtext;
+	private final FileCataloger cataloger;
+	private final List<String> recentFiles;
+	private final ExecutorService searcher;
+
+	private JList<Item> list;
+	private DefaultListModel<Item> model;
+	private JTextField filterField;
+	private JLabel statusLabel;
+	private JButton okButton;
+	private Timer catalogTimer;
+	private FileCatalog lastCatalog;
+
+	/**
+	 * Incremented each time the filter changes, so searches for old filters
+	 * know to stop.
+	 */
+	private volatile int generation;
+
+	// Only accessed on the search thread.
+	private QuickOpenIndex index;
+	private QuickOpenIndex.Boosts boosts;
+	private QuickOpenIndex.Query lastQuery;
+	private int[] lastMatches;
+
+	/**
+	 * The maximum number of files to display.
+	 */
+	private static final int MAX_RESULTS = 200;
+
+	/**
+	 * The maximum width of this dialog.
+	 */
+	private static final int MAX_WIDTH = 800;
+
+	/**
+	 * The number of files searched between checks for a newer filter.
+	 */
+	private static final int CHUNK_SIZE = 16384;
+
+	/**
+	 * How long a search runs before the best matches so far are displayed.
+	 */
+	private static final long PUBLISH_NANOS = 16_000_000;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param parent The parent application.
+	 * @param cataloger The workspace's file cataloger.
+	 */
+	public OpenFileInWorkspaceDialog(RText parent, FileCataloger cataloger) {
+
+		super(parent, Messages.getString("OpenFileInWorkspaceDialog.Title"), true);
+		this.rtext = parent;
+		this.cataloger = cataloger;
+
+		recentFiles = new ArrayList<>();
+		for (FileLocation loc : rtext.getRecentFiles()) {
+			if (loc.isLocal()) {
+				recentFiles.add(loc.getFileFullPath());
+			}
+		}
+		searcher = Executors.newSingleThreadExecutor(
+				ThreadUtil.createThreadFactory("RText Open File in Workspace"));
+
+		createUI();
+
+		pack();
+		setLocationRelativeTo(rtext);
+		setDefaultCloseOperation(DISPOSE_ON_CLOSE);
+
+	}
+
+
+	/**
+	 * Creates the content of this dialog.
+	 */
+	private void createUI() {
+
+		Listener listener = new Listener();
+
+		JPanel cp = new ResizableFrameContentPane(new BorderLayout());
+		cp.setBorder(UIUtil.getEmpty5Border());
+		setContentPane(cp);
+
+		filterField = new JTextField(40);
+		filterField.getDocument().addDocumentListener(listener);
+		filterField.addKeyListener(listener);
+		cp.add(filterField, BorderLayout.NORTH);
+
+		okButton = new JButton(rtext.getString("OKButtonLabel"));
+		okButton.setActionCommand("OK");
+		okButton.addActionListener(listener);
+		JButton cancelButton = new JButton(rtext.getString("Cancel"));
+		cancelButton.setActionCommand("Cancel");
+		cancelButton.addActionListener(listener);
+
+		JPanel south = new JPanel(new BorderLayout());
+		statusLabel = new JLabel(" ");
+		statusLabel.setBorder(UIUtil.getEmpty5Border());
+		south.add(statusLabel, BorderLayout.NORTH);
+		Container buttons = UIUtil.createButtonFooter(okButton, cancelButton);
+		south.add(buttons, BorderLayout.SOUTH);
+		cp.add(south, BorderLayout.SOUTH);
+
+		model = new DefaultListModel<>();
+		list = new JList<>(model);
+		list.setVisibleRowCount(12);
+		list.addMouseListener(listener);
+		list.setCellRenderer(new FileCellRenderer());
+		list.setSelectionModel(new RListSelectionModel());
+		RScrollPane sp = new RScrollPane(list);
+		cp.add(sp);
+
+		getRootPane().setDefaultButton(okButton);
+		okButton.setEnabled(false);
+
+		// Re-run the search when the workspace's catalog is updated.
+		catalogTimer = new Timer(500, e -> {
+			if (cataloger.getCatalog()!=lastCatalog) {
+				setFilter(filterField.getText());
+			}
+		});
+
+	}
+
+
+	/**
+	 * Returns the items to display for a set of files.
+	 *
+	 * @param index The index the files are in.
+	 * @param files The files.
+	 * @return The items.
+	 */
+	private static List<Item> createItems(QuickOpenIndex index, int[] files) {
+		List<Item> items = new ArrayList<>(files.length);
+		for (int file : files) {
+			items.add(new Item(index.getPath(file), index.getDisplayPath(file)));
+		}
+		return items;
+	}
+
+
+	/**
+	 * Overridden to limit this dialog's width.
+	 */
+	@Override
+	public Dimension getPreferredSize() {
+		Dimension size = super.getPreferredSize();
+		if (size != null) {
+			size.width = Math.min(MAX_WIDTH, size.width);
+		}
+		return size;
+	}
+
+
+	/**
+	 * Opens the selected file.
+	 */
+	private void openSelectedFile() {
+
+		Item item = list.getSelectedValue();
+		if (item==null) {
+			UIManager.getLookAndFeel().provideErrorFeedback(list);
+			return;
+		}
+
+		File file = new File(item.path());
+		if (!file.isFile()) {
+			UIManager.getLookAndFeel().provideErrorFeedback(list);
+			return;
+		}
+
+		escapePressed();
+		rtext.openFile(file);
+
+	}
+
+
+	/**
+	 * Displays the results of a search.  This is called on the EDT.
+	 *
+	 * @param gen The generation of the search.
+	 * @param items The files to display.
+	 * @param status The status text to display.
+	 */
+	private void publish(int gen, List<Item> items, String status) {
+
+		if (gen!=generation) {
+			return; // The filter has changed since
+		}
+
+		model.clear();
+		model.addAll(items);
+		statusLabel.setText(status);
+
+		boolean modelNotEmpty = model.size() > 0;
+		if (modelNotEmpty) {
+			list.setSelectedIndex(0);
+			list.ensureIndexIsVisible(0);
+		}
+		okButton.setEnabled(modelNotEmpty);
+
+	}
+
+
+	/**
+	 * Searches for files matching a filter.  This is called on the search
+	 * thread.
+	 *
+	 * @param gen The generation of the search.
+	 * @param filter The filter.
+	 */
+	private void search(int gen, String filter) {
+
+		QuickOpenIndex index = cataloger.getQuickOpenIndex();
+		if (index!=this.index) {
+			this.index = index;
+			boosts = index.createBoosts(recentFiles);
+			lastQuery = null;
+			lastMatches = null;
+		}
+		String fileCount = Integer.toString(index.getFileCount());
+
+		QuickOpenIndex.Query query = new QuickOpenIndex.Query(filter);
+		if (query.isEmpty()) {
+			List<Item> items = createItems(index, boosts.getRecentFiles());
+			String status = Messages.getString("OpenFileInWorkspaceDialog.Recent",
+					fileCount);
+			SwingUtilities.invokeLater(() -> publish(gen, items, status));
+			return;
+		}
+
+		int[] candidates = null;
+		int candidateCount = index.getFileCount();
+		if (lastQuery!=null && query.narrows(lastQuery)) {
+			candidates = lastMatches;
+			candidateCount = lastMatches.length;
+		}
+
+		QuickOpenIndex.Results results = new QuickOpenIndex.Results(MAX_RESULTS);
+		long start = System.nanoTime();
+		boolean published = false;
+
+		for (int from=0; from<candidateCount; from+=CHUNK_SIZE) {
+			if (gen!=generation) {
+				return;
+			}
+			int to = Math.min(candidateCount, from + CHUNK_SIZE);
+			index.search(query, boosts, candidates, from, to, results);
+			if (!published && to<candidateCount &&
+					System.nanoTime()-start>PUBLISH_NANOS) {
+				List<Item> items = createItems(index, results.getTopFiles());
+				String status = Messages.getString("OpenFileInWorkspaceDialog.Searching",
+						fileCount);
+				SwingUtilities.invokeLater(() -> publish(gen, items, status));
+				published = true;
+			}
+		}
+
+		lastQuery = query;
+		lastMatches = results.getMatches();
+
+		List<Item> items = createItems(index, results.getTopFiles());
+		String status = Messages.getString("OpenFileInWorkspaceDialog.Matches",
+				Integer.toString(results.getMatchCount()), fileCount);
+		SwingUtilities.invokeLater(() -> publish(gen, items, status));
+
+	}
+
+
+	/**
+	 * Selects the next row in the file list.
+	 *
+	 * @see #selectPreviousVisibleRow()
+	 */
+	private void selectNextVisibleRow() {
+		if (model.size() > 0) {
+			int index = list.getSelectedIndex();
+			index = (index + 1) % model.size();
+			list.setSelectedIndex(index);
+			list.ensureIndexIsVisible(index);
+		}
+	}
+
+
+	/**
+	 * Selects the previous row in the file list.
+	 *
+	 * @see #selectNextVisibleRow()
+	 */
+	private void selectPreviousVisibleRow() {
+		if (model.size() > 0) {
+			int index = list.getSelectedIndex();
+			index--;
+			if (index < 0) {
+				index = model.size() - 1;
+			}
+			list.setSelectedIndex(index);
+			list.ensureIndexIsVisible(index);
+		}
+	}
+
+
+	/**
+	 * Sets the filter for the file list.  The search is done on a
+	 * background thread.
+	 *
+	 * @param filter The new filter.
+	 */
+	private void setFilter(String filter) {
+		int gen = ++generation;
+		lastCatalog = cataloger.getCatalog();
+		searcher.execute(() -> search(gen, filter));
+	}
+
+
+	/**
+	 * Toggles whether this dialog is visible.
+	 *
+	 * @param visible Whether this dialog should be visible.
+	 */
+	@Override
+	public void setVisible(boolean visible) {
+		if (visible) {
+			cataloger.refresh();
+			setFilter(filterField.getText());
+			catalogTimer.start();
+			super.setVisible(true);
+			filterField.requestFocusInWindow();
+		}
+		else {
+			catalogTimer.stop();
+			generation++;
+			searcher.shutdown();
+			super.setVisible(false);
+		}
+	}
+
+
+	/**
+	 * A file displayed in the list.
+	 *
+	 * @param path The full path of the file.
+	 * @param displayPath The path to display to the user.
+	 */
+	private record Item(String path, String displayPath) {
+	}
+
+
+	/**
+	 * Listens for events in this dialog.
+	 */
+	private final class Listener extends MouseAdapter implements ActionListener,
+			DocumentListener, KeyListener {
+
+		@Override
+		public void actionPerformed(ActionEvent e) {
+
+			String command = e.getActionCommand();
+
+			if ("OK".equals(command)) {
+				openSelectedFile();
+			}
+
+			else if ("Cancel".equals(command)) {
+				escapePressed();
+			}
+
+		}
+
+		@Override
+		public void changedUpdate(DocumentEvent e) {
+			handleDocumentEvent();
+		}
+
+		private void handleDocumentEvent() {
+			setFilter(filterField.getText());
+		}
+
+		@Override
+		public void insertUpdate(DocumentEvent e) {
+			handleDocumentEvent();
+		}
+
+		@Override
+		public void keyPressed(KeyEvent e) {
+			switch (e.getKeyCode()) {
+				case KeyEvent.VK_DOWN -> selectNextVisibleRow();
+				case KeyEvent.VK_UP -> selectPreviousVisibleRow();
+			}
+		}
+
+		@Override
+		public void keyReleased(KeyEvent e) {
+		}
+
+		@Override
+		public void keyTyped(KeyEvent e) {
+		}
+
+		@Override
+		public void mouseClicked(MouseEvent e) {
+			if (e.getClickCount()==2) {
+				openSelectedFile();
+			}
+		}
+
+		@Override
+		public void removeUpdate(DocumentEvent e) {
+			handleDocumentEvent();
+		}
+
+	}
+
+
+	/**
+	 * Renders a file's name, along with the folder it is in.
+	 */
+	private static final class FileCellRenderer extends DefaultListCellRenderer {
+
+		@Override
+		public Component getListCellRendererComponent(JList<?> list,
+				Object value, int index, boolean selected, boolean hasFocus) {
+
+			super.getListCellRendererComponent(list, value, index, selected,
+					hasFocus);
+
+			Item item = (Item)value;
+			String displayPath = item.displayPath();
+			int slash = displayPath.lastIndexOf(File.separatorChar);
+			String text = "<html>" + escape(displayPath.substring(slash + 1)) +
+					"<br>";
+			if (!selected) {
+				Color fg = getForeground();
+				String color = UIUtil.isLightForeground(fg) ? "#c0c0c0" : "#808080";
+				text += "<font color=\"" + color + "\">";
+			}
+			text += escape(slash>-1 ? displayPath.substring(0, slash) : "");
+			if (!selected) {
+				text += "</font>";
+			}
+			setText(text);
+
+			return this;
+
+		}
+
+		private static String escape(String text) {
+			return text.replace("&", "&amp;").replace("<", "&lt;");
+		}
+
+	}
+
+
+}
@@ -0,0 +1,625 @@
+/*
+ * 10/19/2026
+ *
+ * QuickOpenIndex.java - A fuzzy-searchable index of the files in a workspace.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project.index;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+
+/**
+ * An index of the files in a {@link FileCatalog}, laid out for fast fuzzy
+ * matching of file names and paths.<p>
+ *
+ * All paths are stored in a single byte array, lower-cased and relative to
+ * the parent of their workspace folder, with offsets into it kept in
+ * parallel <code>int</code> arrays.  Each file also has a bit mask of the
+ * characters in its path, so most files can be rejected for a query without
+ * looking at their paths at all.  This keeps the index compact and lets a
+ * search over hundreds of thousands of files run in a few milliseconds with
+ * no per-file allocations.<p>
+ *
+ * A query matches a file if its characters appear in order in the file's
+ * path.  Matches in the file name score higher than matches elsewhere in
+ * the path, as do runs of consecutive characters and characters at the
+ * start of words.  Recently opened files get an additional boost.<p>
+ *
+ * Like catalogs, instances of this class are immutable and can be used from
+ * any thread.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see OpenFileInWorkspaceDialog
+ */
+final class QuickOpenIndex {
+
+	private final FileCatalog catalog;
+	private final int fileCount;
+	private final int[] entries;
+	private final int[] starts;
+	private final int[] nameStarts;
+	private final long[] masks;
+	private final byte[] text;
+	private final long[] boundaries;
+
+	/**
+	 * Returned by the scoring methods when a file does not match.
+	 */
+	private static final int NO_MATCH = Integer.MIN_VALUE;
+
+	private static final int SCORE_MATCH = 16;
+	private static final int BONUS_BOUNDARY = 10;
+	private static final int BONUS_CONSECUTIVE = 8;
+	private static final int BONUS_FILE_NAME = 40;
+	private static final int BONUS_NAME_PREFIX = 20;
+	private static final int PENALTY_GAP = 1;
+
+	/**
+	 * The boost given to the most recently opened file.  Less recently
+	 * opened files get proportionally less.
+	 */
+	private static final int BONUS_RECENT = 64;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param catalog The catalog to index.
+	 */
+	QuickOpenIndex(FileCatalog catalog) {
+
+		this.catalog = catalog;
+		String[] roots = catalog.getRootFolders();
+		int entryCount = catalog.getEntryCount();
+
+		int[] entries = new int[entryCount];
+		int fileCount = 0;
+		long textLength = 0;
+		for (int i=0; i<entryCount; i++) {
+			if (!catalog.isFolder(i)) {
+				String path = catalog.getPath(i);
+				textLength += path.length() - getDisplayStart(path, roots);
+				entries[fileCount++] = i;
+			}
+		}
+		if (textLength>Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Catalog too large: " + textLength);
+		}
+
+		this.fileCount = fileCount;
+		this.entries = Arrays.copyOf(entries, fileCount);
+		starts = new int[fileCount + 1];
+		nameStarts = new int[fileCount];
+		masks = new long[fileCount];
+		text = new byte[(int)textLength];
+		boundaries = new long[(int)((textLength + 63)/64)];
+
+		int pos = 0;
+		for (int file=0; file<fileCount; file++) {
+
+			String path = catalog.getPath(this.entries[file]);
+			starts[file] = pos;
+			nameStarts[file] = pos;
+			long mask = 0;
+			char prev = '/';
+
+			for (int i=getDisplayStart(path, roots); i<path.length(); i++) {
+				char ch = path.charAt(i);
+				byte b = fold(ch);
+				if (b=='/') {
+					nameStarts[file] = pos + 1;
+				}
+				if (isBoundary(prev, ch)) {
+					boundaries[pos>>>6] |= 1L << pos;
+				}
+				mask |= getMaskBit(b);
+				text[pos++] = b;
+				prev = ch;
+			}
+
+			masks[file] = mask;
+
+		}
+		starts[fileCount] = pos;
+
+	}
+
+
+	/**
+	 * Returns the boosts to give recently opened files.
+	 *
+	 * @param recentFiles The full paths of recently opened files, most
+	 *        recent first.
+	 * @return The boosts.
+	 */
+	Boosts createBoosts(List<String> recentFiles) {
+
+		int[] files = new int[recentFiles.size()];
+		int count = 0;
+		for (String path : recentFiles) {
+			int file = indexOf(path);
+			if (file>-1) {
+				files[count++] = file;
+			}
+		}
+
+		return new Boosts(Arrays.copyOf(files, count), recentFiles.size());
+
+	}
+
+
+	/**
+	 * Lower-cases a character and squeezes it into a byte.  Path separators
+	 * are normalized to <code>'/'</code>.  Characters outside of ASCII may
+	 * collide with one another, which at worst lets a few extra files match
+	 * a query containing them.
+	 *
+	 * @param ch The character.
+	 * @return The folded character.
+	 */
+	private static byte fold(char ch) {
+		if (ch=='\\') {
+			return '/';
+		}
+		ch = Character.toLowerCase(ch);
+		return (byte)(ch<0x80 ? ch : (0x80 | (ch & 0x7f)));
+	}
+
+
+	/**
+	 * Returns the catalog this index was built from.
+	 *
+	 * @return The catalog.
+	 */
+	FileCatalog getCatalog() {
+		return catalog;
+	}
+
+
+	/**
+	 * Returns the path of a file to display to the user.  This is the path
+	 * relative to the parent of the workspace folder containing it.
+	 *
+	 * @param file The index of the file.
+	 * @return The path.
+	 */
+	String getDisplayPath(int file) {
+		String path = getPath(file);
+		return path.substring(getDisplayStart(path, catalog.getRootFolders()));
+	}
+
+
+	/**
+	 * Returns the offset in a path at which its display path starts.
+	 *
+	 * @param path The full path of a file.
+	 * @param roots The workspace's root folders.
+	 * @return The offset of the name of the innermost root folder containing
+	 *         the file, or <code>0</code> if it isn't in any of them.
+	 */
+	private static int getDisplayStart(String path, String[] roots) {
+		String best = null;
+		for (String root : roots) {
+			if (path.startsWith(root) && path.length()>root.length() &&
+					(root.endsWith(File.separator) ||
+						path.charAt(root.length())==File.separatorChar) &&
+					(best==null || root.length()>best.length())) {
+				best = root;
+			}
+		}
+		if (best==null) {
+			return 0;
+		}
+		// Drop a trailing separator, e.g. for "C:\"
+		int end = best.endsWith(File.separator) ? best.length() - 1 : best.length();
+		return best.lastIndexOf(File.separatorChar, end - 1) + 1;
+	}
+
+
+	/**
+	 * Returns the number of files in this index.
+	 *
+	 * @return The number of files.
+	 */
+	int getFileCount() {
+		return fileCount;
+	}
+
+
+	/**
+	 * Returns the bit representing a character in a file's mask.
+	 *
+	 * @param b The folded character.
+	 * @return The bit.
+	 */
+	private static long getMaskBit(int b) {
+		if (b>='a' && b<='z') {
+			return 1L << (b - 'a');
+		}
+		if (b>='0' && b<='9') {
+			return 1L << (26 + b - '0');
+		}
+		return 1L << (36 + (b & 0xff) % 28);
+	}
+
+
+	/**
+	 * Returns the full path of a file.
+	 *
+	 * @param file The index of the file.
+	 * @return The path.
+	 */
+	String getPath(int file) {
+		return catalog.getPath(entries[file]);
+	}
+
+
+	/**
+	 * Returns the index of a file.
+	 *
+	 * @param path The full path of the file.
+	 * @return The index of the file, or <code>-1</code> if it is not in this
+	 *         index.
+	 */
+	int indexOf(String path) {
+		int entry = catalog.indexOf(path);
+		if (entry==-1) {
+			return -1;
+		}
+		int file = Arrays.binarySearch(entries, entry);
+		return file<0 ? -1 : file;
+	}
+
+
+	/**
+	 * Returns whether a character starts a "word" in a path.
+	 *
+	 * @param prev The preceding character.
+	 * @param ch The character.
+	 * @return Whether <code>ch</code> starts a word.
+	 */
+	private static boolean isBoundary(char prev, char ch) {
+		return switch (prev) {
+			case '/', '\\', '.', '_', '-', ' ' -> true;
+			default -> (Character.isUpperCase(ch) && Character.isLowerCase(prev)) ||
+					(Character.isDigit(ch) && !Character.isDigit(prev));
+		};
+	}
+
+
+	private boolean isBoundary(int pos) {
+		return (boundaries[pos>>>6] & (1L << pos))!=0;
+	}
+
+
+	/**
+	 * Scores a file against a query.
+	 *
+	 * @param file The index of the file.
+	 * @param query The query.
+	 * @return The score, or {@link #NO_MATCH} if the file doesn't match.
+	 */
+	private int score(int file, Query query) {
+
+		int start = starts[file];
+		int end = starts[file + 1];
+		int nameStart = nameStarts[file];
+
+		if (!query.path) {
+			int score = scoreRange(query.chars, nameStart, end);
+			if (score!=NO_MATCH) {
+				score += BONUS_FILE_NAME - (end - nameStart)/4;
+				if (text[nameStart]==query.chars[0]) {
+					score += BONUS_NAME_PREFIX;
+				}
+				return score;
+			}
+		}
+
+		int score = scoreRange(query.chars, start, end);
+		return score==NO_MATCH ? NO_MATCH : score - (end - start)/8;
+
+	}
+
+
+	/**
+	 * Scores a range of text against query characters.  The shortest
+	 * window containing the query characters in order is found by scanning
+	 * forward for the first full match and then back for its latest start,
+	 * and only characters in that window are scored.
+	 *
+	 * @param query The folded query characters.
+	 * @param from The start of the range, inclusive.
+	 * @param to The end of the range, exclusive.
+	 * @return The score, or {@link #NO_MATCH} if the range doesn't contain
+	 *         the query characters in order.
+	 */
+	private int scoreRange(byte[] query, int from, int to) {
+
+		int q = 0;
+		int last = from;
+		for (; last<to; last++) {
+			if (text[last]==query[q] && ++q==query.length) {
+				break;
+			}
+		}
+		if (q<query.length) {
+			return NO_MATCH;
+		}
+
+		int first = last;
+		for (q=query.length-1; first>=from; first--) {
+			if (text[first]==query[q] && --q<0) {
+				break;
+			}
+		}
+
+		int score = 0;
+		int prevMatch = -2;
+		q = 0;
+		for (int pos=first; pos<=last; pos++) {
+			if (q<query.length && text[pos]==query[q]) {
+				score += SCORE_MATCH;
+				if (prevMatch==pos-1) {
+					score += BONUS_CONSECUTIVE;
+				}
+				if (isBoundary(pos)) {
+					score += BONUS_BOUNDARY;
+				}
+				prevMatch = pos;
+				q++;
+			}
+			else {
+				score -= PENALTY_GAP;
+			}
+		}
+		return score;
+
+	}
+
+
+	/**
+	 * Searches a range of files for matches to a query.
+	 *
+	 * @param query The query.
+	 * @param boosts The boosts for recently opened files.
+	 * @param candidates The files to search, in increasing order, or
+	 *        {@code null} to search all files in this index.
+	 * @param from The offset into <code>candidates</code> (or the file
+	 *        index, if it's {@code null}) to start at, inclusive.
+	 * @param to The offset to stop at, exclusive.
+	 * @param results Receives the matches.
+	 */
+	void search(Query query, Boosts boosts, int[] candidates, int from, int to,
+			Results results) {
+
+		long queryMask = query.mask;
+
+		for (int i=from; i<to; i++) {
+			int file = candidates==null ? i : candidates[i];
+			if ((masks[file] & queryMask)!=queryMask) {
+				continue;
+			}
+			int score = score(file, query);
+			if (score!=NO_MATCH) {
+				results.add(file, score + boosts.get(file));
+			}
+		}
+
+	}
+
+
+	/**
+	 * The boosts to give recently opened files.
+	 */
+	static final class Boosts {
+
+		private final int[] rankedFiles;
+		private final int[] sortedFiles;
+		private final int[] sortedBonuses;
+
+		private Boosts(int[] rankedFiles, int maxRank) {
+			this.rankedFiles = rankedFiles;
+			long[] pairs = new long[rankedFiles.length];
+			for (int i=0; i<rankedFiles.length; i++) {
+				int bonus = BONUS_RECENT * (maxRank - i) / maxRank;
+				pairs[i] = ((long)rankedFiles[i] << 32) | bonus;
+			}
+			Arrays.sort(pairs);
+			sortedFiles = new int[pairs.length];
+			sortedBonuses = new int[pairs.length];
+			for (int i=0; i<pairs.length; i++) {
+				sortedFiles[i] = (int)(pairs[i] >>> 32);
+				sortedBonuses[i] = (int)pairs[i];
+			}
+		}
+
+		/**
+		 * Returns the boost for a file.
+		 *
+		 * @param file The index of the file.
+		 * @return The boost, or <code>0</code> if it was not recently
+		 *         opened.
+		 */
+		int get(int file) {
+			int index = Arrays.binarySearch(sortedFiles, file);
+			return index<0 ? 0 : sortedBonuses[index];
+		}
+
+		/**
+		 * Returns the recently opened files in this index.
+		 *
+		 * @return The files, most recently opened first.
+		 */
+		int[] getRecentFiles() {
+			return rankedFiles.clone();
+		}
+
+	}
+
+
+	/**
+	 * A query, preprocessed for matching.
+	 */
+	static final class Query {
+
+		private final String text;
+		private final byte[] chars;
+		private final long mask;
+		private final boolean path;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param text The text the user typed.  Whitespace is ignored.  If
+		 *        this contains a path separator, it is matched against full
+		 *        paths; otherwise, file names are preferred.
+		 */
+		Query(String text) {
+			StringBuilder sb = new StringBuilder();
+			for (int i=0; i<text.length(); i++) {
+				char ch = text.charAt(i);
+				if (!Character.isWhitespace(ch)) {
+					sb.append((char)(fold(ch) & 0xff));
+				}
+			}
+			this.text = sb.toString();
+			chars = new byte[sb.length()];
+			long mask = 0;
+			for (int i=0; i<chars.length; i++) {
+				chars[i] = (byte)sb.charAt(i);
+				mask |= getMaskBit(chars[i]);
+			}
+			this.mask = mask;
+			path = this.text.indexOf('/')>-1;
+		}
+
+		/**
+		 * Returns whether this query has no characters to match.
+		 *
+		 * @return Whether this query is empty.
+		 */
+		boolean isEmpty() {
+			return chars.length==0;
+		}
+
+		/**
+		 * Returns whether every file matching this query also matches
+		 * another query.  If so, only the other query's matches need to be
+		 * searched for this one.
+		 *
+		 * @param other The other query.
+		 * @return Whether this query narrows <code>other</code>.
+		 */
+		boolean narrows(Query other) {
+			return text.startsWith(other.text);
+		}
+
+	}
+
+
+	/**
+	 * Collects the matches of a search, keeping the highest-scoring ones in
+	 * a bounded heap.
+	 */
+	static final class Results {
+
+		private int[] matches;
+		private int matchCount;
+		private final long[] heap;
+		private int heapSize;
+
+		/**
+		 * Constructor.
+		 *
+		 * @param maxResults The number of best matches to keep.
+		 */
+		Results(int maxResults) {
+			matches = new int[1024];
+			heap = new long[maxResults];
+		}
+
+		private void add(int file, int score) {
+
+			if (matchCount==matches.length) {
+				matches = Arrays.copyOf(matches, matchCount * 2);
+			}
+			matches[matchCount++] = file;
+
+			// Higher scores, then lower file indices (i.e. sorted by path),
+			// compare greater.
+			long key = ((long)score << 32) | (0xffffffffL - file);
+			if (heapSize<heap.length) {
+				int i = heapSize++;
+				while (i>0 && heap[(i - 1)/2]>key) {
+					heap[i] = heap[(i - 1)/2];
+					i = (i - 1)/2;
+				}
+				heap[i] = key;
+			}
+			else if (heap.length>0 && key>heap[0]) {
+				int i = 0;
+				while (true) {
+					int child = 2*i + 1;
+					if (child>=heapSize) {
+						break;
+					}
+					if (child+1<heapSize && heap[child+1]<heap[child]) {
+						child++;
+					}
+					if (heap[child]>=key) {
+						break;
+					}
+					heap[i] = heap[child];
+					i = child;
+				}
+				heap[i] = key;
+			}
+
+		}
+
+		/**
+		 * Returns the number of files that matched.
+		 *
+		 * @return The number of matches.
+		 */
+		int getMatchCount() {
+			return matchCount;
+		}
+
+		/**
+		 * Returns all files that matched, in increasing order.
+		 *
+		 * @return The matches.
+		 */
+		int[] getMatches() {
+			return Arrays.copyOf(matches, matchCount);
+		}
+
+		/**
+		 * Returns the best matches found so far.
+		 *
+		 * @return The files, best match first.
+		 */
+		int[] getTopFiles() {
+			long[] keys = Arrays.copyOf(heap, heapSize);
+			Arrays.sort(keys);
+			int[] files = new int[keys.length];
+			for (int i=0; i<keys.length; i++) {
+				long key = keys[keys.length - 1 - i];
+				files[i] = (int)(0xffffffffL - (key & 0xffffffffL));
+			}
+			return files;
+		}
+
+	}
+
+
+}
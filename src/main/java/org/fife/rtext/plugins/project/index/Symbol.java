@@ -0,0 +1,23 @@
+/*
+ * 10/19/2026
+ *
+ * Symbol.java - A symbol defined in a file in a workspace.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project.index;
+
+
+/**
+ * A symbol (class, function, variable, etc.) defined in a file in a
+ * workspace.
+ *
+ * @param name The name of the symbol.
+ * @param kind The ctags "kind" of the symbol, e.g. {@code 'c'} for a class.
+ * @param file The full path to the file defining the symbol.
+ * @param line The 1-based line number the symbol is defined on.
+ */
+public record Symbol(String name, char kind, String file, int line) {
+}
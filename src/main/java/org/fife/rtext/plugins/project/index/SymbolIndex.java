@@ -0,0 +1,567 @@
+/*
+ * 10/19/2026
+ *
+ * SymbolIndex.java - An index of the symbols defined in a workspace's files.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project.index;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.fife.rtext.FileUtil;
+
+
+/**
+ * An index of the symbols (classes, functions, etc.) defined in all files in
+ * a workspace.<p>
+ *
+ * Symbols are stored per file, along with the file's modification time, so
+ * the index can be updated incrementally.  Lookups are done against a
+ * snapshot of all symbols sorted by name, kept current via
+ * {@link #updateLookupTable(Collection)}; this allows prefix lookups via a
+ * binary search, with a linear scan for substring and "fuzzy" (subsequence)
+ * matches that stops once enough results are found.  Lookups can be done
+ * from any thread, including the EDT, while the index is being updated.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class SymbolIndex {
+
+	private final Map<String, FileSymbols> files;
+	private volatile LookupTable lookupTable;
+
+	/**
+	 * Identifies a symbol index file on disk.
+	 */
+	private static final int MAGIC = 0x52545359;
+
+	/**
+	 * The version of the on-disk format.
+	 */
+	private static final int VERSION = 1;
+
+
+	/**
+	 * Creates an empty index.
+	 */
+	public SymbolIndex() {
+		files = new HashMap<>();
+		lookupTable = LookupTable.EMPTY;
+	}
+
+
+	/**
+	 * Returns symbols matching some text.  Symbols whose names start with
+	 * the text are returned first, followed by symbols whose names contain
+	 * it, followed by symbols whose names contain its characters in order.
+	 * Matching is case-insensitive.  The scan for substring matches stops
+	 * once {@code max} symbols have been found, so the result only depends
+	 * on the contents of the index.
+	 *
+	 * @param text The text to match.
+	 * @param max The maximum number of symbols to return.
+	 * @return The matching symbols.
+	 */
+	public List<Symbol> find(String text, int max) {
+
+		LookupTable table = lookupTable;
+		String query = text.trim().toLowerCase(Locale.ROOT);
+		if (query.isEmpty() || table.size()==0) {
+			return Collections.emptyList();
+		}
+
+		List<Symbol> result = new ArrayList<>();
+
+		// Prefix matches via binary search
+		int i = table.lowerBound(query);
+		while (i<table.size() && result.size()<max &&
+				table.keys[i].startsWith(query)) {
+			result.add(table.getSymbol(i++));
+		}
+
+		// Substring and subsequence matches
+		if (result.size()<max) {
+			List<Symbol> fuzzy = new ArrayList<>();
+			for (i=0; i<table.size() && result.size()<max; i++) {
+				String key = table.keys[i];
+				if (key.startsWith(query)) {
+					continue; // Already added above
+				}
+				if (key.contains(query)) {
+					result.add(table.getSymbol(i));
+				}
+				else if (fuzzy.size()<max && isSubsequence(query, key)) {
+					fuzzy.add(table.getSymbol(i));
+				}
+			}
+			for (int j=0; j<fuzzy.size() && result.size()<max; j++) {
+				result.add(fuzzy.get(j));
+			}
+		}
+
+		return result;
+
+	}
+
+
+	/**
+	 * Returns the number of files in this index.
+	 *
+	 * @return The number of files.
+	 */
+	public synchronized int getFileCount() {
+		return files.size();
+	}
+
+
+	/**
+	 * Returns the modification time of a file when it was last indexed.
+	 *
+	 * @param path The full path of the file.
+	 * @return The modification time, or {@code -1} if the file is not in
+	 *         this index.
+	 */
+	synchronized long getModifiedTime(String path) {
+		FileSymbols fs = files.get(path);
+		return fs==null ? -1 : fs.mtime;
+	}
+
+
+	/**
+	 * Returns the paths of all files in this index.
+	 *
+	 * @return The paths.
+	 */
+	synchronized Set<String> getPaths() {
+		return new HashSet<>(files.keySet());
+	}
+
+
+	/**
+	 * Returns the number of symbols available for lookups.
+	 *
+	 * @return The number of symbols.
+	 * @see #updateLookupTable(Collection)
+	 */
+	public int getSymbolCount() {
+		return lookupTable.size();
+	}
+
+
+	/**
+	 * Returns whether a string contains all characters of another string,
+	 * in order.
+	 *
+	 * @param query The characters to look for.
+	 * @param key The string to search in.
+	 * @return Whether the characters were all found in order.
+	 */
+	private static boolean isSubsequence(String query, String key) {
+		int qLen = query.length();
+		int kLen = key.length();
+		if (qLen>kLen) {
+			return false;
+		}
+		int q = 0;
+		for (int k=0; k<kLen && q<qLen; k++) {
+			if (key.charAt(k)==query.charAt(q)) {
+				q++;
+			}
+		}
+		return q==qLen;
+	}
+
+
+	/**
+	 * Loads an index previously saved via {@link #save(File)}.  The lookup
+	 * table is built before this method returns.
+	 *
+	 * @param file The file to load from.
+	 * @return The index.
+	 * @throws IOException If an IO error occurs, or the file is not a valid
+	 *         symbol index.
+	 */
+	public static SymbolIndex load(File file) throws IOException {
+
+		SymbolIndex index = new SymbolIndex();
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new GZIPInputStream(new FileInputStream(file))))) {
+			if (in.readInt()!=MAGIC || in.readInt()!=VERSION) {
+				throw new IOException("Not a valid symbol index: " +
+						file.getAbsolutePath());
+			}
+			int fileCount = in.readInt();
+			for (int i=0; i<fileCount; i++) {
+				String path = in.readUTF();
+				long mtime = in.readLong();
+				int count = in.readInt();
+				FileSymbols fs = new FileSymbols(path, mtime, count);
+				for (int j=0; j<count; j++) {
+					fs.names[j] = in.readUTF();
+					fs.kinds[j] = (char)in.readUnsignedShort();
+					fs.lines[j] = in.readInt();
+				}
+				index.files.put(path, fs);
+			}
+		}
+
+		index.rebuildLookupTable();
+		return index;
+
+	}
+
+
+	/**
+	 * Sets the symbols for a file, replacing any previous ones.  Note that
+	 * the change is not visible to lookups until
+	 * {@link #updateLookupTable(Collection)} is called.
+	 *
+	 * @param path The full path to the file.
+	 * @param mtime The file's modification time.
+	 * @param symbols The symbols found in the file.
+	 * @see #remove(String)
+	 */
+	synchronized void put(String path, long mtime, List<Symbol> symbols) {
+		FileSymbols fs = new FileSymbols(path, mtime, symbols.size());
+		for (int i=0; i<symbols.size(); i++) {
+			Symbol symbol = symbols.get(i);
+			fs.names[i] = symbol.name();
+			fs.kinds[i] = symbol.kind();
+			fs.lines[i] = symbol.line();
+		}
+		files.put(path, fs);
+	}
+
+
+	/**
+	 * Rebuilds the sorted table used for lookups from scratch.  This is
+	 * only done when an index is loaded.
+	 *
+	 * @see #updateLookupTable(Collection)
+	 */
+	private void rebuildLookupTable() {
+
+		FileSymbols[] fileArray;
+		synchronized (this) {
+			fileArray = files.values().toArray(new FileSymbols[0]);
+		}
+
+		int count = 0;
+		for (FileSymbols fs : fileArray) {
+			count += fs.names.length;
+		}
+
+		String[] keys = new String[count];
+		int[] owners = new int[count];
+		int[] indices = new int[count];
+		int i = 0;
+		for (int f=0; f<fileArray.length; f++) {
+			String[] names = fileArray[f].names;
+			for (int j=0; j<names.length; j++) {
+				keys[i] = names[j].toLowerCase(Locale.ROOT);
+				owners[i] = f;
+				indices[i] = j;
+				i++;
+			}
+		}
+
+		LookupTable.sort(keys, owners, indices, 0, count - 1);
+		lookupTable = new LookupTable(fileArray, keys, owners, indices);
+
+	}
+
+
+	/**
+	 * Removes a file from this index.  Note that the change is not visible
+	 * to lookups until {@link #updateLookupTable(Collection)} is called.
+	 *
+	 * @param path The full path to the file.
+	 * @see #put(String, long, List)
+	 */
+	synchronized void remove(String path) {
+		files.remove(path);
+	}
+
+
+	/**
+	 * Saves this index to disk.  The file is written to a temporary location
+	 * first and then moved into place, so a crash never leaves a corrupt
+	 * index behind.
+	 *
+	 * @param file The file to save to.
+	 * @throws IOException If an IO error occurs.
+	 * @see #load(File)
+	 */
+	public synchronized void save(File file) throws IOException {
+
+		FileUtil.writeAtomically(file, os -> {
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+					new GZIPOutputStream(os)));
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(files.size());
+			for (FileSymbols fs : files.values()) {
+				out.writeUTF(fs.path);
+				out.writeLong(fs.mtime);
+				out.writeInt(fs.names.length);
+				for (int i=0; i<fs.names.length; i++) {
+					out.writeUTF(fs.names[i]);
+					out.writeShort(fs.kinds[i]);
+					out.writeInt(fs.lines[i]);
+				}
+			}
+			out.close(); // Finishes the GZIP stream
+		});
+
+	}
+
+
+	/**
+	 * Updates the sorted table used for lookups with the changes made to
+	 * some files.  Only the symbols of those files are sorted; they are then
+	 * merged with the rest of the table, which is already sorted.  This
+	 * should be called from a background thread, and not concurrently with
+	 * itself.
+	 *
+	 * @param paths The files put or removed since the table was last
+	 *        updated.
+	 * @see #put(String, long, List)
+	 * @see #remove(String)
+	 */
+	void updateLookupTable(Collection<String> paths) {
+
+		if (paths.isEmpty()) {
+			return;
+		}
+
+		LookupTable old = lookupTable;
+		Set<String> changed = new HashSet<>(paths);
+		List<FileSymbols> fileList = new ArrayList<>();
+
+		// Keep the files that didn't change, then add the changed ones
+		int[] remap = new int[old.files.length];
+		for (int f=0; f<old.files.length; f++) {
+			if (changed.contains(old.files[f].path)) {
+				remap[f] = -1;
+			}
+			else {
+				remap[f] = fileList.size();
+				fileList.add(old.files[f]);
+			}
+		}
+		int firstChanged = fileList.size();
+		synchronized (this) {
+			for (String path : changed) {
+				FileSymbols fs = files.get(path);
+				if (fs!=null) {
+					fileList.add(fs);
+				}
+			}
+		}
+
+		// Sort just the changed files' symbols
+		int addedCount = 0;
+		for (int f=firstChanged; f<fileList.size(); f++) {
+			addedCount += fileList.get(f).names.length;
+		}
+		String[] addedKeys = new String[addedCount];
+		int[] addedOwners = new int[addedCount];
+		int[] addedIndices = new int[addedCount];
+		int a = 0;
+		for (int f=firstChanged; f<fileList.size(); f++) {
+			String[] names = fileList.get(f).names;
+			for (int j=0; j<names.length; j++) {
+				addedKeys[a] = names[j].toLowerCase(Locale.ROOT);
+				addedOwners[a] = f;
+				addedIndices[a] = j;
+				a++;
+			}
+		}
+		LookupTable.sort(addedKeys, addedOwners, addedIndices, 0, addedCount - 1);
+
+		// Merge them with the remaining symbols from the old table
+		int max = old.size() + addedCount;
+		String[] keys = new String[max];
+		int[] owners = new int[max];
+		int[] indices = new int[max];
+		int count = 0;
+		int o = 0;
+		a = 0;
+		while (o<old.size() || a<addedCount) {
+			if (o<old.size() && remap[old.owners[o]]==-1) {
+				o++; // A changed file's old symbol
+			}
+			else if (a==addedCount ||
+					(o<old.size() && old.keys[o].compareTo(addedKeys[a])<=0)) {
+				keys[count] = old.keys[o];
+				owners[count] = remap[old.owners[o]];
+				indices[count++] = old.indices[o++];
+			}
+			else {
+				keys[count] = addedKeys[a];
+				owners[count] = addedOwners[a];
+				indices[count++] = addedIndices[a++];
+			}
+		}
+
+		lookupTable = new LookupTable(fileList.toArray(new FileSymbols[0]),
+				Arrays.copyOf(keys, count), Arrays.copyOf(owners, count),
+				Arrays.copyOf(indices, count));
+
+	}
+
+
+	/**
+	 * The symbols found in a single file, stored in parallel arrays to keep
+	 * memory usage down.
+	 */
+	private static final class FileSymbols {
+
+		private final String path;
+		private final long mtime;
+		private final String[] names;
+		private final char[] kinds;
+		private final int[] lines;
+
+		private FileSymbols(String path, long mtime, int count) {
+			this.path = path;
+			this.mtime = mtime;
+			names = new String[count];
+			kinds = new char[count];
+			lines = new int[count];
+		}
+
+	}
+
+
+	/**
+	 * An immutable snapshot of all symbols in the index, sorted by
+	 * lower-cased name.
+	 */
+	private static final class LookupTable {
+
+		private static final LookupTable EMPTY = new LookupTable(
+				new FileSymbols[0], new String[0], new int[0], new int[0]);
+
+		private final FileSymbols[] files;
+		private final String[] keys;
+		private final int[] owners;
+		private final int[] indices;
+
+		private LookupTable(FileSymbols[] files, String[] keys, int[] owners,
+				int[] indices) {
+			this.files = files;
+			this.keys = keys;
+			this.owners = owners;
+			this.indices = indices;
+		}
+
+		private Symbol getSymbol(int i) {
+			FileSymbols fs = files[owners[i]];
+			int j = indices[i];
+			return new Symbol(fs.names[j], fs.kinds[j], fs.path, fs.lines[j]);
+		}
+
+		/**
+		 * Returns the index of the first key that is not less than a query.
+		 */
+		private int lowerBound(String query) {
+			int low = 0;
+			int high = keys.length;
+			while (low<high) {
+				int mid = (low + high) >>> 1;
+				if (keys[mid].compareTo(query)<0) {
+					low = mid + 1;
+				}
+				else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+
+		private int size() {
+			return keys.length;
+		}
+
+		/**
+		 * Sorts the keys, keeping the parallel arrays in sync.  This avoids
+		 * allocating an object per symbol just to sort them.
+		 */
+		private static void sort(String[] keys, int[] owners, int[] indices,
+				int low, int high) {
+			while (low<high) {
+				if (high-low<16) {
+					for (int i=low+1; i<=high; i++) {
+						for (int j=i; j>low && keys[j-1].compareTo(keys[j])>0; j--) {
+							swap(keys, owners, indices, j, j-1);
+						}
+					}
+					return;
+				}
+				String pivot = keys[(low + high) >>> 1];
+				int i = low;
+				int j = high;
+				while (i<=j) {
+					while (keys[i].compareTo(pivot)<0) {
+						i++;
+					}
+					while (keys[j].compareTo(pivot)>0) {
+						j--;
+					}
+					if (i<=j) {
+						swap(keys, owners, indices, i++, j--);
+					}
+				}
+				// Recurse into the smaller half to bound stack depth
+				if (j-low<high-i) {
+					sort(keys, owners, indices, low, j);
+					low = i;
+				}
+				else {
+					sort(keys, owners, indices, i, high);
+					high = j;
+				}
+			}
+		}
+
+		private static void swap(String[] keys, int[] owners, int[] indices,
+				int i, int j) {
+			String key = keys[i];
+			keys[i] = keys[j];
+			keys[j] = key;
+			int temp = owners[i];
+			owners[i] = owners[j];
+			owners[j] = temp;
+			temp = indices[i];
+			indices[i] = indices[j];
+			indices[j] = temp;
+		}
+
+	}
+
+
+}
@@ -0,0 +1,573 @@
+/*
+ * 10/19/2026
+ *
+ * SymbolIndexer.java - Keeps a workspace's symbol index up to date.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.fife.io.ProcessRunner;
+import org.fife.rtext.RText;
+import org.fife.rtext.ThreadUtil;
+import org.fife.rtext.plugins.project.ProjectPlugin;
+import org.fife.rtext.plugins.project.model.Workspace;
+import org.fife.rtext.plugins.project.model.WorkspaceFileWalker;
+import org.fife.rtext.plugins.sourcebrowser.SourceBrowserPlugin;
+import org.fife.ui.app.Plugin;
+
+
+/**
+ * Keeps the {@link SymbolIndex} for the active workspace up to date.<p>
+ *
+ * When a workspace is opened, its index is loaded from disk (if it was
+ * previously saved), and then every file in the workspace is checked
+ * against it.  Only files that are new or modified since they were last
+ * indexed are re-parsed.  Parsing is done by running Exuberant Ctags - the
+ * same executable configured for the Source Browser - over batches of files
+ * in parallel.  Files are also re-indexed as they are saved, and dropped
+ * from the index when they are deleted or renamed in the project tree.
+ * When the workspace itself is modified (e.g. a folder is added, or a
+ * folder's filters change), it is walked again.<p>
+ *
+ * All work is done on background threads; the public methods of this class
+ * should be called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class SymbolIndexer {
+
+	private final ProjectPlugin plugin;
+	private final ExecutorService coordinator;
+	private volatile SymbolIndex index;
+	private File indexFile;
+	private Workspace workspace;
+	private WorkspaceFileWalker walker;
+	private Future<?> currentPass;
+	private volatile boolean indexing;
+	private long lastPassTime;
+	private boolean dirty;
+
+	/**
+	 * Files saved but not yet re-indexed.  Saves made while these are
+	 * waiting to be indexed (e.g. via "Save All") are indexed together.
+	 */
+	private final Set<String> savedFiles;
+
+	/**
+	 * The number of files to pass to ctags at a time.
+	 */
+	private static final int BATCH_SIZE = 64;
+
+	/**
+	 * The maximum time to let ctags run on a single batch of files.
+	 */
+	private static final long MAX_BATCH_MILLIS = 60_000;
+
+	/**
+	 * Minimum time between full passes triggered by {@link #refresh()}.
+	 */
+	private static final long MIN_REFRESH_MILLIS = 60_000;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param plugin The parent plugin.
+	 */
+	public SymbolIndexer(ProjectPlugin plugin) {
+		this.plugin = plugin;
+		index = new SymbolIndex();
+		savedFiles = new HashSet<>();
+		coordinator = Executors.newSingleThreadExecutor(
+				ThreadUtil.createThreadFactory("RText Symbol Indexer"));
+	}
+
+
+	/**
+	 * Runs ctags over a batch of files and adds their symbols to the index.
+	 *
+	 * @param index The index to update.
+	 * @param ctags The ctags executable.
+	 * @param batch The files to index, mapped to their modification times.
+	 */
+	private static void extract(SymbolIndex index, String ctags,
+			Map<String, Long> batch) {
+
+		String[] cmd = new String[4 + batch.size()];
+		cmd[0] = ctags;
+		cmd[1] = "-f";
+		cmd[2] = "-";
+		cmd[3] = "--excmd=number";
+		int i = 4;
+		for (String path : batch.keySet()) {
+			cmd[i++] = path;
+		}
+
+		ProcessRunner runner = new ProcessRunner(cmd);
+		Thread t = new Thread(runner);
+		t.start();
+		try {
+			t.join(MAX_BATCH_MILLIS);
+		} catch (InterruptedException ie) {
+			t.interrupt();
+			Thread.currentThread().interrupt();
+			return;
+		}
+		if (t.isAlive()) { // Runaway process
+			t.interrupt();
+			return;
+		}
+		if (runner.getLastError()!=null) {
+			return;
+		}
+
+		Map<String, List<Symbol>> symbols = new HashMap<>();
+		for (String path : batch.keySet()) {
+			symbols.put(path, new ArrayList<>());
+		}
+		for (String line : runner.getStdout().split("\r?\n")) {
+			Symbol symbol = parseTagLine(line);
+			if (symbol!=null) {
+				List<Symbol> list = symbols.get(symbol.file());
+				if (list!=null) {
+					list.add(symbol);
+				}
+			}
+		}
+
+		for (Map.Entry<String, List<Symbol>> entry : symbols.entrySet()) {
+			String path = entry.getKey();
+			index.put(path, batch.get(path), entry.getValue());
+		}
+
+	}
+
+
+	/**
+	 * Saves the index if it has changed since it was last saved.  This
+	 * blocks for a short while to let the save complete, so it is suitable
+	 * for calling on shutdown.
+	 */
+	public void flush() {
+		Future<?> f = coordinator.submit(this::saveIfDirty);
+		try {
+			f.get(2, TimeUnit.SECONDS);
+		} catch (Exception e) {
+			// Timed out or interrupted; the index will be revalidated next
+			// time anyway.
+		}
+	}
+
+
+	/**
+	 * Called on the EDT when a file is saved.  If the file is part of the
+	 * workspace, it is re-indexed.
+	 *
+	 * @param file The file that was saved.
+	 */
+	public void fileSaved(File file) {
+
+		String ctags = getCTagsExecutable();
+		if (ctags==null || walker==null || !walker.isIncluded(file)) {
+			return;
+		}
+
+		synchronized (savedFiles) {
+			if (savedFiles.isEmpty()) {
+				coordinator.submit(() -> indexSavedFiles(ctags));
+			}
+			savedFiles.add(file.getAbsolutePath());
+		}
+
+	}
+
+
+	/**
+	 * Called on the EDT when a file or folder in the workspace is renamed.
+	 * Symbols in the old location are dropped, and the new location is
+	 * indexed.
+	 *
+	 * @param oldFile The old file or folder.
+	 * @param newFile The new file or folder.
+	 * @see #filesRemoved(File)
+	 */
+	public void fileRenamed(File oldFile, File newFile) {
+		filesRemoved(oldFile);
+		if (newFile.isDirectory()) {
+			startPass(); // Re-walks the workspace to find the moved files
+		}
+		else {
+			fileSaved(newFile);
+		}
+	}
+
+
+	/**
+	 * Called on the EDT when a file or folder is deleted.  The file, or all
+	 * files in the folder, are dropped from the index.
+	 *
+	 * @param file The file or folder.
+	 * @see #fileRenamed(File, File)
+	 */
+	public void filesRemoved(File file) {
+
+		String path = file.getAbsolutePath();
+		String folderPrefix = path + File.separatorChar;
+		coordinator.submit(() -> {
+			SymbolIndex index = this.index;
+			List<String> removed = new ArrayList<>();
+			for (String p : index.getPaths()) {
+				if (p.equals(path) || p.startsWith(folderPrefix)) {
+					index.remove(p);
+					removed.add(p);
+				}
+			}
+			if (!removed.isEmpty()) {
+				index.updateLookupTable(removed);
+				dirty = true;
+			}
+		});
+
+	}
+
+
+	/**
+	 * Returns the ctags executable to use, if it is configured and of a
+	 * type we can parse the output of.
+	 *
+	 * @return The ctags executable, or {@code null} if none is available.
+	 */
+	private String getCTagsExecutable() {
+		RText rtext = plugin.getApplication();
+		for (Plugin<?> p : rtext.getPlugins()) {
+			if (p instanceof SourceBrowserPlugin sbp) {
+				String location = sbp.getCTagsExecutableLocation();
+				if (location!=null && new File(location).isFile() &&
+						SourceBrowserPlugin.CTAGS_TYPE_EXUBERANT.equals(
+							sbp.getCTagsType())) {
+					return location;
+				}
+			}
+		}
+		return null;
+	}
+
+
+	/**
+	 * Returns the symbol index for the current workspace.  The returned
+	 * index is updated in the background, and may be replaced if a new
+	 * workspace is opened.
+	 *
+	 * @return The index.
+	 */
+	public SymbolIndex getIndex() {
+		return index;
+	}
+
+
+	/**
+	 * Returns the file a workspace's symbol index is saved to.
+	 *
+	 * @param workspace The workspace.
+	 * @return The file.
+	 */
+	private static File getIndexFile(Workspace workspace) {
+		String path = workspace.getFileFullPath();
+		int dot = path.lastIndexOf('.');
+		if (dot>path.lastIndexOf(File.separatorChar)) {
+			path = path.substring(0, dot);
+		}
+		return new File(path + ".symbols");
+	}
+
+
+	/**
+	 * Re-indexes the files saved since this was last called.  This is called
+	 * on the coordinator thread.
+	 *
+	 * @param ctags The ctags executable.
+	 * @see #fileSaved(File)
+	 */
+	private void indexSavedFiles(String ctags) {
+
+		Map<String, Long> saved = new HashMap<>();
+		synchronized (savedFiles) {
+			for (String path : savedFiles) {
+				saved.put(path, new File(path).lastModified());
+			}
+			savedFiles.clear();
+		}
+
+		SymbolIndex index = this.index;
+		ThreadUtil.runInBatches(saved.keySet(), BATCH_SIZE,
+				"RText Symbol Indexer Worker", paths -> {
+			Map<String, Long> batch = new HashMap<>();
+			for (String path : paths) {
+				batch.put(path, saved.get(path));
+			}
+			extract(index, ctags, batch);
+		});
+		index.updateLookupTable(saved.keySet());
+		dirty = true;
+
+	}
+
+
+	/**
+	 * Returns whether symbol lookups are possible.  This is only the case if
+	 * Exuberant Ctags has been configured for the Source Browser.
+	 *
+	 * @return Whether indexing is available.
+	 */
+	public boolean isAvailable() {
+		return getCTagsExecutable()!=null;
+	}
+
+
+	/**
+	 * Returns whether the workspace is currently being (re-)indexed.
+	 *
+	 * @return Whether indexing is in progress.
+	 */
+	public boolean isIndexing() {
+		return indexing;
+	}
+
+
+	/**
+	 * Parses a line of ctags output generated with {@code --excmd=number}.
+	 *
+	 * @param line The line.
+	 * @return The symbol, or {@code null} if the line could not be parsed.
+	 */
+	static Symbol parseTagLine(String line) {
+
+		if (line.isEmpty() || line.startsWith("!_")) {
+			return null; // Pseudo-tag
+		}
+
+		String[] parts = line.split("\t");
+		if (parts.length<3) {
+			return null;
+		}
+
+		String address = parts[2];
+		int semicolon = address.indexOf(';');
+		if (semicolon>-1) {
+			address = address.substring(0, semicolon);
+		}
+		int lineNumber;
+		try {
+			lineNumber = Integer.parseInt(address);
+		} catch (NumberFormatException nfe) {
+			return null;
+		}
+
+		char kind = ' ';
+		if (parts.length>3) {
+			String kindField = parts[3];
+			if (kindField.startsWith("kind:")) {
+				kindField = kindField.substring(5);
+			}
+			if (!kindField.isEmpty()) {
+				kind = kindField.charAt(0);
+			}
+		}
+
+		return new Symbol(parts[0], kind, parts[1], lineNumber);
+
+	}
+
+
+	/**
+	 * Re-indexes any files in the workspace that have changed since they
+	 * were last indexed, if this has not been done recently.
+	 */
+	public void refresh() {
+		if (!indexing &&
+				System.currentTimeMillis()-lastPassTime>MIN_REFRESH_MILLIS) {
+			startPass();
+		}
+	}
+
+
+	/**
+	 * Runs a full pass over the workspace, re-indexing any new or modified
+	 * files and dropping any that have been removed.  This is called on the
+	 * coordinator thread.
+	 *
+	 * @param index The index to update.
+	 * @param walker Walks the files in the workspace.
+	 * @param ctags The ctags executable.
+	 */
+	private void runPass(SymbolIndex index, WorkspaceFileWalker walker,
+			String ctags) {
+
+		Set<String> changed = ConcurrentHashMap.newKeySet();
+		Map<String, Long> onDisk = new HashMap<>();
+		boolean complete = walker.walk((path, attrs) -> {
+			onDisk.put(path.toString(), attrs.lastModifiedTime().toMillis());
+			return true;
+		});
+		if (!complete) {
+			return; // Interrupted; the workspace was modified or replaced
+		}
+
+		for (String path : index.getPaths()) {
+			if (!onDisk.containsKey(path)) {
+				index.remove(path);
+				changed.add(path);
+				dirty = true;
+			}
+		}
+
+		List<String> modified = new ArrayList<>();
+		for (Map.Entry<String, Long> entry : onDisk.entrySet()) {
+			if (index.getModifiedTime(entry.getKey())!=entry.getValue()) {
+				modified.add(entry.getKey());
+			}
+		}
+
+		if (!modified.isEmpty()) {
+			complete = ThreadUtil.runInBatches(modified, BATCH_SIZE,
+					"RText Symbol Indexer Worker", paths -> {
+				Map<String, Long> batch = new HashMap<>();
+				for (String path : paths) {
+					batch.put(path, onDisk.get(path));
+				}
+				extract(index, ctags, batch);
+				changed.addAll(paths);
+			});
+			dirty = true;
+		}
+
+		// Even if interrupted, since the next pass won't see these files
+		// as modified.
+		index.updateLookupTable(changed);
+		if (complete) {
+			saveIfDirty();
+		}
+
+	}
+
+
+	/**
+	 * Saves the index if it has changed.  This is called on the coordinator
+	 * thread.
+	 */
+	private void saveIfDirty() {
+		if (dirty && indexFile!=null) {
+			try {
+				index.save(indexFile);
+				dirty = false;
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+			}
+		}
+	}
+
+
+	/**
+	 * Sets the workspace to index.  Any indexing of the previous workspace is
+	 * stopped, the new workspace's index is loaded from disk, and then it is
+	 * brought up to date.
+	 *
+	 * @param workspace The workspace.
+	 */
+	public void setWorkspace(Workspace workspace) {
+
+		if (currentPass!=null) {
+			currentPass.cancel(true);
+		}
+		coordinator.submit(this::saveIfDirty);
+
+		this.workspace = workspace;
+		walker = new WorkspaceFileWalker(workspace);
+		File file = getIndexFile(workspace);
+		coordinator.submit(() -> {
+			SymbolIndex loaded;
+			try {
+				loaded = file.isFile() ? SymbolIndex.load(file) : new SymbolIndex();
+			} catch (IOException ioe) {
+				// Corrupt or old format; just rebuild it.
+				loaded = new SymbolIndex();
+			}
+			index = loaded;
+			indexFile = file;
+			dirty = false;
+		});
+
+		startPass();
+
+	}
+
+
+	/**
+	 * Stops all indexing.  This should be called when the application is
+	 * shutting down.
+	 */
+	public void shutdown() {
+		coordinator.shutdownNow();
+	}
+
+
+	/**
+	 * Queues a full pass over the workspace, if ctags is available.
+	 */
+	private void startPass() {
+
+		String ctags = getCTagsExecutable();
+		if (ctags==null) {
+			return;
+		}
+
+		WorkspaceFileWalker walker = this.walker;
+		indexing = true;
+		lastPassTime = System.currentTimeMillis();
+		currentPass = coordinator.submit(() -> {
+			try {
+				runPass(index, walker, ctags);
+			} finally {
+				indexing = false;
+			}
+		});
+
+	}
+
+
+	/**
+	 * Called on the EDT when the user modifies the workspace, e.g. by adding
+	 * a folder or changing a folder's filters.  The workspace is walked
+	 * again, so files now in it are indexed and files no longer in it are
+	 * dropped.
+	 */
+	public void workspaceModified() {
+		if (workspace!=null) {
+			if (currentPass!=null) {
+				currentPass.cancel(true);
+			}
+			walker = new WorkspaceFileWalker(workspace);
+			startPass();
+		}
+	}
+
+
+}
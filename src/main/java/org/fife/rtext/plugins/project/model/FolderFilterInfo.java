@@ -11,9 +11,10 @@
 package org.fife.rtext.plugins.project.model;
 
 import java.io.File;
-import java.util.regex.Pattern;
+import java.util.Arrays;
 
-import org.fife.rtext.RTextUtilities;
+import org.fife.rtext.FileFilterMatcher;
+import org.fife.rtext.IgnoreRules;
 import org.fife.ui.OS;
 
 
@@ -28,9 +29,10 @@ public class FolderFilterInfo {
 	private String[] allowedFileFilters;
 	private String[] disallowedFileFilters;
 	private String[] disallowedDirectories;
-	private NameMatcher[] allowedFilePatterns;
-	private NameMatcher[] disallowedFilePatterns;
-	private NameMatcher[] disallowedDirPatterns;
+	private FileFilterMatcher<Boolean> allowedFilePatterns;
+	private FileFilterMatcher<Boolean> disallowedFilePatterns;
+	private FileFilterMatcher<Boolean> disallowedDirPatterns;
+	private boolean skipIgnoredFiles;
 
 
 	public FolderFilterInfo() {
@@ -45,6 +47,22 @@ public class FolderFilterInfo {
 	}
 
 
+	/**
+	 * Compiles an array of wildcard file filters into a single matcher.
+	 *
+	 * @param filters The file filters.
+	 * @return The matcher.
+	 */
+	private static FileFilterMatcher<Boolean> createMatcher(String[] filters) {
+		FileFilterMatcher.Builder<Boolean> builder =
+				new FileFilterMatcher.Builder<>(OS.get().isCaseSensitive());
+		for (String filter : filters) {
+			builder.add(filter, Boolean.TRUE);
+		}
+		return builder.build();
+	}
+
+
 	public String[] getAllowedFileFilters() {
 		return allowedFileFilters==null ? null :
 			allowedFileFilters.clone();
@@ -63,6 +81,31 @@ public class FolderFilterInfo {
 	}
 
 
+	/**
+	 * Returns a string identifying these filters.  Filter sets with the
+	 * same key hide the same files and folders.
+	 *
+	 * @return The key.
+	 */
+	public String getFiltersKey() {
+		return Arrays.toString(allowedFileFilters) + '|' +
+				Arrays.toString(disallowedFileFilters) + '|' +
+				Arrays.toString(disallowedDirectories) + '|' + skipIgnoredFiles;
+	}
+
+
+	/**
+	 * Returns whether files and folders ignored by <code>.gitignore</code>
+	 * and <code>.ignore</code> files are hidden.
+	 *
+	 * @return Whether ignored files are hidden.
+	 * @see #setSkipIgnoredFiles(boolean)
+	 */
+	public boolean isSkipIgnoredFiles() {
+		return skipIgnoredFiles;
+	}
+
+
 	/**
 	 * Returns whether a file or directory should be displayed.
 	 *
@@ -77,9 +120,9 @@ public class FolderFilterInfo {
 		if (isDir) {
 			if (disallowedDirectories!=null) {
 				if (disallowedDirPatterns==null) {
-					disallowedDirPatterns = wildcardToMatcher(disallowedDirectories);
+					disallowedDirPatterns = createMatcher(disallowedDirectories);
 				}
-				if (matches(name, disallowedDirPatterns)) {
+				if (disallowedDirPatterns.matches(name)) {
 					return false;
 				}
 			}
@@ -89,62 +132,33 @@ public class FolderFilterInfo {
 
 			if (allowedFileFilters!=null) {
 				if (allowedFilePatterns==null) {
-					allowedFilePatterns = wildcardToMatcher(allowedFileFilters);
+					allowedFilePatterns = createMatcher(allowedFileFilters);
 				}
-				if (!matches(name, allowedFilePatterns)) {
+				if (!allowedFilePatterns.matches(name)) {
 					return false;
 				}
 			}
 
 			if (disallowedFileFilters!=null) {
 				if (disallowedFilePatterns==null) {
-					disallowedFilePatterns = wildcardToMatcher(disallowedFileFilters);
+					disallowedFilePatterns = createMatcher(disallowedFileFilters);
 				}
-				if (matches(name, disallowedFilePatterns)) {
+				if (disallowedFilePatterns.matches(name)) {
 					return false;
 				}
 			}
 
 		}
 
-		return true;
-
-	}
-
-
-	/**
-	 * Returns whether a filter can be checked via a string literal.
-	 *
-	 * @param filter The filter.
-	 * @return Whether a string literal comparison can be used for the filter.
-	 */
-	private static boolean isStringLiteral(String filter) {
-		for (int i=0; i<filter.length(); i++) {
-			char ch = filter.charAt(i);
-			if (!(Character.isLetterOrDigit(ch) || ch=='.' || ch==' ' ||
-					ch=='-' || ch=='_')) {
+		if (skipIgnoredFiles) {
+			File parent = file.getParentFile();
+			if (parent!=null && IgnoreRules.forFolder(parent).isIgnored(file, isDir)) {
 				return false;
 			}
 		}
-		return true;
-	}
 
+		return true;
 
-	/**
-	 * Returns whether a file name matches any of an array of name matchers.
-	 *
-	 * @param fileName The file name to check.
-	 * @param matchers The array of matchers to check against.
-	 * @return Whether the file name matched any of the matchers.
-	 */
-	private static boolean matches(String fileName,
-			NameMatcher[] matchers) {
-		for (NameMatcher matcher : matchers) {
-			if (matcher.matches(fileName)) {
-				return true;
-			}
-		}
-		return false;
 	}
 
 
@@ -199,69 +213,16 @@ public class FolderFilterInfo {
 
 
 	/**
-	 * Converts an array of wildcard file filters into an array of matchers
-	 * for them.
+	 * Sets whether files and folders ignored by <code>.gitignore</code> and
+	 * <code>.ignore</code> files are hidden.  Since hidden folders aren't
+	 * descended into, this can greatly speed up walking folders containing
+	 * build output, <code>node_modules</code>, etc.
 	 *
-	 * @param filters The file filters.
-	 * @return The equivalent matchers
+	 * @param skip Whether to hide ignored files.
+	 * @see #isSkipIgnoredFiles()
 	 */
-	private static NameMatcher[] wildcardToMatcher(String[] filters) {
-		NameMatcher[] matchers = null;
-		if (filters!=null && filters.length>0) {
-			matchers = new NameMatcher[filters.length];
-			for (int i=0; i<filters.length; i++) {
-				if (isStringLiteral(filters[i])) {
-					matchers[i] = new StringLiteralNameMatcher(filters[i]);
-				}
-				else {
-					Pattern pattern = RTextUtilities.
-							getPatternForFileFilter(filters[i], true);
-					matchers[i] = new RegexNameMatcher(pattern);
-				}
-			}
-		}
-		return matchers;
-	}
-
-
-	/**
-	 * Returns whether a file name is acceptable by some criteria.
-	 */
-	private interface NameMatcher {
-
-		boolean matches(String text);
-
-	}
-
-
-	/**
-	 * Returns whether a file name matches a regular expression.
-	 *
-	 * @param pattern The pattern to use.
-	 */
-	private record RegexNameMatcher(Pattern pattern) implements NameMatcher {
-
-		@Override
-		public boolean matches(String text) {
-			return pattern.matcher(text).matches();
-		}
-
-	}
-
-
-	/**
-	 * Returns whether a file name matches a string literal.
-	 *
-	 * @param literal The literal to check against.
-	 */
-	private record StringLiteralNameMatcher(String literal) implements NameMatcher {
-
-		@Override
-		public boolean matches(String text) {
-			return OS.get().isCaseSensitive() ?
-					literal.equals(text) : literal.equalsIgnoreCase(text);
-		}
-
+	public void setSkipIgnoredFiles(boolean skip) {
+		this.skipIgnoredFiles = skip;
 	}
 
 
@@ -10,33 +10,14 @@
 package org.fife.rtext.plugins.project.model;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import javax.swing.JOptionPane;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Result;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
-import org.xml.sax.SAXParseException;
-import org.xml.sax.helpers.DefaultHandler;
-
-import org.fife.io.UnicodeReader;
+
+import org.fife.rtext.FileUtil;
 import org.fife.rtext.RText;
-import org.fife.rtext.plugins.project.Messages;
 import org.fife.rtext.plugins.project.ProjectPlugin;
 
 
@@ -147,7 +128,7 @@ public class Workspace implements ModelEntity {
 
 
 	/**
-	 * Loads a workspace from an XML file.
+	 * Loads a workspace from an XML file.  This may be called off the EDT.
 	 *
 	 * @param plugin The project plugin.
 	 * @param file The XML file.
@@ -155,61 +136,7 @@ public class Workspace implements ModelEntity {
 	 * @throws IOException If an IO error occurs.
 	 */
 	public static Workspace load(ProjectPlugin plugin, File file) throws IOException {
-
-		Document doc = loadXmlRepresentation(file);
-		Element root = doc.getDocumentElement();
-		Workspace workspace = new Workspace(plugin, file);
-
-		NodeList children = root.getElementsByTagName("projects");
-		Element projectsElem = (Element)children.item(0);
-		NodeList projElemList = projectsElem.getElementsByTagName("project");
-		for (int i=0; i<projElemList.getLength(); i++) {
-			Element projElem = (Element)projElemList.item(i);
-			String name = projElem.getAttribute("name");
-			Project project = new Project(workspace, name);
-			workspace.addProject(project);
-			recursivelyAddChildren(projElem, project);
-		}
-
-		return workspace;
-
-	}
-
-
-	/**
-	 * Loads an XML file into a DOM structure, validating against the workspace
-	 * DTD.
-	 *
-	 * @param file the XML file.
-	 * @return The document.
-	 * @throws IOException If an IO error occurs reading the file.
-	 */
-	private static Document loadXmlRepresentation(File file)
-			throws IOException {
-		DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-		dbf.setValidating(true);
-		DocumentBuilder db;
-		Document doc;
-		Handler handler = new Handler();
-		try {
-			db = dbf.newDocumentBuilder();
-			InputSource is = new InputSource(new UnicodeReader(
-								new FileInputStream(file), "UTF-8"));
-			is.setEncoding("UTF-8");
-			db.setEntityResolver(handler);
-			db.setErrorHandler(handler);
-			doc = db.parse(is);
-		} catch (Exception e) {
-			e.printStackTrace();
-			String desc = e.getMessage();
-			if (desc==null) {
-				desc = e.toString();
-			}
-			String text = Messages.getString("ProjectPlugin.XmlError",
-					file.getName(), desc);
-			throw new IOException(text);
-		}
-		return doc;
+		return WorkspaceXmlReader.read(plugin, file);
 	}
 
 
@@ -253,69 +180,6 @@ public class Workspace implements ModelEntity {
 	}
 
 
-	private static String[] parseFilters(String str) {
-		if (str==null || str.trim().isEmpty()) {
-			return null;
-		}
-		return str.trim().split("\\s*,\\s*");
-	}
-
-
-	/**
-	 * Recursively adds project entry nodes to a project entry parent node.
-	 *
-	 * @param parentElem The parent node's XML element.
-	 * @param parent The parent node.
-	 */
-	private static void recursivelyAddChildren(Element parentElem,
-			ProjectEntryParent parent) {
-
-		NodeList childNodes = parentElem.getChildNodes();
-		for (int j=0; j<childNodes.getLength(); j++) {
-
-			Node childNode = childNodes.item(j);
-			if (childNode.getNodeType()==Node.ELEMENT_NODE) {
-
-				Element childElem = (Element)childNode;
-				String tag = childElem.getNodeName();
-				ProjectEntry entry = null;
-
-				if (ProjectEntry.DIR_PROJECT_ENTRY.equals(tag)) {
-					File folder = new File(childElem.getAttribute("path"));
-					entry = new FolderProjectEntry(parent, folder);
-					String displayName = childElem.getAttribute("name");
-					if (displayName!=null && displayName.length()>0) {
-						((FolderProjectEntry)entry).setDisplayName(displayName);
-					}
-					String temp = childElem.getAttribute("displayed-files");
-					String[] displayedFiles = parseFilters(temp);
-					temp = childElem.getAttribute("hidden-files");
-					String[] hiddenFiles = parseFilters(temp);
-					temp = childElem.getAttribute("hidden-folders");
-					String[] hiddenFolders = parseFilters(temp);
-					FolderFilterInfo info = new FolderFilterInfo(displayedFiles,
-							hiddenFiles, hiddenFolders);
-					((FolderProjectEntry)entry).setFilterInfo(info);
-				}
-				else if (ProjectEntry.FILE_PROJECT_ENTRY.equals(tag)) {
-					File file = new File(childElem.getAttribute("path"));
-					entry = new FileProjectEntry(parent, file);
-				}
-				else if (ProjectEntry.LOGICAL_DIR_PROJECT_ENTRY.equals(tag)) {
-					String dirName = childElem.getAttribute("name");
-					entry = new LogicalFolderProjectEntry(parent, dirName);
-					recursivelyAddChildren(childElem, (ProjectEntryParent)entry);
-				}
-
-				parent.addEntry(entry);
-
-			}
-
-		}
-
-	}
-
-
 	/**
 	 * Removes a project from this workspace.
 	 *
@@ -337,39 +201,19 @@ public class Workspace implements ModelEntity {
 
 
 	private void saveImpl(File loc) throws IOException {
-
-		// Sanity check, folders may be deleted out from under us
-		File parentDir = loc.getParentFile();
-		if (!parentDir.exists()) {
-			parentDir.mkdirs();
-		}
-
-		DOMModelCreator domCreator = new DOMModelCreator();
-		accept(domCreator);
-		Document doc = domCreator.getDocument();
-
-		Result result = new StreamResult(loc);
-		Transformer t;
-		try {
-			t = TransformerFactory.newInstance().newTransformer();
-			t.setOutputProperty(OutputKeys.INDENT, "yes");
-			t.setOutputProperty("{http://xml.apache.org/xslt}indent-amount", "2");
-			t.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-			t.setOutputProperty(OutputKeys.DOCTYPE_SYSTEM, "rtext-workspace.dtd");
-			t.transform(new DOMSource(doc), result);
-		} catch (TransformerException te) {
-			throw new IOException(te.getMessage());
-		}
-
+		write(loc, toXml());
 	}
 
 
 	/**
-	 * Gives this workspace a new name.  Immediately creates a new XML file
-	 * in the same directory containing the previous workspace file.
+	 * Gives this workspace a new name.  Its file becomes an XML file with
+	 * that name, in the same directory as the previous workspace file.
+	 * Nothing is written here; the caller should have the workspace saved,
+	 * e.g. via {@link ProjectPlugin#workspaceRenamed(File)}.
 	 *
 	 * @param name The new workspace name.
-	 * @return Whether the operation was successful.
+	 * @return Whether the workspace was renamed.  This is {@code false} if
+	 *         the user chose not to replace an existing file.
 	 */
 	public boolean setName(String name) {
 
@@ -383,45 +227,53 @@ public class Workspace implements ModelEntity {
 			int rc = JOptionPane.showConfirmDialog(rtext, msg, title,
 					JOptionPane.YES_NO_OPTION, JOptionPane.QUESTION_MESSAGE);
 			if (rc!=JOptionPane.YES_OPTION) {
-				// Bail early, but don't give an error message by returning
-				// false
-				return true;
+				return false;
 			}
 		}
 
-		// If a save in the new location is successful, remember our new file
-		// name and location.
-		try {
-			saveImpl(tempFile);
-			file.delete(); // Don't leave outdated workspace files laying around
-			file = tempFile;
-			this.name = name;
-		} catch (IOException ioe) {
-			rtext.displayException(ioe);
-			return false;
-		}
-
+		file = tempFile;
+		this.name = name;
 		return true;
 
 	}
 
 
 	/**
-	 * Resolves entities and handles errors while parsing workspace XML.
+	 * Returns the XML representation of this workspace, as it would be
+	 * saved.  This is quick, even for large workspaces, so it can be
+	 * called on the EDT to take a snapshot of the workspace to save in the
+	 * background.
+	 *
+	 * @return The XML, encoded in UTF-8.
+	 * @throws IOException If an error occurs generating the XML.
+	 * @see #write(File, byte[])
 	 */
-	private static final class Handler extends DefaultHandler {
+	public byte[] toXml() throws IOException {
+		WorkspaceXmlWriter writer = new WorkspaceXmlWriter();
+		accept(writer);
+		return writer.getXml();
+	}
 
-		@Override
-		public void error(SAXParseException e) throws SAXException {
-			throw e;
-		}
 
-		@Override
-		public InputSource resolveEntity(String publicID,  String systemID) {
-			return new InputSource(getClass().
-					getResourceAsStream("rtext-workspace-1.0.dtd"));
+	/**
+	 * Atomically writes a workspace's XML to a file.  Readers of the file
+	 * will see either its old contents or the complete new contents, never
+	 * a partially-written file.  This may be called off the EDT.
+	 *
+	 * @param file The file to write to.
+	 * @param xml The XML, as returned by {@link #toXml()}.
+	 * @throws IOException If an IO error occurs.
+	 */
+	public static void write(File file, byte[] xml) throws IOException {
+
+		// Sanity check, folders may be deleted out from under us
+		File parentDir = file.getParentFile();
+		if (!parentDir.exists()) {
+			parentDir.mkdirs();
 		}
 
+		FileUtil.writeAtomically(file, out -> out.write(xml));
+
 	}
 
 
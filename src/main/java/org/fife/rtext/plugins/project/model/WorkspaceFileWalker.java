@@ -0,0 +1,337 @@
+/*
+ * 10/19/2026
+ *
+ * WorkspaceFileWalker.java - Walks all files contained in a workspace.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project.model;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Walks every file contained in a workspace, honoring the
+ * {@link FolderFilterInfo} of each folder project entry.<p>
+ *
+ * The workspace's structure is captured when this object is created, which
+ * should be done on the EDT since the workspace model is not thread-safe.
+ * After that, {@link #walk(FileHandler)} may be called from any thread, and
+ * typically is called from a background thread since it hits the file
+ * system.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+public class WorkspaceFileWalker {
+
+	private final List<Root> roots;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param workspace The workspace whose files should be walked.
+	 */
+	public WorkspaceFileWalker(Workspace workspace) {
+		roots = new ArrayList<>();
+		workspace.accept(new RootCollector());
+	}
+
+
+	/**
+	 * Returns the filters of a folder project entry, as they were when this
+	 * walker was created.
+	 *
+	 * @param rootFolder One of the folders returned by
+	 *        {@link #getRootFolders()}.
+	 * @return The key of the folder's filters, as returned by
+	 *         {@link FolderFilterInfo#getFiltersKey()}, or {@code null} if
+	 *         the folder isn't a root folder.
+	 */
+	public String getFiltersKey(File rootFolder) {
+		for (Root root : roots) {
+			if (root.filterInfo()!=null && root.file().equals(rootFolder)) {
+				return root.filtersKey();
+			}
+		}
+		return null;
+	}
+
+
+	/**
+	 * Returns the folders at the top of this workspace's folder project
+	 * entries.
+	 *
+	 * @return The root folders.  This may be empty but will never be
+	 *         {@code null}.
+	 */
+	public List<File> getRootFolders() {
+		List<File> folders = new ArrayList<>();
+		for (Root root : roots) {
+			if (root.filterInfo()!=null) {
+				folders.add(root.file());
+			}
+		}
+		return Collections.unmodifiableList(folders);
+	}
+
+
+	/**
+	 * Returns whether a file is part of this workspace, i.e. whether it would
+	 * be returned by {@link #walk(FileHandler)}.  This does not hit the file
+	 * system other than to check whether {@code file} is a directory.
+	 *
+	 * @param file The file to check.
+	 * @return Whether the file is in this workspace.
+	 */
+	public boolean isIncluded(File file) {
+
+		file = file.getAbsoluteFile();
+		boolean isDir = file.isDirectory();
+
+		for (Root root : roots) {
+
+			FolderFilterInfo info = root.filterInfo();
+			if (info==null) {
+				if (root.file().equals(file)) {
+					return true;
+				}
+				continue;
+			}
+
+			String rootPath = root.file().getAbsolutePath();
+			String path = file.getAbsolutePath();
+			if (!path.startsWith(rootPath) || path.length()==rootPath.length() ||
+					path.charAt(rootPath.length())!=File.separatorChar) {
+				continue;
+			}
+
+			// Check the file itself, then each of its parent folders below
+			// the root.
+			boolean allowed = info.isAllowed(file, isDir);
+			File parent = file.getParentFile();
+			while (allowed && parent!=null && !parent.equals(root.file())) {
+				allowed = info.isAllowed(parent, true);
+				parent = parent.getParentFile();
+			}
+			if (allowed) {
+				return true;
+			}
+
+		}
+
+		return false;
+
+	}
+
+
+	/**
+	 * Walks all files in the workspace.  This method returns early if the
+	 * calling thread is interrupted, or if the handler asks it to stop.
+	 *
+	 * @param handler The callback for each file found.
+	 * @return Whether the walk ran to completion.
+	 */
+	public boolean walk(FileHandler handler) {
+
+		for (Root root : roots) {
+
+			if (Thread.currentThread().isInterrupted()) {
+				return false;
+			}
+
+			FolderFilterInfo info = root.filterInfo();
+			Path path = root.file().toPath();
+
+			if (info==null) { // A single file
+				try {
+					BasicFileAttributes attrs = Files.readAttributes(path,
+							BasicFileAttributes.class);
+					if (attrs.isRegularFile() && !handler.handleFile(path, attrs)) {
+						return false;
+					}
+				} catch (IOException ioe) {
+					// File was deleted out from under us; just skip it
+				}
+				continue;
+			}
+
+			FilteringVisitor visitor = new FilteringVisitor(path, info, handler);
+			try {
+				Files.walkFileTree(path, visitor);
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+			}
+			if (visitor.stopped) {
+				return false;
+			}
+
+		}
+
+		return true;
+
+	}
+
+
+	/**
+	 * A callback for each file found while walking a workspace.
+	 */
+	public interface FileHandler {
+
+		/**
+		 * Called for each regular file in the workspace.
+		 *
+		 * @param file The file.
+		 * @param attrs The file's attributes.
+		 * @return Whether to keep walking the workspace.
+		 */
+		boolean handleFile(Path file, BasicFileAttributes attrs);
+
+		/**
+		 * Called for each folder in the workspace, other than the root
+		 * folders of folder project entries, before any of its contents.
+		 * The default implementation does nothing.
+		 *
+		 * @param dir The folder.
+		 * @param attrs The folder's attributes.
+		 */
+		default void handleFolder(Path dir, BasicFileAttributes attrs) {
+			// Do nothing
+		}
+
+	}
+
+
+	/**
+	 * A file visitor that skips anything not allowed by a folder's filters.
+	 */
+	private static final class FilteringVisitor extends SimpleFileVisitor<Path> {
+
+		private final Path root;
+		private final FolderFilterInfo info;
+		private final FileHandler handler;
+		private boolean stopped;
+
+		private FilteringVisitor(Path root, FolderFilterInfo info,
+				FileHandler handler) {
+			this.root = root;
+			this.info = info;
+			this.handler = handler;
+		}
+
+		@Override
+		public FileVisitResult preVisitDirectory(Path dir,
+				BasicFileAttributes attrs) {
+			if (Thread.currentThread().isInterrupted()) {
+				stopped = true;
+				return FileVisitResult.TERMINATE;
+			}
+			if (!dir.equals(root)) {
+				if (!info.isAllowed(dir.toFile(), true)) {
+					return FileVisitResult.SKIP_SUBTREE;
+				}
+				handler.handleFolder(dir, attrs);
+			}
+			return FileVisitResult.CONTINUE;
+		}
+
+		@Override
+		public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+			if (attrs.isRegularFile() && info.isAllowed(file.toFile(), false)) {
+				if (!handler.handleFile(file, attrs)) {
+					stopped = true;
+					return FileVisitResult.TERMINATE;
+				}
+			}
+			return FileVisitResult.CONTINUE;
+		}
+
+		@Override
+		public FileVisitResult visitFileFailed(Path file, IOException e) {
+			// Permission denied, deleted while walking, etc.
+			return FileVisitResult.CONTINUE;
+		}
+
+	}
+
+
+	/**
+	 * A file or folder at the top of a project entry, and the filters to
+	 * apply to its children.
+	 *
+	 * @param file The file or folder.
+	 * @param filterInfo The filters for a folder, or {@code null} if
+	 *        {@code file} is a single file.
+	 * @param filtersKey The key of the folder's filters when this walker
+	 *        was created, or {@code null} if {@code file} is a single file.
+	 */
+	private record Root(File file, FolderFilterInfo filterInfo,
+			String filtersKey) {
+	}
+
+
+	/**
+	 * Gathers the files and folders that are the roots of the walk.
+	 */
+	private final class RootCollector implements WorkspaceVisitor {
+
+		@Override
+		public void postVisit(Workspace workspace) {
+		}
+
+		@Override
+		public void postVisit(Project project) {
+		}
+
+		@Override
+		public void postVisit(FileProjectEntry entry) {
+		}
+
+		@Override
+		public void postVisit(FolderProjectEntry entry) {
+		}
+
+		@Override
+		public void postVisit(LogicalFolderProjectEntry entry) {
+		}
+
+		@Override
+		public void visit(Workspace workspace) {
+		}
+
+		@Override
+		public void visit(Project project) {
+		}
+
+		@Override
+		public void visit(FileProjectEntry entry) {
+			roots.add(new Root(entry.getFile().getAbsoluteFile(), null, null));
+		}
+
+		@Override
+		public void visit(FolderProjectEntry entry) {
+			FolderFilterInfo info = entry.getFilterInfo();
+			roots.add(new Root(entry.getFile().getAbsoluteFile(), info,
+					info.getFiltersKey()));
+		}
+
+		@Override
+		public void visit(LogicalFolderProjectEntry entry) {
+		}
+
+	}
+
+
+}
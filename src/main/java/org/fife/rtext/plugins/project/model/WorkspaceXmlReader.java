@@ -0,0 +1,233 @@
+/*
+ * 10/19/2026
+ *
+ * WorkspaceXmlReader.java - Streams a workspace in from XML.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project.model;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.fife.io.UnicodeReader;
+import org.fife.rtext.plugins.project.Messages;
+import org.fife.rtext.plugins.project.ProjectPlugin;
+
+
+/**
+ * Reads a workspace from XML.  The file is parsed as a stream, with the
+ * workspace model built as elements are read, so large workspaces don't
+ * need an intermediate DOM.  The structure of the file is checked as it is
+ * read, in place of validating against the workspace DTD.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see WorkspaceXmlWriter
+ */
+final class WorkspaceXmlReader {
+
+	private final ProjectPlugin plugin;
+	private final File file;
+	private final XMLStreamReader r;
+
+
+	private WorkspaceXmlReader(ProjectPlugin plugin, File file,
+			XMLStreamReader r) {
+		this.plugin = plugin;
+		this.file = file;
+		this.r = r;
+	}
+
+
+	private static XMLInputFactory createInputFactory() {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES,
+				Boolean.FALSE);
+		return factory;
+	}
+
+
+	private String getAttribute(String name) {
+		return r.getAttributeValue(null, name);
+	}
+
+
+	private String getRequiredAttribute(String name) throws XMLStreamException {
+		String value = getAttribute(name);
+		if (value==null) {
+			throw new XMLStreamException("Element '" + r.getLocalName() +
+					"' is missing required attribute '" + name + "'",
+					r.getLocation());
+		}
+		return value;
+	}
+
+
+	private static String[] parseFilters(String str) {
+		if (str==null || str.trim().isEmpty()) {
+			return null;
+		}
+		return str.trim().split("\\s*,\\s*");
+	}
+
+
+	/**
+	 * Loads a workspace from an XML file.
+	 *
+	 * @param plugin The project plugin.
+	 * @param file The XML file.
+	 * @return The workspace.
+	 * @throws IOException If an IO error occurs, or the file is not a valid
+	 *         workspace file.
+	 */
+	static Workspace read(ProjectPlugin plugin, File file) throws IOException {
+
+		try (Reader in = new UnicodeReader(new FileInputStream(file), "UTF-8")) {
+			XMLStreamReader r = createInputFactory().createXMLStreamReader(in);
+			try {
+				return new WorkspaceXmlReader(plugin, file, r).readWorkspace();
+			} finally {
+				r.close();
+			}
+		} catch (XMLStreamException e) {
+			e.printStackTrace();
+			String desc = e.getMessage();
+			if (desc==null) {
+				desc = e.toString();
+			}
+			String text = Messages.getString("ProjectPlugin.XmlError",
+					file.getName(), desc);
+			throw new IOException(text, e);
+		}
+
+	}
+
+
+	/**
+	 * Reads a folder project entry from the current element.
+	 *
+	 * @param parent The parent of the entry.
+	 * @return The entry.
+	 * @throws XMLStreamException If a required attribute is missing.
+	 */
+	private FolderProjectEntry readFolder(ProjectEntryParent parent)
+			throws XMLStreamException {
+
+		File folder = new File(getRequiredAttribute("path"));
+		FolderProjectEntry entry = new FolderProjectEntry(parent, folder);
+		String displayName = getAttribute("name");
+		if (displayName!=null && !displayName.isEmpty()) {
+			entry.setDisplayName(displayName);
+		}
+
+		String[] displayedFiles = parseFilters(getAttribute("displayed-files"));
+		String[] hiddenFiles = parseFilters(getAttribute("hidden-files"));
+		String[] hiddenFolders = parseFilters(getAttribute("hidden-folders"));
+		FolderFilterInfo info = new FolderFilterInfo(displayedFiles,
+				hiddenFiles, hiddenFolders);
+		info.setSkipIgnoredFiles(Boolean.parseBoolean(
+				getAttribute("skip-ignored-files")));
+		entry.setFilterInfo(info);
+
+		return entry;
+
+	}
+
+
+	private Workspace readWorkspace() throws XMLStreamException {
+
+		Workspace workspace = null;
+		boolean inProjects = false;
+		Deque<ProjectEntryParent> parents = new ArrayDeque<>();
+
+		while (r.hasNext()) {
+
+			switch (r.next()) {
+
+				case XMLStreamConstants.START_ELEMENT -> {
+					String tag = r.getLocalName();
+					ProjectEntryParent parent = parents.peek();
+					if (workspace==null) {
+						if (!"workspace".equals(tag)) {
+							throw unexpectedElement();
+						}
+						workspace = new Workspace(plugin, file);
+					}
+					else if (!inProjects) {
+						if (!"projects".equals(tag)) {
+							throw unexpectedElement();
+						}
+						inProjects = true;
+					}
+					else if ("project".equals(tag) && parent==null) {
+						Project project = new Project(workspace,
+								getRequiredAttribute("name"));
+						workspace.addProject(project);
+						parents.push(project);
+					}
+					else if (parent==null) {
+						throw unexpectedElement();
+					}
+					else {
+						switch (tag) {
+							case ProjectEntry.DIR_PROJECT_ENTRY ->
+								parent.addEntry(readFolder(parent));
+							case ProjectEntry.FILE_PROJECT_ENTRY -> {
+								File f = new File(getRequiredAttribute("path"));
+								parent.addEntry(new FileProjectEntry(parent, f));
+							}
+							case ProjectEntry.LOGICAL_DIR_PROJECT_ENTRY -> {
+								LogicalFolderProjectEntry entry =
+									new LogicalFolderProjectEntry(parent,
+											getRequiredAttribute("name"));
+								parent.addEntry(entry);
+								parents.push(entry);
+							}
+							default -> throw unexpectedElement();
+						}
+					}
+				}
+
+				case XMLStreamConstants.END_ELEMENT -> {
+					String tag = r.getLocalName();
+					if ("project".equals(tag) ||
+							ProjectEntry.LOGICAL_DIR_PROJECT_ENTRY.equals(tag)) {
+						parents.pop();
+					}
+				}
+
+				default -> {
+					// Whitespace, comments, the DOCTYPE, etc.
+				}
+
+			}
+
+		}
+
+		if (!inProjects) {
+			throw new XMLStreamException("Not a workspace file", r.getLocation());
+		}
+		return workspace;
+
+	}
+
+
+	private XMLStreamException unexpectedElement() {
+		return new XMLStreamException("Unexpected element: " + r.getLocalName(),
+				r.getLocation());
+	}
+
+
+}
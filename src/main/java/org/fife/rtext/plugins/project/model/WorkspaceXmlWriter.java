@@ -0,0 +1,229 @@
+/*
+ * 10/19/2026
+ *
+ * WorkspaceXmlWriter.java - Streams a workspace out as XML.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project.model;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.fife.rtext.RTextUtilities;
+
+
+/**
+ * Writes a workspace as XML.  Elements are streamed out as the workspace is
+ * visited, so no intermediate DOM is built.  The output is indented the
+ * same way previous versions of RText indented workspace files.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see WorkspaceXmlReader
+ */
+class WorkspaceXmlWriter implements WorkspaceVisitor {
+
+	private final ByteArrayOutputStream out;
+	private final XMLStreamWriter w;
+	private int depth;
+	private XMLStreamException error;
+
+	private static final String INDENT = "  ";
+
+
+	WorkspaceXmlWriter() throws IOException {
+		out = new ByteArrayOutputStream();
+		try {
+			w = XMLOutputFactory.newInstance().createXMLStreamWriter(out,
+					StandardCharsets.UTF_8.name());
+		} catch (XMLStreamException xse) {
+			throw new IOException(xse.getMessage(), xse);
+		}
+	}
+
+
+	/**
+	 * Returns the generated XML.
+	 *
+	 * @return The XML, encoded in UTF-8.
+	 * @throws IOException If an error occurred generating the XML.
+	 */
+	public byte[] getXml() throws IOException {
+		if (error!=null) {
+			throw new IOException(error.getMessage(), error);
+		}
+		return out.toByteArray();
+	}
+
+
+	private void indent() throws XMLStreamException {
+		w.writeCharacters("\n");
+		for (int i=0; i<depth; i++) {
+			w.writeCharacters(INDENT);
+		}
+	}
+
+
+	@Override
+	public void postVisit(Workspace workspace) {
+		try {
+			writeEndElement(); // projects
+			writeEndElement(); // workspace
+			w.writeCharacters("\n");
+			w.writeEndDocument();
+			w.close();
+		} catch (XMLStreamException xse) {
+			setError(xse);
+		}
+	}
+
+
+	@Override
+	public void postVisit(Project project) {
+		if (project.getEntryIterator().hasNext()) {
+			writeEndElement();
+		}
+	}
+
+
+	@Override
+	public void postVisit(FileProjectEntry entry) {
+	}
+
+
+	@Override
+	public void postVisit(FolderProjectEntry entry) {
+	}
+
+
+	@Override
+	public void postVisit(LogicalFolderProjectEntry entry) {
+		if (entry.getEntryIterator().hasNext()) {
+			writeEndElement();
+		}
+	}
+
+
+	private void setError(XMLStreamException xse) {
+		if (error==null) {
+			error = xse;
+		}
+	}
+
+
+	@Override
+	public void visit(Workspace workspace) {
+		try {
+			w.writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+			w.writeCharacters("\n");
+			// The DTD isn't used to read workspaces, but documents their
+			// format, so it must be kept up to date with what's written here.
+			w.writeDTD("<!DOCTYPE workspace SYSTEM \"rtext-workspace-1.0.dtd\">");
+		} catch (XMLStreamException xse) {
+			setError(xse);
+		}
+		writeStartElement("workspace", false);
+		writeStartElement("projects", false);
+	}
+
+
+	@Override
+	public void visit(Project project) {
+		if (writeStartElement("project", !project.getEntryIterator().hasNext())) {
+			writeAttribute("name", project.getName());
+		}
+	}
+
+
+	@Override
+	public void visit(FileProjectEntry entry) {
+		if (writeStartElement(entry.getType(), true)) {
+			writeAttribute("path", entry.getSaveData());
+		}
+	}
+
+
+	@Override
+	public void visit(FolderProjectEntry entry) {
+		if (writeStartElement(entry.getType(), true)) {
+			FolderFilterInfo info = entry.getFilterInfo();
+			writeAttribute("displayed-files",
+					RTextUtilities.join(info.getAllowedFileFilters()));
+			writeAttribute("hidden-files",
+					RTextUtilities.join(info.getHiddenFileFilters()));
+			writeAttribute("hidden-folders",
+					RTextUtilities.join(info.getHiddenFolderFilters()));
+			writeAttribute("name", entry.getDisplayName());
+			writeAttribute("path", entry.getSaveData());
+			writeAttribute("skip-ignored-files",
+					Boolean.toString(info.isSkipIgnoredFiles()));
+		}
+	}
+
+
+	@Override
+	public void visit(LogicalFolderProjectEntry entry) {
+		if (writeStartElement(entry.getType(), !entry.getEntryIterator().hasNext())) {
+			writeAttribute("name", entry.getSaveData());
+		}
+	}
+
+
+	private void writeAttribute(String name, String value) {
+		try {
+			w.writeAttribute(name, value==null ? "" : value);
+		} catch (XMLStreamException xse) {
+			setError(xse);
+		}
+	}
+
+
+	private void writeEndElement() {
+		try {
+			depth--;
+			indent();
+			w.writeEndElement();
+		} catch (XMLStreamException xse) {
+			setError(xse);
+		}
+	}
+
+
+	/**
+	 * Writes the start of an element on a new line.
+	 *
+	 * @param name The element name.
+	 * @param empty Whether the element has no children.
+	 * @return Whether the element was written successfully.
+	 */
+	private boolean writeStartElement(String name, boolean empty) {
+		try {
+			if (depth>0) {
+				indent();
+			}
+			else {
+				w.writeCharacters("\n");
+			}
+			if (empty) {
+				w.writeEmptyElement(name);
+			}
+			else {
+				w.writeStartElement(name);
+				depth++;
+			}
+			return true;
+		} catch (XMLStreamException xse) {
+			setError(xse);
+			return false;
+		}
+	}
+
+
+}
@@ -205,6 +205,7 @@ public abstract class AbstractWorkspaceTreeNode extends DefaultMutableTreeNode {
 						new FileProjectEntryTreeNode(plugin, entry);
 					plugin.insertTreeNodeInto(childNode, node);
 				}
+				plugin.workspaceModified();
 			}
 		}
 
@@ -241,6 +242,7 @@ public abstract class AbstractWorkspaceTreeNode extends DefaultMutableTreeNode {
 						new FolderProjectEntryTreeNode(plugin, entry);
 				childNode.setFilterInfo(chooser.getFilterInfo());
 				plugin.insertTreeNodeInto(childNode, node);
+				plugin.workspaceModified();
 			}
 		}
 
@@ -287,6 +289,7 @@ public abstract class AbstractWorkspaceTreeNode extends DefaultMutableTreeNode {
 				MutableTreeNode child =
 						new LogicalFolderProjectEntryTreeNode(plugin, entry);
 				plugin.insertTreeNodeInto(child, this.node);
+				plugin.workspaceModified();
 			}
 		}
 
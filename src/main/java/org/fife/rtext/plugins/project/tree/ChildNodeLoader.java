@@ -0,0 +1,216 @@
+/*
+ * 10/19/2026
+ *
+ * ChildNodeLoader.java - Lists folders and creates their child tree nodes.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.project.tree;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import javax.swing.SwingUtilities;
+
+import org.fife.rtext.ThreadUtil;
+import org.fife.rtext.plugins.project.ProjectPlugin;
+import org.fife.rtext.plugins.project.index.FileCatalog;
+import org.fife.rtext.plugins.project.model.FolderFilterInfo;
+
+
+/**
+ * Lists the contents of folders and creates tree nodes for them.<p>
+ *
+ * If the workspace's {@link FileCatalog} has an up to date listing of a
+ * folder, the folder's contents are taken from it, and only the folder
+ * itself is checked on disk.  Otherwise, each
+ * folder is listed in a single pass, reading each child's attributes along
+ * with its name rather than hitting the file system again for every child
+ * to see whether it's a directory.  Folders can also be loaded on a
+ * background thread, so that expanding a huge folder or one on a slow
+ * network share doesn't freeze the UI.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class ChildNodeLoader {
+
+	/**
+	 * A few threads, so one slow or hung network folder doesn't keep other
+	 * folders from loading.
+	 */
+	private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(3,
+			ThreadUtil.createThreadFactory("RText Workspace Tree Loader"));
+
+
+	/**
+	 * Private constructor to prevent instantiation.
+	 */
+	private ChildNodeLoader() {
+		// Do nothing
+	}
+
+
+	/**
+	 * Lists a folder and creates tree nodes for the children not filtered
+	 * out.  Folders are sorted before files.  Since the returned nodes are
+	 * not yet part of any tree, this method can be called off the EDT.
+	 *
+	 * @param plugin The project plugin.
+	 * @param dir The folder to list.
+	 * @param filterInfo How to filter the folder's children.  This may be
+	 *        {@code null} if no filtering is to be done.
+	 * @param catalog If non-{@code null} and it has a current listing of
+	 *        the folder, the folder's contents are taken from this catalog
+	 *        instead of the file system.
+	 * @return The child nodes.  If the folder cannot be read, this will be
+	 *         empty.
+	 */
+	static List<FileTreeNode> createChildNodes(ProjectPlugin plugin, File dir,
+			FolderFilterInfo filterInfo, FileCatalog catalog) {
+
+		List<File> dirList = new ArrayList<>();
+		List<File> fileList = new ArrayList<>();
+
+		int[] catalogued = catalog!=null &&
+				isListingCurrent(catalog, dir, filterInfo) ?
+				catalog.getChildren(dir) : null;
+		if (catalogued!=null) {
+			for (int index : catalogued) {
+				File file = new File(catalog.getPath(index));
+				boolean isDir = catalog.isFolder(index);
+				// The folder's filters may have changed since it was
+				// catalogued
+				if (filterInfo==null || filterInfo.isAllowed(file, isDir)) {
+					if (isDir) {
+						dirList.add(file);
+					}
+					else {
+						fileList.add(file);
+					}
+				}
+			}
+			return createChildNodes(plugin, dirList, fileList, filterInfo);
+		}
+
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir.toPath())) {
+			for (Path child : stream) {
+				boolean isDir;
+				try {
+					isDir = Files.readAttributes(child,
+							BasicFileAttributes.class).isDirectory();
+				} catch (IOException ioe) {
+					// e.g. a broken symlink, or deleted while listing
+					continue;
+				}
+				File file = child.toFile();
+				if (filterInfo==null || filterInfo.isAllowed(file, isDir)) {
+					if (isDir) {
+						dirList.add(file);
+					}
+					else {
+						fileList.add(file);
+					}
+				}
+			}
+		} catch (IOException ioe) {
+			// Folder deleted, permission denied, etc.
+			return Collections.emptyList();
+		}
+
+		return createChildNodes(plugin, dirList, fileList, filterInfo);
+
+	}
+
+
+	/**
+	 * Sorts the children of a folder, and creates tree nodes for them.
+	 *
+	 * @param plugin The project plugin.
+	 * @param dirList The sub-folders.  This list is sorted in place.
+	 * @param fileList The files.  This list is sorted in place.
+	 * @param filterInfo How the folder's children are filtered.
+	 * @return The child nodes, folders first.
+	 */
+	private static List<FileTreeNode> createChildNodes(ProjectPlugin plugin,
+			List<File> dirList, List<File> fileList, FolderFilterInfo filterInfo) {
+
+		Collections.sort(dirList);
+		Collections.sort(fileList);
+
+		List<FileTreeNode> nodes = new ArrayList<>(dirList.size() + fileList.size());
+		for (File d : dirList) {
+			FileTreeNode node = new FileTreeNode(plugin, d, true);
+			node.setFilterInfo(filterInfo);
+			nodes.add(node);
+		}
+		for (File f : fileList) {
+			nodes.add(new FileTreeNode(plugin, f, false));
+		}
+		return nodes;
+
+	}
+
+
+	/**
+	 * Returns whether a catalog's listing of a folder is still accurate.
+	 * Creating, deleting or renaming anything in a folder updates the
+	 * folder's modification time, so only the folder itself is checked.
+	 * The folder must also have been catalogued with the same filters it
+	 * is now shown with, since files excluded by older filters won't be
+	 * in the catalog.
+	 *
+	 * @param catalog The catalog.
+	 * @param dir The folder.
+	 * @param filterInfo How the folder's children are filtered.
+	 * @return Whether the catalog lists the folder's current contents.
+	 */
+	private static boolean isListingCurrent(FileCatalog catalog, File dir,
+			FolderFilterInfo filterInfo) {
+		String path = dir.getAbsolutePath();
+		if (filterInfo==null ||
+				!catalog.isListedWithFilters(path, filterInfo.getFiltersKey())) {
+			return false;
+		}
+		int index = catalog.indexOf(path);
+		return index>-1 && catalog.isFolder(index) &&
+				catalog.getLastModified(index)==dir.lastModified();
+	}
+
+
+	/**
+	 * Creates the child nodes of a tree node on a background thread.
+	 *
+	 * @param node The node whose children should be loaded.
+	 * @param catalog If non-{@code null}, the catalog to take the node's
+	 *        children from rather than the file system.
+	 * @param callback Receives the child nodes on the EDT.
+	 */
+	static void loadInBackground(PhysicalLocationTreeNode node,
+			FileCatalog catalog, Consumer<List<FileTreeNode>> callback) {
+		EXECUTOR.execute(() -> {
+			List<FileTreeNode> children;
+			try {
+				children = node.createChildNodes(catalog);
+			} catch (RuntimeException re) {
+				re.printStackTrace();
+				children = Collections.emptyList();
+			}
+			List<FileTreeNode> result = children;
+			SwingUtilities.invokeLater(() -> callback.accept(result));
+		});
+	}
+
+
+}
@@ -131,9 +131,14 @@ public class FileProjectEntryTreeNode extends ProjectEntryTreeNode {
 				JOptionPane.showMessageDialog(rtext, text, title,
 						JOptionPane.ERROR_MESSAGE);
 			}
+			else {
+				plugin.getSymbolIndexer().filesRemoved(entry.getFile());
+				plugin.getFileCataloger().filesRemoved(entry.getFile());
+			}
 			entry.removeFromParent();
 			removeFromParent();
 			plugin.refreshTree(getParent());
+			plugin.workspaceModified();
 		}
 
 	}
@@ -166,6 +171,7 @@ public class FileProjectEntryTreeNode extends ProjectEntryTreeNode {
 		String newName = dialog.getFileName();
 		if (newName!=null) {
 			handleRenameImpl(newName);
+			plugin.workspaceModified();
 		}
 	}
 
@@ -175,6 +181,8 @@ public class FileProjectEntryTreeNode extends ProjectEntryTreeNode {
 		File newFile = new File(old.getParentFile(), newName);
 		boolean success = old.renameTo(newFile);
 		if (success) {
+			plugin.getSymbolIndexer().fileRenamed(old, newFile);
+			plugin.getFileCataloger().fileRenamed(old, newFile);
 			plugin.getTree().nodeChanged(this);
 		}
 		else {
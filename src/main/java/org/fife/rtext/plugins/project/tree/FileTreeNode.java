@@ -12,7 +12,6 @@ package org.fife.rtext.plugins.project.tree;
 import java.awt.Window;
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import javax.swing.Icon;
 import javax.swing.JOptionPane;
@@ -26,6 +25,7 @@ import org.fife.rtext.plugins.project.Messages;
 import org.fife.rtext.plugins.project.PopupContent;
 import org.fife.rtext.plugins.project.ProjectPlugin;
 import org.fife.rtext.plugins.project.RenameDialog;
+import org.fife.rtext.plugins.project.index.FileCatalog;
 import org.fife.rtext.plugins.project.model.FolderFilterInfo;
 import org.fife.ui.UIUtil;
 import org.fife.ui.rtextfilechooser.FileDisplayNames;
@@ -46,63 +46,39 @@ public class FileTreeNode extends AbstractWorkspaceTreeNode
 	 * Only used if this tree node represents a folder.
 	 */
 	private FolderFilterInfo filterInfo;
+	private final boolean folder;
 	private Icon icon;
 
 
 	public FileTreeNode(ProjectPlugin plugin, File file) {
-		super(plugin);
-		setUserObject(file);
-		if (file.isDirectory()) {
-			add(new NotYetPopulatedChild(plugin));
-			filterInfo = new FolderFilterInfo();
-		}
-		icon = FileSystemView.getFileSystemView().getSystemIcon(file);
+		this(plugin, file, file.isDirectory());
 	}
 
 
 	/**
-	 * Filters and sorts the list of child files, and adds child tree nodes
-	 * for the children not filtered out.
+	 * Constructor for callers that already know whether the file is a
+	 * directory, to avoid hitting the file system again.
 	 *
-	 * @param files The array of files to filter, and add (sorted) child tree
-	 *        nodes for those not filtered out.
+	 * @param plugin The project plugin.
+	 * @param file The file or directory.
+	 * @param isDir Whether {@code file} is a directory.
 	 */
-	private void addChildrenFilteredAndSorted(File[] files) {
-
-		ArrayList<File> dirList = new ArrayList<>();
-		ArrayList<File> fileList = new ArrayList<>();
-
-		// First, separate the directories from regular files so we can
-		// sort them individually.  This part could be made more compact,
-		// but it isn't just for a tad more speed.
-		for (File file1 : files) {
-			boolean isDir = file1.isDirectory();
-			if (filterInfo != null && filterInfo.isAllowed(file1, isDir)) {
-				if (isDir)
-					dirList.add(file1);
-				else
-					fileList.add(file1);
-			}
-		}
-
-		Collections.sort(dirList);
-		for (File dir : dirList) {
-			add(createFileTreeNode(dir, true));
-		}
-		Collections.sort(fileList);
-		for (File file : fileList) {
-			add(createFileTreeNode(file, false));
+	FileTreeNode(ProjectPlugin plugin, File file, boolean isDir) {
+		super(plugin);
+		setUserObject(file);
+		folder = isDir;
+		if (isDir) {
+			add(new NotYetPopulatedChild(plugin));
+			filterInfo = new FolderFilterInfo();
 		}
-
+		icon = FileSystemView.getFileSystemView().getSystemIcon(file);
 	}
 
 
-	private FileTreeNode createFileTreeNode(File file, boolean folder) {
-		FileTreeNode ftn = new FileTreeNode(plugin, file);
-		if (folder) {
-			ftn.setFilterInfo(filterInfo);
-		}
-		return ftn;
+	@Override
+	public List<FileTreeNode> createChildNodes(FileCatalog catalog) {
+		return ChildNodeLoader.createChildNodes(plugin, getFile(), filterInfo,
+				catalog);
 	}
 
 
@@ -178,6 +154,17 @@ public class FileTreeNode extends AbstractWorkspaceTreeNode
 	}
 
 
+	/**
+	 * Returns how this node filters its children.
+	 *
+	 * @return How child nodes are filtered.  This may be {@code null}.
+	 * @see #setFilterInfo(FolderFilterInfo)
+	 */
+	FolderFilterInfo getFilterInfo() {
+		return filterInfo;
+	}
+
+
 	@Override
 	public Icon getIcon() {
 		return icon;
@@ -223,6 +210,10 @@ public class FileTreeNode extends AbstractWorkspaceTreeNode
 				JOptionPane.showMessageDialog(rtext, text, title,
 						JOptionPane.ERROR_MESSAGE);
 			}
+			else {
+				plugin.getSymbolIndexer().filesRemoved(file);
+				plugin.getFileCataloger().filesRemoved(file);
+			}
 			plugin.refreshTree(getParent());
 		}
 
@@ -268,6 +259,8 @@ public class FileTreeNode extends AbstractWorkspaceTreeNode
 			File newFile = new File(old.getParentFile(), newName);
 			boolean success = old.renameTo(newFile);
 			if (success) {
+				plugin.getSymbolIndexer().fileRenamed(old, newFile);
+				plugin.getFileCataloger().fileRenamed(old, newFile);
 				setUserObject(newFile);
 				icon = FileSystemView.getFileSystemView().getSystemIcon(newFile);
 				plugin.getTree().nodeChanged(this);
@@ -279,6 +272,17 @@ public class FileTreeNode extends AbstractWorkspaceTreeNode
 	}
 
 
+	/**
+	 * Returns whether this node represents a folder.  This is determined
+	 * when the node is created, so it doesn't hit the file system.
+	 *
+	 * @return Whether this node represents a folder.
+	 */
+	boolean isFolder() {
+		return folder;
+	}
+
+
 	@Override
 	public boolean isNotPopulated() {
 		int childCount = getChildCount();
@@ -290,10 +294,16 @@ public class FileTreeNode extends AbstractWorkspaceTreeNode
 	public void refreshChildren() {
 		File file = getFile();
 		if (file.isDirectory()) { // Should always be true
-			removeAllChildren();
-			FileSystemView fsv = FileSystemView.getFileSystemView();
-			File[] children = fsv.getFiles(file, false);
-			addChildrenFilteredAndSorted(children);
+			setChildNodes(createChildNodes(null));
+		}
+	}
+
+
+	@Override
+	public void setChildNodes(List<FileTreeNode> children) {
+		removeAllChildren();
+		for (FileTreeNode child : children) {
+			add(child);
 		}
 	}
 
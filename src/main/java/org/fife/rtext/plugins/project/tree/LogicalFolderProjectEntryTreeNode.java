@@ -122,6 +122,7 @@ public class LogicalFolderProjectEntryTreeNode extends ProjectEntryTreeNode {
 			LogicalFolderProjectEntry lfpe = (LogicalFolderProjectEntry)entry;
 			lfpe.setName(name);
 			plugin.refreshTree(this);
+			plugin.workspaceModified();
 		}
 	}
 
@@ -21,9 +21,11 @@ import javax.swing.tree.TreeNode;
 
 import org.fife.rtext.RText;
 import org.fife.rtext.plugins.project.BaseAction;
+import org.fife.rtext.plugins.project.Messages;
 import org.fife.rtext.plugins.project.NewFileOrFolderDialog;
 import org.fife.rtext.plugins.project.PopupContent;
 import org.fife.rtext.plugins.project.ProjectPlugin;
+import org.fife.rtext.plugins.project.index.FileCatalog;
 import org.fife.rtext.plugins.project.tree.FileTreeNode.FileNameChecker;
 import org.fife.ui.app.icons.IconGroup;
 
@@ -37,6 +39,20 @@ import org.fife.ui.app.icons.IconGroup;
 public interface PhysicalLocationTreeNode extends TreeNode {
 
 
+	/**
+	 * Lists this node's folder and creates nodes for its children, without
+	 * adding them to this node.  Since this does not modify the tree, it
+	 * may be called off the EDT.
+	 *
+	 * @param catalog If non-{@code null} and it contains this node's folder,
+	 *        the children are taken from this catalog rather than by
+	 *        listing the folder.
+	 * @return The child nodes.
+	 * @see #setChildNodes(List)
+	 */
+	List<FileTreeNode> createChildNodes(FileCatalog catalog);
+
+
 	/**
 	 * Returns the file or folder represented by this node.
 	 *
@@ -75,9 +91,20 @@ public interface PhysicalLocationTreeNode extends TreeNode {
 	void refreshChildren();
 
 
+	/**
+	 * Replaces the child nodes of this node.  The tree model will need to be
+	 * reloaded after making this call.
+	 *
+	 * @param children The new child nodes.
+	 * @see #createChildNodes()
+	 */
+	void setChildNodes(List<FileTreeNode> children);
+
+
 	/**
 	 * Dummy class signifying that this tree node has not yet had its children
-	 * calculated.
+	 * calculated.  It is displayed as a "loading" placeholder while they're
+	 * being loaded in the background.
 	 */
 	class NotYetPopulatedChild extends AbstractWorkspaceTreeNode {
 
@@ -87,7 +114,7 @@ public interface PhysicalLocationTreeNode extends TreeNode {
 
 		@Override
 		public String getDisplayName() {
-			return null;
+			return Messages.getString("ProjectPlugin.Loading");
 		}
 
 		@Override
@@ -60,6 +60,7 @@ abstract class ProjectEntryTreeNode extends AbstractWorkspaceTreeNode {
 		if (rc==JOptionPane.YES_OPTION) {
 			entry.removeFromParent();
 			((DefaultTreeModel)plugin.getTree().getModel()).removeNodeFromParent(this);
+			plugin.workspaceModified();
 		}
 
 	}
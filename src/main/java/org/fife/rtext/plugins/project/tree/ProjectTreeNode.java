@@ -105,6 +105,7 @@ class ProjectTreeNode extends AbstractWorkspaceTreeNode {
 			project.removeFromWorkspace();
 			((DefaultTreeModel)plugin.getTree().getModel()).
 					removeNodeFromParent(this);
+			plugin.workspaceModified();
 		}
 
 	}
@@ -128,6 +129,7 @@ class ProjectTreeNode extends AbstractWorkspaceTreeNode {
 		if (newName!=null) {
 			project.setName(newName);
 			plugin.getTree().nodeChanged(this);
+			plugin.workspaceModified();
 		}
 	}
 
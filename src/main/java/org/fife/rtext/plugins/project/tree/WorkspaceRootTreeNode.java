@@ -96,15 +96,11 @@ public class WorkspaceRootTreeNode extends AbstractWorkspaceTreeNode {
 		dialog.setVisible(true);
 		String newName = dialog.getFileName();
 		if (newName!=null) {
+			File oldFile = new File(workspace.getFileFullPath());
 			if (workspace.setName(newName)) {
 				plugin.getTree().nodeChanged(this);
 				plugin.refreshWorkspaceName();
-			}
-			else {
-				String msg = Messages.getString("ProjectPlugin.ErrorRenamingWorkspace");
-				String title = rtext.getString("ErrorDialogTitle");
-				JOptionPane.showMessageDialog(rtext, msg, title,
-						JOptionPane.ERROR_MESSAGE);
+				plugin.workspaceRenamed(oldFile);
 			}
 		}
 	}
@@ -136,6 +132,7 @@ public class WorkspaceRootTreeNode extends AbstractWorkspaceTreeNode {
 				ProjectTreeNode childNode =
 						new ProjectTreeNode(plugin, project);
 				plugin.insertTreeNodeInto(childNode, WorkspaceRootTreeNode.this);
+				plugin.workspaceModified();
 				// Ensure Workspace root node is expanded when first plugin is
 				// added.
 				plugin.getTree().expandPath(new TreePath(getPath()));
@@ -10,7 +10,6 @@
 package org.fife.rtext.plugins.project.tree;
 
 import java.awt.ComponentOrientation;
-import java.awt.Cursor;
 import java.awt.Point;
 import java.awt.Toolkit;
 import java.awt.datatransfer.StringSelection;
@@ -19,8 +18,18 @@ import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseEvent;
 import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
 
 import javax.swing.AbstractAction;
 import javax.swing.Action;
@@ -42,12 +51,14 @@ import javax.swing.tree.TreeNode;
 import javax.swing.tree.TreePath;
 
 import org.fife.rtext.AbstractMainView;
+import org.fife.rtext.FolderWatcher;
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextActionInfo;
 import org.fife.rtext.plugins.project.Messages;
 import org.fife.rtext.plugins.project.PopupContent;
 import org.fife.rtext.plugins.project.ProjectPlugin;
 import org.fife.rtext.plugins.project.PopupContent.PopupSubMenu;
+import org.fife.rtext.plugins.project.index.FileCatalog;
 import org.fife.rtext.plugins.project.model.Workspace;
 import org.fife.ui.rtextfilechooser.FileSelector;
 
@@ -64,10 +75,33 @@ public class WorkspaceTree extends JTree implements FileSelector {
 	private final DefaultTreeModel model;
 	private JPopupMenu popup;
 
+	/**
+	 * Folder nodes whose children are currently being loaded in the
+	 * background.
+	 */
+	private final Set<PhysicalLocationTreeNode> loadingNodes;
+
+	/**
+	 * Watches the folders of expanded, populated nodes so their children
+	 * stay up to date.  Folders are unwatched when their nodes are
+	 * collapsed, so the number watched stays bounded by what the user has
+	 * open.
+	 */
+	private final FolderWatcher folderWatcher;
+
+	/**
+	 * The populated folder nodes for each watched folder.  The same folder
+	 * may appear in more than one project.
+	 */
+	private final Map<Path, List<PhysicalLocationTreeNode>> watchedNodes;
+
 
 	public WorkspaceTree(ProjectPlugin plugin, Workspace workspace) {
 
 		this.plugin = plugin;
+		loadingNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+		folderWatcher = new FolderWatcher(this::foldersChanged);
+		watchedNodes = new HashMap<>();
 		WorkspaceRootTreeNode root = new WorkspaceRootTreeNode(plugin, workspace);
 		model = new DefaultTreeModel(root);
 		installActions();
@@ -150,6 +184,12 @@ public class WorkspaceTree extends JTree implements FileSelector {
 	 */
 	private void displayPopupMenu(Point p) {
 
+		// Edits to the placeholder for a loading workspace would be lost
+		if (plugin.isWorkspaceLoading()) {
+			UIManager.getLookAndFeel().provideErrorFeedback(this);
+			return;
+		}
+
 		Object selectedNode;
 
 		// Select the tree node at the mouse position.
@@ -214,10 +254,65 @@ public class WorkspaceTree extends JTree implements FileSelector {
 	}
 
 
+	/**
+	 * Called when a node is collapsed.  This method is overridden so that
+	 * the folders of the node and its descendants are no longer watched,
+	 * since they aren't visible.
+	 */
+	@Override
+	public void fireTreeCollapsed(TreePath path) {
+
+		super.fireTreeCollapsed(path);
+
+		TreeNode collapsed = (TreeNode)path.getLastPathComponent();
+		Iterator<Map.Entry<Path, List<PhysicalLocationTreeNode>>> i =
+				watchedNodes.entrySet().iterator();
+		while (i.hasNext()) {
+			Map.Entry<Path, List<PhysicalLocationTreeNode>> entry = i.next();
+			List<PhysicalLocationTreeNode> nodes = entry.getValue();
+			nodes.removeIf(node -> isDescendant(node, collapsed));
+			if (nodes.isEmpty()) {
+				i.remove();
+				folderWatcher.unwatch(entry.getKey());
+			}
+		}
+
+	}
+
+
+	/**
+	 * Called when a node is expanded.  This method is overridden so that
+	 * populated folders that are visible again are watched again.  Since
+	 * they weren't watched while hidden, their children are also refreshed
+	 * in the background.
+	 */
+	@Override
+	public void fireTreeExpanded(TreePath path) {
+
+		super.fireTreeExpanded(path);
+
+		Enumeration<TreePath> expanded = getExpandedDescendants(path);
+		while (expanded!=null && expanded.hasMoreElements()) {
+			Object node = expanded.nextElement().getLastPathComponent();
+			if (node instanceof PhysicalLocationTreeNode pltn &&
+					!pltn.isNotPopulated() && pltn.getFile().isDirectory()) {
+				watch(pltn);
+				ChildNodeLoader.loadInBackground(pltn, null, children -> {
+					if (isInTree(pltn)) {
+						mergeChildren(pltn, children);
+					}
+				});
+			}
+		}
+
+	}
+
+
 	/**
 	 * Called when a node is about to be expanded.  This method is overridden
 	 * so that the node that is being expanded will be populated with its
-	 * subdirectories, if necessary.
+	 * subdirectories, if necessary.  This is done in the background; until
+	 * it completes, the node displays a "loading" placeholder child.
 	 */
 	@Override
 	public void fireTreeWillExpand(TreePath e) throws ExpandVetoException {
@@ -231,14 +326,45 @@ public class WorkspaceTree extends JTree implements FileSelector {
 		// this node with true children yet.
 		if (awtn instanceof PhysicalLocationTreeNode pltn) {
 			if (pltn.isNotPopulated()) {
-				Cursor orig = getCursor();
-				setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
-				try {
-					refreshChildren(pltn);
-				} finally {
-					setCursor(orig);
-				}
+				populateInBackground(pltn);
+			}
+		}
+
+	}
+
+
+	/**
+	 * Called on the EDT when the contents of watched folders change.  Each
+	 * changed folder is re-listed in the background, and the differences
+	 * applied to its tree nodes.
+	 *
+	 * @param dirs The folders that changed.
+	 */
+	private void foldersChanged(Set<Path> dirs) {
+
+		for (Path dir : dirs) {
+
+			List<PhysicalLocationTreeNode> nodes = watchedNodes.get(dir);
+			if (nodes==null) {
+				continue;
+			}
+
+			// Forget about nodes that have since been removed from the tree
+			nodes.removeIf(node -> !isInTree(node));
+			if (nodes.isEmpty()) {
+				watchedNodes.remove(dir);
+				folderWatcher.unwatch(dir);
+				continue;
+			}
+
+			for (PhysicalLocationTreeNode node : nodes) {
+				ChildNodeLoader.loadInBackground(node, null, children -> {
+					if (isInTree(node)) {
+						mergeChildren(node, children);
+					}
+				});
 			}
+
 		}
 
 	}
@@ -329,7 +455,8 @@ public class WorkspaceTree extends JTree implements FileSelector {
 			@Override
 			public void actionPerformed(ActionEvent e) {
 				Object selected = getLastSelectedPathComponent();
-				if (selected instanceof AbstractWorkspaceTreeNode node) {
+				if (selected instanceof AbstractWorkspaceTreeNode node &&
+						!plugin.isWorkspaceLoading()) {
 					node.handleRename();
 				}
 			}
@@ -350,7 +477,8 @@ public class WorkspaceTree extends JTree implements FileSelector {
 			@Override
 			public void actionPerformed(ActionEvent e) {
 				Object selected = getLastSelectedPathComponent();
-				if (selected instanceof ProjectEntryTreeNode node) {
+				if (selected instanceof ProjectEntryTreeNode node &&
+						!plugin.isWorkspaceLoading()) {
 					node.handleRemove();
 				}
 			}
@@ -406,6 +534,79 @@ public class WorkspaceTree extends JTree implements FileSelector {
 	}
 
 
+	/**
+	 * Updates the children of a populated folder node to match a fresh
+	 * listing of the folder.  Only nodes for files that were removed or
+	 * added are changed, so the expanded state of the remaining sub-folders
+	 * is preserved.  At most one removal and one insertion model event is
+	 * fired.
+	 *
+	 * @param node The node to update.
+	 * @param newChildren The current, sorted children of the node's folder.
+	 */
+	private void mergeChildren(PhysicalLocationTreeNode node,
+			List<FileTreeNode> newChildren) {
+
+		DefaultMutableTreeNode parent = (DefaultMutableTreeNode)node;
+		Map<File, FileTreeNode> newNodes = new HashMap<>();
+		for (FileTreeNode child : newChildren) {
+			newNodes.put(child.getFile(), child);
+		}
+
+		// Remove nodes for files that no longer exist (or are now filtered
+		// out), and remember the ones that are still there.
+		Set<File> kept = new HashSet<>();
+		List<Integer> removedIndices = new ArrayList<>();
+		List<TreeNode> removed = new ArrayList<>();
+		for (int i=0; i<parent.getChildCount(); i++) {
+			TreeNode child = parent.getChildAt(i);
+			FileTreeNode newChild = child instanceof FileTreeNode ftn ?
+					newNodes.get(ftn.getFile()) : null;
+			if (newChild!=null && newChild.isFolder()==((FileTreeNode)child).isFolder()) {
+				kept.add(newChild.getFile());
+				// Pick up changes to the parent folder's filters
+				FileTreeNode existing = (FileTreeNode)child;
+				if (existing.isFolder() &&
+						existing.getFilterInfo()!=newChild.getFilterInfo()) {
+					existing.setFilterInfo(newChild.getFilterInfo());
+				}
+			}
+			else {
+				removedIndices.add(i);
+				removed.add(child);
+			}
+		}
+		if (!removed.isEmpty()) {
+			int[] indices = new int[removedIndices.size()];
+			for (int i=indices.length-1; i>=0; i--) {
+				indices[i] = removedIndices.get(i);
+				parent.remove(indices[i]);
+			}
+			model.nodesWereRemoved(parent, indices, removed.toArray());
+		}
+
+		// The remaining children are in the same relative order as in the new
+		// listing, so inserting the new ones in order puts everything in the
+		// right place.
+		List<Integer> insertedIndices = new ArrayList<>();
+		for (int i=0; i<newChildren.size(); i++) {
+			FileTreeNode child = newChildren.get(i);
+			if (!kept.contains(child.getFile())) {
+				parent.insert(child, Math.min(i, parent.getChildCount()));
+				insertedIndices.add(parent.getIndex(child));
+			}
+		}
+		if (!insertedIndices.isEmpty()) {
+			int[] indices = new int[insertedIndices.size()];
+			for (int i=0; i<indices.length; i++) {
+				indices[i] = insertedIndices.get(i);
+			}
+			model.nodesWereInserted(parent, indices);
+		}
+
+	}
+
+
 	/**
 	 * Refreshes the display of a specific tree node.
 	 *
@@ -416,6 +617,79 @@ public class WorkspaceTree extends JTree implements FileSelector {
 	}
 
 
+	/**
+	 * Returns whether a node is a descendant of another node.
+	 *
+	 * @param node The node.
+	 * @param ancestor The possible ancestor.
+	 * @return Whether {@code node} is {@code ancestor} or a descendant of it.
+	 */
+	private static boolean isDescendant(TreeNode node, TreeNode ancestor) {
+		for (TreeNode n=node; n!=null; n=n.getParent()) {
+			if (n==ancestor) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+
+	/**
+	 * Returns whether a node is still part of this tree.
+	 *
+	 * @param node The node.
+	 * @return Whether the node is in this tree.
+	 */
+	private boolean isInTree(TreeNode node) {
+		while (node.getParent()!=null) {
+			node = node.getParent();
+		}
+		return node==model.getRoot();
+	}
+
+
+	/**
+	 * Returns whether a node is expanded, i.e. its children are visible.
+	 *
+	 * @param node The node.
+	 * @return Whether the node is expanded.
+	 */
+	private boolean isNodeExpanded(TreeNode node) {
+		return isExpanded(new TreePath(model.getPathToRoot(node)));
+	}
+
+
+	/**
+	 * Loads the children of a folder node on a background thread, then adds
+	 * them to the node with a single model event.  If the workspace's file
+	 * catalog has a current listing of the folder, the children are taken
+	 * from it rather than by listing the folder.
+	 *
+	 * @param node The node to populate.
+	 */
+	private void populateInBackground(PhysicalLocationTreeNode node) {
+
+		if (!loadingNodes.add(node)) {
+			return; // Already loading
+		}
+
+		FileCatalog catalog = plugin.getFileCataloger().getCurrentCatalog();
+		ChildNodeLoader.loadInBackground(node, catalog, children -> {
+			loadingNodes.remove(node);
+			// The node may have been refreshed, or removed from the tree,
+			// while we were loading
+			if (node.isNotPopulated() && isInTree(node)) {
+				node.setChildNodes(children);
+				model.reload(node);
+				if (isNodeExpanded(node)) { // Not collapsed while loading
+					watch(node);
+				}
+			}
+		});
+
+	}
+
+
 	/**
 	 * Overridden to display our popup menu if necessary.
 	 *
@@ -456,19 +730,46 @@ public class WorkspaceTree extends JTree implements FileSelector {
 		if (rc==JOptionPane.YES_OPTION) {
 			model.removeNodeFromParent(node);
 			node.entry.removeFromParent();
+			plugin.workspaceModified();
 		}
 	}
 
 
 	/**
 	 * Refreshes the children of the specified node (representing a directory)
-	 * to accurately reflect the files inside of it.
+	 * to accurately reflect the files inside of it.  If the node has already
+	 * been populated, only the children that changed are updated.
 	 *
 	 * @param node The node whose children should be refreshed.
 	 */
 	void refreshChildren(PhysicalLocationTreeNode node) {
-		node.refreshChildren();
-		model.reload(node);
+		if (node.isNotPopulated()) {
+			node.refreshChildren();
+			model.reload(node);
+		}
+		else {
+			mergeChildren(node, node.createChildNodes(null));
+		}
+		if (node.getFile().isDirectory() && isNodeExpanded(node)) {
+			watch(node);
+		}
+	}
+
+
+	/**
+	 * Starts watching the folder of a populated node, so its children are
+	 * updated as files are added, removed and renamed.
+	 *
+	 * @param node The node.
+	 */
+	private void watch(PhysicalLocationTreeNode node) {
+		Path dir = FolderWatcher.getPath(node.getFile());
+		List<PhysicalLocationTreeNode> nodes = watchedNodes.computeIfAbsent(dir,
+				k -> new ArrayList<>());
+		if (!nodes.contains(node)) {
+			nodes.add(node);
+		}
+		folderWatcher.watch(dir);
 	}
 
 
@@ -478,6 +779,8 @@ public class WorkspaceTree extends JTree implements FileSelector {
 	 * @param workspace The new workspace to display.
 	 */
 	public void setWorkspace(Workspace workspace) {
+		folderWatcher.unwatchAll();
+		watchedNodes.clear();
 		WorkspaceTreeRootCreator creator = new WorkspaceTreeRootCreator(plugin);
 		workspace.accept(creator);
 		model.setRoot(creator.getRoot());
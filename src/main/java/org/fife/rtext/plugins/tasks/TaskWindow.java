@@ -13,15 +13,26 @@ package org.fife.rtext.plugins.tasks;
 import java.awt.BorderLayout;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.swing.Icon;
 import javax.swing.JTable;
+import javax.swing.Timer;
 
 import org.fife.rtext.AbstractMainView;
 import org.fife.rtext.AbstractParserNoticeWindow;
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextEditorPane;
+import org.fife.rtext.plugins.project.ProjectPlugin;
+import org.fife.rtext.plugins.project.model.Workspace;
 import org.fife.ui.RScrollPane;
 import org.fife.ui.UIUtil;
+import org.fife.ui.app.Plugin;
 import org.fife.ui.dockablewindows.DockableWindowScrollPane;
 import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
 import org.fife.ui.rsyntaxtextarea.parser.Parser;
@@ -35,18 +46,33 @@ import org.fife.ui.rsyntaxtextarea.parser.TaskTagParser;
  * identifiers, such as "<code>FIXME</code>", "<code>TODO</code>" and
  * "<code>HACK</code>".<p>
  *
+ * Open files are parsed for tasks as they are edited.  In addition, if the
+ * Project plugin is installed, all files in the current workspace are
+ * scanned for tasks in the background, and those tasks are displayed for
+ * any files that aren't open.<p>
+ *
  * Parsing for tasks is only done if the tasks window is visible.
  *
  * @author Robert Futrell
  * @version 1.0
  */
 class TaskWindow extends AbstractParserNoticeWindow
-				implements PropertyChangeListener {
+				implements PropertyChangeListener,
+				WorkspaceTaskScanner.ResultsListener {
 
 	private final TaskNoticeTableModel model;
 	private final TaskTagParser taskParser;
+	private final WorkspaceTaskScanner workspaceScanner;
+	private final Timer workspaceRescanTimer;
+	private Map<String, WorkspaceTaskScanner.FileTasks> workspaceTasks;
 	private boolean installed;
 
+	/**
+	 * How often to check the workspace for modified files while this window
+	 * is active.
+	 */
+	private static final int WORKSPACE_RESCAN_MILLIS = 60_000;
+
 
 	TaskWindow(TasksPlugin plugin, RText rtext, String taskIdentifiers) {
 
@@ -67,6 +93,11 @@ class TaskWindow extends AbstractParserNoticeWindow
 
 		setIcon(plugin.getPluginIcon());
 
+		workspaceTasks = Collections.emptyMap();
+		workspaceScanner = new WorkspaceTaskScanner(this);
+		workspaceRescanTimer = new Timer(WORKSPACE_RESCAN_MILLIS,
+				e -> scanWorkspace());
+
 		taskParser = new TaskTagParser();
 		setTaskIdentifiers(taskIdentifiers);
 
@@ -109,6 +140,22 @@ class TaskWindow extends AbstractParserNoticeWindow
 	}
 
 
+	/**
+	 * Returns the workspace open in the Project plugin.
+	 *
+	 * @return The workspace, or {@code null} if the Project plugin isn't
+	 *         installed.
+	 */
+	private Workspace getWorkspace() {
+		for (Plugin<?> plugin : getRText().getPlugins()) {
+			if (plugin instanceof ProjectPlugin projectPlugin) {
+				return projectPlugin.getWorkspace();
+			}
+		}
+		return null;
+	}
+
+
 	/**
 	 * @see #uninstallParser()
 	 */
@@ -123,6 +170,8 @@ class TaskWindow extends AbstractParserNoticeWindow
 				addTaskParser(textArea);
 			}
 			installed = true;
+			scanWorkspace();
+			workspaceRescanTimer.start();
 		}
 	}
 
@@ -159,6 +208,7 @@ class TaskWindow extends AbstractParserNoticeWindow
 		if (AbstractMainView.TEXT_AREA_ADDED_PROPERTY.equals(prop)) {
 			RTextEditorPane textArea = (RTextEditorPane)e.getNewValue();
 			addTaskParser(textArea);
+			refreshWorkspaceTasks();
 		}
 
 		else if (AbstractMainView.TEXT_AREA_REMOVED_PROPERTY.equals(prop)) {
@@ -166,11 +216,49 @@ class TaskWindow extends AbstractParserNoticeWindow
 			textArea.removeParser(taskParser);
 			textArea.removePropertyChangeListener(
 							RSyntaxTextArea.PARSER_NOTICES_PROPERTY, this);
+			model.update(textArea, null);
+			if (textArea.isLocal()) {
+				// May have been modified since the workspace was scanned
+				workspaceScanner.rescan(new File(textArea.getFileFullPath()));
+			}
+			refreshWorkspaceTasks();
 		}
 
 	}
 
 
+	/**
+	 * Displays the tasks found in the workspace, for all files not open in
+	 * an editor.  Tasks in open files are found by the parser on their
+	 * editors instead, as the editor's content may not be saved.
+	 */
+	private void refreshWorkspaceTasks() {
+
+		Set<String> openFiles = new HashSet<>();
+		AbstractMainView mainView = getRText().getMainView();
+		for (int i=0; i<mainView.getNumDocuments(); i++) {
+			openFiles.add(mainView.getRTextEditorPaneAt(i).getFileFullPath());
+		}
+
+		Icon icon = getIcon();
+		List<Object[]> rows = new ArrayList<>();
+		for (Map.Entry<String, WorkspaceTaskScanner.FileTasks> entry :
+				workspaceTasks.entrySet()) {
+			String path = entry.getKey();
+			if (!openFiles.contains(path)) {
+				WorkspaceTaskScanner.FileTasks tasks = entry.getValue();
+				for (int i=0; i<tasks.lines().length; i++) {
+					rows.add(new Object[] { icon, path, tasks.lines()[i] + 1,
+							tasks.messages()[i] });
+				}
+			}
+		}
+
+		model.replaceFileRows(rows);
+
+	}
+
+
 	/**
 	 * Removes the listeners that parse a text area for tasks.
 	 *
@@ -184,6 +272,15 @@ class TaskWindow extends AbstractParserNoticeWindow
 	}
 
 
+	/**
+	 * Scans the current workspace for tasks, if there is one.  Only files
+	 * modified since the previous scan are re-read.
+	 */
+	private void scanWorkspace() {
+		workspaceScanner.scan(getWorkspace());
+	}
+
+
 	/**
 	 * Overridden to disable the task parser when the task window isn't active
 	 * (visible).
@@ -218,6 +315,10 @@ class TaskWindow extends AbstractParserNoticeWindow
 		if (!identifiers.equals(getTaskIdentifiers())) {
 			identifiers = identifiers.replaceAll("\\?", "\\\\\\?");
 			taskParser.setTaskPattern(identifiers);
+			workspaceScanner.setTaskPattern(taskParser.getTaskPattern());
+			if (installed) {
+				scanWorkspace();
+			}
 			return true;
 		}
 		return false;
@@ -237,12 +338,29 @@ class TaskWindow extends AbstractParserNoticeWindow
 				RTextEditorPane textArea = mainView.getRTextEditorPaneAt(i);
 				removeTaskParser(textArea);
 			}
-			model.setRowCount(0);
+			workspaceRescanTimer.stop();
+			workspaceScanner.cancel();
+			workspaceTasks = Collections.emptyMap();
+			model.clear();
 			installed = false;
 		}
 	}
 
 
+	/**
+	 * Called on the EDT when the workspace has been scanned for tasks.
+	 *
+	 * @param tasks The tasks found, keyed by file.
+	 */
+	@Override
+	public void tasksFound(Map<String, WorkspaceTaskScanner.FileTasks> tasks) {
+		if (installed) {
+			workspaceTasks = tasks;
+			refreshWorkspaceTasks();
+		}
+	}
+
+
 	private class TaskNoticeTableModel extends ParserNoticeTableModel {
 
 		TaskNoticeTableModel(String lastColHeader) {
@@ -250,15 +368,13 @@ class TaskWindow extends AbstractParserNoticeWindow
 		}
 
 		@Override
-		protected void addNoticesImpl(RTextEditorPane textArea, List<ParserNotice> notices) {
-			for (ParserNotice notice : notices) {
-				if (notice.getParser()==taskParser) {
-					Object[] data = {	getIcon(), textArea,
-						notice.getLine() + 1,
-							notice.getMessage() };
-					addRow(data);
-				}
+		protected Object[] createRow(RTextEditorPane textArea, ParserNotice notice) {
+			if (notice.getParser()==taskParser) {
+				return new Object[] {	getIcon(), textArea,
+					notice.getLine() + 1,
+						notice.getMessage() };
 			}
+			return null;
 		}
 
 	}
@@ -0,0 +1,429 @@
+/*
+ * 10/19/2026
+ *
+ * WorkspaceTaskScanner.java - Finds tasks in all files in the workspace.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.tasks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import javax.swing.SwingUtilities;
+
+import org.fife.rtext.ThreadUtil;
+import org.fife.rtext.plugins.project.model.Workspace;
+import org.fife.rtext.plugins.project.model.WorkspaceFileWalker;
+
+
+/**
+ * Scans every file in the project plugin's workspace for tasks, such as
+ * "<code>TODO</code>" and "<code>FIXME</code>".<p>
+ *
+ * Files are read and searched in parallel on low-priority background
+ * threads.  The tasks found are kept in an index keyed by file path and
+ * modification time, so subsequent scans only re-read files that have
+ * changed.  When a scan completes, the results are handed to a callback on
+ * the EDT.<p>
+ *
+ * Unlike the parser installed on open editors, files are not tokenized, so
+ * a task identifier is only recognized if it appears to be in a comment,
+ * i.e. it is preceded on its line by a comment character or by nothing but
+ * whitespace.<p>
+ *
+ * The public methods of this class should be called on the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class WorkspaceTaskScanner {
+
+	private final ResultsListener listener;
+	private final ExecutorService coordinator;
+	private final Map<String, FileTasks> index;
+	private Workspace workspace;
+	private WorkspaceFileWalker walker;
+	private Pattern taskPattern;
+	private Future<?> currentScan;
+
+	/**
+	 * Files larger than this are assumed not to be source files.
+	 */
+	private static final long MAX_FILE_SIZE = 4 * 1024 * 1024;
+
+	/**
+	 * The number of files each worker thread reads at a time.
+	 */
+	private static final int BATCH_SIZE = 64;
+
+	/**
+	 * The number of bytes checked for a null byte to identify binary files.
+	 */
+	private static final int BINARY_CHECK_LENGTH = 8192;
+
+	/**
+	 * Characters that start (or continue) a comment in common languages.
+	 */
+	private static final String COMMENT_CHARS = "/*#;%'-!";
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param listener Receives the tasks found after each scan.
+	 */
+	WorkspaceTaskScanner(ResultsListener listener) {
+		this.listener = listener;
+		index = new ConcurrentHashMap<>();
+		coordinator = Executors.newSingleThreadExecutor(
+				ThreadUtil.createThreadFactory("RText Workspace Task Scanner"));
+	}
+
+
+	/**
+	 * Stops any scan in progress.  Results from the index are kept, so the
+	 * next scan only re-reads modified files.
+	 */
+	void cancel() {
+		if (currentScan!=null) {
+			currentScan.cancel(true);
+			currentScan = null;
+		}
+	}
+
+
+	/**
+	 * Returns the tasks in a file's content.
+	 *
+	 * @param pattern The task pattern.
+	 * @param text The file's content.
+	 * @param lastModified The file's modification time.
+	 * @return The tasks in the file.
+	 */
+	static FileTasks findTasks(Pattern pattern, CharSequence text,
+			long lastModified) {
+
+		List<Integer> lines = new ArrayList<>();
+		List<String> messages = new ArrayList<>();
+
+		int line = 0;
+		int lineStart = 0;
+		int lineEndSearchedTo = 0;
+		Matcher m = pattern.matcher(text);
+
+		while (m.find()) {
+
+			int start = m.start();
+			for (int i=lineEndSearchedTo; i<start; i++) {
+				if (text.charAt(i)=='\n') {
+					line++;
+					lineStart = i + 1;
+				}
+			}
+			lineEndSearchedTo = start;
+
+			if (!isInComment(text, lineStart, start)) {
+				continue;
+			}
+
+			int end = start;
+			while (end<text.length() && text.charAt(end)!='\n' &&
+					text.charAt(end)!='\r') {
+				end++;
+			}
+			String message = text.subSequence(start, end).toString();
+			message = stripCommentEnd(message);
+			lines.add(line);
+			messages.add(message);
+
+			if (end<text.length()) {
+				m.region(end, text.length());
+			}
+			else {
+				break;
+			}
+
+		}
+
+		int[] lineArray = new int[lines.size()];
+		for (int i=0; i<lineArray.length; i++) {
+			lineArray[i] = lines.get(i);
+		}
+		return new FileTasks(lastModified, lineArray,
+				messages.toArray(new String[0]));
+
+	}
+
+
+	/**
+	 * Returns whether a task identifier appears to be in a comment.
+	 *
+	 * @param text The text.
+	 * @param lineStart The offset of the start of the identifier's line.
+	 * @param offs The offset of the identifier.
+	 * @return Whether the identifier appears to be in a comment.
+	 */
+	private static boolean isInComment(CharSequence text, int lineStart,
+			int offs) {
+		if (offs>0 && Character.isLetterOrDigit(text.charAt(offs - 1))) {
+			return false; // Part of a larger word
+		}
+		boolean onlyWhitespace = true;
+		for (int i=lineStart; i<offs; i++) {
+			char ch = text.charAt(i);
+			if (COMMENT_CHARS.indexOf(ch)>-1) {
+				return true;
+			}
+			onlyWhitespace &= Character.isWhitespace(ch);
+		}
+		return onlyWhitespace;
+	}
+
+
+	/**
+	 * Reads a file and finds the tasks in it.
+	 *
+	 * @param pattern The task pattern.
+	 * @param path The file.
+	 * @param lastModified The file's modification time.
+	 * @return The tasks found.  If the file appears to be binary, or cannot
+	 *         be read, no tasks are returned.
+	 */
+	private static FileTasks readTasks(Pattern pattern, Path path,
+			long lastModified) {
+
+		byte[] bytes;
+		try {
+			if (Files.size(path)>MAX_FILE_SIZE) {
+				return FileTasks.empty(lastModified);
+			}
+			bytes = Files.readAllBytes(path);
+		} catch (IOException ioe) {
+			return FileTasks.empty(lastModified);
+		}
+
+		int checkLen = Math.min(bytes.length, BINARY_CHECK_LENGTH);
+		for (int i=0; i<checkLen; i++) {
+			if (bytes[i]==0) {
+				return FileTasks.empty(lastModified);
+			}
+		}
+
+		String text = new String(bytes, StandardCharsets.UTF_8);
+		return findTasks(pattern, text, lastModified);
+
+	}
+
+
+	/**
+	 * Re-scans a single file, if it is part of the workspace.  This is
+	 * called when a file is closed, since it is no longer parsed for tasks
+	 * in an editor.
+	 *
+	 * @param file The file.
+	 */
+	void rescan(File file) {
+
+		Pattern pattern = taskPattern;
+		if (pattern==null || walker==null || !walker.isIncluded(file)) {
+			return;
+		}
+
+		String path = file.getAbsolutePath();
+		coordinator.submit(() -> {
+			long lastModified = file.lastModified();
+			FileTasks old = index.get(path);
+			if (old==null || old.lastModified()!=lastModified) {
+				index.put(path, readTasks(pattern, file.toPath(), lastModified));
+				publish();
+			}
+		});
+
+	}
+
+
+	/**
+	 * Scans the workspace, re-reading any files that changed since they were
+	 * last scanned.  If a scan is already in progress, this method does
+	 * nothing.
+	 *
+	 * @param workspace The workspace to scan.  If this is {@code null}, or
+	 *        the task pattern is empty, this method does nothing.
+	 */
+	void scan(Workspace workspace) {
+
+		if (workspace==null || taskPattern==null) {
+			return;
+		}
+
+		if (workspace!=this.workspace) {
+			cancel();
+			this.workspace = workspace;
+			coordinator.submit(index::clear);
+		}
+		else if (currentScan!=null && !currentScan.isDone()) {
+			return;
+		}
+
+		// Always re-create the walker as folder filters may have changed
+		walker = new WorkspaceFileWalker(workspace);
+		WorkspaceFileWalker walker = this.walker;
+		Pattern pattern = taskPattern;
+		currentScan = coordinator.submit(() -> runScan(walker, pattern));
+
+	}
+
+
+	/**
+	 * Sends a snapshot of the index to the listener on the EDT.
+	 */
+	private void publish() {
+		Map<String, FileTasks> results = new HashMap<>();
+		for (Map.Entry<String, FileTasks> entry : index.entrySet()) {
+			if (entry.getValue().lines().length>0) {
+				results.put(entry.getKey(), entry.getValue());
+			}
+		}
+		SwingUtilities.invokeLater(() -> listener.tasksFound(results));
+	}
+
+
+	/**
+	 * Scans the workspace.  This is called on the coordinator thread.
+	 *
+	 * @param walker Walks the files in the workspace.
+	 * @param pattern The task pattern.
+	 */
+	private void runScan(WorkspaceFileWalker walker, Pattern pattern) {
+
+		Map<String, Long> onDisk = new HashMap<>();
+		boolean complete = walker.walk((path, attrs) -> {
+			onDisk.put(path.toString(), attrs.lastModifiedTime().toMillis());
+			return true;
+		});
+		if (!complete) {
+			return; // Cancelled
+		}
+
+		index.keySet().retainAll(onDisk.keySet());
+
+		List<String> modified = new ArrayList<>();
+		for (Map.Entry<String, Long> entry : onDisk.entrySet()) {
+			FileTasks old = index.get(entry.getKey());
+			if (old==null || old.lastModified()!=entry.getValue()) {
+				modified.add(entry.getKey());
+			}
+		}
+
+		complete = ThreadUtil.runInBatches(modified, BATCH_SIZE,
+				"RText Workspace Task Scanner Worker", paths -> {
+			for (String path : paths) {
+				if (Thread.currentThread().isInterrupted()) {
+					return;
+				}
+				long lastModified = onDisk.get(path);
+				index.put(path, readTasks(pattern, Path.of(path), lastModified));
+			}
+		});
+		if (!complete) {
+			return; // Cancelled
+		}
+
+		publish();
+
+	}
+
+
+	/**
+	 * Sets the task identifiers to scan for.  Since this invalidates all
+	 * previous results, the index is cleared; callers should call
+	 * {@link #scan(Workspace)} afterward.
+	 *
+	 * @param identifiers The identifiers, separated by the '<code>|</code>'
+	 *        character, with any regex characters already escaped.  This may
+	 *        be {@code null} or empty to disable scanning.
+	 */
+	void setTaskPattern(String identifiers) {
+
+		cancel();
+		coordinator.submit(index::clear);
+
+		Pattern pattern = null;
+		if (identifiers!=null && !identifiers.isEmpty()) {
+			try {
+				pattern = Pattern.compile(identifiers);
+			} catch (PatternSyntaxException pse) {
+				pse.printStackTrace();
+			}
+		}
+		taskPattern = pattern;
+
+	}
+
+
+	/**
+	 * Removes any comment terminator and trailing whitespace from a task's
+	 * text.
+	 *
+	 * @param message The task's text.
+	 * @return The cleaned-up text.
+	 */
+	private static String stripCommentEnd(String message) {
+		message = message.strip();
+		for (String end : new String[] { "*/", "-->", "--%>", "#>" }) {
+			if (message.endsWith(end)) {
+				return message.substring(0, message.length() - end.length()).strip();
+			}
+		}
+		return message;
+	}
+
+
+	/**
+	 * The tasks found in a single file.
+	 *
+	 * @param lastModified The file's modification time when it was scanned.
+	 * @param lines The 0-based line numbers of the tasks.
+	 * @param messages The text of the tasks.
+	 */
+	record FileTasks(long lastModified, int[] lines, String[] messages) {
+
+		static FileTasks empty(long lastModified) {
+			return new FileTasks(lastModified, new int[0], new String[0]);
+		}
+
+	}
+
+
+	/**
+	 * Receives the results of a workspace scan.
+	 */
+	interface ResultsListener {
+
+		/**
+		 * Called on the EDT when a scan completes.
+		 *
+		 * @param tasks The files containing tasks, mapped to their tasks.
+		 */
+		void tasksFound(Map<String, FileTasks> tasks);
+
+	}
+
+
+}
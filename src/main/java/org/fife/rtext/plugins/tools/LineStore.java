@@ -0,0 +1,540 @@
+/*
+ * 10/19/2026
+ *
+ * LineStore.java - An append-only store of styled lines of text.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.tools;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.swing.SwingUtilities;
+
+import org.fife.rtext.ThreadUtil;
+
+
+/**
+ * An append-only store of lines of text, each with a style.<p>
+ *
+ * Lines are kept in fixed-size chunks.  Only the most recent chunks are kept
+ * in memory; older ones are written to a temporary file and read back, a few
+ * at a time, when they're needed again.  This keeps memory use flat no
+ * matter how much output a tool writes.  If the temporary file can't be
+ * written, chunks simply stay in memory.<p>
+ *
+ * Lines should only be added, and the store cleared, on the EDT.  Chunks are
+ * written to the temporary file on a shared background thread, so adding
+ * lines never waits on disk IO.  Lines can be read from any thread, e.g. to
+ * search them in the background; to paint, use
+ * {@link #getLineIfLoaded(int, Runnable)}, which reads chunks back on a
+ * background thread as well.  The temporary file is deleted when the store is
+ * cleared, or at the latest when the application exits.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ * @see OutputView
+ */
+final class LineStore {
+
+	/**
+	 * The chunks, oldest first.  Entries for chunks that have been written
+	 * to the spill file are {@code null}.  This and the other state below
+	 * is guarded by this store's lock.
+	 */
+	private final List<Chunk> chunks;
+
+	/**
+	 * For each chunk written to the spill file, its offset and length in the
+	 * file.
+	 */
+	private long[] spillOffsets;
+	private int[] spillLengths;
+
+	/**
+	 * Chunks read back from the spill file, least recently used first.
+	 */
+	private final Map<Integer, Chunk> cache;
+
+	/**
+	 * The indices of the chunks being read back from the spill file for
+	 * painting.
+	 */
+	private final Set<Integer> loading;
+
+	/**
+	 * The spill file.  It's only written on the writer thread, and is read
+	 * with positional reads, which can safely happen at the same time.  The
+	 * file is deleted when the channel is closed.
+	 */
+	private FileChannel spill;
+	private boolean spillFailed;
+
+	/**
+	 * The index of the first chunk that hasn't been queued to be written to
+	 * the spill file.
+	 */
+	private int firstResident;
+	private int lineCount;
+	private int maxLineLength;
+
+	/**
+	 * Incremented each time this store is cleared, so writes queued and
+	 * reads started before then can tell that they're out of date.
+	 */
+	private int generation;
+
+	/**
+	 * The number of lines in a chunk.
+	 */
+	private static final int CHUNK_SIZE = 1024;
+
+	/**
+	 * The number of chunks kept in memory before older ones are written to
+	 * the spill file.
+	 */
+	private static final int MAX_RESIDENT_CHUNKS = 64;
+
+	/**
+	 * The number of chunks read back from the spill file to keep around.
+	 */
+	private static final int CACHE_SIZE = 16;
+
+	/**
+	 * Writes chunks to the spill files of all stores.
+	 */
+	private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(
+			ThreadUtil.createThreadFactory("RText Tool Output Writer"));
+
+	/**
+	 * Reads chunks back from the spill files of all stores for painting.
+	 */
+	private static final ExecutorService READER = Executors.newSingleThreadExecutor(
+			ThreadUtil.createThreadFactory("RText Tool Output Reader"));
+
+
+	/**
+	 * Constructor.
+	 */
+	LineStore() {
+		chunks = new ArrayList<>();
+		spillOffsets = new long[16];
+		spillLengths = new int[16];
+		cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, Chunk> eldest) {
+				return size()>CACHE_SIZE;
+			}
+		};
+		loading = new HashSet<>();
+	}
+
+
+	/**
+	 * Appends a line.
+	 *
+	 * @param line The line, without a trailing newline.
+	 * @param style The style of the line.
+	 */
+	synchronized void add(String line, int style) {
+
+		Chunk chunk = chunks.isEmpty() ? null : chunks.getLast();
+		if (chunk==null || chunk.count==CHUNK_SIZE) {
+			chunk = new Chunk();
+			chunks.add(chunk);
+			spillOldChunks();
+		}
+
+		chunk.lines[chunk.count] = line;
+		chunk.styles[chunk.count] = (byte)style;
+		chunk.count++;
+		lineCount++;
+		maxLineLength = Math.max(maxLineLength, line.length());
+
+	}
+
+
+	/**
+	 * Removes all lines, and deletes the spill file, if any.
+	 */
+	synchronized void clear() {
+		chunks.clear();
+		cache.clear();
+		loading.clear();
+		firstResident = 0;
+		lineCount = 0;
+		maxLineLength = 0;
+		spillFailed = false;
+		generation++;
+		if (spill!=null) {
+			// Deleted after any writes already queued for it
+			FileChannel channel = spill;
+			WRITER.execute(() -> closeSpillFile(channel));
+			spill = null;
+		}
+	}
+
+
+	/**
+	 * Closes a spill file, which deletes it.
+	 *
+	 * @param channel The spill file.
+	 */
+	private static void closeSpillFile(FileChannel channel) {
+		try {
+			channel.close();
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+		}
+	}
+
+
+	/**
+	 * Returns the chunk containing a line.  If the chunk has to be read from
+	 * the spill file, this store's lock isn't held while reading it.
+	 *
+	 * @param line The line.
+	 * @param generation The generation of this store the line is from.
+	 * @return The chunk, or {@code null} if this store has been cleared
+	 *         since then, or the line doesn't exist.
+	 */
+	private Chunk getChunk(int line, int generation) {
+
+		int index = line / CHUNK_SIZE;
+		FileChannel channel;
+		long offset;
+		int length;
+
+		synchronized (this) {
+			if (generation!=this.generation || line>=lineCount) {
+				return null;
+			}
+			Chunk chunk = getLoadedChunk(index);
+			if (chunk!=null) {
+				return chunk;
+			}
+			channel = spill;
+			offset = spillOffsets[index];
+			length = spillLengths[index];
+		}
+
+		Chunk chunk;
+		try {
+			chunk = readChunk(channel, offset, length);
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+			chunk = new Chunk(); // Show empty lines
+			chunk.count = CHUNK_SIZE;
+			Arrays.fill(chunk.lines, "");
+		}
+
+		synchronized (this) {
+			if (generation==this.generation) {
+				cache.put(index, chunk);
+			}
+		}
+		return chunk;
+
+	}
+
+
+	/**
+	 * Returns a chunk if it's in memory, either because it hasn't been
+	 * written to the spill file or because it's been read back.  This is
+	 * called with this store's lock held.
+	 *
+	 * @param index The index of the chunk.
+	 * @return The chunk, or {@code null} if it has to be read from the spill
+	 *         file.
+	 */
+	private Chunk getLoadedChunk(int index) {
+		Chunk chunk = chunks.get(index);
+		return chunk!=null ? chunk : cache.get(index);
+	}
+
+
+	/**
+	 * Returns the generation of this store.  This changes each time the
+	 * store is cleared.
+	 *
+	 * @return The generation.
+	 * @see #getLine(int, int)
+	 */
+	synchronized int getGeneration() {
+		return generation;
+	}
+
+
+	/**
+	 * Returns a line.
+	 *
+	 * @param line The index of the line.
+	 * @return The line.
+	 * @see #getLineCount()
+	 */
+	String getLine(int line) {
+		return getLine(line, getGeneration());
+	}
+
+
+	/**
+	 * Returns a line, if this store hasn't been cleared since a given
+	 * generation.  This is used to read lines off the EDT.
+	 *
+	 * @param line The index of the line.
+	 * @param generation The generation of this store the line is from.
+	 * @return The line, or {@code null} if this store has been cleared
+	 *         since then.
+	 * @see #getGeneration()
+	 */
+	String getLine(int line, int generation) {
+		Chunk chunk = getChunk(line, generation);
+		return chunk!=null ? chunk.lines[line % CHUNK_SIZE] : null;
+	}
+
+
+	/**
+	 * Returns a line without waiting on disk IO.  If the line's chunk has
+	 * been written to the spill file and isn't cached, it's read back on a
+	 * background thread, and a callback is notified on the EDT once it has
+	 * been.  This should be called on the EDT.
+	 *
+	 * @param line The index of the line.
+	 * @param loaded Called on the EDT once the line has been read back, if
+	 *        this method returns {@code null}.  This is typically a
+	 *        repaint.
+	 * @return The line, or {@code null} if it's being read back or doesn't
+	 *         exist.
+	 * @see #getLine(int)
+	 */
+	String getLineIfLoaded(int line, Runnable loaded) {
+
+		int index = line / CHUNK_SIZE;
+		int generation;
+
+		synchronized (this) {
+			if (line>=lineCount) {
+				return null;
+			}
+			Chunk chunk = getLoadedChunk(index);
+			if (chunk!=null) {
+				return chunk.lines[line % CHUNK_SIZE];
+			}
+			if (!loading.add(index)) {
+				return null; // Already being read back
+			}
+			generation = this.generation;
+		}
+
+		READER.execute(() -> {
+			Chunk chunk = getChunk(line, generation);
+			synchronized (this) {
+				if (generation==this.generation) {
+					loading.remove(index);
+				}
+			}
+			if (chunk!=null) {
+				SwingUtilities.invokeLater(loaded);
+			}
+		});
+		return null;
+
+	}
+
+
+	/**
+	 * Returns the number of lines.
+	 *
+	 * @return The number of lines.
+	 */
+	synchronized int getLineCount() {
+		return lineCount;
+	}
+
+
+	/**
+	 * Returns the length of the longest line.
+	 *
+	 * @return The length of the longest line.
+	 */
+	synchronized int getMaxLineLength() {
+		return maxLineLength;
+	}
+
+
+	/**
+	 * Returns the style of a line.  This never waits on disk IO.
+	 *
+	 * @param line The index of the line.
+	 * @return The style, or {@code 0} if the line's chunk isn't in memory.
+	 * @see #getLineIfLoaded(int, Runnable)
+	 */
+	synchronized int getStyle(int line) {
+		if (line>=lineCount) {
+			return 0;
+		}
+		Chunk chunk = getLoadedChunk(line / CHUNK_SIZE);
+		return chunk!=null ? chunk.styles[line % CHUNK_SIZE] : 0;
+	}
+
+
+	private static Chunk readChunk(FileChannel channel, long offset,
+			int length) throws IOException {
+
+		ByteBuffer bytes = ByteBuffer.allocate(length);
+		while (bytes.hasRemaining()) {
+			if (channel.read(bytes, offset + bytes.position())==-1) {
+				throw new EOFException();
+			}
+		}
+
+		Chunk chunk = new Chunk();
+		try (DataInputStream in = new DataInputStream(
+				new ByteArrayInputStream(bytes.array()))) {
+			chunk.count = CHUNK_SIZE;
+			for (int i=0; i<CHUNK_SIZE; i++) {
+				chunk.styles[i] = in.readByte();
+				byte[] line = new byte[in.readInt()];
+				in.readFully(line);
+				chunk.lines[i] = new String(line, StandardCharsets.UTF_8);
+			}
+		}
+		return chunk;
+
+	}
+
+
+	/**
+	 * Queues the oldest full chunks to be written to the spill file, if
+	 * there are too many in memory.  Chunks stay in memory until they've
+	 * been written.  This is called with this store's lock held.
+	 */
+	private void spillOldChunks() {
+
+		// The last chunk is never full here, and full chunks never change,
+		// so they can safely be written on the writer thread.
+		while (!spillFailed && chunks.size()-firstResident>MAX_RESIDENT_CHUNKS) {
+			int index = firstResident++;
+			Chunk chunk = chunks.get(index);
+			int generation = this.generation;
+			WRITER.execute(() -> writeChunk(index, chunk, generation));
+		}
+
+	}
+
+
+	/**
+	 * Writes a chunk to the spill file, then drops it from memory.  This is
+	 * called on the writer thread.
+	 *
+	 * @param index The index of the chunk.
+	 * @param chunk The chunk.
+	 * @param generation The generation of this store the chunk is from.
+	 */
+	private void writeChunk(int index, Chunk chunk, int generation) {
+
+		FileChannel channel;
+		synchronized (this) {
+			if (generation!=this.generation || spillFailed) {
+				return; // Cleared since this write was queued
+			}
+			channel = spill;
+		}
+
+		try {
+
+			if (channel==null) {
+				// Deleted when closed, or when the application exits
+				Path file = Files.createTempFile("rtext-tool-output", ".tmp");
+				channel = FileChannel.open(file, StandardOpenOption.READ,
+						StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+				synchronized (this) {
+					if (generation!=this.generation) {
+						closeSpillFile(channel);
+						return;
+					}
+					spill = channel;
+				}
+			}
+
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			try (DataOutputStream out = new DataOutputStream(baos)) {
+				for (int i=0; i<CHUNK_SIZE; i++) {
+					out.writeByte(chunk.styles[i]);
+					byte[] line = chunk.lines[i].getBytes(StandardCharsets.UTF_8);
+					out.writeInt(line.length);
+					out.write(line);
+				}
+			}
+
+			// Only this thread writes, so the file's end is ours
+			ByteBuffer bytes = ByteBuffer.wrap(baos.toByteArray());
+			long offset = channel.size();
+			while (bytes.hasRemaining()) {
+				channel.write(bytes, offset + bytes.position());
+			}
+
+			synchronized (this) {
+				if (generation==this.generation) {
+					if (index>=spillOffsets.length) {
+						int size = Math.max(index + 1, spillOffsets.length*2);
+						spillOffsets = Arrays.copyOf(spillOffsets, size);
+						spillLengths = Arrays.copyOf(spillLengths, size);
+					}
+					spillOffsets[index] = offset;
+					spillLengths[index] = bytes.capacity();
+					chunks.set(index, null);
+				}
+			}
+
+		} catch (IOException ioe) {
+			synchronized (this) {
+				if (generation==this.generation) {
+					ioe.printStackTrace();
+					spillFailed = true; // Just keep everything in memory
+				}
+			}
+		}
+
+	}
+
+
+	/**
+	 * A fixed number of lines.
+	 */
+	private static final class Chunk {
+
+		private final String[] lines;
+		private final byte[] styles;
+		private int count;
+
+		private Chunk() {
+			lines = new String[CHUNK_SIZE];
+			styles = new byte[CHUNK_SIZE];
+		}
+
+	}
+
+
+}
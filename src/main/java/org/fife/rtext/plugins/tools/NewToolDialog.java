@@ -18,6 +18,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
 import java.text.MessageFormat;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.ResourceBundle;
 import javax.swing.AbstractAction;
@@ -26,6 +27,7 @@ import javax.swing.Box;
 import javax.swing.ButtonGroup;
 import javax.swing.Icon;
 import javax.swing.JButton;
+import javax.swing.JComboBox;
 import javax.swing.JComponent;
 import javax.swing.JDialog;
 import javax.swing.JFrame;
@@ -81,6 +83,9 @@ class NewToolDialog extends EscapableDialog implements ActionListener {
 	private FSATextField programField;
 	private FSATextField dirField;
 	private KeyStrokeField shortcutField;
+	private JComboBox<String> policyCombo;
+	private JComboBox<String> prerequisiteCombo;
+	private JComboBox<String> errorPatternCombo;
 	private DefaultTableModel argModel;
 	private DefaultTableModel envModel;
 	private JRadioButton appendRB;
@@ -231,6 +236,21 @@ class NewToolDialog extends EscapableDialog implements ActionListener {
 
 		KeyStroke accelerator = shortcutField.getKeyStroke();
 
+		// The tool to run first, if any
+		String prerequisite = (String)prerequisiteCombo.getSelectedItem();
+		if (prerequisite!=null && prerequisite.equals(name)) {
+			showError(prerequisiteCombo, "Error.RunAfterItself", name);
+			return null;
+		}
+
+		// The pattern for errors in the output, if any
+		String errorPattern = (String)errorPatternCombo.getSelectedItem();
+		errorPattern = errorPattern==null ? "" : errorPattern.trim();
+		if (!errorPattern.isEmpty() && !ToolOutputMatcher.validate(errorPattern)) {
+			showError(errorPatternCombo, "Error.InvalidErrorPattern", null);
+			return null;
+		}
+
 		// If we get here, all the parameters are valid, so create the tool!
 		Tool tool = new Tool(name, desc);
 		tool.setProgram(program);
@@ -238,6 +258,10 @@ class NewToolDialog extends EscapableDialog implements ActionListener {
 		if (accelerator!=null) {
 			tool.setAccelerator(accelerator.toString());
 		}
+		tool.setConcurrencyPolicy(Tool.ConcurrencyPolicy.values()[
+				policyCombo.getSelectedIndex()]);
+		tool.setPrerequisite(prerequisite);
+		tool.setErrorPattern(errorPattern);
 
 		for (int i=0; i<argModel.getRowCount(); i++) {
 			String arg = (String)argModel.getValueAt(i, 0);
@@ -299,6 +323,31 @@ class NewToolDialog extends EscapableDialog implements ActionListener {
 		JLabel shortcutLabel = new JLabel(MSG.getString("Shortcut"));
 		shortcutField = new KeyStrokeField();
 		JPanel shortcutFieldPanel = RTextUtilities.createAssistancePanel(shortcutField, null);
+		JLabel policyLabel = new JLabel(MSG.getString("ConcurrencyPolicy"));
+		policyCombo = new JComboBox<>();
+		UIUtil.fixComboOrientation(policyCombo);
+		policyCombo.addItem(MSG.getString("ConcurrencyPolicy.SingleInstance"));
+		policyCombo.addItem(MSG.getString("ConcurrencyPolicy.Queue"));
+		policyCombo.addItem(MSG.getString("ConcurrencyPolicy.CancelPrevious"));
+		JPanel policyComboPanel = RTextUtilities.createAssistancePanel(policyCombo, null);
+		JLabel prerequisiteLabel = new JLabel(MSG.getString("RunAfter"));
+		prerequisiteCombo = new JComboBox<>();
+		UIUtil.fixComboOrientation(prerequisiteCombo);
+		prerequisiteCombo.addItem(null); // No prerequisite
+		for (Iterator<Tool> i=ToolManager.get().getToolIterator(); i.hasNext();) {
+			prerequisiteCombo.addItem(i.next().getName());
+		}
+		JPanel prerequisiteComboPanel = RTextUtilities.createAssistancePanel(prerequisiteCombo, null);
+		JLabel errorPatternLabel = new JLabel(MSG.getString("ErrorPattern"));
+		errorPatternCombo = new JComboBox<>();
+		UIUtil.fixComboOrientation(errorPatternCombo);
+		errorPatternCombo.setEditable(true);
+		errorPatternCombo.addItem(""); // Don't look for errors
+		errorPatternCombo.addItem(ToolOutputMatcher.COLON_SEPARATED_PATTERN);
+		errorPatternCombo.addItem(ToolOutputMatcher.PARENTHESIZED_PATTERN);
+		errorPatternCombo.setPrototypeDisplayValue("x".repeat(30));
+		errorPatternCombo.setToolTipText(MSG.getString("ErrorPattern.ToolTip"));
+		JPanel errorPatternComboPanel = RTextUtilities.createAssistancePanel(errorPatternCombo, null);
 
 		Dimension dim = new Dimension(1, 1); // MUST have finite width!
 		if (o.isLeftToRight()) {
@@ -307,6 +356,9 @@ class NewToolDialog extends EscapableDialog implements ActionListener {
 			springPanel.add(programLabel);	springPanel.add(programFieldPanel);  springPanel.add(programBrowseButton);
 			springPanel.add(dirLabel);		springPanel.add(dirFieldPanel);      springPanel.add(dirBrowseButton);
 			springPanel.add(shortcutLabel); springPanel.add(shortcutFieldPanel); springPanel.add(Box.createRigidArea(dim));
+			springPanel.add(policyLabel);	springPanel.add(policyComboPanel);   springPanel.add(Box.createRigidArea(dim));
+			springPanel.add(prerequisiteLabel); springPanel.add(prerequisiteComboPanel); springPanel.add(Box.createRigidArea(dim));
+			springPanel.add(errorPatternLabel); springPanel.add(errorPatternComboPanel); springPanel.add(Box.createRigidArea(dim));
 		}
 		else {
 			springPanel.add(Box.createRigidArea(dim));	springPanel.add(nameFieldPanel);     springPanel.add(nameLabel);
@@ -314,9 +366,12 @@ class NewToolDialog extends EscapableDialog implements ActionListener {
 			springPanel.add(programBrowseButton);		springPanel.add(programFieldPanel);  springPanel.add(programLabel);
 			springPanel.add(dirBrowseButton);			springPanel.add(dirFieldPanel);      springPanel.add(dirLabel);
 			springPanel.add(Box.createRigidArea(dim));  springPanel.add(shortcutFieldPanel); springPanel.add(shortcutLabel);
+			springPanel.add(Box.createRigidArea(dim));  springPanel.add(policyComboPanel);   springPanel.add(policyLabel);
+			springPanel.add(Box.createRigidArea(dim));  springPanel.add(prerequisiteComboPanel); springPanel.add(prerequisiteLabel);
+			springPanel.add(Box.createRigidArea(dim));  springPanel.add(errorPatternComboPanel); springPanel.add(errorPatternLabel);
 		}
 
-		UIUtil.makeSpringCompactGrid(springPanel, 5, 3, 5, 5, 5, 5);
+		UIUtil.makeSpringCompactGrid(springPanel, 8, 3, 5, 5, 5, 5);
 		JPanel temp = new JPanel(new BorderLayout());
 		temp.add(springPanel, BorderLayout.NORTH);
 
@@ -446,6 +501,9 @@ class NewToolDialog extends EscapableDialog implements ActionListener {
 		dirField.setText(tool.getDirectory());
 		shortcutField.setKeyStroke(KeyStroke.getKeyStroke(
 										tool.getAccelerator()));
+		policyCombo.setSelectedIndex(tool.getConcurrencyPolicy().ordinal());
+		prerequisiteCombo.setSelectedItem(tool.getPrerequisite());
+		errorPatternCombo.setSelectedItem(tool.getErrorPattern());
 
 		argModel.setRowCount(0);
 		String[] args = tool.getArgs();
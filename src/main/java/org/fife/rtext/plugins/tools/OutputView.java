@@ -0,0 +1,868 @@
+/*
+ * 10/19/2026
+ *
+ * OutputView.java - Displays the output of a tool.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.tools;
+
+import java.awt.*;
+import java.awt.datatransfer.StringSelection;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.swing.*;
+import javax.swing.text.Style;
+import javax.swing.text.StyleConstants;
+
+import org.fife.rtext.ThreadUtil;
+import org.fife.ui.OptionsDialog;
+import org.fife.ui.StandardAction;
+import org.fife.ui.app.console.AbstractConsoleTextArea;
+import org.fife.ui.rtextarea.RTextArea;
+import org.fife.ui.rtextarea.SearchContext;
+import org.fife.ui.rtextarea.SearchEngine;
+
+
+/**
+ * Displays the output of a tool.<p>
+ *
+ * Unlike a text component, this view doesn't keep its content in a
+ * {@code Document}.  Lines are kept in a {@link LineStore}, which spills old
+ * output to disk, and only the lines currently scrolled into view are
+ * painted.  This lets the user scroll back through millions of lines of
+ * output with flat memory use.  Output is read-only; the user can select
+ * and copy it, and search it with the same options as the editor's find
+ * toolbar.<p>
+ *
+ * A monospaced font is assumed, and tabs are expanded to spaces as lines
+ * are added.  The view can be switched between stores, e.g. to show the
+ * output of different tool jobs.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class OutputView extends JComponent implements Scrollable {
+
+	private final ToolPlugin plugin;
+	private LineStore store;
+
+	/**
+	 * Holds the styles used for each type of output.  This is never
+	 * displayed; it's used so colors are configured and kept in sync with
+	 * the application theme the same way as in the Console.
+	 */
+	private final Styles styles;
+
+	/**
+	 * The names of the styles in {@link #styles}, indexed by the style
+	 * numbers kept in the stores this view displays.
+	 */
+	private final List<String> styleNames;
+
+	private int anchorLine;
+	private int anchorCol;
+	private int dotLine;
+	private int dotCol;
+
+	/**
+	 * Incremented each time a search is started or canceled, so a search
+	 * that has been superseded stops, and its result is ignored.
+	 */
+	private volatile int searchId;
+
+	/**
+	 * The space around the text.
+	 */
+	private static final int MARGIN = 3;
+
+	private static final int TAB_SIZE = 8;
+
+	/**
+	 * The number of lines searched between checks for whether the search
+	 * has been canceled.
+	 */
+	private static final int SEARCH_BATCH_SIZE = 4096;
+
+	/**
+	 * Searches the output of all views.
+	 */
+	private static final ExecutorService SEARCHER = Executors.newSingleThreadExecutor(
+			ThreadUtil.createThreadFactory("RText Tool Output Search"));
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param plugin The tool plugin.
+	 */
+	OutputView(ToolPlugin plugin) {
+
+		this.plugin = plugin;
+		store = new LineStore();
+		styles = new Styles();
+		styleNames = new ArrayList<>();
+
+		setFont(RTextArea.getDefaultFont());
+		setOpaque(true);
+		setFocusable(true);
+		setAutoscrolls(true);
+		setCursor(Cursor.getPredefinedCursor(Cursor.TEXT_CURSOR));
+
+		Listener listener = new Listener();
+		addMouseListener(listener);
+		addMouseMotionListener(listener);
+		installKeyboardActions();
+
+	}
+
+
+	/**
+	 * Appends text.  If the view is scrolled to the bottom, it stays
+	 * scrolled to the bottom.  This should only be called on the EDT.
+	 *
+	 * @param text The text to append.  A trailing newline is optional.
+	 * @param style The style of the text, e.g.
+	 *        {@link AbstractConsoleTextArea#STYLE_STDOUT}.
+	 */
+	void append(String text, String style) {
+		append(store, text, style);
+	}
+
+
+	/**
+	 * Appends text to a store.  If the store is the one being displayed
+	 * and the view is scrolled to the bottom, it stays scrolled to the
+	 * bottom.  This should only be called on the EDT.
+	 *
+	 * @param target The store to append to.
+	 * @param text The text to append.  A trailing newline is optional.
+	 * @param style The style of the text, e.g.
+	 *        {@link AbstractConsoleTextArea#STYLE_STDOUT}.
+	 * @see #setStore(LineStore)
+	 */
+	void append(LineStore target, String text, String style) {
+
+		Rectangle visible = getVisibleRect();
+		boolean atBottom = visible.y + visible.height>=getHeight() - getLineHeight();
+
+		int styleIndex = styleNames.indexOf(style);
+		if (styleIndex==-1) {
+			styleIndex = styleNames.size();
+			styleNames.add(style);
+		}
+
+		int start = 0;
+		int len = text.length();
+		while (start<len) {
+			int end = text.indexOf('\n', start);
+			if (end==-1) {
+				end = len;
+			}
+			int lineEnd = end>start && text.charAt(end-1)=='\r' ? end - 1 : end;
+			target.add(expandTabs(text.substring(start, lineEnd)), styleIndex);
+			start = end + 1;
+		}
+
+		if (target!=store) {
+			return;
+		}
+		revalidate();
+		repaint();
+		if (atBottom) {
+			scrollToEnd();
+		}
+
+	}
+
+
+	/**
+	 * Cancels the search in progress, if any.
+	 */
+	private void cancelFind() {
+		searchId++;
+	}
+
+
+	/**
+	 * Removes all text.
+	 */
+	void clear() {
+		cancelFind();
+		store.clear();
+		anchorLine = anchorCol = dotLine = dotCol = 0;
+		revalidate();
+		repaint();
+	}
+
+
+	/**
+	 * Copies the selected text to the clipboard.
+	 */
+	private void copy() {
+		if (!isSelection()) {
+			UIManager.getLookAndFeel().provideErrorFeedback(this);
+			return;
+		}
+		copyToClipboard(getSelectionStartLine(), getSelectionStartCol(),
+				getSelectionEndLine(), getSelectionEndCol());
+	}
+
+
+	private void copyToClipboard(int startLine, int startCol, int endLine, int endCol) {
+
+		StringBuilder sb = new StringBuilder();
+		for (int i=startLine; i<=endLine; i++) {
+			String line = store.getLine(i);
+			int from = i==startLine ? Math.min(startCol, line.length()) : 0;
+			int to = i==endLine ? Math.min(endCol, line.length()) : line.length();
+			sb.append(line, from, Math.max(from, to));
+			if (i<endLine) {
+				sb.append('\n');
+			}
+		}
+
+		StringSelection contents = new StringSelection(sb.toString());
+		getToolkit().getSystemClipboard().setContents(contents, contents);
+
+	}
+
+
+	private static String expandTabs(String line) {
+
+		if (line.indexOf('\t')==-1) {
+			return line;
+		}
+
+		StringBuilder sb = new StringBuilder();
+		for (int i=0; i<line.length(); i++) {
+			char ch = line.charAt(i);
+			if (ch=='\t') {
+				int spaces = TAB_SIZE - sb.length() % TAB_SIZE;
+				sb.append(" ".repeat(spaces));
+			}
+			else {
+				sb.append(ch);
+			}
+		}
+		return sb.toString();
+
+	}
+
+
+	/**
+	 * Searches for the next match of a search, starting from the selection,
+	 * and selects it.  Matches can't span lines.<p>
+	 *
+	 * The output may be very large, so it's searched on a background
+	 * thread.  Any search still in progress is canceled.
+	 *
+	 * @param context What to search for.
+	 * @param callback Called on the EDT with whether a match was found.
+	 *        This isn't called if the search is canceled, e.g. by another
+	 *        search or the output being cleared.
+	 * @throws java.util.regex.PatternSyntaxException If the search is a
+	 *         regular expression and it is invalid.
+	 */
+	void find(SearchContext context, Consumer<Boolean> callback) {
+
+		cancelFind();
+
+		String searchFor = context.getSearchFor();
+		int lineCount = store.getLineCount();
+		if (searchFor==null || searchFor.isEmpty() || lineCount==0) {
+			callback.accept(false);
+			return;
+		}
+
+		Pattern pattern = null;
+		if (context.isRegularExpression()) {
+			int flags = Pattern.MULTILINE;
+			if (!context.getMatchCase()) {
+				flags |= Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+			}
+			pattern = Pattern.compile(searchFor, flags);
+		}
+
+		// The find toolbar may change its context while we're searching
+		SearchContext searchContext = context.clone();
+		Pattern searchPattern = pattern;
+		boolean forward = context.getSearchForward();
+		int line = forward ? getSelectionEndLine() : getSelectionStartLine();
+		int col = forward ? getSelectionEndCol() : getSelectionStartCol();
+		LineStore searchStore = store;
+		int generation = searchStore.getGeneration();
+		int id = searchId;
+
+		SEARCHER.execute(() -> {
+			int[] match = search(searchStore, generation, id, searchContext,
+					searchPattern, line, col, lineCount);
+			SwingUtilities.invokeLater(() -> {
+				if (id==searchId && searchStore==store &&
+						generation==store.getGeneration()) {
+					if (match!=null) {
+						select(match[0], match[1], match[0], match[2]);
+					}
+					callback.accept(match!=null);
+				}
+			});
+		});
+
+	}
+
+
+	private static int[] findLiteral(SearchContext context, String text,
+									int col, boolean forward) {
+		String searchFor = context.getSearchFor();
+		col = Math.min(col, text.length());
+		String searchIn = forward ? text.substring(col) : text.substring(0, col);
+		int pos = SearchEngine.getNextMatchPos(searchFor, searchIn, forward,
+				context.getMatchCase(), context.getWholeWord());
+		if (pos==-1) {
+			return null;
+		}
+		if (forward) {
+			pos += col;
+		}
+		return new int[] { pos, pos + searchFor.length() };
+	}
+
+
+	private static int[] findRegex(Pattern pattern, String text, int col,
+								boolean forward) {
+
+		col = Math.min(col, text.length());
+		Matcher m = pattern.matcher(text);
+
+		if (forward) {
+			m.region(col, text.length());
+			while (m.find()) {
+				if (m.end()>m.start()) {
+					return new int[] { m.start(), m.end() };
+				}
+			}
+			return null;
+		}
+
+		// Find the last match ending at or before the column
+		m.region(0, col);
+		int[] last = null;
+		while (m.find()) {
+			if (m.end()>m.start()) {
+				last = new int[] { m.start(), m.end() };
+			}
+		}
+		return last;
+
+	}
+
+
+	private int getCharWidth() {
+		return getFontMetrics(getFont()).charWidth('m');
+	}
+
+
+	/**
+	 * Returns the color to paint text in a given style.
+	 *
+	 * @param style The style's index.
+	 * @return The color.
+	 */
+	private Color getColor(int style) {
+		if (style<styleNames.size()) {
+			Style s = styles.getStyle(styleNames.get(style));
+			if (s!=null && s.isDefined(StyleConstants.Foreground)) {
+				return StyleConstants.getForeground(s);
+			}
+		}
+		return styles.getForeground();
+	}
+
+
+	private int getLineHeight() {
+		return getFontMetrics(getFont()).getHeight();
+	}
+
+
+	@Override
+	public Dimension getPreferredScrollableViewportSize() {
+		return getPreferredSize();
+	}
+
+
+	@Override
+	public Dimension getPreferredSize() {
+		Insets insets = getInsets();
+		long w = (long)store.getMaxLineLength()*getCharWidth() + 2*MARGIN +
+				insets.left + insets.right;
+		long h = (long)store.getLineCount()*getLineHeight() + 2*MARGIN +
+				insets.top + insets.bottom;
+		return new Dimension((int)Math.min(w, Integer.MAX_VALUE),
+				(int)Math.min(h, Integer.MAX_VALUE));
+	}
+
+
+	@Override
+	public int getScrollableBlockIncrement(Rectangle visibleRect,
+										int orientation, int direction) {
+		return orientation==SwingConstants.VERTICAL ?
+				visibleRect.height : visibleRect.width;
+	}
+
+
+	@Override
+	public boolean getScrollableTracksViewportHeight() {
+		Container parent = getParent();
+		return parent instanceof JViewport &&
+				parent.getHeight()>getPreferredSize().height;
+	}
+
+
+	@Override
+	public boolean getScrollableTracksViewportWidth() {
+		Container parent = getParent();
+		return parent instanceof JViewport &&
+				parent.getWidth()>getPreferredSize().width;
+	}
+
+
+	@Override
+	public int getScrollableUnitIncrement(Rectangle visibleRect,
+										int orientation, int direction) {
+		return orientation==SwingConstants.VERTICAL ?
+				getLineHeight() : getCharWidth();
+	}
+
+
+	private int getSelectionEndCol() {
+		return isDotFirst() ? anchorCol : dotCol;
+	}
+
+
+	private int getSelectionEndLine() {
+		return isDotFirst() ? anchorLine : dotLine;
+	}
+
+
+	private int getSelectionStartCol() {
+		return isDotFirst() ? dotCol : anchorCol;
+	}
+
+
+	private int getSelectionStartLine() {
+		return isDotFirst() ? dotLine : anchorLine;
+	}
+
+
+	/**
+	 * Returns the style with the given name.  Changes to the style are
+	 * reflected the next time the view is painted.
+	 *
+	 * @param name The name of the style.
+	 * @return The style, or {@code null} if there is no such style.
+	 */
+	Style getStyle(String name) {
+		return styles.getStyle(name);
+	}
+
+
+	private void installKeyboardActions() {
+
+		InputMap im = getInputMap();
+		ActionMap am = getActionMap();
+		int ctrl = getToolkit().getMenuShortcutKeyMaskEx();
+
+		im.put(KeyStroke.getKeyStroke(KeyEvent.VK_C, ctrl), "copy");
+		am.put("copy", new AbstractAction() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				copy();
+			}
+		});
+
+		im.put(KeyStroke.getKeyStroke(KeyEvent.VK_A, ctrl), "selectAll");
+		am.put("selectAll", new AbstractAction() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				int last = Math.max(0, store.getLineCount() - 1);
+				select(0, 0, last, Integer.MAX_VALUE);
+			}
+		});
+
+		im.put(KeyStroke.getKeyStroke(KeyEvent.VK_HOME, ctrl), "scrollToStart");
+		am.put("scrollToStart", new AbstractAction() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				scrollRectToVisible(new Rectangle(0, 0, 1, 1));
+			}
+		});
+
+		im.put(KeyStroke.getKeyStroke(KeyEvent.VK_END, ctrl), "scrollToEnd");
+		am.put("scrollToEnd", new AbstractAction() {
+			@Override
+			public void actionPerformed(ActionEvent e) {
+				scrollToEnd();
+			}
+		});
+
+	}
+
+
+	private boolean isDotFirst() {
+		return dotLine<anchorLine || (dotLine==anchorLine && dotCol<anchorCol);
+	}
+
+
+	private boolean isSelection() {
+		return dotLine!=anchorLine || dotCol!=anchorCol;
+	}
+
+
+	@Override
+	protected void paintComponent(Graphics g) {
+
+		Rectangle clip = g.getClipBounds();
+		g.setColor(styles.getBackground());
+		g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+		int lineCount = store.getLineCount();
+		if (lineCount==0) {
+			return;
+		}
+
+		g.setFont(getFont());
+		FontMetrics fm = g.getFontMetrics();
+		int lineHeight = fm.getHeight();
+		int charWidth = getCharWidth();
+		Insets insets = getInsets();
+		int left = insets.left + MARGIN;
+		int top = insets.top + MARGIN;
+
+		int firstLine = Math.max(0, (clip.y - top)/lineHeight);
+		int lastLine = Math.min(lineCount - 1,
+				(clip.y + clip.height - top)/lineHeight);
+		int firstCol = Math.max(0, (clip.x - left)/charWidth);
+		int lastCol = (clip.x + clip.width - left)/charWidth + 1;
+
+		boolean selection = isSelection();
+		int selStartLine = getSelectionStartLine();
+		int selEndLine = getSelectionEndLine();
+		Color selColor = UIManager.getColor("TextArea.selectionBackground");
+
+		for (int i=firstLine; i<=lastLine; i++) {
+
+			// Lines written to disk are blank until they've been read back
+			String line = store.getLineIfLoaded(i, this::repaint);
+			if (line==null) {
+				line = "";
+			}
+			int y = top + i*lineHeight;
+
+			if (selection && selColor!=null && i>=selStartLine && i<=selEndLine) {
+				int from = i==selStartLine ? getSelectionStartCol() : 0;
+				int to = i==selEndLine ? Math.min(getSelectionEndCol(),
+						line.length()) : line.length() + 1; // Show the newline
+				if (to>from) {
+					g.setColor(selColor);
+					g.fillRect(left + from*charWidth, y,
+							(to - from)*charWidth, lineHeight);
+				}
+			}
+
+			if (firstCol<line.length()) {
+				String visible = line.substring(firstCol,
+						Math.min(lastCol, line.length()));
+				g.setColor(getColor(store.getStyle(i)));
+				g.drawString(visible, left + firstCol*charWidth,
+						y + fm.getAscent());
+			}
+
+		}
+
+	}
+
+
+	/**
+	 * Restores the default colors for each type of output.
+	 */
+	void restoreDefaultColors() {
+		styles.restoreDefaultColors();
+		repaint();
+	}
+
+
+	private void scrollToEnd() {
+		Container parent = getParent();
+		if (parent!=null) {
+			parent.validate(); // So our new size is known
+		}
+		Dimension size = getPreferredSize();
+		scrollRectToVisible(new Rectangle(0, size.height - 1, 1, 1));
+	}
+
+
+	/**
+	 * Selects a range of text and scrolls it into view.
+	 */
+	/**
+	 * Searches lines for a match.  This is called on the search thread.
+	 *
+	 * @param store The store to search.
+	 * @param generation The generation of the store to search.
+	 * @param id The ID of this search.
+	 * @param context What to search for.
+	 * @param pattern The pattern to search for, if this is a regular
+	 *        expression search.
+	 * @param line The line to start searching at.
+	 * @param col The column to start searching at.
+	 * @param lineCount The number of lines to search.
+	 * @return The line, start column and end column of the match, or
+	 *         {@code null} if there's no match, or the search was canceled.
+	 */
+	private int[] search(LineStore store, int generation, int id,
+			SearchContext context, Pattern pattern, int line, int col,
+			int lineCount) {
+
+		boolean forward = context.getSearchForward();
+
+		// Check each line once, plus the starting line again when wrapping
+		for (int i=0; i<=lineCount; i++) {
+
+			if (i%SEARCH_BATCH_SIZE==0 && id!=searchId) {
+				return null; // Canceled
+			}
+
+			String text = store.getLine(line, generation);
+			if (text==null) {
+				return null; // Cleared
+			}
+			int[] match = pattern!=null ?
+					findRegex(pattern, text, col, forward) :
+					findLiteral(context, text, col, forward);
+			if (match!=null) {
+				return new int[] { line, match[0], match[1] };
+			}
+
+			line += forward ? 1 : -1;
+			if (line<0 || line>=lineCount) {
+				if (!context.getSearchWrap()) {
+					return null;
+				}
+				line = forward ? 0 : lineCount - 1;
+			}
+			col = forward ? 0 : Integer.MAX_VALUE;
+
+		}
+
+		return null;
+
+	}
+
+
+	private void select(int startLine, int startCol, int endLine, int endCol) {
+
+		anchorLine = startLine;
+		anchorCol = startCol;
+		dotLine = endLine;
+		dotCol = endCol;
+
+		Insets insets = getInsets();
+		int lineHeight = getLineHeight();
+		int charWidth = getCharWidth();
+		int x = insets.left + MARGIN + startCol*charWidth;
+		int y = insets.top + MARGIN + startLine*lineHeight;
+		int w = endLine==startLine ? (endCol - startCol)*charWidth : 1;
+		scrollRectToVisible(new Rectangle(x, y, Math.max(1, w), lineHeight));
+		repaint();
+
+	}
+
+
+	/**
+	 * Sets the store whose lines are displayed, and scrolls to its end.
+	 * This should only be called on the EDT.
+	 *
+	 * @param store The store.
+	 */
+	void setStore(LineStore store) {
+		cancelFind();
+		this.store = store;
+		anchorLine = anchorCol = dotLine = dotCol = 0;
+		revalidate();
+		repaint();
+		scrollToEnd();
+	}
+
+
+	@Override
+	public void updateUI() {
+		super.updateUI();
+		if (styles!=null) {
+			SwingUtilities.updateComponentTreeUI(styles);
+		}
+	}
+
+
+	/**
+	 * Converts a point in this component into a line and column.
+	 *
+	 * @param p The point.
+	 * @return The line and column.
+	 */
+	private int[] viewToModel(Point p) {
+		int lineCount = store.getLineCount();
+		if (lineCount==0) {
+			return new int[] { 0, 0 };
+		}
+		Insets insets = getInsets();
+		int line = (p.y - insets.top - MARGIN)/getLineHeight();
+		line = Math.max(0, Math.min(line, lineCount - 1));
+		int col = Math.round((p.x - insets.left - MARGIN)/(float)getCharWidth());
+		col = Math.max(0, Math.min(col, store.getLine(line).length()));
+		return new int[] { line, col };
+	}
+
+
+	/**
+	 * Clears all text from this view.
+	 */
+	private class ClearAllAction extends StandardAction {
+
+		ClearAllAction() {
+			setName(plugin.getString("Action.ClearAll"));
+		}
+
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			clear();
+		}
+	}
+
+
+	/**
+	 * Brings up the options dialog panel for this plugin.
+	 */
+	private class ConfigureAction extends AbstractAction {
+
+		ConfigureAction() {
+			putValue(NAME, plugin.getString("Action.Configure"));
+		}
+
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			OptionsDialog od = plugin.getApplication().getOptionsDialog();
+			od.initialize();
+			od.setSelectedOptionsPanel(plugin.getString("Plugin.Name"));
+			od.setVisible(true);
+		}
+
+	}
+
+
+	/**
+	 * Copies all text from this view.
+	 */
+	private class CopyAllAction extends StandardAction {
+
+		CopyAllAction() {
+			setName(plugin.getString("Action.CopyAll"));
+		}
+
+		@Override
+		public void actionPerformed(ActionEvent e) {
+			int last = store.getLineCount() - 1;
+			if (last>=0) {
+				copyToClipboard(0, 0, last, Integer.MAX_VALUE);
+			}
+		}
+	}
+
+
+	/**
+	 * Listens for mouse events in this view.
+	 */
+	private final class Listener extends MouseAdapter {
+
+		private void handleMouseEvent(MouseEvent e) {
+			if (e.isPopupTrigger()) {
+				JPopupMenu popup = new JPopupMenu();
+				popup.add(new JMenuItem(new CopyAllAction()));
+				popup.addSeparator();
+				popup.add(new JMenuItem(new ClearAllAction()));
+				popup.addSeparator();
+				popup.add(new JMenuItem(new ConfigureAction()));
+				popup.applyComponentOrientation(getComponentOrientation());
+				popup.show(OutputView.this, e.getX(), e.getY());
+			}
+		}
+
+		@Override
+		public void mouseDragged(MouseEvent e) {
+			if (SwingUtilities.isLeftMouseButton(e)) {
+				int[] pos = viewToModel(e.getPoint());
+				dotLine = pos[0];
+				dotCol = pos[1];
+				scrollRectToVisible(new Rectangle(e.getX(), e.getY(), 1, 1));
+				repaint();
+			}
+		}
+
+		@Override
+		public void mousePressed(MouseEvent e) {
+			requestFocusInWindow();
+			if (SwingUtilities.isLeftMouseButton(e)) {
+				int[] pos = viewToModel(e.getPoint());
+				dotLine = pos[0];
+				dotCol = pos[1];
+				if (!e.isShiftDown()) {
+					anchorLine = dotLine;
+					anchorCol = dotCol;
+				}
+				repaint();
+			}
+			handleMouseEvent(e);
+		}
+
+		@Override
+		public void mouseReleased(MouseEvent e) {
+			handleMouseEvent(e);
+		}
+
+	}
+
+
+	/**
+	 * Holds the styles for each type of output.  This component is never
+	 * displayed.
+	 */
+	private static final class Styles extends AbstractConsoleTextArea {
+
+		private Styles() {
+			installDefaultStyles(false);
+		}
+
+		@Override
+		protected JPopupMenu createPopupMenu() {
+			return null;
+		}
+
+		@Override
+		protected Font getDefaultFont() {
+			return RTextArea.getDefaultFont();
+		}
+
+	}
+
+
+}
@@ -57,7 +57,8 @@ class RunToolAction extends AppAction<RText> {
 	@Override
 	public void actionPerformed(ActionEvent e) {
 
-		// Make sure the program and working directory exist.
+		// Make sure the program and working directory exist, for this tool
+		// and any that must run before it.
 		tool.setRText(getApplication());
 		String errorDesc = tool.checkForErrors();
 		if (errorDesc!=null) {
@@ -73,12 +74,7 @@ class RunToolAction extends AppAction<RText> {
 			window.setActive(true);
 		}
 		showButDontFocus(window);
-		// Call startingTool() before tool.execute() so threading doesn't
-		// cause the window's title to get hosed.
-		if (window.startingTool(tool)) {
-			tool.setRText(getApplication());
-			tool.execute(window);
-		}
+		window.runTool(tool);
 
 	}
 
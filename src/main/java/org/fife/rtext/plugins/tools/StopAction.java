@@ -1,7 +1,7 @@
 /*
  * 08/27/2011
  *
- * StopAction.java - Stops the currently running tool.
+ * StopAction.java - Stops the selected tool job.
  * Copyright (C) 2011 Robert Futrell
  * https://bobbylight.github.io/RText/
  * Licensed under a modified BSD license.
@@ -17,7 +17,7 @@ import org.fife.ui.app.AppAction;
 
 
 /**
- * Stops the currently running tool.
+ * Stops the tool job selected in the tool output window.
  *
  * @author Robert Futrell
  * @version 1.0
@@ -54,10 +54,7 @@ class StopAction extends AppAction<RText> {
 	 */
 	@Override
 	public void actionPerformed(ActionEvent e) {
-		Tool tool = plugin.getActiveTool();
-		if (tool!=null) { // Should always be true
-			tool.kill();
-		}
+		plugin.getDockableWindow().cancelSelectedJob();
 	}
 
 
@@ -13,21 +13,22 @@ import java.io.File;
 import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.fife.io.ProcessRunner;
-import org.fife.io.ProcessRunnerOutputListener;
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextEditorPane;
 
 
 /**
  * An "external tool;" that is, an external process that can be
- * run from RText.  Tools are run in separate threads, and their
- * output captured to be displayed in a docked window.
+ * run from RText.  Tools are run as jobs by a {@link ToolJobScheduler},
+ * and their output captured to be displayed in a docked window.
  *
  * @author Robert Futrell
  * @version 1.0
@@ -42,13 +43,10 @@ public class Tool implements Comparable<Tool> {
 	private Map<String, String> env;
 	private boolean appendEnv;
 	private String accelerator; // String to ease serialization
+	private ConcurrencyPolicy concurrencyPolicy;
+	private String prerequisite; // Tool name, to ease serialization
+	private String errorPattern;
 	private transient RText rtext;
-	private Thread runThread;
-
-	/**
-	 * Synchronizes access to {@link #runThread}.
-	 */
-	private static final Object RUN_THREAD_LOCK = new Object();
 
 	private static final Pattern VAR_PATTERN =
 			Pattern.compile("\\$\\{file_(?:name|name_no_ext|dir|full_path)}");
@@ -96,14 +94,52 @@ public class Tool implements Comparable<Tool> {
 	 * Does basic checking to ensure that this program can run (the program
 	 * exists, the directory to run in exists, etc.).  Applications can call
 	 * this method before running this tool as a sanity check, and to give
-	 * nice error messages for common failure cases.
+	 * nice error messages for common failure cases.  Any tools that must
+	 * run before this one are checked as well.
 	 *
 	 * @return A localized error message, or <code>null</code> if the program
 	 *         should be able to run.
-	 * @see #execute(ProcessRunnerOutputListener)
+	 * @see #createProcessRunner()
+	 * @see #getPrerequisite()
 	 */
 	public String checkForErrors() {
 
+		String error = checkProgramAndDirectory();
+
+		// Check the tools that must run first, watching for cycles
+		Set<String> names = new HashSet<>();
+		names.add(getName());
+		Tool tool = this;
+		while (error==null && tool.getPrerequisite()!=null) {
+			String name = tool.getPrerequisite();
+			Tool prerequisite = ToolManager.get().getTool(name);
+			if (prerequisite==null) {
+				error = ToolPlugin.MSG.getString("Error.PrerequisiteNotFound");
+				error = MessageFormat.format(error, tool.getName(), name);
+			}
+			else if (!names.add(name)) {
+				error = ToolPlugin.MSG.getString("Error.PrerequisiteCycle");
+				error = MessageFormat.format(error, name);
+			}
+			else {
+				prerequisite.setRText(rtext);
+				error = prerequisite.checkProgramAndDirectory();
+				tool = prerequisite;
+			}
+		}
+
+		return error;
+
+	}
+
+
+	/**
+	 * Ensures the program to run and the directory to run in exist.
+	 *
+	 * @return A localized error message, or <code>null</code> if they do.
+	 */
+	private String checkProgramAndDirectory() {
+
 		String error = null;
 
 		// Ensure the program to run exists.
@@ -183,45 +219,58 @@ public class Tool implements Comparable<Tool> {
 
 
 	/**
-	 * Runs this tool in a separate thread.
+	 * Returns a matcher that finds errors and warnings in this tool's
+	 * output.  Relative file names are resolved against the working
+	 * directory, with any "variables" replaced with their current values, so
+	 * this method should be called on the EDT.
+	 *
+	 * @return The matcher, or <code>null</code> if this tool has no error
+	 *         pattern, or it is invalid.
+	 * @see #getErrorPattern()
+	 */
+	ToolOutputMatcher createOutputMatcher() {
+		if (errorPattern==null || errorPattern.isEmpty()) {
+			return null;
+		}
+		try {
+			return new ToolOutputMatcher(errorPattern,
+					new File(varSubstitute(getDirectory())));
+		} catch (IllegalArgumentException iae) { // Edited by hand?
+			iae.printStackTrace();
+			return null;
+		}
+	}
+
+
+	/**
+	 * Returns a process runner that will run this tool.  Any "variables"
+	 * in the command line, working directory and environment are replaced
+	 * with their current values, so this method should be called on the
+	 * EDT.
 	 *
-	 * @param l Listens for events as this tool runs.  This may be
-	 *        <code>null</code>.
+	 * @return The process runner.
 	 * @see #checkForErrors()
 	 */
-	public void execute(final ProcessRunnerOutputListener l) {
+	ProcessRunner createProcessRunner() {
 
 		// Replace any ${file_XXX} "variables" in the command line.
-		final String[] cmd = new String[1 + args.size()];
+		String[] cmd = new String[1 + args.size()];
 		cmd[0] = program;
 		for (int i=0; i<args.size(); i++) {
 			cmd[i+1] = varSubstitute(args.get(i));
 		}
 
 		// Replace any ${file_XXX} "variables" in the working directory.
-		final String dir = varSubstitute(getDirectory());
+		String dir = varSubstitute(getDirectory());
 
 		// Replace any ${file_XXX} "variables" in the environment.
-		final Map<String, String> env2 = env==null ? null :
-			new HashMap<>(env);
-		if (env2!=null) {
-			env2.replaceAll((k, v) -> varSubstitute(env2.get(k)));
-		}
+		Map<String, String> env2 = new HashMap<>(env);
+		env2.replaceAll((k, v) -> varSubstitute(v));
 
-		// Run this tool in a separate thread.
-		synchronized (RUN_THREAD_LOCK) {
-			runThread = new Thread(() -> {
-				ProcessRunner pr = new ProcessRunner(cmd);
-				pr.setDirectory(new File(dir));
-				pr.setEnvironmentVars(env2, appendEnv);
-				pr.setOutputListener(l);
-				pr.run();
-				synchronized (RUN_THREAD_LOCK) {
-					runThread = null;
-				}
-			});
-			runThread.start();
-		}
+		ProcessRunner pr = new ProcessRunner(cmd);
+		pr.setDirectory(new File(dir));
+		pr.setEnvironmentVars(env2, appendEnv);
+		return pr;
 
 	}
 
@@ -264,6 +313,18 @@ public class Tool implements Comparable<Tool> {
 	}
 
 
+	/**
+	 * Returns what happens when this tool is run while it's already
+	 * running.
+	 *
+	 * @return The policy.  This will never be <code>null</code>.
+	 * @see #setConcurrencyPolicy(ConcurrencyPolicy)
+	 */
+	public ConcurrencyPolicy getConcurrencyPolicy() {
+		return concurrencyPolicy;
+	}
+
+
 	/**
 	 * Returns a description of this tool.
 	 *
@@ -287,6 +348,20 @@ public class Tool implements Comparable<Tool> {
 	}
 
 
+	/**
+	 * Returns the regular expression used to find errors and warnings in
+	 * this tool's output.
+	 *
+	 * @return The regular expression, or <code>null</code> if output isn't
+	 *         checked for errors.
+	 * @see #setErrorPattern(String)
+	 * @see ToolOutputMatcher
+	 */
+	public String getErrorPattern() {
+		return errorPattern;
+	}
+
+
 	/**
 	 * Returns the name of this tool.
 	 *
@@ -298,6 +373,18 @@ public class Tool implements Comparable<Tool> {
 	}
 
 
+	/**
+	 * Returns the name of the tool that must run successfully before this
+	 * one, e.g. a linter that runs before the tests.
+	 *
+	 * @return The name of the tool, or <code>null</code> if there is none.
+	 * @see #setPrerequisite(String)
+	 */
+	public String getPrerequisite() {
+		return prerequisite;
+	}
+
+
 	/**
 	 * Returns the program to launch.
 	 *
@@ -337,28 +424,7 @@ public class Tool implements Comparable<Tool> {
 	private void init() {
 		args = new ArrayList<>(3);
 		env = new HashMap<>();
-	}
-
-
-	/**
-	 * Forcibly terminates this tool's external process, if it is running.
-	 *
-	 * @return If the process was running and killed.
-	 */
-	public boolean kill() {
-		synchronized (RUN_THREAD_LOCK) {
-			if (runThread!=null) {
-				runThread.interrupt();
-				try { // Be nice, just in case it's finishing up some work
-					runThread.join(1000);
-				} catch (InterruptedException ie) { // No biggie
-					ie.printStackTrace();
-				}
-				runThread = null;
-				return true;
-			}
-		}
-		return false;
+		concurrencyPolicy = ConcurrencyPolicy.SINGLE_INSTANCE;
 	}
 
 
@@ -424,6 +490,20 @@ public class Tool implements Comparable<Tool> {
 	}
 
 
+	/**
+	 * Sets what happens when this tool is run while it's already running.
+	 *
+	 * @param policy The policy.  This cannot be <code>null</code>.
+	 * @see #getConcurrencyPolicy()
+	 */
+	public void setConcurrencyPolicy(ConcurrencyPolicy policy) {
+		if (policy==null) {
+			throw new IllegalArgumentException("policy cannot be null");
+		}
+		this.concurrencyPolicy = policy;
+	}
+
+
 	/**
 	 * Sets a description of this tool.
 	 *
@@ -462,6 +542,20 @@ public class Tool implements Comparable<Tool> {
 	}
 
 
+	/**
+	 * Sets the regular expression used to find errors and warnings in this
+	 * tool's output.
+	 *
+	 * @param errorPattern The regular expression, or <code>null</code> to
+	 *        not check output for errors.  It should have the groups
+	 *        described in {@link ToolOutputMatcher}.
+	 * @see #getErrorPattern()
+	 */
+	public void setErrorPattern(String errorPattern) {
+		this.errorPattern = errorPattern;
+	}
+
+
 	/**
 	 * Sets the name of this tool.
 	 *
@@ -474,6 +568,18 @@ public class Tool implements Comparable<Tool> {
 	}
 
 
+	/**
+	 * Sets the name of the tool that must run successfully before this one.
+	 *
+	 * @param prerequisite The name of the tool, or <code>null</code> for
+	 *        none.
+	 * @see #getPrerequisite()
+	 */
+	public void setPrerequisite(String prerequisite) {
+		this.prerequisite = prerequisite;
+	}
+
+
 	/**
 	 * Sets the program to launch.
 	 *
@@ -556,4 +662,29 @@ public class Tool implements Comparable<Tool> {
 	}
 
 
+	/**
+	 * What happens when a tool is run while it's already running.
+	 */
+	public enum ConcurrencyPolicy {
+
+		/**
+		 * The user is told the tool is already running, and it isn't run
+		 * again.
+		 */
+		SINGLE_INSTANCE,
+
+		/**
+		 * The tool runs again once the running instance completes.
+		 */
+		QUEUE,
+
+		/**
+		 * The running instance is stopped, and the tool runs again once it
+		 * has terminated.
+		 */
+		CANCEL_PREVIOUS
+
+	}
+
+
 }
@@ -11,23 +11,34 @@
 package org.fife.rtext.plugins.tools;
 
 import java.awt.*;
+import java.awt.event.KeyEvent;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.text.MessageFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.regex.PatternSyntaxException;
 import javax.swing.Box;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
 import javax.swing.JButton;
+import javax.swing.JList;
 import javax.swing.JOptionPane;
+import javax.swing.JSplitPane;
 import javax.swing.JToolBar;
-import javax.swing.SwingUtilities;
-import javax.swing.text.BadLocationException;
+import javax.swing.KeyStroke;
+import javax.swing.ListSelectionModel;
+import javax.swing.UIManager;
 import javax.swing.text.Style;
 import javax.swing.text.StyleConstants;
-import javax.swing.text.StyledDocument;
 
-import org.fife.io.ProcessRunnerOutputListener;
+import org.fife.rsta.ui.CollapsibleSectionPanel;
+import org.fife.rsta.ui.search.FindToolBar;
+import org.fife.rsta.ui.search.SearchEvent;
+import org.fife.rsta.ui.search.SearchListener;
+import org.fife.rtext.OutputQueue;
 import org.fife.ui.UIUtil;
 import org.fife.ui.app.console.AbstractConsoleTextArea;
 import org.fife.ui.RScrollPane;
@@ -36,37 +47,38 @@ import org.fife.ui.dockablewindows.DockableWindow;
 
 
 /**
- * The dockable window containing external tool output.
+ * The dockable window containing external tool output.  Tools are run as
+ * jobs; the window lists the queued, running and recently finished jobs,
+ * and shows the output of the one selected.
  *
  * @author Robert Futrell
  * @version 1.0
  */
-public class ToolDockableWindow extends DockableWindow
-								implements ProcessRunnerOutputListener {
+public class ToolDockableWindow extends DockableWindow {
 
 	private static final String MSG_BUNDLE = "org.fife.rtext.plugins.tools.DockableWindow";
 	private static final ResourceBundle MSG = ResourceBundle.getBundle(MSG_BUNDLE);
 
-	/**
-	 * The tool currently running.  This should only be manipulated on the
-	 * EDT.
-	 */
-	private Tool tool;
+	private final ToolPlugin plugin;
+	private final ToolJobScheduler scheduler;
+
+	private final DefaultListModel<ToolJob> jobModel;
+	private final JList<ToolJob> jobList;
 
 	/**
-	 * The time the last tool was started, in milliseconds.
+	 * Where the output of the selected job goes.
 	 */
-	private long startTime;
+	private final OutputView view;
 
 	/**
-	 * Where the output of the tool goes.
+	 * Displayed in {@link #view} when no job is selected.
 	 */
-	private final OutputTextPane textArea;
+	private final LineStore noOutput;
 
 	private final JToolBar toolbar;
 
 	/**
-	 * Used by toolbar button to stop the currently running tool.
+	 * Used by toolbar button to stop the selected job.
 	 */
 	private final StopAction stopAction;
 
@@ -79,14 +91,41 @@ public class ToolDockableWindow extends DockableWindow
 	public ToolDockableWindow(ToolPlugin plugin) {
 
 		super(new BorderLayout());
+		this.plugin = plugin;
 		setIcon(plugin.getPluginIcon());
 		setDockableWindowName(MSG.getString("Window.Name"));
 
-		textArea = new OutputTextPane(plugin);
-		setPrimaryComponent(textArea);
-		RScrollPane sp = new RScrollPane(textArea);
+		scheduler = new ToolJobScheduler(new JobListener());
+
+		view = new OutputView(plugin);
+		noOutput = new LineStore();
+		view.setStore(noOutput);
+		setPrimaryComponent(view);
+		RScrollPane sp = new RScrollPane(view);
 		UIUtil.removeTabbedPaneFocusTraversalKeyBindings(sp);
-		add(sp);
+
+		// Ctrl+F searches the output
+		CollapsibleSectionPanel csp = new CollapsibleSectionPanel(false);
+		csp.add(sp);
+		FindToolBar findToolBar = new FindToolBar(new FindListener());
+		int ctrl = getToolkit().getMenuShortcutKeyMaskEx();
+		csp.addBottomComponent(KeyStroke.getKeyStroke(KeyEvent.VK_F, ctrl),
+				findToolBar);
+
+		// The list of jobs, beside their output
+		jobModel = new DefaultListModel<>();
+		jobList = new JList<>(jobModel);
+		jobList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		jobList.setCellRenderer(new JobCellRenderer());
+		jobList.addListSelectionListener(e -> selectedJobChanged());
+		RScrollPane jobScrollPane = new RScrollPane(jobList);
+		UIUtil.removeTabbedPaneFocusTraversalKeyBindings(jobScrollPane);
+		JSplitPane splitPane = new JSplitPane(JSplitPane.HORIZONTAL_SPLIT,
+				jobScrollPane, csp);
+		splitPane.setDividerLocation(220);
+		splitPane.setResizeWeight(0);
+		splitPane.setContinuousLayout(true);
+		add(splitPane);
 
 		// Create a toolbar.
 		toolbar = new JToolBar();
@@ -109,39 +148,58 @@ public class ToolDockableWindow extends DockableWindow
 
 
 	/**
-	 * Appends text to the output text component with a given style.
+	 * Appends a line of text to a job's output with a given style.
 	 *
+	 * @param job The job.
 	 * @param text The text to append.
 	 * @param style The style to apply to the text.
 	 */
-	private void appendWithStyle(String text, Style style) {
-
-		// The user can move the caret and type (stdin) so always append
-		// to the end of the document.
-		final StyledDocument doc = (StyledDocument)textArea.getDocument();
-		int end = doc.getLength();
-		try {
-			// Thread safe since we're using an AbstractDocument
-			doc.insertString(end, text + "\n", style);
-			//doc.setLogicalStyle(doc.getLength()-1, style);
-		} catch (BadLocationException ble) {
-			ble.printStackTrace();
-		}
+	private void appendWithStyle(ToolJob job, String text, String style) {
+		view.append(job.getOutput(), text + "\n", style);
+	}
 
-		SwingUtilities.invokeLater(() -> textArea.setCaretPosition(doc.getLength()));
 
+	/**
+	 * Stops the selected job, if it's queued or running.
+	 */
+	void cancelSelectedJob() {
+		ToolJob job = jobList.getSelectedValue();
+		if (job!=null) {
+			scheduler.cancel(job);
+		}
 	}
 
 
 	/**
-	 * Returns the currently running tool, if any.  This method should only be
-	 * called on the EDT.
+	 * Returns a description of a job's state, used as the window's title
+	 * when the job is selected.
 	 *
-	 * @return The currently running tool, or <code>null</code> if a tool
-	 *         isn't running.
+	 * @param job The job.
+	 * @return The description.
 	 */
-	public Tool getActiveTool() {
-		return tool;
+	private static String getDescription(ToolJob job) {
+
+		String name = job.getTool().getName();
+		ToolJob prerequisite = job.getPrerequisite();
+
+		return switch (job.getState()) {
+			case QUEUED -> prerequisite!=null && !prerequisite.isSuccessful() ?
+					MessageFormat.format(MSG.getString("Window.Title.WaitingTool"),
+						name, prerequisite.getTool().getName()) :
+					MessageFormat.format(MSG.getString("Window.Title.QueuedTool"), name);
+			case RUNNING -> MessageFormat.format(MSG.getString("Window.Title.StartingTool"),
+					name, new SimpleDateFormat().format(new Date(job.getStartTime())));
+			case COMPLETED -> {
+				float time = (job.getEndTime()-job.getStartTime())/1000f;
+				yield MessageFormat.format(MSG.getString("Window.Title.CompletedTool"),
+					name, Integer.toString(job.getReturnCode()), Float.toString(time));
+			}
+			case FAILED -> MessageFormat.format(MSG.getString("Window.Title.ToolError"), name);
+			case CANCELED -> MessageFormat.format(MSG.getString("Window.Title.ProcessTerminated"), name);
+			case SKIPPED -> MessageFormat.format(MSG.getString("Window.Title.SkippedTool"),
+					name, prerequisite.getTool().getName());
+		};
+
 	}
 
 
@@ -155,7 +213,7 @@ public class ToolDockableWindow extends DockableWindow
 	 */
 	public Color getForeground(String style) {
 		Color c = null;
-		Style s = textArea.getStyle(style);
+		Style s = view.getStyle(style);
 		if (s!=null) {
 			c = StyleConstants.getForeground(s);
 		}
@@ -171,68 +229,23 @@ public class ToolDockableWindow extends DockableWindow
 	 * @return Whether a special style is used.
 	 */
 	public boolean isStyleUsed(String style) {
-		return textArea.getStyle(style).isDefined(StyleConstants.Foreground);
+		return view.getStyle(style).isDefined(StyleConstants.Foreground);
 	}
 
 
 	/**
-	 * Prints an exception to the output text component.  This is called
-	 * when an error occurs trying to launch or run a process.
+	 * Prints an exception to a job's output.  This is called when an error
+	 * occurs trying to launch or run a process.
 	 *
+	 * @param job The job.
 	 * @param e The throwable that occurred.
 	 */
-	private void outputStackTrace(Throwable e) {
-		Style style = textArea.getStyle(OutputTextPane.STYLE_STDERR);
+	private void outputStackTrace(ToolJob job, Throwable e) {
 		StringWriter sw = new StringWriter();
 		PrintWriter pw = new PrintWriter(sw);
 		e.printStackTrace(pw);
 		pw.close();
-		appendWithStyle(sw.toString(), style);
-	}
-
-
-	@Override
-	public void outputWritten(Process p, String output, boolean stdout) {
-		Style style = textArea.getStyle(stdout ?
-				OutputTextPane.STYLE_STDOUT : OutputTextPane.STYLE_STDERR);
-		appendWithStyle(output, style); // thread safe Swing calls
-	}
-
-
-	@Override
-	public void processCompleted(final Process p, final int rc,
-								final Throwable e) {
-
-		// Note that this isn't called on the EDT
-		SwingUtilities.invokeLater(() -> {
-
-			if (e==null) {
-				float time = (System.currentTimeMillis()-startTime)/1000f;
-				String title = MSG.getString("Window.Title.CompletedTool");
-				title = MessageFormat.format(title,
-					tool.getName(), Integer.toString(rc), Float.toString(time));
-				setDockableWindowTitle(title);
-			}
-			else if (e instanceof InterruptedException) { // User killed
-				String title = MSG.getString("Window.Title.ProcessTerminated");
-				title = MessageFormat.format(title, tool.getName());
-				setDockableWindowTitle(title);
-				String text = MSG.getString("Window.ProcessTerminated");
-				appendWithStyle(text,
-						textArea.getStyle(OutputTextPane.STYLE_STDERR));
-			}
-			else {
-				String title = MSG.getString("Window.Title.ToolError");
-				title = MessageFormat.format(title, tool.getName());
-				setDockableWindowTitle(title);
-				outputStackTrace(e);
-			}
-
-			stopAction.setEnabled(false);
-			tool = null;
-
-		});
-
+		appendWithStyle(job, sw.toString(), AbstractConsoleTextArea.STYLE_STDERR);
 	}
 
 
@@ -241,7 +254,7 @@ public class ToolDockableWindow extends DockableWindow
 	 * application theme.
 	 */
 	public void restoreDefaultColors() {
-		textArea.restoreDefaultColors();
+		view.restoreDefaultColors();
 	}
 
 
@@ -254,7 +267,7 @@ public class ToolDockableWindow extends DockableWindow
 	 * @see #getForeground(String)
 	 */
 	public void setForeground(String style, Color fg) {
-		Style s = textArea.getStyle(style);
+		Style s = view.getStyle(style);
 		if (s!=null) {
 			if (fg!=null) {
 				StyleConstants.setForeground(s, fg);
@@ -262,37 +275,56 @@ public class ToolDockableWindow extends DockableWindow
 			else {
 				s.removeAttribute(StyleConstants.Foreground);
 			}
+			view.repaint();
 		}
 	}
 
 
 	/**
-	 * Called just before a tool is launched.
+	 * Runs a tool, and selects its job.
 	 *
-	 * @param tool The tool being launched.
-	 * @return Whether the tool should be launched.  This will return
-	 *         <code>false</code> if another tool is currently running.
+	 * @param tool The tool to run.  It should have been checked for errors.
+	 * @return Whether the tool was run.  This will return <code>false</code>
+	 *         if the tool is already running and can only run once at a
+	 *         time.
+	 * @see Tool#checkForErrors()
 	 */
-	public boolean startingTool(Tool tool) {
-		if (this.tool!=null) {
+	boolean runTool(Tool tool) {
+		ToolJob job = scheduler.submit(tool);
+		if (job==null) {
 			String title = MSG.getString("ErrorDialog.Title");
 			String message = MSG.getString("ErrorDialog.ToolAlreadyRunning");
+			message = MessageFormat.format(message, tool.getName());
 			JOptionPane.showMessageDialog(this, message, title,
 											JOptionPane.ERROR_MESSAGE);
 			return false;
 		}
-		this.tool = tool;
-		startTime = System.currentTimeMillis();
-		String title = MSG.getString("Window.Title.StartingTool");
-		title = MessageFormat.format(title, tool.getName(),
-			new SimpleDateFormat().format(new Date()));
-		setDockableWindowTitle(title);
-		textArea.setText(null);
-		stopAction.setEnabled(true);
+		jobList.setSelectedValue(job, true);
 		return true;
 	}
 
 
+	/**
+	 * Called when the selected job changes.  Displays its output.
+	 */
+	private void selectedJobChanged() {
+		ToolJob job = jobList.getSelectedValue();
+		view.setStore(job!=null ? job.getOutput() : noOutput);
+		updateTitle();
+	}
+
+
+	/**
+	 * Updates the window's title and the stop action for the selected job.
+	 */
+	private void updateTitle() {
+		ToolJob job = jobList.getSelectedValue();
+		setDockableWindowTitle(job!=null ? getDescription(job) :
+				MSG.getString("Window.Name"));
+		stopAction.setEnabled(job!=null && !job.getState().isFinished());
+	}
+
+
 	@Override
 	public void updateUI() {
 		super.updateUI();
@@ -302,4 +334,118 @@ public class ToolDockableWindow extends DockableWindow
 	}
 
 
+	/**
+	 * Renders jobs in the job list.
+	 */
+	private static final class JobCellRenderer extends DefaultListCellRenderer {
+
+		@Override
+		public Component getListCellRendererComponent(JList<?> list,
+							Object value, int index,
+							boolean isSelected, boolean cellHasFocus) {
+			super.getListCellRendererComponent(list, value, index, isSelected,
+					cellHasFocus);
+			if (value instanceof ToolJob job) {
+				setText(getDescription(job));
+			}
+			return this;
+		}
+
+	}
+
+
+	/**
+	 * Updates the job list and output as jobs run.
+	 */
+	private final class JobListener implements ToolJobScheduler.Listener {
+
+		@Override
+		public void jobAdded(ToolJob job) {
+			jobModel.addElement(job);
+		}
+
+		@Override
+		public void jobChanged(ToolJob job) {
+
+			switch (job.getState()) {
+				case RUNNING -> plugin.getNoticeWindow().clearNotices(job.getTool());
+				case FAILED -> outputStackTrace(job, job.getError());
+				case CANCELED -> {
+					if (job.getStartTime()>0) {
+						appendWithStyle(job, MSG.getString("Window.ProcessTerminated"),
+								AbstractConsoleTextArea.STYLE_STDERR);
+					}
+				}
+				case SKIPPED -> appendWithStyle(job,
+						MessageFormat.format(MSG.getString("Window.SkippedTool"),
+							job.getPrerequisite().getTool().getName()),
+						AbstractConsoleTextArea.STYLE_STDERR);
+				default -> { }
+			}
+
+			int index = jobModel.indexOf(job);
+			if (index>-1) {
+				jobModel.set(index, job); // Its cell may change size
+			}
+			jobList.repaint(); // Jobs waiting on this one may have changed too
+			if (job==jobList.getSelectedValue()) {
+				updateTitle();
+			}
+
+		}
+
+		@Override
+		public void jobNoticesFound(ToolJob job, List<ToolParserNotice> notices) {
+			plugin.getNoticeWindow().addNotices(job, notices);
+		}
+
+		@Override
+		public void jobOutput(ToolJob job, List<OutputQueue.Chunk> chunks, long dropped) {
+			if (dropped>0) {
+				String notice = MessageFormat.format(
+						MSG.getString("Window.OutputDropped"), Long.toString(dropped));
+				appendWithStyle(job, notice, AbstractConsoleTextArea.STYLE_STDERR);
+			}
+			for (OutputQueue.Chunk chunk : chunks) {
+				view.append(job.getOutput(), chunk.text(), chunk.style());
+			}
+		}
+
+		@Override
+		public void jobRemoved(ToolJob job) {
+			jobModel.removeElement(job);
+		}
+
+	}
+
+
+	/**
+	 * Searches the tool output when the user uses the find toolbar.
+	 */
+	private final class FindListener implements SearchListener {
+
+		@Override
+		public String getSelectedText() {
+			return null;
+		}
+
+		@Override
+		public void searchEvent(SearchEvent e) {
+			if (e.getType()!=SearchEvent.Type.FIND) {
+				return; // "Mark all" isn't supported
+			}
+			try {
+				view.find(e.getSearchContext(), found -> {
+					if (!found) {
+						UIManager.getLookAndFeel().provideErrorFeedback(view);
+					}
+				});
+			} catch (PatternSyntaxException pse) {
+				UIManager.getLookAndFeel().provideErrorFeedback(view);
+			}
+		}
+
+	}
+
+
 }
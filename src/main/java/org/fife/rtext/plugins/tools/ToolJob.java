@@ -0,0 +1,362 @@
+/*
+ * 10/19/2026
+ *
+ * ToolJob.java - A single run of a tool.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.tools;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.SwingUtilities;
+
+import org.fife.io.ProcessRunner;
+import org.fife.io.ProcessRunnerOutputListener;
+import org.fife.rtext.OutputQueue;
+import org.fife.ui.app.console.AbstractConsoleTextArea;
+
+
+/**
+ * A single run of a {@link Tool}.<p>
+ *
+ * Jobs are created and started by a {@link ToolJobScheduler}.  The tool's
+ * command line is resolved when the job is created, so a job that waits in
+ * the queue still runs against the file that was current when the user ran
+ * the tool.  A job keeps its tool's output, so it can be viewed after the
+ * tool completes.  If the tool has an error pattern, each line of output is
+ * checked for errors as it's read, on the thread reading it.<p>
+ *
+ * Except where noted, the methods of this class should only be called on
+ * the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class ToolJob implements ProcessRunnerOutputListener {
+
+	private final ToolJobScheduler scheduler;
+	private final Tool tool;
+	private final ToolJob prerequisite;
+	private final ProcessRunner runner;
+	private final LineStore output;
+
+	/**
+	 * Output from the running tool, waiting to be added to {@link #output}.
+	 */
+	private final OutputQueue queue;
+
+	/**
+	 * Finds errors in the output, or <code>null</code> if the tool has no
+	 * error pattern.
+	 */
+	private final ToolOutputMatcher matcher;
+
+	/**
+	 * Errors found in the output that haven't been reported yet.  Access to
+	 * this list and {@link #noticeCount} is synchronized on the list.
+	 */
+	private final List<ToolParserNotice> notices;
+	private int noticeCount;
+
+	private State state;
+	private int rc;
+	private Throwable error;
+	private long startTime;
+	private long endTime;
+	private Thread thread;
+
+	/**
+	 * The maximum number of errors reported for a single job.
+	 */
+	private static final int MAX_NOTICES = 10_000;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param scheduler The scheduler running this job.
+	 * @param tool The tool to run.
+	 * @param prerequisite The job that must complete successfully before
+	 *        this one can start, or <code>null</code> for none.
+	 */
+	ToolJob(ToolJobScheduler scheduler, Tool tool, ToolJob prerequisite) {
+		this.scheduler = scheduler;
+		this.tool = tool;
+		this.prerequisite = prerequisite;
+		runner = tool.createProcessRunner();
+		runner.setOutputListener(this);
+		output = new LineStore();
+		queue = new OutputQueue((chunks, dropped) ->
+				scheduler.outputFlushed(this, chunks, dropped));
+		matcher = tool.createOutputMatcher();
+		notices = new ArrayList<>();
+		state = State.QUEUED;
+	}
+
+
+	/**
+	 * Requests that this job stop.  A queued job is canceled immediately.
+	 * A running job's process is terminated, and the job is canceled once
+	 * its thread reports the process has ended.
+	 *
+	 * @return Whether the job was canceled immediately.
+	 */
+	boolean cancel() {
+		switch (state) {
+			case QUEUED -> {
+				finish(State.CANCELED);
+				return true;
+			}
+			case RUNNING -> thread.interrupt();
+			default -> { } // Already finished
+		}
+		return false;
+	}
+
+
+	/**
+	 * Discards this job's output.  This is called when the job is removed
+	 * from the scheduler.
+	 */
+	void dispose() {
+		queue.clear();
+		output.clear();
+	}
+
+
+	private void finish(State state) {
+		this.state = state;
+		endTime = System.currentTimeMillis();
+	}
+
+
+	/**
+	 * Returns the time this job finished.
+	 *
+	 * @return The time, in milliseconds, or <code>0</code> if it hasn't
+	 *         finished.
+	 */
+	long getEndTime() {
+		return endTime;
+	}
+
+
+	/**
+	 * Returns the error that occurred running the tool's process, if any.
+	 *
+	 * @return The error, or <code>null</code> if none occurred.
+	 */
+	Throwable getError() {
+		return error;
+	}
+
+
+	/**
+	 * Returns the tool's output.
+	 *
+	 * @return The output.
+	 */
+	LineStore getOutput() {
+		return output;
+	}
+
+
+	/**
+	 * Returns the job that must complete successfully before this one can
+	 * start.
+	 *
+	 * @return The job, or <code>null</code> if there is none.
+	 */
+	ToolJob getPrerequisite() {
+		return prerequisite;
+	}
+
+
+	/**
+	 * Returns the exit code of the tool's process.
+	 *
+	 * @return The exit code.  This is only meaningful if the job's state is
+	 *         {@link State#COMPLETED}.
+	 */
+	int getReturnCode() {
+		return rc;
+	}
+
+
+	/**
+	 * Returns the time this job started running.
+	 *
+	 * @return The time, in milliseconds, or <code>0</code> if it hasn't
+	 *         started.
+	 */
+	long getStartTime() {
+		return startTime;
+	}
+
+
+	/**
+	 * Returns the state of this job.
+	 *
+	 * @return The state.
+	 */
+	State getState() {
+		return state;
+	}
+
+
+	/**
+	 * Returns the tool this job runs.
+	 *
+	 * @return The tool.
+	 */
+	Tool getTool() {
+		return tool;
+	}
+
+
+	/**
+	 * Returns whether the tool ran and exited with code <code>0</code>.
+	 * Jobs waiting on this one only start if this is the case.
+	 *
+	 * @return Whether the job completed successfully.
+	 */
+	boolean isSuccessful() {
+		return state==State.COMPLETED && rc==0;
+	}
+
+
+	@Override
+	public void outputWritten(Process p, String output, boolean stdout) {
+
+		// Called off the EDT, once per line.  Errors are found before the
+		// line is queued, so they're reported when it's displayed.
+		if (matcher!=null) {
+			ToolParserNotice notice = matcher.match(output);
+			if (notice!=null) {
+				synchronized (notices) {
+					if (noticeCount<MAX_NOTICES) {
+						notices.add(notice);
+						noticeCount++;
+					}
+				}
+			}
+		}
+
+		queue.add(output + "\n", stdout ?
+				AbstractConsoleTextArea.STYLE_STDOUT : AbstractConsoleTextArea.STYLE_STDERR);
+
+	}
+
+
+	@Override
+	public void processCompleted(Process p, int rc, Throwable e) {
+
+		// Note that this isn't called on the EDT
+		SwingUtilities.invokeLater(() -> {
+			queue.flush(); // Report all output before completion
+			this.rc = rc;
+			error = e;
+			if (e==null) {
+				finish(State.COMPLETED);
+			}
+			else if (e instanceof InterruptedException) { // User killed
+				finish(State.CANCELED);
+			}
+			else {
+				finish(State.FAILED);
+			}
+			scheduler.jobCompleted(this);
+		});
+
+	}
+
+
+	/**
+	 * Marks this job as not run, since its prerequisite didn't complete
+	 * successfully.
+	 */
+	void skip() {
+		finish(State.SKIPPED);
+	}
+
+
+	/**
+	 * Starts running the tool on a virtual thread.
+	 */
+	void start() {
+		state = State.RUNNING;
+		startTime = System.currentTimeMillis();
+		thread = Thread.ofVirtual().name("RText Tool - " + tool.getName())
+				.start(runner::run);
+	}
+
+
+	/**
+	 * Returns the errors found in the output since this method was last
+	 * called.  This method is thread-safe.
+	 *
+	 * @return The errors.  This may be empty.
+	 */
+	List<ToolParserNotice> takeNotices() {
+		synchronized (notices) {
+			List<ToolParserNotice> taken = new ArrayList<>(notices);
+			notices.clear();
+			return taken;
+		}
+	}
+
+
+	/**
+	 * The states of a job.
+	 */
+	enum State {
+
+		/**
+		 * The job is waiting for its prerequisite, a free slot, or an earlier
+		 * run of the same tool.
+		 */
+		QUEUED,
+
+		/**
+		 * The tool is running.
+		 */
+		RUNNING,
+
+		/**
+		 * The tool ran to completion.  It may still have exited with an
+		 * error code.
+		 */
+		COMPLETED,
+
+		/**
+		 * The tool's process couldn't be run.
+		 */
+		FAILED,
+
+		/**
+		 * The job was stopped by the user, or because the tool was run again.
+		 */
+		CANCELED,
+
+		/**
+		 * The job never ran because its prerequisite didn't complete
+		 * successfully.
+		 */
+		SKIPPED;
+
+		/**
+		 * Returns whether a job in this state is done.
+		 *
+		 * @return Whether a job in this state is done.
+		 */
+		boolean isFinished() {
+			return this!=QUEUED && this!=RUNNING;
+		}
+
+	}
+
+
+}
@@ -0,0 +1,315 @@
+/*
+ * 10/19/2026
+ *
+ * ToolJobScheduler.java - Runs tools as jobs.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.tools;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.fife.rtext.OutputQueue;
+
+
+/**
+ * Runs tools as {@link ToolJob}s.<p>
+ *
+ * Each job runs its tool's process on its own virtual thread, so long
+ * running tools don't block each other or the EDT.  Only a limited number
+ * of jobs run at once; the rest wait in a queue and are started in the
+ * order they were submitted.  What happens when a tool is run while it's
+ * already running depends on its {@link Tool.ConcurrencyPolicy}.  A tool can
+ * also name another tool that must run successfully first, e.g. a linter
+ * that runs before the tests; if that tool fails, the job is skipped.<p>
+ *
+ * Finished jobs are kept, so their output can be viewed, until there are
+ * too many of them.  The methods of this class should only be called on
+ * the EDT.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class ToolJobScheduler {
+
+	private final Listener listener;
+
+	/**
+	 * The jobs, in the order they were submitted.  A job's prerequisite is
+	 * always before it.
+	 */
+	private final List<ToolJob> jobs;
+
+	private final int maxRunning;
+
+	/**
+	 * The number of finished jobs to keep.
+	 */
+	private static final int MAX_FINISHED_JOBS = 20;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param listener Notified as jobs are added, run and removed.
+	 */
+	ToolJobScheduler(Listener listener) {
+		this.listener = listener;
+		jobs = new ArrayList<>();
+		maxRunning = Math.max(2, Runtime.getRuntime().availableProcessors() / 2);
+	}
+
+
+	/**
+	 * Stops a job.  A queued job is canceled immediately; a running job is
+	 * canceled once its process terminates.
+	 *
+	 * @param job The job to stop.
+	 */
+	void cancel(ToolJob job) {
+		if (job.cancel()) {
+			listener.jobChanged(job);
+			schedule();
+		}
+	}
+
+
+	/**
+	 * Creates a job for a tool, and for the tools that must run before it
+	 * that aren't already queued or running.
+	 *
+	 * @param tool The tool.
+	 * @param names The names of the tools in the chain so far, to guard
+	 *        against cycles.
+	 * @return The job.
+	 */
+	private ToolJob createJob(Tool tool, Set<String> names) {
+
+		ToolJob prerequisiteJob = null;
+		String name = tool.getPrerequisite();
+		if (name!=null && names.add(tool.getName())) {
+			Tool prerequisite = ToolManager.get().getTool(name);
+			if (prerequisite!=null) {
+				List<ToolJob> unfinished = getUnfinishedJobs(prerequisite);
+				prerequisiteJob = unfinished.isEmpty() ?
+						createJob(prerequisite, names) : unfinished.getLast();
+			}
+		}
+
+		ToolJob job = new ToolJob(this, tool, prerequisiteJob);
+		jobs.add(job);
+		listener.jobAdded(job);
+		return job;
+
+	}
+
+
+	/**
+	 * Returns the jobs, in the order they were submitted.
+	 *
+	 * @return The jobs.
+	 */
+	List<ToolJob> getJobs() {
+		return new ArrayList<>(jobs);
+	}
+
+
+	/**
+	 * Returns the jobs for a tool that are queued or running.
+	 *
+	 * @param tool The tool.
+	 * @return The jobs, in the order they were submitted.
+	 */
+	private List<ToolJob> getUnfinishedJobs(Tool tool) {
+		List<ToolJob> unfinished = new ArrayList<>();
+		for (ToolJob job : jobs) {
+			if (job.getTool().getName().equals(tool.getName()) &&
+					!job.getState().isFinished()) {
+				unfinished.add(job);
+			}
+		}
+		return unfinished;
+	}
+
+
+	/**
+	 * Called when a job's process has ended.
+	 *
+	 * @param job The job.
+	 */
+	void jobCompleted(ToolJob job) {
+		listener.jobChanged(job);
+		schedule();
+	}
+
+
+	/**
+	 * Called when output from a running job is ready to be displayed.
+	 *
+	 * @param job The job.
+	 * @param chunks The output.
+	 * @param dropped The number of characters of output dropped because
+	 *        they couldn't be displayed quickly enough.
+	 */
+	void outputFlushed(ToolJob job, List<OutputQueue.Chunk> chunks, long dropped) {
+		listener.jobOutput(job, chunks, dropped);
+		List<ToolParserNotice> notices = job.takeNotices();
+		if (!notices.isEmpty()) {
+			listener.jobNoticesFound(job, notices);
+		}
+	}
+
+
+	/**
+	 * Starts the queued jobs that can run, skips those whose prerequisites
+	 * failed, and removes old finished jobs.
+	 */
+	private void schedule() {
+
+		int running = 0;
+		for (ToolJob job : jobs) {
+			if (job.getState()==ToolJob.State.RUNNING) {
+				running++;
+			}
+		}
+
+		// Tools with a job running or queued earlier, which later jobs for
+		// the same tool must wait for
+		Set<String> busy = new HashSet<>();
+
+		for (ToolJob job : jobs) {
+
+			ToolJob.State state = job.getState();
+			if (state.isFinished()) {
+				continue;
+			}
+			String name = job.getTool().getName();
+			if (state==ToolJob.State.RUNNING) {
+				busy.add(name);
+				continue;
+			}
+
+			ToolJob prerequisite = job.getPrerequisite();
+			if (prerequisite!=null && prerequisite.getState().isFinished() &&
+					!prerequisite.isSuccessful()) {
+				job.skip();
+				listener.jobChanged(job);
+				continue;
+			}
+
+			if (busy.add(name) && running<maxRunning &&
+					(prerequisite==null || prerequisite.isSuccessful())) {
+				job.start();
+				running++;
+				listener.jobChanged(job);
+			}
+
+		}
+
+		// Remove the oldest finished jobs
+		int finished = 0;
+		for (ToolJob job : jobs) {
+			if (job.getState().isFinished()) {
+				finished++;
+			}
+		}
+		for (int i=0; finished>MAX_FINISHED_JOBS; i++) {
+			ToolJob job = jobs.get(i);
+			if (job.getState().isFinished()) {
+				jobs.remove(i--);
+				finished--;
+				job.dispose();
+				listener.jobRemoved(job);
+			}
+		}
+
+	}
+
+
+	/**
+	 * Runs a tool.  If the tool must run after another tool, a job for that
+	 * tool is submitted first, unless one is already queued or running.
+	 * The caller should check the tool for errors first.
+	 *
+	 * @param tool The tool to run.
+	 * @return The job, or <code>null</code> if the tool is already running
+	 *         and its policy is {@link Tool.ConcurrencyPolicy#SINGLE_INSTANCE}.
+	 * @see Tool#checkForErrors()
+	 */
+	ToolJob submit(Tool tool) {
+
+		List<ToolJob> unfinished = getUnfinishedJobs(tool);
+		switch (tool.getConcurrencyPolicy()) {
+			case SINGLE_INSTANCE -> {
+				if (!unfinished.isEmpty()) {
+					return null;
+				}
+			}
+			case CANCEL_PREVIOUS -> unfinished.forEach(this::cancel);
+			case QUEUE -> { } // Waits for the earlier jobs
+		}
+
+		ToolJob job = createJob(tool, new HashSet<>());
+		schedule();
+		return job;
+
+	}
+
+
+	/**
+	 * Notified as jobs are added, run and removed.  Methods are called on
+	 * the EDT.
+	 */
+	interface Listener {
+
+		/**
+		 * Called when a job is submitted.
+		 *
+		 * @param job The job.
+		 */
+		void jobAdded(ToolJob job);
+
+		/**
+		 * Called when a job's state changes.
+		 *
+		 * @param job The job.
+		 */
+		void jobChanged(ToolJob job);
+
+		/**
+		 * Called when errors are found in a running job's output, after
+		 * the output containing them is reported.
+		 *
+		 * @param job The job.
+		 * @param notices The errors.
+		 */
+		void jobNoticesFound(ToolJob job, List<ToolParserNotice> notices);
+
+		/**
+		 * Called when a running job writes output.
+		 *
+		 * @param job The job.
+		 * @param chunks The output.
+		 * @param dropped The number of characters of output dropped, before
+		 *        the text in {@code chunks}, because they couldn't be
+		 *        displayed quickly enough.
+		 */
+		void jobOutput(ToolJob job, List<OutputQueue.Chunk> chunks, long dropped);
+
+		/**
+		 * Called when a finished job is removed.  Its output has been
+		 * discarded.
+		 *
+		 * @param job The job.
+		 */
+		void jobRemoved(ToolJob job);
+
+	}
+
+
+}
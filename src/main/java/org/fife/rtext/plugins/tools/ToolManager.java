@@ -12,21 +12,35 @@ package org.fife.rtext.plugins.tools;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.beans.XMLDecoder;
-import java.beans.XMLEncoder;
 import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileFilter;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import javax.swing.SwingUtilities;
+
+import org.fife.rtext.DefinitionFile;
+import org.fife.rtext.ThreadUtil;
 
 
 /**
- * Manages the tools available in an RText session.
+ * Manages the tools available in an RText session.<p>
+ *
+ * Tools are saved in a single {@link DefinitionFile}.  They're loaded
+ * lazily, the first time they're needed, so defining many tools doesn't
+ * slow down startup, and normally on a background thread; see
+ * {@link #loadToolsInBackground(File)}.  Tools saved as XML by older
+ * versions of RText, one file per tool, are migrated to the new format when
+ * they're loaded.
  *
  * @author Robert Futrell
  * @version 1.0
@@ -42,10 +56,43 @@ public final class ToolManager {
 	private final PropertyChangeSupport support;
 
 	/**
-	 * The extension all tool files end with.
+	 * The directory to load tools from, or <code>null</code> if it hasn't
+	 * been set.
+	 */
+	private File dir;
+
+	private boolean loaded;
+
+	/**
+	 * Whether the last attempt to load the tools failed.  If it did, the
+	 * tools aren't saved, so a tool definition file this version of
+	 * RText can't read isn't overwritten with an incomplete list.
+	 */
+	private boolean loadFailed;
+
+	/**
+	 * The tools being read on a background thread, or {@code null} if they
+	 * aren't being read.
+	 */
+	private CompletableFuture<List<Tool>> pendingLoad;
+
+	/**
+	 * The extension tool files saved as XML by older versions of RText end
+	 * with.
 	 */
 	private static final String TOOL_FILE_EXTENSION		= ".tool";
 
+	/**
+	 * The name of the file that lists our tool definitions.
+	 */
+	private static final String TOOL_DEFINITION_FILE_NAME = "toolDefinitions.properties";
+
+	/**
+	 * The type and version of the tool definition file's format.
+	 */
+	private static final String DEFINITION_TYPE = "tool";
+	private static final int DEFINITION_VERSION = 1;
+
 	/**
 	 * The singleton instance of this class.
 	 */
@@ -61,6 +108,24 @@ public final class ToolManager {
 	}
 
 
+	/**
+	 * Adds the tools read from the tool directory, unless the tools have
+	 * already been loaded.  This fires a property change event of type
+	 * {@link #PROPERTY_TOOLS}.
+	 *
+	 * @param loadedTools The tools read.
+	 */
+	private void addLoadedTools(List<Tool> loadedTools) {
+		pendingLoad = null;
+		if (!loaded) {
+			tools.addAll(loadedTools);
+			loaded = true;
+			loadFailed = false;
+			support.firePropertyChange(PROPERTY_TOOLS, null, null);
+		}
+	}
+
+
 	/**
 	 * Adds a tool.  This methods fires a property change event of type
 	 * {@link #PROPERTY_TOOLS}.
@@ -69,6 +134,7 @@ public final class ToolManager {
 	 * @see #removeTool(Tool)
 	 */
 	public void addTool(Tool tool) {
+		ensureLoaded();
 		tools.add(tool);
 		support.firePropertyChange(PROPERTY_TOOLS, null, null);
 	}
@@ -92,6 +158,7 @@ public final class ToolManager {
 	 * event of type {@link #PROPERTY_TOOLS}.
 	 */
 	public void clearTools() {
+		ensureLoaded();
 		tools.clear();
 		support.firePropertyChange(PROPERTY_TOOLS, null, null);
 	}
@@ -104,6 +171,7 @@ public final class ToolManager {
 	 * @return Whether a tool with that name is already defined.
 	 */
 	public boolean containsToolWithName(String name) {
+		ensureLoaded();
 		for (Tool tool : tools) {
 			if (name.equals(tool.getName())) {
 				return true;
@@ -113,6 +181,36 @@ public final class ToolManager {
 	}
 
 
+	/**
+	 * Loads the tools if they haven't been loaded yet.  If they're being
+	 * loaded in the background, this waits for them.  Errors are only
+	 * printed, since callers of the methods that need the tools can't handle
+	 * them; the plugin loads the tools itself, so it can report errors.  If
+	 * loading failed before, it isn't retried here.
+	 */
+	private void ensureLoaded() {
+		if (loaded) {
+			return;
+		}
+		if (pendingLoad!=null) {
+			try {
+				addLoadedTools(pendingLoad.join());
+			} catch (CompletionException ce) {
+				ce.getCause().printStackTrace();
+				pendingLoad = null;
+				loadFailed = true;
+			}
+		}
+		else if (!loadFailed && dir!=null) {
+			try {
+				loadTools(dir);
+			} catch (IOException ioe) {
+				ioe.printStackTrace();
+			}
+		}
+	}
+
+
 	/**
 	 * Returns the singleton instance of the tool manager.
 	 *
@@ -123,12 +221,30 @@ public final class ToolManager {
 	}
 
 
+	/**
+	 * Returns the tool with a given name.
+	 *
+	 * @param name The name of the tool.
+	 * @return The tool, or <code>null</code> if no tool has that name.
+	 */
+	public Tool getTool(String name) {
+		ensureLoaded();
+		for (Tool tool : tools) {
+			if (tool.getName().equals(name)) {
+				return tool;
+			}
+		}
+		return null;
+	}
+
+
 	/**
 	 * returns the number of tools.
 	 *
 	 * @return The number of tools.
 	 */
 	public int getToolCount() {
+		ensureLoaded();
 		return tools.size();
 	}
 
@@ -139,18 +255,102 @@ public final class ToolManager {
 	 * @return An iterator over the tools.
 	 */
 	public Iterator<Tool> getToolIterator() {
+		ensureLoaded();
 		return tools.iterator();
 	}
 
 
 	/**
-	 * Loads all tools from a directory.
+	 * Returns whether the tools have been loaded.
+	 *
+	 * @return Whether the tools have been loaded.
+	 * @see #loadTools(File)
+	 * @see #loadToolsInBackground(File)
+	 */
+	public boolean isLoaded() {
+		return loaded;
+	}
+
+
+	/**
+	 * Loads all tools from a directory.  If the tools were saved as XML by
+	 * an older version of RText, they're saved in the new format, and the
+	 * XML files are removed.
 	 *
 	 * @param dir The directory to load tools from.
-	 * @throws IOException If an IO error occurs reading the tools.
+	 * @throws IOException If an IO error occurs reading the tools, or they
+	 *         were saved by a newer version of RText.
+	 * @see #loadToolsInBackground(File)
+	 * @see #setToolDirectory(File)
 	 * @see #saveTools(File)
 	 */
 	public void loadTools(File dir) throws IOException {
+		this.dir = dir;
+		loadFailed = true; // Until the tools are successfully read
+		addLoadedTools(readTools(dir));
+	}
+
+
+	/**
+	 * Loads all tools from a directory on a low-priority background thread,
+	 * so reading them, and migrating tools saved as XML by older versions of
+	 * RText, doesn't block the EDT.  The tools are added on the EDT.  If the
+	 * tools are already loaded, or being loaded, nothing new is started.
+	 * This should be called on the EDT.
+	 *
+	 * @param dir The directory to load tools from.
+	 * @return A future that completes on the EDT once the tools have been
+	 *         added.  It completes exceptionally with an
+	 *         {@code IOException} if they couldn't be read.
+	 * @see #loadTools(File)
+	 */
+	public CompletableFuture<Void> loadToolsInBackground(File dir) {
+
+		this.dir = dir;
+		if (loaded) {
+			return CompletableFuture.completedFuture(null);
+		}
+
+		if (pendingLoad==null) {
+			CompletableFuture<List<Tool>> future = new CompletableFuture<>();
+			ThreadUtil.createThreadFactory("RText Tool Loader").newThread(() -> {
+				try {
+					future.complete(readTools(dir));
+				} catch (Throwable t) {
+					future.completeExceptionally(t);
+				}
+			}).start();
+			pendingLoad = future;
+		}
+
+		CompletableFuture<List<Tool>> load = pendingLoad;
+		CompletableFuture<Void> result = new CompletableFuture<>();
+		load.whenComplete((loadedTools, error) -> SwingUtilities.invokeLater(() -> {
+			if (error==null) {
+				addLoadedTools(loadedTools);
+				result.complete(null);
+				return;
+			}
+			if (pendingLoad==load) {
+				pendingLoad = null;
+				loadFailed = true;
+			}
+			result.completeExceptionally(error);
+		}));
+		return result;
+
+	}
+
+
+	/**
+	 * Loads tools saved as XML by older versions of RText.
+	 *
+	 * @param files The tool files.
+	 * @param loadedTools The list to add the tools to.
+	 * @throws IOException If an IO error occurs reading the tools.
+	 */
+	private static void loadXmlTools(File[] files, List<Tool> loadedTools)
+			throws IOException {
 
 		// Since class Tool was loaded by PluginClassLoader, XMLEncoder will
 		// throw an Exception when trying to save it as the class was not loaded
@@ -159,17 +359,94 @@ public final class ToolManager {
 		ClassLoader threadCL = Thread.currentThread().getContextClassLoader();
 		Thread.currentThread().setContextClassLoader(Tool.class.getClassLoader());
 
-		File[] files = dir.listFiles(new ToolFilenameFilter());
-		for (File file : files) {
-			try (XMLDecoder d = new XMLDecoder(new BufferedInputStream(
-				new FileInputStream(file)))) {
-				addTool((Tool)d.readObject());
+		try {
+			for (File file : files) {
+				try (XMLDecoder d = new XMLDecoder(new BufferedInputStream(
+					new FileInputStream(file)))) {
+					loadedTools.add((Tool)d.readObject());
+				}
 			}
+		} finally {
+			Thread.currentThread().setContextClassLoader(threadCL);
 		}
 
-		Thread.currentThread().setContextClassLoader(threadCL);
+	}
+
 
-		support.firePropertyChange(PROPERTY_TOOLS, null, null);
+	/**
+	 * Creates a tool from its definition.
+	 *
+	 * @param definitions The tool definitions.
+	 * @param record The index of the tool's definition.
+	 * @return The tool.
+	 * @throws IOException If the definition is invalid.
+	 */
+	private static Tool readTool(DefinitionFile definitions, int record)
+			throws IOException {
+
+		String name = definitions.getString(record, "name");
+		String program = definitions.getString(record, "program");
+		String dir = definitions.getString(record, "directory");
+		if (name==null || program==null || dir==null) {
+			throw new IOException("Invalid tool definition: " + record);
+		}
+
+		Tool tool = new Tool(name, definitions.getString(record, "description"));
+		tool.setProgram(program);
+		tool.setDirectory(dir);
+		tool.setArgs(definitions.getList(record, "args").toArray(new String[0]));
+		tool.setEnvVars(definitions.getMap(record, "env"));
+		tool.setAppendEnvironmentVars(definitions.getBoolean(record, "appendEnv"));
+		tool.setAccelerator(definitions.getString(record, "accelerator"));
+		String policy = definitions.getString(record, "concurrencyPolicy");
+		if (policy!=null) {
+			try {
+				tool.setConcurrencyPolicy(Tool.ConcurrencyPolicy.valueOf(policy));
+			} catch (IllegalArgumentException iae) {
+				// Keep the default policy
+			}
+		}
+		tool.setPrerequisite(definitions.getString(record, "prerequisite"));
+		tool.setErrorPattern(definitions.getString(record, "errorPattern"));
+		return tool;
+
+	}
+
+
+	/**
+	 * Reads all tools from a directory.  If the tools were saved as XML by
+	 * an older version of RText, they're saved in the new format, and the
+	 * XML files are removed.  This may be called off the EDT.
+	 *
+	 * @param dir The directory to read tools from.
+	 * @return The tools.
+	 * @throws IOException If an IO error occurs reading the tools, or they
+	 *         were saved by a newer version of RText.
+	 */
+	private static List<Tool> readTools(File dir) throws IOException {
+
+		List<Tool> loadedTools = new ArrayList<>();
+
+		File file = new File(dir, TOOL_DEFINITION_FILE_NAME);
+		if (file.isFile()) {
+			DefinitionFile definitions = DefinitionFile.load(file, DEFINITION_TYPE);
+			if (definitions.getVersion()>DEFINITION_VERSION) {
+				throw new IOException("Unsupported tool definition file version: " +
+						definitions.getVersion());
+			}
+			for (int i=0; i<definitions.getCount(); i++) {
+				loadedTools.add(readTool(definitions, i));
+			}
+		}
+		else {
+			File[] files = dir.listFiles(new ToolFilenameFilter());
+			if (files!=null && files.length>0) {
+				loadXmlTools(files, loadedTools);
+				writeTools(dir, loadedTools);
+			}
+		}
+
+		return loadedTools;
 
 	}
 
@@ -195,6 +472,7 @@ public final class ToolManager {
 	 * @see #addTool(Tool)
 	 */
 	public void removeTool(Tool tool) {
+		ensureLoaded();
 		if (tools.remove(tool)) {
 			support.firePropertyChange(PROPERTY_TOOLS, null, null);
 		}
@@ -202,49 +480,95 @@ public final class ToolManager {
 
 
 	/**
-	 * Saves all tools known to this tool manager.
+	 * Saves all tools known to this tool manager.  If the tools were never
+	 * loaded, they can't have changed, so nothing is saved.  Nothing is
+	 * saved if loading them failed either, so tools that couldn't be read
+	 * aren't lost.
 	 *
-	 * @param dir The directory to save the tool definitions to.  The old
-	 *        contents of this directory are deleted.
+	 * @param dir The directory to save the tool definitions to.  Tool files
+	 *        saved as XML by older versions of RText are deleted.
 	 * @throws IOException If an IO error occurs writing the files.
 	 * @see #loadTools(File)
 	 */
 	public void saveTools(File dir) throws IOException {
 
-		// First, clear out old tools
-		if (dir.isDirectory()) { // Should always already exist.
-			File[] oldFiles = dir.listFiles(new ToolFilenameFilter());
-			for (File oldFile : oldFiles) {
-				oldFile.delete();
-			}
+		if (loaded) {
+			writeTools(dir, tools);
 		}
-		else {
+	}
+
+
+	/**
+	 * Sets the directory to load tools from the first time they're needed.
+	 *
+	 * @param dir The directory.
+	 * @see #loadTools(File)
+	 */
+	public void setToolDirectory(File dir) {
+		this.dir = dir;
+	}
+
+
+	/**
+	 * Saves tools.  This may be called off the EDT.
+	 *
+	 * @param dir The directory to save the tool definitions to.  Tool files
+	 *        saved as XML by older versions of RText are deleted.
+	 * @param tools The tools to save.
+	 * @throws IOException If an IO error occurs writing the files.
+	 */
+	private static void writeTools(File dir, Collection<Tool> tools)
+			throws IOException {
+
+		if (!dir.isDirectory()) { // Should always already exist.
 			dir.mkdir();
 		}
 
-		// Since class Tool was loaded by PluginClassLoader, XMLEncoder will
-		// throw an Exception when trying to save it as the class was not loaded
-		// by the same ClassLoader as XMLEncoder.  In Java 7 XMLEncoder can take
-		// a ClassLoader parameter, but until then, this is a workaround.
-		ClassLoader threadCL = Thread.currentThread().getContextClassLoader();
-		Thread.currentThread().setContextClassLoader(Tool.class.getClassLoader());
-
-		// Now save the new ones.
+		DefinitionFile definitions = new DefinitionFile(DEFINITION_TYPE,
+				DEFINITION_VERSION);
 		for (Tool tool : tools) {
-			File file = new File(dir, tool.getName() + TOOL_FILE_EXTENSION);
-			try (XMLEncoder e = new XMLEncoder(new BufferedOutputStream(
-				new FileOutputStream(file)))) {
-				e.writeObject(tool);
+			writeTool(definitions, tool);
+		}
+		definitions.save(new File(dir, TOOL_DEFINITION_FILE_NAME));
+
+		// Clear out tools saved by older versions, only once the new file
+		// has been saved
+		File[] oldFiles = dir.listFiles(new ToolFilenameFilter());
+		if (oldFiles!=null) {
+			for (File oldFile : oldFiles) {
+				oldFile.delete();
 			}
 		}
 
-		Thread.currentThread().setContextClassLoader(threadCL);
+	}
+
 
+	/**
+	 * Adds a tool's definition to a definition file.
+	 *
+	 * @param definitions The definition file.
+	 * @param tool The tool.
+	 */
+	private static void writeTool(DefinitionFile definitions, Tool tool) {
+		int record = definitions.add();
+		definitions.put(record, "name", tool.getName());
+		definitions.put(record, "description", tool.getDescription());
+		definitions.put(record, "program", tool.getProgram());
+		definitions.put(record, "directory", tool.getDirectory());
+		definitions.putList(record, "args", Arrays.asList(tool.getArgs()));
+		definitions.putMap(record, "env", tool.getEnvVars());
+		definitions.put(record, "appendEnv", tool.getAppendEnvironmentVars());
+		definitions.put(record, "accelerator", tool.getAccelerator());
+		definitions.put(record, "concurrencyPolicy",
+				tool.getConcurrencyPolicy().name());
+		definitions.put(record, "prerequisite", tool.getPrerequisite());
+		definitions.put(record, "errorPattern", tool.getErrorPattern());
 	}
 
 
 	/**
-	 * Filter that locates tool definition files.
+	 * Filter that locates tool files saved as XML by older versions of
+	 * RText.
 	 */
 	private static final class ToolFilenameFilter implements FileFilter {
 
@@ -0,0 +1,86 @@
+/*
+ * 10/19/2026
+ *
+ * ToolNoticeParser.java - Shows errors found in tool output in an editor.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.tools;
+
+import javax.swing.text.Element;
+
+import org.fife.rtext.RTextEditorPane;
+import org.fife.ui.rsyntaxtextarea.RSyntaxDocument;
+import org.fife.ui.rsyntaxtextarea.parser.AbstractParser;
+import org.fife.ui.rsyntaxtextarea.parser.DefaultParseResult;
+import org.fife.ui.rsyntaxtextarea.parser.DefaultParserNotice;
+import org.fife.ui.rsyntaxtextarea.parser.ParseResult;
+
+
+/**
+ * Shows the errors found in tool output for a single editor's file, so they
+ * are squiggle-underlined in the editor.  Nothing is actually parsed; the
+ * notices are copied from the {@link ToolNoticeWindow}, which forces a
+ * re-parse whenever the errors for the file change.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class ToolNoticeParser extends AbstractParser {
+
+	private final ToolNoticeWindow window;
+	private final RTextEditorPane textArea;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param window The window with the errors found.
+	 * @param textArea The text area to show errors in.
+	 */
+	ToolNoticeParser(ToolNoticeWindow window, RTextEditorPane textArea) {
+		this.window = window;
+		this.textArea = textArea;
+	}
+
+
+	@Override
+	public ParseResult parse(RSyntaxDocument doc, String style) {
+
+		DefaultParseResult result = new DefaultParseResult(this);
+		Element root = doc.getDefaultRootElement();
+		int lineCount = root.getElementCount();
+		result.setParsedLines(0, lineCount - 1);
+
+		for (ToolParserNotice notice : window.getNotices(textArea.getFileFullPath())) {
+
+			int line = notice.getLine();
+			if (line>=lineCount) {
+				continue; // File changed since the tool ran
+			}
+
+			// Underline from the column to the end of the line, or the
+			// whole line if the column isn't known
+			Element elem = root.getElement(line);
+			int offs = elem.getStartOffset();
+			int end = elem.getEndOffset() - 1;
+			int column = notice.getColumn();
+			if (column>-1) {
+				offs = Math.min(offs + column, end);
+			}
+
+			DefaultParserNotice copy = new DefaultParserNotice(this,
+					notice.getMessage(), line, offs, end - offs);
+			copy.setLevel(notice.getLevel());
+			result.addNotice(copy);
+
+		}
+
+		return result;
+
+	}
+
+
+}
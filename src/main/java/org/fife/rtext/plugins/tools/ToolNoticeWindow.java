@@ -0,0 +1,281 @@
+/*
+ * 10/19/2026
+ *
+ * ToolNoticeWindow.java - A dockable window that lists errors found in tool
+ * output.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.tools;
+
+import java.awt.BorderLayout;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.swing.JTable;
+
+import org.fife.rtext.AbstractMainView;
+import org.fife.rtext.AbstractParserNoticeWindow;
+import org.fife.rtext.RTextEditorPane;
+import org.fife.ui.RScrollPane;
+import org.fife.ui.UIUtil;
+import org.fife.ui.dockablewindows.DockableWindowScrollPane;
+import org.fife.ui.rsyntaxtextarea.parser.ParserNotice;
+
+
+/**
+ * A window that lists the errors found in the output of tools with an error
+ * pattern.  Double-clicking an error opens its file at the right line.  The
+ * errors are also underlined in the editors of the files they're about.<p>
+ *
+ * Errors are shown for the most recent run of each tool; when a tool is run
+ * again, its previous errors are removed.  Errors are added as they're found,
+ * while the tool is still running, by appending rows to the table, so long
+ * runs with many errors stay cheap to display.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class ToolNoticeWindow extends AbstractParserNoticeWindow
+				implements PropertyChangeListener {
+
+	private final ToolNoticeTableModel model;
+
+	/**
+	 * The errors found by the most recent run of each tool, keyed by tool
+	 * name.
+	 */
+	private final Map<String, List<ToolParserNotice>> toolNotices;
+
+	/**
+	 * All errors, in the order they're displayed.
+	 */
+	private final List<ToolParserNotice> allNotices;
+
+	/**
+	 * All errors, keyed by file.
+	 */
+	private final Map<String, List<ToolParserNotice>> fileNotices;
+
+	private final Map<RTextEditorPane, ToolNoticeParser> parsers;
+	private boolean installed;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param plugin The tool plugin.
+	 */
+	ToolNoticeWindow(ToolPlugin plugin) {
+
+		super(plugin.getApplication());
+		toolNotices = new LinkedHashMap<>();
+		allNotices = new ArrayList<>();
+		fileNotices = new HashMap<>();
+		parsers = new HashMap<>();
+
+		model = new ToolNoticeTableModel(plugin.getString("NoticeWindow.Message"));
+		JTable table = createTable(model);
+		UIUtil.removeTabbedPaneFocusTraversalKeyBindings(table);
+		RScrollPane sp = new DockableWindowScrollPane(table);
+		UIUtil.removeTabbedPaneFocusTraversalKeyBindings(sp);
+
+		setLayout(new BorderLayout());
+		add(sp);
+
+		// active and position are set by caller, from ToolsPrefs
+		setDockableWindowName(plugin.getString("NoticeWindow.Name"));
+		setIcon(plugin.getPluginIcon());
+
+		applyComponentOrientation(getRText().getComponentOrientation());
+
+	}
+
+
+	/**
+	 * Adds errors found in a running job's output.  The first time errors
+	 * are found for a job, this window is made visible.
+	 *
+	 * @param job The job.
+	 * @param notices The errors.
+	 */
+	void addNotices(ToolJob job, List<ToolParserNotice> notices) {
+
+		List<ToolParserNotice> list = toolNotices.computeIfAbsent(
+				job.getTool().getName(), k -> new ArrayList<>());
+		if (list.isEmpty() && !isActive()) {
+			setActive(true);
+		}
+		list.addAll(notices);
+		allNotices.addAll(notices);
+
+		Set<String> files = new HashSet<>();
+		for (ToolParserNotice notice : notices) {
+			String file = notice.getFileFullPath();
+			fileNotices.computeIfAbsent(file, k -> new ArrayList<>()).add(notice);
+			files.add(file);
+		}
+		model.addFileRows(createRows(notices));
+		reparse(files);
+
+	}
+
+
+	private void addParser(RTextEditorPane textArea) {
+		ToolNoticeParser parser = new ToolNoticeParser(this, textArea);
+		parsers.put(textArea, parser);
+		textArea.addParser(parser);
+	}
+
+
+	/**
+	 * Removes the errors found by the previous run of a tool.  This is
+	 * called when a job for the tool starts.
+	 *
+	 * @param tool The tool.
+	 */
+	void clearNotices(Tool tool) {
+
+		List<ToolParserNotice> notices = toolNotices.remove(tool.getName());
+		if (notices==null) {
+			return;
+		}
+
+		Set<ToolParserNotice> removed = Collections.newSetFromMap(
+				new IdentityHashMap<>());
+		removed.addAll(notices);
+		allNotices.removeIf(removed::contains);
+
+		Set<String> files = new HashSet<>();
+		for (ToolParserNotice notice : notices) {
+			String file = notice.getFileFullPath();
+			if (files.add(file)) {
+				List<ToolParserNotice> list = fileNotices.get(file);
+				list.removeIf(removed::contains);
+				if (list.isEmpty()) {
+					fileNotices.remove(file);
+				}
+			}
+		}
+
+		// Diffed, so only the removed rows are touched
+		model.replaceFileRows(createRows(allNotices));
+		reparse(files);
+
+	}
+
+
+	/**
+	 * Creates table rows for errors.
+	 *
+	 * @param notices The errors.
+	 * @return The rows.
+	 */
+	private List<Object[]> createRows(List<ToolParserNotice> notices) {
+		List<Object[]> rows = new ArrayList<>(notices.size());
+		for (ToolParserNotice notice : notices) {
+			rows.add(model.createRow(null, notice));
+		}
+		return rows;
+	}
+
+
+	/**
+	 * Returns the errors found for a file.
+	 *
+	 * @param fileFullPath The full path of the file.
+	 * @return The errors.  This may be empty.
+	 */
+	List<ToolParserNotice> getNotices(String fileFullPath) {
+		return fileNotices.getOrDefault(fileFullPath, Collections.emptyList());
+	}
+
+
+	/**
+	 * Starts underlining errors in open editors.  This should be called
+	 * once the main view has been created.
+	 */
+	void install() {
+		if (!installed) {
+			AbstractMainView mainView = getRText().getMainView();
+			mainView.addPropertyChangeListener(AbstractMainView.TEXT_AREA_ADDED_PROPERTY, this);
+			mainView.addPropertyChangeListener(AbstractMainView.TEXT_AREA_REMOVED_PROPERTY, this);
+			for (int i=0; i<mainView.getNumDocuments(); i++) {
+				addParser(mainView.getRTextEditorPaneAt(i));
+			}
+			installed = true;
+		}
+	}
+
+
+	/**
+	 * Notified when a text area is added or removed, so parsers can be
+	 * added and removed as appropriate.
+	 *
+	 * @param e The event.
+	 */
+	@Override
+	public void propertyChange(PropertyChangeEvent e) {
+
+		String prop = e.getPropertyName();
+
+		if (AbstractMainView.TEXT_AREA_ADDED_PROPERTY.equals(prop)) {
+			addParser((RTextEditorPane)e.getNewValue());
+		}
+
+		else if (AbstractMainView.TEXT_AREA_REMOVED_PROPERTY.equals(prop)) {
+			RTextEditorPane textArea = (RTextEditorPane)e.getNewValue();
+			ToolNoticeParser parser = parsers.remove(textArea);
+			if (parser!=null) {
+				textArea.removeParser(parser);
+			}
+		}
+
+	}
+
+
+	/**
+	 * Updates the underlined errors in the editors for files whose errors
+	 * have changed.
+	 *
+	 * @param files The full paths of the files whose errors have changed.
+	 */
+	private void reparse(Set<String> files) {
+		for (Map.Entry<RTextEditorPane, ToolNoticeParser> entry : parsers.entrySet()) {
+			RTextEditorPane textArea = entry.getKey();
+			if (files.contains(textArea.getFileFullPath())) {
+				textArea.forceReparsing(entry.getValue());
+			}
+		}
+	}
+
+
+	private class ToolNoticeTableModel extends ParserNoticeTableModel {
+
+		ToolNoticeTableModel(String lastColHeader) {
+			super(lastColHeader);
+		}
+
+		@Override
+		protected Object[] createRow(RTextEditorPane textArea,
+				ParserNotice notice) {
+			ToolParserNotice toolNotice = (ToolParserNotice)notice;
+			return new Object[] {	getIcon(), toolNotice.getFileFullPath(),
+				notice.getLine() + 1,
+					notice.getMessage() };
+		}
+
+	}
+
+
+}
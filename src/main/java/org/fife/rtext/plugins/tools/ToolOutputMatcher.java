@@ -0,0 +1,176 @@
+/*
+ * 10/19/2026
+ *
+ * ToolOutputMatcher.java - Finds errors and warnings in a tool's output.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.tools;
+
+import java.io.File;
+import java.nio.file.InvalidPathException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.fife.ui.rsyntaxtextarea.parser.ParserNotice;
+
+
+/**
+ * Finds errors and warnings, such as compiler errors, in a tool's output.<p>
+ *
+ * Each line of output is matched against a regular expression with the
+ * following named groups:
+ * <ul>
+ *    <li>{@code file} - The file the message is about.  Relative paths are
+ *        resolved against the tool's working directory.  Required.</li>
+ *    <li>{@code line} - The 1-based line number.  Required.</li>
+ *    <li>{@code column} - The 1-based column number.  Optional.</li>
+ *    <li>{@code level} - The severity, e.g. "{@code warning}".  Optional;
+ *        messages are errors unless this starts with "{@code warn}",
+ *        "{@code info}" or "{@code note}".</li>
+ *    <li>{@code message} - The message.  Optional; if missing, the whole
+ *        line is the message.</li>
+ * </ul>
+ * The pattern is compiled once, when the matcher is created.  Lines are
+ * matched one at a time as they're read, so output is never re-scanned.
+ * This class is thread-safe.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+final class ToolOutputMatcher {
+
+	private final Pattern pattern;
+	private final File dir;
+	private final boolean hasColumn;
+	private final boolean hasLevel;
+	private final boolean hasMessage;
+
+	/**
+	 * Matches "{@code file:line:column: level: message}", as printed by
+	 * gcc, clang, javac, go, etc.
+	 */
+	static final String COLON_SEPARATED_PATTERN =
+			"^(?<file>(?:[A-Za-z]:)?[^:\\s(][^:(]*):(?<line>\\d+):(?:(?<column>\\d+):)?" +
+			"\\s*(?:(?<level>error|warning|note|info)\\s*:\\s*)?(?<message>.*)$";
+
+	/**
+	 * Matches "{@code file(line,column): level code: message}", as printed
+	 * by MSVC, tsc, etc.
+	 */
+	static final String PARENTHESIZED_PATTERN =
+			"^(?<file>[^(\\s][^(]*)\\((?<line>\\d+)(?:,(?<column>\\d+))?\\)\\s*:" +
+			"\\s*(?:(?<level>error|warning|note|info)\\b[^:]*:\\s*)?(?<message>.*)$";
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param regex The regular expression to match lines against.
+	 * @param dir The directory relative file names are resolved against.
+	 * @throws PatternSyntaxException If the regular expression is invalid.
+	 * @throws IllegalArgumentException If the regular expression doesn't
+	 *         have the required groups.
+	 * @see #validate(String)
+	 */
+	ToolOutputMatcher(String regex, File dir) {
+		pattern = Pattern.compile(regex);
+		Map<String, Integer> groups = pattern.namedGroups();
+		if (!groups.containsKey("file") || !groups.containsKey("line")) {
+			throw new IllegalArgumentException(
+					"Pattern must have \"file\" and \"line\" groups: " + regex);
+		}
+		this.dir = dir;
+		hasColumn = groups.containsKey("column");
+		hasLevel = groups.containsKey("level");
+		hasMessage = groups.containsKey("message");
+	}
+
+
+	private static ParserNotice.Level getLevel(String level) {
+		if (level!=null) {
+			level = level.toLowerCase(Locale.ROOT);
+			if (level.startsWith("warn")) {
+				return ParserNotice.Level.WARNING;
+			}
+			if (level.startsWith("info") || level.startsWith("note")) {
+				return ParserNotice.Level.INFO;
+			}
+		}
+		return ParserNotice.Level.ERROR;
+	}
+
+
+	/**
+	 * Checks a line of output for an error or warning.
+	 *
+	 * @param line The line, without a trailing newline.
+	 * @return The notice, or <code>null</code> if the line doesn't match.
+	 */
+	ToolParserNotice match(String line) {
+
+		Matcher m = pattern.matcher(line);
+		if (!m.find()) {
+			return null;
+		}
+
+		int lineNum;
+		int column = -1;
+		try {
+			lineNum = Integer.parseInt(m.group("line")) - 1;
+			String col = hasColumn ? m.group("column") : null;
+			if (col!=null) {
+				column = Math.max(0, Integer.parseInt(col) - 1);
+			}
+		} catch (NumberFormatException nfe) { // Line number too large
+			return null;
+		}
+		if (lineNum<0) {
+			return null;
+		}
+
+		File file = new File(m.group("file").trim());
+		if (!file.isAbsolute()) {
+			file = new File(dir, file.getPath());
+		}
+		String path;
+		try {
+			path = file.toPath().normalize().toString();
+		} catch (InvalidPathException ipe) { // e.g. "<stdin>" on Windows
+			return null;
+		}
+
+		String message = hasMessage ? m.group("message") : null;
+		if (message==null || message.isBlank()) {
+			message = line.trim();
+		}
+
+		ToolParserNotice notice = new ToolParserNotice(path, message, lineNum, column);
+		notice.setLevel(getLevel(hasLevel ? m.group("level") : null));
+		return notice;
+
+	}
+
+
+	/**
+	 * Checks whether a regular expression can be used to find errors.
+	 *
+	 * @param regex The regular expression.
+	 * @return Whether it is valid and has the required groups.
+	 */
+	static boolean validate(String regex) {
+		try {
+			new ToolOutputMatcher(regex, new File("."));
+			return true;
+		} catch (IllegalArgumentException e) { // Includes PatternSyntaxException
+			return false;
+		}
+	}
+
+
+}
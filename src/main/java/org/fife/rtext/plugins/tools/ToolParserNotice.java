@@ -0,0 +1,67 @@
+/*
+ * 10/19/2026
+ *
+ * ToolParserNotice.java - An error or warning found in a tool's output.
+ * Copyright (C) 2026 Robert Futrell
+ * https://bobbylight.github.io/RText/
+ * Licensed under a modified BSD license.
+ * See the included license file for details.
+ */
+package org.fife.rtext.plugins.tools;
+
+import org.fife.ui.rsyntaxtextarea.parser.DefaultParserNotice;
+
+
+/**
+ * An error or warning found in a tool's output, e.g. by a compiler.  These
+ * notices aren't created by a parser; they're found by a
+ * {@link ToolOutputMatcher} and shown in the {@link ToolNoticeWindow}, and
+ * copied by a {@link ToolNoticeParser} into the editors of the files they're
+ * about.
+ *
+ * @author Robert Futrell
+ * @version 1.0
+ */
+class ToolParserNotice extends DefaultParserNotice {
+
+	private final String fileFullPath;
+	private final int column;
+
+
+	/**
+	 * Constructor.
+	 *
+	 * @param fileFullPath The file the notice is about.
+	 * @param msg The text of the message.
+	 * @param line The line the notice is about, 0-based.
+	 * @param column The column the notice is about, 0-based, or
+	 *        <code>-1</code> if it isn't known.
+	 */
+	ToolParserNotice(String fileFullPath, String msg, int line, int column) {
+		super(null, msg, line);
+		this.fileFullPath = fileFullPath;
+		this.column = column;
+	}
+
+
+	/**
+	 * Returns the column this notice is about.
+	 *
+	 * @return The column, 0-based, or <code>-1</code> if it isn't known.
+	 */
+	int getColumn() {
+		return column;
+	}
+
+
+	/**
+	 * Returns the file this notice is about.
+	 *
+	 * @return The full path of the file.
+	 */
+	String getFileFullPath() {
+		return fileFullPath;
+	}
+
+
+}
@@ -19,12 +19,16 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 import javax.swing.Action;
 import javax.swing.Icon;
 import javax.swing.ImageIcon;
 import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JMenu;
 import javax.swing.JMenuItem;
+import javax.swing.Timer;
+import javax.swing.event.MenuEvent;
+import javax.swing.event.MenuListener;
 
 import org.fife.rtext.RText;
 import org.fife.rtext.RTextMenuBar;
@@ -53,6 +57,8 @@ public class ToolPlugin extends GUIPlugin<RText> implements PropertyChangeListen
 	private JMenu toolsMenu;
 	private NewToolAction newToolAction;
 	private ToolDockableWindow window;
+	private ToolNoticeWindow noticeWindow;
+	private CompletableFuture<Void> toolsLoad;
 
 	private static final String MSG_BUNDLE = "org.fife.rtext.plugins.tools.ToolPlugin";
 	static final ResourceBundle MSG = ResourceBundle.getBundle(MSG_BUNDLE);
@@ -61,6 +67,13 @@ public class ToolPlugin extends GUIPlugin<RText> implements PropertyChangeListen
 	private static final String NEW_TOOL_ACTION			= "newToolAction";
 	private static final String VIEW_TOOL_OUTPUT_ACTION	= "viewToolOutputAction";
 	private static final String DOCKABLE_WINDOW_TOOLS	= "toolsDockableWindow";
+	private static final String DOCKABLE_WINDOW_NOTICES	= "toolNoticesDockableWindow";
+
+	/**
+	 * How long after startup to load the tools, if the user hasn't opened
+	 * the Tools menu yet.
+	 */
+	private static final int LOAD_TOOLS_DELAY_MILLIS	= 3000;
 
 	/**
 	 * Constructor.
@@ -93,6 +106,11 @@ public class ToolPlugin extends GUIPlugin<RText> implements PropertyChangeListen
 		window.setActive(prefs.windowVisible);
 		putDockableWindow(DOCKABLE_WINDOW_TOOLS, window);
 
+		noticeWindow = new ToolNoticeWindow(this);
+		noticeWindow.setPosition(prefs.noticeWindowPosition);
+		noticeWindow.setActive(prefs.noticeWindowVisible);
+		putDockableWindow(DOCKABLE_WINDOW_NOTICES, noticeWindow);
+
 		rtext.addPropertyChangeListener(AbstractGUIApplication.THEME_PROPERTY, this);
 		updateActionIcons(rtext.getIconGroup());
 	}
@@ -112,24 +130,22 @@ public class ToolPlugin extends GUIPlugin<RText> implements PropertyChangeListen
 
 
 	/**
-	 * Returns the currently running tool, if any.  This method should only be
-	 * called on the EDT.
+	 * Returns the dockable window for the tool plugin.
 	 *
-	 * @return The currently running tool, or <code>null</code> if a tool
-	 *         isn't running.
+	 * @return The dockable window.
 	 */
-	public Tool getActiveTool() {
-		return getDockableWindow().getActiveTool();
+	public ToolDockableWindow getDockableWindow() {
+		return window;
 	}
 
 
 	/**
-	 * Returns the dockable window for the tool plugin.
+	 * Returns the window listing errors found in tool output.
 	 *
-	 * @return The dockable window.
+	 * @return The window.
 	 */
-	public ToolDockableWindow getDockableWindow() {
-		return window;
+	ToolNoticeWindow getNoticeWindow() {
+		return noticeWindow;
 	}
 
 
@@ -206,6 +222,7 @@ public class ToolPlugin extends GUIPlugin<RText> implements PropertyChangeListen
 	public void iconGroupChanged(IconGroup iconGroup) {
 		updateActionIcons(iconGroup);
 		window.setIcon(getPluginIcon());
+		noticeWindow.setIcon(getPluginIcon());
 		if (optionPanel != null) {
 			optionPanel.setIcon(getPluginIcon());
 		}
@@ -240,7 +257,26 @@ public class ToolPlugin extends GUIPlugin<RText> implements PropertyChangeListen
 		item.applyComponentOrientation(getApplication().getComponentOrientation());
 		menu.add(item);
 
-		loadTools(); // Do after menu has been added
+		// Tools are loaded the first time they're needed, but if the user
+		// doesn't open the menu, load them shortly after startup so their
+		// shortcuts work
+		ToolManager.get().setToolDirectory(getToolDir());
+		toolsMenu.addMenuListener(new MenuListener() {
+			@Override
+			public void menuSelected(MenuEvent e) {
+				ensureToolsLoaded();
+			}
+			@Override
+			public void menuDeselected(MenuEvent e) {
+			}
+			@Override
+			public void menuCanceled(MenuEvent e) {
+			}
+		});
+		Timer timer = new Timer(LOAD_TOOLS_DELAY_MILLIS, e -> ensureToolsLoaded());
+		timer.setRepeats(false);
+		timer.start();
+		noticeWindow.install();
 
 	}
 
@@ -257,6 +293,16 @@ public class ToolPlugin extends GUIPlugin<RText> implements PropertyChangeListen
 	}
 
 
+	/**
+	 * Loads the previously saved tools, if they haven't been loaded yet.
+	 */
+	private void ensureToolsLoaded() {
+		if (!ToolManager.get().isLoaded() && toolsLoad==null) {
+			loadTools();
+		}
+	}
+
+
 	private void loadIcons() {
 
 		icons = new HashMap<>();
@@ -306,7 +352,8 @@ public class ToolPlugin extends GUIPlugin<RText> implements PropertyChangeListen
 
 
 	/**
-	 * Loads the previously saved tools.
+	 * Loads the previously saved tools on a background thread.  The Tools
+	 * menu is refreshed when they've been loaded.
 	 *
 	 * @see #saveTools()
 	 */
@@ -318,17 +365,19 @@ public class ToolPlugin extends GUIPlugin<RText> implements PropertyChangeListen
 			toolDir.mkdirs();
 		}
 
-		try {
-			ToolManager.get().loadTools(toolDir);
-		} catch (IOException ioe) {
-			String text = ioe.getMessage();
-			if (text==null) {
-				text = ioe.toString();
+		toolsLoad = ToolManager.get().loadToolsInBackground(toolDir);
+		toolsLoad.whenComplete((result, error) -> { // Called on the EDT
+			toolsLoad = null;
+			if (error!=null) {
+				String text = error.getMessage();
+				if (text==null) {
+					text = error.toString();
+				}
+				String desc = MSG.getString("Error.LoadingTools");
+				desc = MessageFormat.format(desc, text);
+				getApplication().displayException(error, desc);
 			}
-			String desc = MSG.getString("Error.LoadingTools");
-			desc = MessageFormat.format(desc, text);
-			getApplication().displayException(ioe, desc);
-		}
+		});
 	}
 
 
@@ -373,6 +422,11 @@ public class ToolPlugin extends GUIPlugin<RText> implements PropertyChangeListen
 			toolsMenu.add(item);
 		}
 
+		// Tools are loaded in the background, possibly with the menu open
+		if (toolsMenu.isPopupMenuVisible()) {
+			toolsMenu.getPopupMenu().pack();
+		}
+
 	}
 
 
@@ -404,6 +458,8 @@ public class ToolPlugin extends GUIPlugin<RText> implements PropertyChangeListen
 		AppAction<?> a = (AppAction<?>)app.getAction(VIEW_TOOL_OUTPUT_ACTION);
 		prefs.windowVisibilityAccelerator = a.getAccelerator();
 		prefs.windowVisible = window.isActive();
+		prefs.noticeWindowPosition = noticeWindow.getPosition();
+		prefs.noticeWindowVisible = noticeWindow.isActive();
 
 		a = (AppAction<?>)app.getAction(NEW_TOOL_ACTION);
 		prefs.newToolAccelerator = a.getAccelerator();
@@ -41,6 +41,16 @@ public class ToolsPrefs extends Prefs {
 	 */
 	public KeyStroke windowVisibilityAccelerator;
 
+	/**
+	 * Whether the window listing errors found in tool output is visible.
+	 */
+	public boolean noticeWindowVisible;
+
+	/**
+	 * The location of the window listing errors found in tool output.
+	 */
+	public int noticeWindowPosition;
+
 	/**
 	 * Accelerator for the "New Tool..." action.
 	 */
@@ -62,6 +72,9 @@ public class ToolsPrefs extends Prefs {
 		if (!DockableWindow.isValidPosition(windowPosition)) {
 			windowPosition = DockableWindowConstants.BOTTOM;
 		}
+		if (!DockableWindow.isValidPosition(noticeWindowPosition)) {
+			noticeWindowPosition = DockableWindowConstants.BOTTOM;
+		}
 	}
 
 
@@ -70,6 +83,8 @@ public class ToolsPrefs extends Prefs {
 		windowVisible = false;
 		windowPosition = DockableWindowConstants.BOTTOM;
 		windowVisibilityAccelerator = null;
+		noticeWindowVisible = false;
+		noticeWindowPosition = DockableWindowConstants.BOTTOM;
 		newToolAccelerator = null;
 		editToolsAccelerator = null;
 	}
@@ -14,7 +14,11 @@ import java.awt.*;
 import java.awt.event.*;
 import java.io.File;
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.Set;
 import java.util.regex.Pattern;
 import javax.swing.*;
 import javax.swing.border.Border;
@@ -52,6 +56,7 @@ public class FindInFilesDialog extends AbstractSearchDialog {
 	protected JComboBox<String> skipFoldersComboBox;
 
 	protected JCheckBox subfoldersCheckBox;
+	protected JCheckBox skipIgnoredCheckBox;
 
 	protected JButton findButton;
 	private JButton browseButton;
@@ -310,6 +315,11 @@ public class FindInFilesDialog extends AbstractSearchDialog {
 			((FindInFilesSearchContext)context).setSearchSubfolders(search);
 		}
 
+		else if ("SkipIgnored".equals(command)) {
+			boolean skip = skipIgnoredCheckBox.isSelected();
+			((FindInFilesSearchContext)context).setSkipIgnoredFiles(skip);
+		}
+
 		else if ("Verbose".equals(command)) {
 			boolean verbose = verboseCheckBox.isSelected();
 			((FindInFilesSearchContext)context).setVerbose(verbose);
@@ -401,8 +411,13 @@ public class FindInFilesDialog extends AbstractSearchDialog {
 		subfoldersCheckBox.setMnemonic((int)getString2("SearchSubfoldersMnemonic").charAt(0));
 		subfoldersCheckBox.setActionCommand("Subfolders");
 		subfoldersCheckBox.addActionListener(this);
+		skipIgnoredCheckBox = new JCheckBox(getString2("SkipIgnoredFiles"), true);
+		skipIgnoredCheckBox.setMnemonic((int)getString2("SkipIgnoredFilesMnemonic").charAt(0));
+		skipIgnoredCheckBox.setActionCommand("SkipIgnored");
+		skipIgnoredCheckBox.addActionListener(this);
 		panel.add(detailPanel);
 		panel.add(subfoldersCheckBox);
+		panel.add(skipIgnoredCheckBox);
 
 		return panel;
 
@@ -694,6 +709,29 @@ public class FindInFilesDialog extends AbstractSearchDialog {
 	}
 
 
+	/**
+	 * Returns the files containing matches found by the last search or
+	 * replace, in the order they're displayed.  Rows for errors and verbose
+	 * output are ignored.
+	 *
+	 * @return The files.  This may be empty.
+	 */
+	public List<File> getMatchedFiles() {
+		Set<File> files = new LinkedHashSet<>();
+		ResultsComponent results = getResultsComponent();
+		for (int i=0; i<results.getRowCount(); i++) {
+			MatchData data = results.getMatchDataForRow(i);
+			if (data.isMatchData()) {
+				File file = new File(data.getFileName());
+				if (file.isFile()) {
+					files.add(file);
+				}
+			}
+		}
+		return new ArrayList<>(files);
+	}
+
+
 	/**
 	 * Returns whether matches should be whole word.
 	 *
@@ -738,6 +776,17 @@ public class FindInFilesDialog extends AbstractSearchDialog {
 	}
 
 
+	/**
+	 * Returns whether files ignored by <code>.gitignore</code> and
+	 * <code>.ignore</code> files should be skipped.
+	 *
+	 * @return Whether to skip ignored files.
+	 */
+	boolean getSkipIgnoredFiles() {
+		return skipIgnoredCheckBox.isSelected();
+	}
+
+
 	/**
 	 * Returns whether regular expressions should be used in searches.
 	 *
@@ -826,6 +875,7 @@ public class FindInFilesDialog extends AbstractSearchDialog {
 		}
 		FindInFilesSearchContext fifsc = (FindInFilesSearchContext)context;
 		subfoldersCheckBox.setSelected(fifsc.getSearchSubfolders());
+		skipIgnoredCheckBox.setSelected(fifsc.getSkipIgnoredFiles());
 		verboseCheckBox.setSelected(fifsc.getVerbose());
 	}
 
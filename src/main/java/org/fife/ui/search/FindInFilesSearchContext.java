@@ -22,11 +22,13 @@ import org.fife.ui.rtextarea.SearchContext;
 public class FindInFilesSearchContext extends SearchContext {
 
 	private boolean searchSubfolders;
+	private boolean skipIgnoredFiles;
 	private boolean verbose;
 
 
 	public FindInFilesSearchContext() {
 		searchSubfolders = true;
+		skipIgnoredFiles = true;
 		setSearchWrap(true);
 	}
 
@@ -42,6 +44,18 @@ public class FindInFilesSearchContext extends SearchContext {
 	}
 
 
+	/**
+	 * Returns whether files ignored by <code>.gitignore</code> and
+	 * <code>.ignore</code> files should be skipped.
+	 *
+	 * @return Whether to skip ignored files.
+	 * @see #setSkipIgnoredFiles(boolean)
+	 */
+	public boolean getSkipIgnoredFiles() {
+		return skipIgnoredFiles;
+	}
+
+
 	/**
 	 * Returns whether verbose output should be enabled.
 	 *
@@ -64,6 +78,18 @@ public class FindInFilesSearchContext extends SearchContext {
 	}
 
 
+	/**
+	 * Sets whether files ignored by <code>.gitignore</code> and
+	 * <code>.ignore</code> files should be skipped.
+	 *
+	 * @param skip Whether to skip ignored files.
+	 * @see #getSkipIgnoredFiles()
+	 */
+	public void setSkipIgnoredFiles(boolean skip) {
+		skipIgnoredFiles = skip;
+	}
+
+
 	/**
 	 * Sets whether verbose output should be enabled.
 	 *
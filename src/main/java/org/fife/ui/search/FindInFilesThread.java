@@ -26,6 +26,7 @@ import javax.swing.text.Element;
 
 import org.fife.io.UnicodeReader;
 import org.fife.rtext.AbstractMainView;
+import org.fife.rtext.IgnoreRules;
 import org.fife.rtext.RText;
 import org.fife.ui.GUIWorkerThread;
 import org.fife.ui.OS;
@@ -50,12 +51,14 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 	protected FindInFilesDialog dialog;
 	protected File directory;
 	private Set<String> folderNamesToSkip;
+	private boolean skipIgnoredFiles;
 
 	private String verboseLabelString;
 	private String errorLabelString;
 	protected String verboseNoFiltMatchString;
 	protected String dontSearchSubfoldersString;
 	protected String skipThisFolderString;
+	protected String ignoredFileString;
 	protected String newFilesToExamineString;
 	protected String occurrencesString;
 
@@ -81,6 +84,7 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 				folderNamesToSkip.add(folderName);
 			}
 		}
+		skipIgnoredFiles = dialog.getSkipIgnoredFiles();
 
 		verboseLabelString = "<html><em>" + dialog.getString2("VerboseLabel") +
 							"</em>";
@@ -89,6 +93,7 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 		verboseNoFiltMatchString = dialog.getString2("VerboseNoFiltMatch");
 		dontSearchSubfoldersString = dialog.getString2("SearchSubFoldUnchecked");
 		skipThisFolderString = dialog.getString2("SkipThisFolder");
+		ignoredFileString = dialog.getString2("IgnoredFile");
 		newFilesToExamineString = dialog.getString2("NewFilesToExamine");
 		occurrencesString = dialog.getString2("Occurrences");
 
@@ -126,8 +131,7 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 
 		// Then, do the search.
 		dialog.clearSearchResults();
-		File[] files = directory.listFiles();
-		List<File> fileList = new ArrayList<>(Arrays.asList(files));
+		List<File> fileList = new ArrayList<>(getFilesFromDirectory(directory));
 
 		boolean checkSubfolders = dialog.getCheckSubfolders();
 		boolean matchingLines = dialog.getShowMatchingLines();
@@ -432,18 +436,40 @@ class FindInFilesThread extends GUIWorkerThread<Object> {
 
 	/**
 	 * Returns the files contained in the specified directory as a list.
+	 * If the user wants to skip files ignored by <code>.gitignore</code>
+	 * and <code>.ignore</code> files, they are left out, so ignored folders
+	 * are never listed at all.
 	 *
 	 * @param dir The directory.
 	 * @return The files in the directory, as a list.
 	 */
-	protected static List<File> getFilesFromDirectory(File dir) {
+	protected List<File> getFilesFromDirectory(File dir) {
+
 		// Get the list of files in this directory.
 		File[] moreFiles = dir.listFiles();
 		if (moreFiles==null) {
 			// Should never happen (as dirs return empty arrays).
 			return Collections.emptyList();
 		}
-		return Arrays.asList(moreFiles);
+		if (!skipIgnoredFiles) {
+			return Arrays.asList(moreFiles);
+		}
+
+		IgnoreRules rules = IgnoreRules.forFolder(dir);
+		boolean doVerboseOutput = dialog.getDoVerboseOutput();
+		List<File> files = new ArrayList<>(moreFiles.length);
+		for (File file : moreFiles) {
+			if (!rules.isIgnored(file, file.isDirectory())) {
+				files.add(file);
+			}
+			else if (doVerboseOutput) {
+				MatchData data = createVerboseMatchData(
+						file.getAbsolutePath(), ignoredFileString);
+				dialog.addMatchData(data);
+			}
+		}
+		return files;
+
 	}
 
 
@@ -53,6 +53,11 @@ public class ReplaceInFilesDialog extends FindInFilesDialog {
 		subfoldersCheckBox = new JCheckBox(getString2("SearchSubfolders"));
 		subfoldersCheckBox.setMnemonic((int)getString2("SearchSubfoldersMnemonic").charAt(0));
 		panel.add(subfoldersCheckBox);
+		skipIgnoredCheckBox = new JCheckBox(getString2("SkipIgnoredFiles"), true);
+		skipIgnoredCheckBox.setMnemonic((int)getString2("SkipIgnoredFilesMnemonic").charAt(0));
+		skipIgnoredCheckBox.setActionCommand("SkipIgnored");
+		skipIgnoredCheckBox.addActionListener(this);
+		panel.add(skipIgnoredCheckBox);
 		verboseCheckBox = new JCheckBox(getString2("Verbose"));
 		verboseCheckBox.setMnemonic((int)getString2("VerboseMnemonic").charAt(0));
 		panel.add(verboseCheckBox);
@@ -55,8 +55,7 @@ class ReplaceInFilesThread extends FindInFilesThread {
 
 		// Then, do the search.
 		dialog.clearSearchResults();
-		File[] files = directory.listFiles();
-		List<File> fileList = new ArrayList<>(Arrays.asList(files));
+		List<File> fileList = new ArrayList<>(getFilesFromDirectory(directory));
 
 		boolean checkSubfolders = dialog.getCheckSubfolders();
 		boolean matchCase = dialog.getMatchCase();